@@ -35,6 +35,7 @@ public class GenerateCommand {
 	private List<String> overrideScopes = new ArrayList<>();
 	private long randomSeed = 1;
 	private int count = 1;
+	private int workers = 1;
 
 	@Parameter(description = "input path", required = true)
 	public void setInputPath(String inputPath) {
@@ -69,6 +70,14 @@ public class GenerateCommand {
 		this.count = count;
 	}
 
+	@Parameter(names = {"-workers", "-w"}, description = "Number of parallel exploration workers")
+	public void setWorkers(int workers) {
+		if (workers <= 0) {
+			throw new IllegalArgumentException("Number of workers must be positive");
+		}
+		this.workers = workers;
+	}
+
 	public void run() throws IOException {
 		if (count > 1 && isStandardStream(outputPath)) {
 			throw new IllegalArgumentException("Must provide output path if count is larger than 1");
@@ -77,6 +86,7 @@ public class GenerateCommand {
 		var problem = isStandardStream(inputPath) ? loader.loadStream(System.in) : loader.loadFile(inputPath);
 		problem = loader.loadScopeConstraints(problem, scopes, overrideScopes);
 		generatorFactory.partialInterpretationBasedNeighborhoods(count >= 2);
+		generatorFactory.numberOfWorkers(workers);
 		var generator = generatorFactory.createGenerator(problem);
 		generator.setRandomSeed(randomSeed);
 		generator.setMaxNumberOfSolutions(count);
@@ -32,6 +32,7 @@ public class ModelGenerator extends ModelFacade {
 	private final PartialInterpretation<TruthValue, Boolean> existsInterpretation;
 	private long randomSeed = 1;
 	private int maxNumberOfSolutions = 1;
+	private int numberOfWorkers = 1;
 	private SolutionStore solutionStore;
 
 	ModelGenerator(ProblemTrace problemTrace, ModelStore store, ModelSeed modelSeed,
@@ -63,6 +64,18 @@ public class ModelGenerator extends ModelFacade {
 		this.solutionStore = null;
 	}
 
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+
+	public void setNumberOfWorkers(int numberOfWorkers) {
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Number of workers must be positive");
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		this.solutionStore = null;
+	}
+
 	public int getSolutionCount() {
 		if (!isLastGenerationSuccessful()) {
 			return 0;
@@ -89,8 +102,8 @@ public class ModelGenerator extends ModelFacade {
 		}
 		solutionStore = null;
 		randomSeed++;
-		var bestFirst = new BestFirstStoreManager(getModelStore(), maxNumberOfSolutions);
-		bestFirst.startExploration(initialVersion, randomSeed);
+		var bestFirst = new BestFirstStoreManager(getModelStore(), maxNumberOfSolutions, numberOfWorkers > 1);
+		bestFirst.startExploration(initialVersion, randomSeed, numberOfWorkers);
 		var solutions = bestFirst.getSolutionStore().getSolutions();
 		if (solutions.isEmpty()) {
 			return GeneratorResult.UNSATISFIABLE;
@@ -35,6 +35,8 @@ public final class ModelGeneratorFactory extends ModelFacadeFactory<ModelGenerat
 
 	private int stateCoderDepth = NeighborhoodCalculator.DEFAULT_DEPTH;
 
+	private int numberOfWorkers = 1;
+
 	public ModelGeneratorFactory() {
 		keepShadowPredicates(false);
 	}
@@ -60,6 +62,14 @@ public final class ModelGeneratorFactory extends ModelFacadeFactory<ModelGenerat
 		return this;
 	}
 
+	public ModelGeneratorFactory numberOfWorkers(int numberOfWorkers) {
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Number of workers must be positive");
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		return this;
+	}
+
 	public ModelGenerator createGenerator(Problem problem) {
 		var initializer = createModelInitializer();
 		initializer.readProblem(problem);
@@ -79,6 +89,7 @@ public final class ModelGeneratorFactory extends ModelFacadeFactory<ModelGenerat
 		var generator = new ModelGenerator(initializer.getProblemTrace(), store, initializer.getModelSeed(),
 				solutionSerializerProvider, cancellationToken, isKeepNonExistingObjects());
 		generator.getPropagationResult().throwIfRejected();
+		generator.setNumberOfWorkers(numberOfWorkers);
 		return generator;
 	}
 
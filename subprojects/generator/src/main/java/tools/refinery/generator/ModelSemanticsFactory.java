@@ -6,11 +6,13 @@
 package tools.refinery.generator;
 
 import tools.refinery.language.model.problem.Problem;
+import tools.refinery.language.semantics.ModelInitializer;
 import tools.refinery.store.dse.propagation.PropagationAdapter;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
 import tools.refinery.store.reasoning.ReasoningAdapter;
 import tools.refinery.store.reasoning.literal.Concreteness;
+import tools.refinery.store.util.CancellationToken;
 
 import java.util.Collection;
 import java.util.Set;
@@ -20,6 +22,8 @@ import java.util.Set;
 public final class ModelSemanticsFactory extends ModelFacadeFactory<ModelSemanticsFactory> {
 	private boolean withCandidateInterpretations;
 
+	private ModelStoreCache storeCache;
+
 	@Override
 	protected ModelSemanticsFactory getSelf() {
 		return this;
@@ -30,6 +34,20 @@ public final class ModelSemanticsFactory extends ModelFacadeFactory<ModelSemanti
 		return this;
 	}
 
+	/**
+	 * Sets a cache to look up the model store in before building a new one.
+	 * <p>
+	 * The model store of problems with the same {@link tools.refinery.language.semantics.StoreSignature} will be
+	 * reused, and only the initial model will be created from the model seed of the problem.
+	 *
+	 * @param storeCache The cache, or {@code null} to always build a new model store.
+	 * @return This factory.
+	 */
+	public ModelSemanticsFactory storeCache(ModelStoreCache storeCache) {
+		this.storeCache = storeCache;
+		return this;
+	}
+
 	public ModelSemantics createSemantics(Problem problem) {
 		var semantics = tryCreateSemantics(problem);
 		semantics.getPropagationResult().throwIfRejected();
@@ -40,15 +58,31 @@ public final class ModelSemanticsFactory extends ModelFacadeFactory<ModelSemanti
 		var initializer = createModelInitializer();
 		initializer.readProblem(problem);
 		checkCancelled();
+		if (storeCache == null) {
+			return buildSemantics(initializer, getCancellationToken());
+		}
+		try (var ignored = storeCache.enterCancellationScope(getCancellationToken())) {
+			return buildSemantics(initializer, storeCache::checkCancelled);
+		}
+	}
+
+	private ModelSemantics buildSemantics(ModelInitializer initializer, CancellationToken storeCancellationToken) {
+		var requiredInterpretations = getRequiredInterpretations();
 		var storeBuilder = ModelStore.builder()
-				.cancellationToken(getCancellationToken())
+				.cancellationToken(storeCancellationToken)
 				.with(QueryInterpreterAdapter.builder())
 				.with(PropagationAdapter.builder()
 						.throwOnFatalRejection(false))
 				.with(ReasoningAdapter.builder()
-						.requiredInterpretations(getRequiredInterpretations()));
+						.requiredInterpretations(requiredInterpretations));
 		initializer.configureStoreBuilder(storeBuilder);
-		var store = storeBuilder.build();
+		var signature = initializer.getStoreSignature();
+		ModelStore store;
+		if (storeCache == null || signature == null) {
+			store = storeBuilder.build();
+		} else {
+			store = storeCache.getOrBuild(signature, requiredInterpretations, storeBuilder::build);
+		}
 		return new ModelSemantics(initializer.getProblemTrace(), store, initializer.getModelSeed());
 	}
 
@@ -0,0 +1,102 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.generator;
+
+import tools.refinery.language.semantics.StoreSignature;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.util.CancellationToken;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the model stores built for the most recently used store signatures, so that problems that only differ in
+ * their model seeds (e.g., successive edits of the same document) can share a model store.
+ * <p>
+ * The cancellation token of a model store can't be changed after it was built, but a cached model store may be used
+ * by several requests at the same time. Therefore, the model stores in the cache are built with a cancellation token
+ * that delegates to the one set for the current thread by {@link #enterCancellationScope(CancellationToken)}.
+ * Threads without a cancellation scope are never cancelled.
+ */
+public class ModelStoreCache {
+	private final int maxSize;
+	private final Map<Key, ModelStore> stores;
+	private final ThreadLocal<CancellationToken> cancellationToken = new ThreadLocal<>();
+
+	public ModelStoreCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive, got %d instead".formatted(maxSize));
+		}
+		this.maxSize = maxSize;
+		// Iterate in access order to find the least recently used model store.
+		stores = new LinkedHashMap<>(maxSize + 1, 0.75f, true);
+	}
+
+	/**
+	 * Sets the cancellation token checked by the cached model stores on the current thread.
+	 * <p>
+	 * The token should be set for as long as the current thread works with models of the cached model stores. The
+	 * returned scope must be closed on the same thread to restore the previous token, so that the model stores do not
+	 * keep the token alive.
+	 *
+	 * @param cancellationToken The cancellation token of the current request.
+	 * @return The scope that restores the previous token when closed.
+	 */
+	public CancellationScope enterCancellationScope(CancellationToken cancellationToken) {
+		var previousCancellationToken = this.cancellationToken.get();
+		this.cancellationToken.set(cancellationToken);
+		return () -> {
+			if (previousCancellationToken == null) {
+				this.cancellationToken.remove();
+			} else {
+				this.cancellationToken.set(previousCancellationToken);
+			}
+		};
+	}
+
+	public void checkCancelled() {
+		var currentCancellationToken = cancellationToken.get();
+		if (currentCancellationToken != null) {
+			currentCancellationToken.checkCancelled();
+		}
+	}
+
+	public synchronized void clear() {
+		stores.clear();
+	}
+
+	ModelStore getOrBuild(StoreSignature signature, Object options, Supplier<ModelStore> buildStore) {
+		var key = new Key(signature, options);
+		ModelStore store;
+		synchronized (this) {
+			store = stores.get(key);
+		}
+		if (store != null) {
+			return store;
+		}
+		// Build the model store outside the lock, because it may take a long time.
+		store = buildStore.get();
+		synchronized (this) {
+			stores.put(key, store);
+			if (stores.size() > maxSize) {
+				var iterator = stores.entrySet().iterator();
+				iterator.next();
+				iterator.remove();
+			}
+		}
+		return store;
+	}
+
+	@FunctionalInterface
+	public interface CancellationScope extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	private record Key(StoreSignature signature, Object options) {
+	}
+}
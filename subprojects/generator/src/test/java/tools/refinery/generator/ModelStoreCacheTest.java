@@ -0,0 +1,122 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.generator;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.refinery.language.tests.InjectWithRefinery;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.util.CancellationToken;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@InjectWithRefinery
+class ModelStoreCacheTest {
+	private static final String PREFIX = """
+			class Person {
+				Person[] friend
+			}
+
+			pred lonely(Person p) <-> !friend(p, _).
+			""";
+
+	@Inject
+	private ProblemLoader loader;
+
+	@Inject
+	private Provider<ModelSemanticsFactory> semanticsFactoryProvider;
+
+	private ModelStoreCache storeCache;
+
+	@BeforeEach
+	void beforeEach() {
+		storeCache = new ModelStoreCache(2);
+	}
+
+	@Test
+	void reuseStoreForDifferentAssertionsTest() throws IOException {
+		var firstStore = createStore(PREFIX + "friend(a, b).");
+		var secondStore = createStore(PREFIX + "friend(b, a).\n!friend(a, b).");
+		assertThat(secondStore, sameInstance(firstStore));
+	}
+
+	@Test
+	void doNotReuseStoreForDifferentPredicateTest() throws IOException {
+		var firstStore = createStore(PREFIX);
+		var secondStore = createStore(PREFIX.replace("!friend(p, _)", "friend(p, _)"));
+		assertThat(secondStore, not(sameInstance(firstStore)));
+	}
+
+	@Test
+	void doNotReuseStoreForDifferentOptionsTest() throws IOException {
+		var firstStore = createStore(PREFIX);
+		var secondStore = semanticsFactoryProvider.get()
+				.keepNonExistingObjects(true)
+				.storeCache(storeCache)
+				.createSemantics(loader.loadString(PREFIX))
+				.getModelStore();
+		assertThat(secondStore, not(sameInstance(firstStore)));
+	}
+
+	@Test
+	void evictLeastRecentlyUsedStoreTest() throws IOException {
+		var firstStore = createStore(PREFIX);
+		createStore(PREFIX + "class Foo.");
+		createStore(PREFIX + "class Bar.");
+		var secondStore = createStore(PREFIX);
+		assertThat(secondStore, not(sameInstance(firstStore)));
+	}
+
+	@Test
+	void scopeCancellationToThreadTest() throws IOException {
+		var cancelled = new AtomicBoolean(false);
+		var store = semanticsFactoryProvider.get()
+				.cancellationToken(() -> {
+					if (cancelled.get()) {
+						throw new TestCancelledException();
+					}
+				})
+				.storeCache(storeCache)
+				.createSemantics(loader.loadString(PREFIX))
+				.getModelStore();
+		cancelled.set(true);
+		// The token of the finished request is not checked by the cached store any more.
+		assertDoesNotThrow(store::checkCancelled);
+		try (var ignored = storeCache.enterCancellationScope(() -> {
+			throw new TestCancelledException();
+		})) {
+			assertThrows(TestCancelledException.class, store::checkCancelled);
+			// Other threads using the same store do not see the token of this request.
+			CompletableFuture.runAsync(store::checkCancelled).join();
+			try (var ignoredNested = storeCache.enterCancellationScope(CancellationToken.NONE)) {
+				assertDoesNotThrow(store::checkCancelled);
+			}
+			assertThrows(TestCancelledException.class, store::checkCancelled);
+		}
+		assertDoesNotThrow(store::checkCancelled);
+	}
+
+	private ModelStore createStore(String problemString) throws IOException {
+		var problem = loader.loadString(problemString);
+		return semanticsFactoryProvider.get()
+				.storeCache(storeCache)
+				.createSemantics(problem)
+				.getModelStore();
+	}
+
+	private static class TestCancelledException extends RuntimeException {
+	}
+}
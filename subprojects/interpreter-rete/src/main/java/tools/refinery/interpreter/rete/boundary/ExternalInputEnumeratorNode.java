@@ -173,6 +173,27 @@ public class ExternalInputEnumeratorNode extends StandardNode
         }
     }
 
+    @Override
+    public void update(IInputKey key, Tuple[] updates, boolean[] isInsertion, int size) {
+        if (parallelExecutionEnabled) {
+            for (int i = 0; i < size; i++) {
+                network.sendExternalUpdate(myAddress, direction(isInsertion[i]), updates[i]);
+            }
+        } else {
+            if (qBackendContext.areUpdatesDelayed()) {
+                for (int i = 0; i < size; i++) {
+                    mailbox.postMessage(direction(isInsertion[i]), updates[i], Timestamp.ZERO);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    update(direction(isInsertion[i]), updates[i], Timestamp.ZERO);
+                }
+            }
+            // wait for the termination of the network only once for the whole batch
+            network.waitForReteTermination();
+        }
+    }
+
     private static Direction direction(boolean isInsertion) {
         return isInsertion ? Direction.INSERT : Direction.DELETE;
     }
@@ -26,6 +26,7 @@ import tools.refinery.interpreter.rete.network.mailbox.Mailbox;
 import tools.refinery.interpreter.rete.network.mailbox.timeless.BehaviorChangingMailbox;
 import tools.refinery.interpreter.rete.network.mailbox.timely.TimelyMailbox;
 import tools.refinery.interpreter.matchers.memories.MaskedTupleMemory;
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
 import tools.refinery.interpreter.matchers.util.CollectionsFactory;
@@ -63,13 +64,18 @@ public abstract class IndexerWithMemory extends StandardIndexer
         final boolean isTimely = reteContainer.isTimelyEvaluation()
                 && reteContainer.getCommunicationTracker().isInRecursiveGroup(this);
         memory = MaskedTupleMemory.create(mask, MemoryType.SETS, this, isTimely, isTimely && reteContainer
-                .getTimelyConfiguration().getTimelineRepresentation() == TimelyConfiguration.TimelineRepresentation.FAITHFUL);
+                .getTimelyConfiguration().getTimelineRepresentation() == TimelyConfiguration.TimelineRepresentation.FAITHFUL,
+                getIntElementCodec());
         reteContainer.registerClearable(memory);
         mailbox = instantiateMailbox();
         reteContainer.registerClearable(mailbox);
         this.logic = createLogic();
     }
 
+    private IIntElementCodec getIntElementCodec() {
+        return reteContainer.getNetwork().getEngine().getRuntimeContext().getIntElementCodec();
+    }
+
     @Override
     public CommunicationGroup getCurrentGroup() {
         return this.group;
@@ -89,7 +95,8 @@ public abstract class IndexerWithMemory extends StandardIndexer
         if (wasTimely != isTimely) {
             final MaskedTupleMemory<Timestamp> newMemory = MaskedTupleMemory.create(mask, MemoryType.SETS, this,
                     isTimely, isTimely && reteContainer.getTimelyConfiguration()
-                            .getTimelineRepresentation() == TimelyConfiguration.TimelineRepresentation.FAITHFUL);
+                            .getTimelineRepresentation() == TimelyConfiguration.TimelineRepresentation.FAITHFUL,
+                    getIntElementCodec());
             newMemory.initializeWith(this.memory, Timestamp.ZERO);
             memory.clear();
             memory = newMemory;
@@ -13,6 +13,7 @@ package tools.refinery.interpreter.rete.network;
 import org.apache.log4j.Logger;
 import tools.refinery.interpreter.rete.boundary.InputConnector;
 import tools.refinery.interpreter.rete.network.communication.CommunicationGroup;
+import tools.refinery.interpreter.rete.network.communication.CommunicationPartition;
 import tools.refinery.interpreter.rete.network.communication.CommunicationTracker;
 import tools.refinery.interpreter.rete.network.communication.Timestamp;
 import tools.refinery.interpreter.rete.network.communication.timeless.TimelessCommunicationTracker;
@@ -34,6 +35,8 @@ import tools.refinery.interpreter.rete.single.TrimmerNode;
 import tools.refinery.interpreter.rete.util.Options;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 
 /**
@@ -75,6 +78,8 @@ public final class ReteContainer {
 
 	private final CancellationToken cancellationToken;
 
+	private final ForkJoinPool propagationPool;
+
     /**
      * @param threaded
      *            false if operating in a single-threaded environment
@@ -85,6 +90,7 @@ public final class ReteContainer {
         this.backendContext = network.getEngine().getBackendContext();
         this.timelyConfiguration = network.getEngine().getTimelyConfiguration();
 		cancellationToken = backendContext.getRuntimeContext().getCancellationToken();
+		propagationPool = backendContext.getRuntimeContext().getPropagationPool();
 
         this.delayedCommandQueue = new LinkedHashSet<DelayedCommand>();
         this.delayedCommandBuffer = new LinkedHashSet<DelayedCommand>();
@@ -575,6 +581,9 @@ public final class ReteContainer {
                 }
 
             } else {
+                if (propagationPool != null && tracker instanceof TimelessCommunicationTracker) {
+                    deliverPartitionsInParallel();
+                }
                 while (!tracker.isEmpty()) {
                     final CommunicationGroup group = tracker.getAndRemoveFirstGroup();
                     group.deliverMessages();
@@ -583,6 +592,48 @@ public final class ReteContainer {
         }
     }
 
+	/**
+	 * Delivers the messages of independent parts of the network on the propagation pool. Any messages left over (e.g.,
+	 * because of cancellation) will be delivered sequentially.
+	 * <p>
+	 * All partitions are joined before returning to sequential delivery, even if some of them fail, so that no
+	 * partition is still being delivered when the tracker leaves partitioned mode. The first failure is rethrown
+	 * afterwards with the other failures suppressed.
+	 */
+	private void deliverPartitionsInParallel() {
+		final List<CommunicationPartition> partitions = tracker.partitionActiveGroups();
+		if (partitions.isEmpty()) {
+			return;
+		}
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions.size());
+		Throwable failure = null;
+		try {
+			for (final CommunicationPartition partition : partitions) {
+				tasks.add(propagationPool.submit(() -> tracker.deliverPartition(partition)));
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+		for (final ForkJoinTask<?> task : tasks) {
+			try {
+				task.join();
+			} catch (RuntimeException | Error e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		tracker.finishPartitionedDelivery(partitions);
+		if (failure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (failure instanceof Error error) {
+			throw error;
+		}
+	}
+
     private void localUpdateTermination(long incrementedClock) {
         network.reportLocalUpdateTermination(this, incrementedClock, terminationCriteria);
         terminationCriteria.clear();
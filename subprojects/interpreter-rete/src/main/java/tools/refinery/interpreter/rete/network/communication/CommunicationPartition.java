@@ -0,0 +1,52 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.network.communication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * The active {@link CommunicationGroup}s of a weakly connected component of the dependency graph of a
+ * {@link CommunicationTracker}.
+ * <p>
+ * No messages can pass between groups in different partitions, so partitions can be delivered concurrently. Callbacks
+ * that would leave the network during delivery are deferred until all partitions have been delivered.
+ */
+public final class CommunicationPartition {
+	private final int componentIndex;
+	private final Queue<CommunicationGroup> groupQueue = new PriorityQueue<>();
+	private final List<Runnable> deferredCallbacks = new ArrayList<>();
+
+	CommunicationPartition(int componentIndex) {
+		this.componentIndex = componentIndex;
+	}
+
+	int getComponentIndex() {
+		return componentIndex;
+	}
+
+	Queue<CommunicationGroup> getGroupQueue() {
+		return groupQueue;
+	}
+
+	/**
+	 * Defers a callback until the delivery of all partitions finishes.
+	 *
+	 * @param callback The callback to run on the thread that initiated the delivery.
+	 */
+	public void defer(Runnable callback) {
+		deferredCallbacks.add(callback);
+	}
+
+	void runDeferredCallbacks() {
+		for (var callback : deferredCallbacks) {
+			callback.run();
+		}
+		deferredCallbacks.clear();
+	}
+}
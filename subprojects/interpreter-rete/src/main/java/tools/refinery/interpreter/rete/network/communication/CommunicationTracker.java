@@ -75,6 +75,21 @@ public abstract class CommunicationTracker {
      */
     protected final Queue<CommunicationGroup> groupQueue;
 
+    /**
+     * Weakly connected component index of each communication group, computed on demand
+     */
+    private Map<CommunicationGroup, Integer> componentMap;
+
+    /**
+     * Whether the active groups are currently delivered in separate {@link CommunicationPartition}s
+     */
+    private boolean partitioned;
+
+    /**
+     * The partition delivered by the current thread if {@link #partitioned} is set
+     */
+    private final ThreadLocal<CommunicationPartition> currentPartition = new ThreadLocal<>();
+
     // groups should have a simple integer flag which represents its position in a priority queue
     // priority queue only contains the ACTIVE groups
 
@@ -260,17 +275,17 @@ public abstract class CommunicationTracker {
     }
 
     public void activateUnenqueued(final CommunicationGroup group) {
-        groupQueue.add(group);
+        getActiveQueue(group).add(group);
         group.isEnqueued = true;
     }
 
     public void deactivate(final CommunicationGroup group) {
-        groupQueue.remove(group);
+        getActiveQueue(group).remove(group);
         group.isEnqueued = false;
     }
 
     public CommunicationGroup getAndRemoveFirstGroup() {
-        final CommunicationGroup group = groupQueue.poll();
+        final CommunicationGroup group = getActiveQueue().poll();
 		if (group == null) {
 			throw new IllegalStateException("Group queue must not be empty");
 		}
@@ -279,9 +294,182 @@ public abstract class CommunicationTracker {
     }
 
     public boolean isEmpty() {
-        return groupQueue.isEmpty();
+        return getActiveQueue().isEmpty();
     }
 
+	private Queue<CommunicationGroup> getActiveQueue() {
+		if (!partitioned) {
+			return groupQueue;
+		}
+		final CommunicationPartition partition = currentPartition.get();
+		if (partition == null) {
+			throw new IllegalStateException("Active groups are being delivered in partitions");
+		}
+		return partition.getGroupQueue();
+	}
+
+	private Queue<CommunicationGroup> getActiveQueue(final CommunicationGroup group) {
+		final Queue<CommunicationGroup> queue = getActiveQueue();
+		if (partitioned) {
+			final Integer componentIndex = componentMap.get(group);
+			if (componentIndex == null || componentIndex != currentPartition.get().getComponentIndex()) {
+				throw new IllegalStateException("Communication group " + group +
+						" must not be activated from another partition");
+			}
+		}
+		return queue;
+	}
+
+	/**
+	 * Returns the partition delivered by the current thread.
+	 *
+	 * @return The partition, or {@code null} if messages are not delivered in partitions.
+	 */
+	@Nullable
+	public CommunicationPartition getCurrentPartition() {
+		return partitioned ? currentPartition.get() : null;
+	}
+
+	/**
+	 * Moves the active groups into separate {@link CommunicationPartition}s according to the weakly connected
+	 * components of the dependency graph, so that they can be delivered concurrently by
+	 * {@link #deliverPartition(CommunicationPartition)}. Nothing is moved if the active groups all belong to the
+	 * same component.
+	 * <p>
+	 * Callers must call {@link #finishPartitionedDelivery(List)} after the partitions have been delivered.
+	 *
+	 * @return The partitions ordered by their smallest group identifier, or an empty list if at most one component is
+	 * active.
+	 */
+	public List<CommunicationPartition> partitionActiveGroups() {
+		if (partitioned) {
+			throw new IllegalStateException("Active groups are already being delivered in partitions");
+		}
+		if (groupQueue.size() < 2) {
+			return List.of();
+		}
+		final Map<CommunicationGroup, Integer> components = getComponentMap();
+		final SortedMap<Integer, CommunicationPartition> partitions = new TreeMap<>();
+		for (final CommunicationGroup group : groupQueue) {
+			final Integer componentIndex = components.get(group);
+			if (componentIndex == null) {
+				// Be conservative with groups that are not connected to the dependency graph.
+				return List.of();
+			}
+			partitions.computeIfAbsent(componentIndex, CommunicationPartition::new);
+		}
+		if (partitions.size() < 2) {
+			return List.of();
+		}
+		for (final CommunicationGroup group : groupQueue) {
+			partitions.get(components.get(group)).getGroupQueue().add(group);
+		}
+		groupQueue.clear();
+		partitioned = true;
+		return new ArrayList<>(partitions.values());
+	}
+
+	/**
+	 * Delivers the messages of the groups in a partition until no group in the partition is active. Different
+	 * partitions may be delivered concurrently on different threads.
+	 *
+	 * @param partition The partition returned by {@link #partitionActiveGroups()}.
+	 */
+	public void deliverPartition(final CommunicationPartition partition) {
+		final CommunicationPartition previousPartition = currentPartition.get();
+		currentPartition.set(partition);
+		try {
+			while (!isEmpty()) {
+				getAndRemoveFirstGroup().deliverMessages();
+			}
+		} finally {
+			currentPartition.set(previousPartition);
+		}
+	}
+
+	/**
+	 * Returns to sequential delivery after {@link #partitionActiveGroups()}. Groups left active in the partitions
+	 * (e.g., because the delivery was cancelled) are enqueued again, then the deferred callbacks of the partitions are
+	 * run in the order of the partitions.
+	 *
+	 * @param partitions The partitions returned by {@link #partitionActiveGroups()}.
+	 */
+	public void finishPartitionedDelivery(final List<CommunicationPartition> partitions) {
+		partitioned = false;
+		for (final CommunicationPartition partition : partitions) {
+			groupQueue.addAll(partition.getGroupQueue());
+			partition.getGroupQueue().clear();
+		}
+		for (final CommunicationPartition partition : partitions) {
+			partition.runDeferredCallbacks();
+		}
+	}
+
+	private Map<CommunicationGroup, Integer> getComponentMap() {
+		if (componentMap == null) {
+			componentMap = computeComponentMap();
+		}
+		return componentMap;
+	}
+
+	private Map<CommunicationGroup, Integer> computeComponentMap() {
+		final Map<CommunicationGroup, CommunicationGroup> parents = new HashMap<>();
+		for (final Node node : dependencyGraph.getAllNodes()) {
+			final CommunicationGroup group = groupMap.get(node);
+			for (final Node target : dependencyGraph.getTargetNodes(node).distinctValues()) {
+				union(parents, group, groupMap.get(target));
+			}
+			if (node instanceof Indexer indexer) {
+				// Indexers are read by their listeners, but are updated by their parents and active nodes.
+				union(parents, group, groupMap.get(indexer.getActiveNode()));
+				union(parents, group, groupMap.get(indexer.getParent()));
+			}
+		}
+		final Map<CommunicationGroup, Integer> roots = new HashMap<>();
+		for (final CommunicationGroup group : groupMap.values()) {
+			roots.merge(find(parents, group), group.identifier, Math::min);
+		}
+		// Number components in the order of their smallest group identifiers to make the partition order deterministic.
+		final List<CommunicationGroup> sortedRoots = new ArrayList<>(roots.keySet());
+		sortedRoots.sort(Comparator.comparingInt(roots::get));
+		final Map<CommunicationGroup, Integer> rootIndices = new HashMap<>();
+		for (int i = 0; i < sortedRoots.size(); i++) {
+			rootIndices.put(sortedRoots.get(i), i);
+		}
+		final Map<CommunicationGroup, Integer> components = new HashMap<>();
+		for (final CommunicationGroup group : groupMap.values()) {
+			components.put(group, rootIndices.get(find(parents, group)));
+		}
+		return components;
+	}
+
+	private static void union(final Map<CommunicationGroup, CommunicationGroup> parents,
+							  final CommunicationGroup left, final CommunicationGroup right) {
+		if (left == null || right == null) {
+			return;
+		}
+		final CommunicationGroup leftRoot = find(parents, left);
+		final CommunicationGroup rightRoot = find(parents, right);
+		if (leftRoot != rightRoot) {
+			parents.put(leftRoot, rightRoot);
+		}
+	}
+
+	private static CommunicationGroup find(final Map<CommunicationGroup, CommunicationGroup> parents,
+										   final CommunicationGroup group) {
+		CommunicationGroup root = group;
+		CommunicationGroup parent;
+		while ((parent = parents.get(root)) != null) {
+			root = parent;
+		}
+		// Path compression.
+		CommunicationGroup current = group;
+		while (current != root) {
+			current = parents.put(current, root);
+		}
+		return root;
+	}
+
     protected abstract CommunicationGroup createGroup(final Node representative, final int index);
 
     protected CommunicationGroup createAndStoreGroup(final Node representative, final int index) {
@@ -301,6 +489,7 @@ public abstract class CommunicationTracker {
      *            the target node
      */
     public void registerDependency(final Node source, final Node target) {
+        componentMap = null;
         // nodes can be immediately inserted, if they already exist in the graph, this is a noop
         dependencyGraph.insertNode(source);
         dependencyGraph.insertNode(target);
@@ -393,6 +582,7 @@ public abstract class CommunicationTracker {
      *            the target node
      */
     public void unregisterDependency(final Node source, final Node target) {
+        componentMap = null;
         // delete the edge first, and then query the SCC info provider
         this.dependencyGraph.deleteEdgeIfExists(source, target);
 
@@ -9,6 +9,7 @@
 package tools.refinery.interpreter.rete.single;
 
 import tools.refinery.interpreter.rete.network.ReteContainer;
+import tools.refinery.interpreter.rete.network.communication.CommunicationPartition;
 import tools.refinery.interpreter.rete.network.communication.Timestamp;
 import tools.refinery.interpreter.matchers.backend.IUpdateable;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
@@ -31,7 +32,14 @@ public class CallbackNode extends SimpleReceiver {
 
     @Override
     public void update(Direction direction, Tuple updateElement, Timestamp timestamp) {
-        updateable.update(updateElement, direction == Direction.INSERT);
+        final boolean isInsertion = direction == Direction.INSERT;
+        final CommunicationPartition partition = reteContainer.getCommunicationTracker().getCurrentPartition();
+        if (partition == null) {
+            updateable.update(updateElement, isInsertion);
+        } else {
+            // listeners may read other parts of the network, so they must wait until all partitions are delivered
+            partition.defer(() -> updateable.update(updateElement, isInsertion));
+        }
     }
 
 }
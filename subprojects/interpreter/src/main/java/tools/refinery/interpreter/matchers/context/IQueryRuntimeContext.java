@@ -11,6 +11,7 @@ package tools.refinery.interpreter.matchers.context;
 
 import tools.refinery.interpreter.matchers.planning.helpers.StatisticsHelper;
 import tools.refinery.interpreter.CancellationToken;
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
 import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
@@ -19,6 +20,7 @@ import tools.refinery.interpreter.matchers.util.Accuracy;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Provides instance model information (relations corresponding to input keys) to query evaluator backends at runtime.
@@ -284,4 +286,27 @@ public interface IQueryRuntimeContext {
 	default CancellationToken getCancellationToken() {
 		return CancellationToken.NONE;
 	}
+
+	/**
+	 * Returns a codec for elements that can be represented as {@code int} identifiers, which lets memories store
+	 * signatures consisting of such elements as primitive keys.
+	 *
+	 * @return The codec, or {@code null} if elements should always be stored as objects.
+	 */
+	default IIntElementCodec getIntElementCodec() {
+		return null;
+	}
+
+	/**
+	 * Returns a pool for propagating updates through independent parts of the query network concurrently.
+	 * <p>
+	 * Parts of the network are independent if no messages can pass between them. Matches are computed in the same
+	 * way regardless of whether a pool is available, but update listeners may observe changes grouped by independent
+	 * parts of the network instead of interleaved with each other.
+	 *
+	 * @return The pool, or {@code null} if updates should be propagated sequentially.
+	 */
+	default ForkJoinPool getPropagationPool() {
+		return null;
+	}
 }
@@ -24,4 +24,20 @@ public interface IQueryRuntimeContextListener {
      * @param isInsertion true if it was an insertion, false otherwise.
      */
     public void update(IInputKey key, Tuple updateTuple, boolean isInsertion);
+
+    /**
+     * The given tuples were inserted into or removed from the input relation indicated by the given key, in order.
+     * <p>
+     * The default implementation calls {@link #update(IInputKey, Tuple, boolean)} for each tuple. Listeners may
+     * override this method to process the whole batch of updates at once.
+     * @param key the key identifying the input relation that was updated
+     * @param updateTuples the tuples that were inserted or removed; only the first <code>size</code> elements are valid
+     * @param isInsertion for each tuple, true if it was an insertion, false otherwise
+     * @param size the number of updates in the batch
+     */
+    public default void update(IInputKey key, Tuple[] updateTuples, boolean[] isInsertion, int size) {
+        for (int i = 0; i < size; i++) {
+            update(key, updateTuples[i], isInsertion[i]);
+        }
+    }
 }
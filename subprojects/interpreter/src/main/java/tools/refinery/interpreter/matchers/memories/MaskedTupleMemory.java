@@ -17,6 +17,7 @@ import tools.refinery.interpreter.matchers.memories.timely.TimelyDefaultMaskedTu
 import tools.refinery.interpreter.matchers.memories.timely.TimelyIdentityMaskedTupleMemory;
 import tools.refinery.interpreter.matchers.memories.timely.TimelyNullaryMaskedTupleMemory;
 import tools.refinery.interpreter.matchers.memories.timely.TimelyUnaryMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
 import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
@@ -77,6 +78,19 @@ public abstract class MaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
      */
     public static <T extends Comparable<T>> MaskedTupleMemory<T> create(final TupleMask mask,
             final MemoryType bucketType, final Object owner, final boolean isTimely, final boolean isLazy) {
+        return create(mask, bucketType, owner, isTimely, isLazy, null);
+    }
+
+    /**
+     * Creates a new memory for the given owner that indexes tuples according to the given mask.
+     *
+     * @param codec
+     *            if not null, timeless memories with binary masks store signatures that can be encoded by the codec
+     *            as primitive keys
+     */
+    public static <T extends Comparable<T>> MaskedTupleMemory<T> create(final TupleMask mask,
+            final MemoryType bucketType, final Object owner, final boolean isTimely, final boolean isLazy,
+            final IIntElementCodec codec) {
         if (isTimely) {
             if (bucketType != MemoryType.SETS) {
                 throw new IllegalArgumentException("Timely memories only support SETS as the bucket type!");
@@ -100,6 +114,8 @@ public abstract class MaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
                 return new NullaryMaskedTupleMemory<T>(mask, bucketType, owner);
             } else if (1 == mask.getSize()) {
                 return new UnaryMaskedTupleMemory<T>(mask, bucketType, owner);
+            } else if (2 == mask.getSize() && codec != null) {
+                return new PackedBinaryMaskedTupleMemory<T>(mask, bucketType, owner, codec);
             } else {
                 return new DefaultMaskedTupleMemory<T>(mask, bucketType, owner);
             }
@@ -0,0 +1,244 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.memories;
+
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
+import tools.refinery.interpreter.matchers.tuple.ITuple;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+import tools.refinery.interpreter.matchers.util.IMemory;
+import tools.refinery.interpreter.matchers.util.IMemoryView;
+import tools.refinery.interpreter.matchers.util.IMultiLookup;
+import tools.refinery.interpreter.matchers.util.IMultiLookup.ChangeGranularity;
+import tools.refinery.interpreter.matchers.util.timeline.Timeline;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Specialized for binary masks where both columns usually hold elements that can be encoded as {@code int}
+ * identifiers. Such signatures are packed into a single {@code long} key of a primitive map instead of being
+ * stored as tuples. Like in {@link IMultiLookup}, each key maps either to a single tuple or to a bucket of tuples.
+ * Signatures with other elements are kept in a separate lookup indexed by signature tuples.
+ */
+public final class PackedBinaryMaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
+		extends MaskedTupleMemory<Timestamp> {
+	private final IIntElementCodec codec;
+	private final int firstPosition;
+	private final int secondPosition;
+	private final MemoryType bucketType;
+	private final LongObjectHashMap<Object> packedSignatureToTuples = new LongObjectHashMap<>();
+	private final IMultiLookup<Tuple, Tuple> signatureToTuples;
+
+	/**
+	 * @param mask       The mask used to index the matchings.
+	 * @param bucketType The kind of tuple collection maintained for each indexer bucket.
+	 * @param owner      The object "owning" this memory.
+	 * @param codec      The codec for elements that can be packed into keys.
+	 */
+	public PackedBinaryMaskedTupleMemory(TupleMask mask, MemoryType bucketType, Object owner,
+										 IIntElementCodec codec) {
+		super(mask, owner);
+		if (mask.getSize() != 2) {
+			throw new IllegalArgumentException(mask.toString());
+		}
+		this.bucketType = bucketType;
+		this.codec = codec;
+		firstPosition = mask.indices[0];
+		secondPosition = mask.indices[1];
+		signatureToTuples = CollectionsFactory.createMultiLookup(Object.class, bucketType, Object.class);
+	}
+
+	private boolean canPack(Object first, Object second) {
+		return codec.canEncode(first) && codec.canEncode(second);
+	}
+
+	private long pack(Object first, Object second) {
+		return ((long) codec.encode(first) << Integer.SIZE) | (codec.encode(second) & 0xffffffffL);
+	}
+
+	private Tuple unpack(long key) {
+		return Tuples.staticArityFlatTupleOf(codec.decode((int) (key >>> Integer.SIZE)), codec.decode((int) key));
+	}
+
+	@Override
+	public boolean add(Tuple tuple) {
+		var first = tuple.get(firstPosition);
+		var second = tuple.get(secondPosition);
+		if (canPack(first, second)) {
+			return addPacked(tuple, pack(first, second));
+		}
+		return addUnpacked(tuple, mask.transform(tuple));
+	}
+
+	@Override
+	public boolean add(Tuple tuple, Tuple signature) {
+		var first = tuple.get(firstPosition);
+		var second = tuple.get(secondPosition);
+		if (canPack(first, second)) {
+			return addPacked(tuple, pack(first, second));
+		}
+		return addUnpacked(tuple, signature);
+	}
+
+	@Override
+	public boolean remove(Tuple tuple) {
+		var first = tuple.get(firstPosition);
+		var second = tuple.get(secondPosition);
+		if (canPack(first, second)) {
+			return removePacked(tuple, pack(first, second));
+		}
+		return removeUnpacked(tuple, mask.transform(tuple));
+	}
+
+	@Override
+	public boolean remove(Tuple tuple, Tuple signature) {
+		var first = tuple.get(firstPosition);
+		var second = tuple.get(secondPosition);
+		if (canPack(first, second)) {
+			return removePacked(tuple, pack(first, second));
+		}
+		return removeUnpacked(tuple, signature);
+	}
+
+	private boolean addPacked(Tuple tuple, long key) {
+		var oldValue = packedSignatureToTuples.get(key);
+		if (oldValue == null) {
+			packedSignatureToTuples.put(key, tuple);
+			return true;
+		}
+		IMemory<Tuple> bucket;
+		if (oldValue instanceof Tuple oldTuple) {
+			if (bucketType == MemoryType.SETS && oldTuple.equals(tuple)) {
+				throw raiseDuplicateInsertion(tuple);
+			}
+			bucket = CollectionsFactory.createMemory(Object.class, bucketType);
+			bucket.addOne(oldTuple);
+			packedSignatureToTuples.put(key, bucket);
+		} else {
+			bucket = asBucket(oldValue);
+		}
+		if (!bucket.addOne(tuple) && bucketType == MemoryType.SETS) {
+			throw raiseDuplicateInsertion(tuple);
+		}
+		return false;
+	}
+
+	private boolean addUnpacked(Tuple tuple, Tuple signature) {
+		try {
+			return signatureToTuples.addPair(signature, tuple) == ChangeGranularity.KEY;
+		} catch (IllegalStateException ex) { // ignore worthless internal exception details
+			throw raiseDuplicateInsertion(tuple);
+		}
+	}
+
+	private boolean removePacked(Tuple tuple, long key) {
+		var oldValue = packedSignatureToTuples.get(key);
+		if (oldValue == null) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		if (oldValue instanceof Tuple oldTuple) {
+			if (!oldTuple.equals(tuple)) {
+				throw raiseDuplicateDeletion(tuple);
+			}
+			packedSignatureToTuples.remove(key);
+			return true;
+		}
+		var bucket = asBucket(oldValue);
+		try {
+			bucket.removeOne(tuple);
+		} catch (IllegalStateException ex) { // ignore worthless internal exception details
+			throw raiseDuplicateDeletion(tuple);
+		}
+		if (bucket.size() == 1) {
+			var remaining = bucket.iterator().next();
+			if (bucket.getCount(remaining) == 1) {
+				packedSignatureToTuples.put(key, remaining);
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static IMemory<Tuple> asBucket(Object valueOrBucket) {
+		return (IMemory<Tuple>) valueOrBucket;
+	}
+
+	private static Collection<Tuple> distinctValues(Object valueOrBucket) {
+		if (valueOrBucket instanceof Tuple tuple) {
+			return Set.of(tuple);
+		}
+		return asBucket(valueOrBucket).distinctValues();
+	}
+
+	private boolean removeUnpacked(Tuple tuple, Tuple signature) {
+		try {
+			return signatureToTuples.removePair(signature, tuple) == ChangeGranularity.KEY;
+		} catch (IllegalStateException ex) { // ignore worthless internal exception details
+			throw raiseDuplicateDeletion(tuple);
+		}
+	}
+
+	@Override
+	public Collection<Tuple> get(ITuple signature) {
+		var first = signature.get(0);
+		var second = signature.get(1);
+		if (canPack(first, second)) {
+			var valueOrBucket = packedSignatureToTuples.get(pack(first, second));
+			return valueOrBucket == null ? null : distinctValues(valueOrBucket);
+		}
+		IMemoryView<Tuple> bucket = signatureToTuples.lookupUnsafe(signature);
+		return bucket == null ? null : bucket.distinctValues();
+	}
+
+	@Override
+	public Map<Tuple, Timeline<Timestamp>> getWithTimeline(ITuple signature) {
+		throw new UnsupportedOperationException("Timeless memories do not support timestamp-based lookup!");
+	}
+
+	@Override
+	public void clear() {
+		packedSignatureToTuples.clear();
+		signatureToTuples.clear();
+	}
+
+	@Override
+	public Iterable<Tuple> getSignatures() {
+		return () -> Stream.concat(packedSignatureToTuples.keySet().collect(this::unpack).stream(),
+				signatureToTuples.distinctKeysStream()).iterator();
+	}
+
+	@Override
+	public Iterator<Tuple> iterator() {
+		return Stream.concat(packedSignatureToTuples.values().stream()
+						.flatMap(valueOrBucket -> distinctValues(valueOrBucket).stream()),
+				signatureToTuples.distinctValuesStream()).iterator();
+	}
+
+	@Override
+	public int getTotalSize() {
+		int i = 0;
+		for (var valueOrBucket : packedSignatureToTuples.values()) {
+			i += valueOrBucket instanceof Tuple ? 1 : asBucket(valueOrBucket).size();
+		}
+		for (Tuple key : signatureToTuples.distinctKeys()) {
+			i += signatureToTuples.lookup(key).size();
+		}
+		return i;
+	}
+
+	@Override
+	public int getKeysetSize() {
+		return packedSignatureToTuples.size() + signatureToTuples.countKeys();
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.tuple;
+
+/**
+ * Maps tuple elements that stand for model objects to {@code int} identifiers and back.
+ * <p>
+ * Memories may use the codec to store signatures made of such elements as primitive keys instead of tuple objects.
+ * Elements for which {@link #canEncode(Object)} returns {@code false} must still be stored as objects.
+ */
+public interface IIntElementCodec {
+	boolean canEncode(Object element);
+
+	/**
+	 * Encodes an element. The result must be the same for equal elements and different for non-equal elements.
+	 *
+	 * @param element An element for which {@link #canEncode(Object)} returned {@code true}.
+	 * @return The identifier of the element.
+	 */
+	int encode(Object element);
+
+	/**
+	 * Decodes an element.
+	 *
+	 * @param value An identifier returned by {@link #encode(Object)}.
+	 * @return An element equal to the one that was encoded.
+	 */
+	Object decode(int value);
+}
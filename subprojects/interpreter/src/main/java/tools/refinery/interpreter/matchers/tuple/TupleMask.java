@@ -335,10 +335,10 @@ public class TupleMask {
             ensureIndicesSorted();
             int previous = -1;
             int i;
-            for (i = 0; i < sourceWidth && previous != indicesSorted[i]; ++i) {
+            for (i = 0; i < indicesSorted.length && previous != indicesSorted[i]; ++i) {
                 previous = indicesSorted[i];
             }
-            isNonrepeating = (i == sourceWidth); // if not, stopped due to detected repetition
+            isNonrepeating = (i == indicesSorted.length); // if not, stopped due to detected repetition
         }
         return isNonrepeating;
     }
@@ -106,6 +106,12 @@ public class ModelInitializer {
 
 	private int ruleCount;
 
+	private final StoreSignature.Builder storeSignatureBuilder = StoreSignature.builder();
+
+	private boolean storeShareable = true;
+
+	private StoreSignature storeSignature;
+
 	public void readProblem(Problem problem) {
 		if (this.problem != null) {
 			throw new IllegalArgumentException("Problem was already set");
@@ -121,6 +127,7 @@ public class ModelInitializer {
 			var nodeInfo = collectPartialRelation(builtinSymbols.node(), 1, TruthValue.TRUE, TruthValue.TRUE);
 			nodeRelation = nodeInfo.partialRelation();
 			metamodelBuilder.type(nodeRelation);
+			storeSignatureBuilder.type(nodeRelation, false, List.of());
 			putRelationInfo(builtinSymbols.exists(), new RelationInfo(ReasoningAdapter.EXISTS_SYMBOL, null,
 					TruthValue.TRUE));
 			putRelationInfo(builtinSymbols.equals(), new RelationInfo(ReasoningAdapter.EQUALS_SYMBOL,
@@ -187,6 +194,10 @@ public class ModelInitializer {
 
 	public void configureStoreBuilder(ModelStoreBuilder storeBuilder) {
 		checkProblem();
+		if (storeSignature != null) {
+			throw new IllegalStateException("Store builder was already configured");
+		}
+		storeSignatureBuilder.options(keepNonExistingObjects, keepShadowPredicates);
 		try {
 			storeBuilder.with(new MultiObjectTranslator(keepNonExistingObjects));
 			storeBuilder.with(new MetamodelTranslator(metamodel));
@@ -198,14 +209,17 @@ public class ModelInitializer {
 			}
 			collectPredicates(storeBuilder);
 			collectRules(storeBuilder);
-			storeBuilder.tryGetAdapter(StateCoderBuilder.class)
-					.ifPresent(stateCoderBuilder -> stateCoderBuilder.individuals(individuals));
+			storeBuilder.tryGetAdapter(StateCoderBuilder.class).ifPresent(stateCoderBuilder -> {
+				stateCoderBuilder.individuals(individuals);
+				storeSignatureBuilder.individuals(individuals);
+			});
 			if (!keepShadowPredicates) {
 				problemTrace.removeShadowRelations();
 			}
 		} catch (TranslationException e) {
 			throw problemTrace.wrapException(e);
 		}
+		storeSignature = storeSignatureBuilder.build();
 	}
 
 	private void checkProblem() {
@@ -220,6 +234,23 @@ public class ModelInitializer {
 		return getModelSeed();
 	}
 
+	/**
+	 * Gets the signature of the model store configured by {@link #configureStoreBuilder(ModelStoreBuilder)}.
+	 * <p>
+	 * If another problem has an equal signature, its model store can be used with the {@link ModelSeed} of this
+	 * problem instead of building a new model store.
+	 *
+	 * @return The signature, or {@code null} if the model store can't be shared, because it contains elements
+	 * traced back to this problem (e.g., propagation rules).
+	 */
+	public StoreSignature getStoreSignature() {
+		checkProblem();
+		if (storeSignature == null) {
+			throw new IllegalStateException("Store builder is not configured");
+		}
+		return storeShareable ? storeSignature : null;
+	}
+
 	public ProblemTrace getProblemTrace() {
 		checkProblem();
 		return problemTrace;
@@ -338,7 +369,9 @@ public class ModelInitializer {
 
 	private void collectEnumMetamodel(EnumDeclaration enumDeclaration) {
 		try {
-			metamodelBuilder.type(getPartialRelation(enumDeclaration), nodeRelation);
+			var partialRelation = getPartialRelation(enumDeclaration);
+			metamodelBuilder.type(partialRelation, nodeRelation);
+			storeSignatureBuilder.type(partialRelation, false, List.of(nodeRelation));
 		} catch (RuntimeException e) {
 			throw TracedException.addTrace(enumDeclaration, e);
 		}
@@ -352,8 +385,9 @@ public class ModelInitializer {
 			partialSuperTypes.add(getPartialRelation(superType));
 		}
 		try {
-			metamodelBuilder.type(getPartialRelation(classDeclaration), classDeclaration.isAbstract(),
-					partialSuperTypes);
+			var partialRelation = getPartialRelation(classDeclaration);
+			metamodelBuilder.type(partialRelation, classDeclaration.isAbstract(), partialSuperTypes);
+			storeSignatureBuilder.type(partialRelation, classDeclaration.isAbstract(), partialSuperTypes);
 		} catch (RuntimeException e) {
 			throw TracedException.addTrace(classDeclaration, e);
 		}
@@ -383,7 +417,7 @@ public class ModelInitializer {
 				defaultValue = TruthValue.FALSE;
 			}
 			modelSeedBuilder.seed(relation, seed);
-			metamodelBuilder.reference(relation, ReferenceInfo.builder()
+			var referenceInfo = ReferenceInfo.builder()
 					.containment(containment)
 					.source(source)
 					.multiplicity(multiplicity)
@@ -391,7 +425,9 @@ public class ModelInitializer {
 					.opposite(oppositeRelation)
 					.defaultValue(defaultValue)
 					.partial(partial)
-					.build());
+					.build();
+			metamodelBuilder.reference(relation, referenceInfo);
+			storeSignatureBuilder.reference(relation, referenceInfo);
 		} catch (RuntimeException e) {
 			throw TracedException.addTrace(classDeclaration, e);
 		}
@@ -628,6 +664,7 @@ public class ModelInitializer {
 		var parameterTypes = getParameterTypes(predicateDefinition, null);
 		var translator = new PredicateTranslator(partialRelation, query, parameterTypes, mutable, defaultValue);
 		storeBuilder.with(translator);
+		storeSignatureBuilder.computedPredicate(partialRelation, query.getDnf(), parameterTypes, mutable, defaultValue);
 	}
 
 	private boolean isActionTarget(PredicateDefinition predicateDefinition) {
@@ -659,6 +696,7 @@ public class ModelInitializer {
 		boolean partial = predicateDefinition.getKind() == PredicateKind.PARTIAL;
 		var translator = new BasePredicateTranslator(partialRelation, parameterTypes, defaultValue, partial);
 		storeBuilder.with(translator);
+		storeSignatureBuilder.basePredicate(partialRelation, parameterTypes, defaultValue, partial);
 	}
 
 	private void collectShadowPredicateDefinition(PredicateDefinition predicateDefinition,
@@ -667,6 +705,7 @@ public class ModelInitializer {
 		var query = queryCompiler.toQuery(partialRelation.name(), predicateDefinition);
 		var translator = new ShadowPredicateTranslator(partialRelation, query, keepShadowPredicates);
 		storeBuilder.with(translator);
+		storeSignatureBuilder.shadowPredicate(partialRelation, query.getDnf());
 	}
 
 	private void collectScopes() {
@@ -715,6 +754,7 @@ public class ModelInitializer {
 			scopePropagator = new ScopePropagator();
 		}
 		scopePropagator.scope(type, interval);
+		storeSignatureBuilder.scope(type, interval);
 	}
 
 	public void setKeepNonExistingObjects(boolean keepNonExistingObjects) {
@@ -771,12 +811,17 @@ public class ModelInitializer {
 			case DECISION -> {
 				var rule = ruleCompiler.toDecisionRule(name, ruleDefinition);
 				problemTrace.putRuleDefinition(ruleDefinition, rule);
+				// The signature of the store does not describe rules.
+				storeShareable = false;
 				storeBuilder.tryGetAdapter(DesignSpaceExplorationBuilder.class)
 						.ifPresent(dseBuilder -> dseBuilder.transformation(rule));
 			}
 			case PROPAGATION -> {
 				var rules = ruleCompiler.toPropagationRules(name, ruleDefinition);
 				problemTrace.putPropagationRuleDefinition(ruleDefinition, rules);
+				// The signature of the store does not describe rules, and rejections by propagation rules are traced
+				// back to rule definitions by the identity of the rules.
+				storeShareable = false;
 				storeBuilder.tryGetAdapter(PropagationBuilder.class)
 						.ifPresent(propagationBuilder -> propagationBuilder.rules(rules));
 			}
@@ -0,0 +1,156 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.language.semantics;
+
+import tools.refinery.logic.dnf.Dnf;
+import tools.refinery.logic.equality.DeepDnfEqualityChecker;
+import tools.refinery.logic.term.cardinalityinterval.CardinalityInterval;
+import tools.refinery.logic.term.truthvalue.TruthValue;
+import tools.refinery.store.reasoning.representation.PartialRelation;
+import tools.refinery.store.reasoning.translator.metamodel.ReferenceInfo;
+import tools.refinery.store.reasoning.translator.typehierarchy.TypeInfo;
+import tools.refinery.store.tuple.Tuple1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Structural description of the model store configured by a {@link ModelInitializer}.
+ * <p>
+ * Problems with equal signatures can share a model store, because they only differ in their
+ * {@link tools.refinery.store.reasoning.seed.ModelSeed}. Partial relations are compared by their names, and queries
+ * are compared by structural equality.
+ */
+public final class StoreSignature {
+	private final List<Object> entries;
+	private final int hashCode;
+
+	private StoreSignature(List<Object> entries) {
+		this.entries = entries;
+		hashCode = entries.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		var that = (StoreSignature) o;
+		return hashCode == that.hashCode && entries.equals(that.entries);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	private static boolean dnfEqual(Dnf left, Dnf right) {
+		// Queries of different problems are different (but possibly structurally equal) {@link Dnf} instances.
+		return new DeepDnfEqualityChecker().dnfEqual(left, right);
+	}
+
+	static Builder builder() {
+		return new Builder();
+	}
+
+	static class Builder {
+		private final List<Object> entries = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		public void options(boolean keepNonExistingObjects, boolean keepShadowPredicates) {
+			entries.add(new Options(keepNonExistingObjects, keepShadowPredicates));
+		}
+
+		public void type(PartialRelation type, boolean abstractType, List<PartialRelation> supertypes) {
+			entries.add(new Type(type, new TypeInfo(supertypes, abstractType)));
+		}
+
+		public void reference(PartialRelation linkType, ReferenceInfo info) {
+			entries.add(new Reference(linkType, info));
+		}
+
+		public void scope(PartialRelation type, CardinalityInterval interval) {
+			entries.add(new Scope(type, interval));
+		}
+
+		public void basePredicate(PartialRelation partialRelation, List<PartialRelation> parameterTypes,
+								  TruthValue defaultValue, boolean partial) {
+			entries.add(new BasePredicate(partialRelation, parameterTypes, defaultValue, partial));
+		}
+
+		public void computedPredicate(PartialRelation partialRelation, Dnf dnf, List<PartialRelation> parameterTypes,
+									  boolean mutable, TruthValue defaultValue) {
+			entries.add(new ComputedPredicate(partialRelation, dnf, parameterTypes, mutable, defaultValue));
+		}
+
+		public void shadowPredicate(PartialRelation partialRelation, Dnf dnf) {
+			entries.add(new ShadowPredicate(partialRelation, dnf));
+		}
+
+		public void individuals(List<Tuple1> individuals) {
+			entries.add(new Individuals(List.copyOf(individuals)));
+		}
+
+		public StoreSignature build() {
+			return new StoreSignature(List.copyOf(entries));
+		}
+	}
+
+	private record Options(boolean keepNonExistingObjects, boolean keepShadowPredicates) {
+	}
+
+	private record Type(PartialRelation type, TypeInfo info) {
+	}
+
+	private record Reference(PartialRelation linkType, ReferenceInfo info) {
+	}
+
+	private record Scope(PartialRelation type, CardinalityInterval interval) {
+	}
+
+	private record BasePredicate(PartialRelation partialRelation, List<PartialRelation> parameterTypes,
+								 TruthValue defaultValue, boolean partial) {
+	}
+
+	private record ComputedPredicate(PartialRelation partialRelation, Dnf dnf, List<PartialRelation> parameterTypes,
+									 boolean mutable, TruthValue defaultValue) {
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			var that = (ComputedPredicate) o;
+			return mutable == that.mutable && Objects.equals(partialRelation, that.partialRelation) &&
+					Objects.equals(parameterTypes, that.parameterTypes) && defaultValue == that.defaultValue &&
+					dnfEqual(dnf, that.dnf);
+		}
+
+		@Override
+		public int hashCode() {
+			// The hash code of {@link Dnf} instances is based on their identity, so we have to leave it out.
+			return Objects.hash(partialRelation, parameterTypes, mutable, defaultValue);
+		}
+	}
+
+	private record ShadowPredicate(PartialRelation partialRelation, Dnf dnf) {
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			var that = (ShadowPredicate) o;
+			return Objects.equals(partialRelation, that.partialRelation) && dnfEqual(dnf, that.dnf);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(partialRelation);
+		}
+	}
+
+	private record Individuals(List<Tuple1> individuals) {
+	}
+}
@@ -79,6 +79,8 @@ public class SemanticsService extends AbstractCachedService<SemanticsResult> {
 		}
 		var worker = workerProvider.get();
 		worker.setProblem(problem, cancelIndicator);
+		// We have already checked the type of the document in hasError.
+		worker.setModelStoreCache(((PushWebDocument) doc).getModelStoreCache());
 		var future = executorService.submit(worker);
 		boolean warmedUpCurrently = warmedUp.get();
 		long timeout = warmedUpCurrently ? timeoutMs : warmupTimeoutMs;
@@ -18,6 +18,7 @@ import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.web.server.validation.ValidationResult;
 import tools.refinery.generator.ModelSemantics;
 import tools.refinery.generator.ModelSemanticsFactory;
+import tools.refinery.generator.ModelStoreCache;
 import tools.refinery.language.model.problem.Problem;
 import tools.refinery.language.model.problem.ProblemPackage;
 import tools.refinery.language.model.problem.ScopeDeclaration;
@@ -58,6 +59,8 @@ class SemanticsWorker implements Callable<SemanticsResult> {
 
 	private CancellationToken cancellationToken;
 
+	private ModelStoreCache modelStoreCache;
+
 	public void setProblem(Problem problem, CancelIndicator parentIndicator) {
 		this.problem = problem;
 		cancellationToken = () -> {
@@ -67,14 +70,29 @@ class SemanticsWorker implements Callable<SemanticsResult> {
 		};
 	}
 
+	public void setModelStoreCache(ModelStoreCache modelStoreCache) {
+		this.modelStoreCache = modelStoreCache;
+	}
+
 	@Override
 	public SemanticsResult call() {
+		if (modelStoreCache == null) {
+			return doCall();
+		}
+		// Cached model stores check the cancellation token of the thread working with them.
+		try (var ignored = modelStoreCache.enterCancellationScope(cancellationToken)) {
+			return doCall();
+		}
+	}
+
+	private SemanticsResult doCall() {
 		cancellationToken.checkCancelled();
 		ModelSemantics semantics;
 		try {
 			semantics = semanticsFactory
 					.cancellationToken(cancellationToken)
 					.keepNonExistingObjects(true)
+					.storeCache(modelStoreCache)
 					.tryCreateSemantics(problem);
 		} catch (TranslationException e) {
 			return new SemanticsResult(e.getMessage());
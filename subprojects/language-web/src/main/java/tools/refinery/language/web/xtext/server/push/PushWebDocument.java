@@ -13,6 +13,7 @@ import org.eclipse.xtext.web.server.model.DocumentSynchronizer;
 import org.eclipse.xtext.web.server.model.XtextWebDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import tools.refinery.generator.ModelStoreCache;
 import tools.refinery.language.web.generator.IPush;
 import tools.refinery.language.web.generator.ModelGenerationManager;
 import tools.refinery.language.web.xtext.server.ResponseHandlerException;
@@ -23,10 +24,18 @@ import java.util.List;
 public class PushWebDocument extends XtextWebDocument implements IPush {
 	private static final Logger LOG = LoggerFactory.getLogger(PushWebDocument.class);
 
+	/**
+	 * Number of model stores kept for the document. Besides the current version of the document, we keep a store
+	 * for one other version to avoid rebuilding stores if the user toggles between two versions (e.g., by undo).
+	 */
+	private static final int MAX_CACHED_MODEL_STORES = 2;
+
 	private final List<PrecomputationListener> precomputationListeners = new ArrayList<>();
 
 	private final ModelGenerationManager modelGenerationManager = new ModelGenerationManager();
 
+	private final ModelStoreCache modelStoreCache = new ModelStoreCache(MAX_CACHED_MODEL_STORES);
+
 	private final DocumentSynchronizer synchronizer;
 
 	public PushWebDocument(String resourceId, DocumentSynchronizer synchronizer) {
@@ -38,6 +47,10 @@ public class PushWebDocument extends XtextWebDocument implements IPush {
 		return modelGenerationManager;
 	}
 
+	public ModelStoreCache getModelStoreCache() {
+		return modelStoreCache;
+	}
+
 	public void addPrecomputationListener(PrecomputationListener listener) {
 		synchronized (precomputationListeners) {
 			if (precomputationListeners.contains(listener)) {
@@ -95,5 +108,6 @@ public class PushWebDocument extends XtextWebDocument implements IPush {
 	public void dispose() {
 		synchronizer.setCanceled(true);
 		modelGenerationManager.dispose();
+		modelStoreCache.clear();
 	}
 }
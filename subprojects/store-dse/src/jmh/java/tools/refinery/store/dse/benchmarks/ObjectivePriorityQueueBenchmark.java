@@ -0,0 +1,61 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the indexed heap of {@link tools.refinery.store.dse.transition.statespace.internal.ObjectivePriorityQueueImpl}
+ * with the {@link java.util.PriorityQueue} based implementation it replaced.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ObjectivePriorityQueueBenchmark {
+	@Benchmark
+	public void removeAndSubmitBenchmark(ObjectivePriorityQueueExecutionPlan executionPlan, Blackhole blackhole) {
+		var sut = executionPlan.getSut();
+		var entry = executionPlan.nextEntry();
+		sut.remove(entry);
+		sut.submit(entry);
+		blackhole.consume(sut.getBest());
+	}
+
+	@Benchmark
+	public void getRandomBenchmark(ObjectivePriorityQueueExecutionPlan executionPlan, Blackhole blackhole) {
+		blackhole.consume(executionPlan.getSut().getRandom(executionPlan.getRandom()));
+	}
+
+	@Benchmark
+	public void baselineRemoveAndSubmitBenchmark(ObjectivePriorityQueueExecutionPlan executionPlan,
+												 Blackhole blackhole) {
+		var baseline = executionPlan.getBaseline();
+		var entry = executionPlan.nextEntry();
+		baseline.remove(entry);
+		baseline.add(entry);
+		blackhole.consume(baseline.peek());
+	}
+
+	@Benchmark
+	public void baselineGetRandomBenchmark(ObjectivePriorityQueueExecutionPlan executionPlan, Blackhole blackhole) {
+		var baseline = executionPlan.getBaseline();
+		int randomPosition = executionPlan.getRandom().nextInt(baseline.size());
+		VersionWithObjectiveValue result = null;
+		for (var entry : baseline) {
+			if (randomPosition-- == 0) {
+				result = entry;
+				break;
+			}
+		}
+		blackhole.consume(result);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.refinery.store.dse.tests.DummyObjective;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.internal.ObjectivePriorityQueueImpl;
+import tools.refinery.store.map.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+@State(Scope.Thread)
+public class ObjectivePriorityQueueExecutionPlan {
+	@Param({"1000", "100000"})
+	public int nEntries;
+
+	private Random random;
+
+	private List<VersionWithObjectiveValue> entries;
+
+	private ObjectivePriorityQueueImpl sut;
+
+	private PriorityQueue<VersionWithObjectiveValue> baseline;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		random = new Random(1);
+		entries = new ArrayList<>(nEntries);
+		for (int i = 0; i < nEntries; i++) {
+			entries.add(new VersionWithObjectiveValue(new BenchmarkVersion(), ObjectiveValue.of(random.nextDouble())));
+		}
+		sut = new ObjectivePriorityQueueImpl(List.of(new DummyObjective()));
+		baseline = new PriorityQueue<>(ObjectivePriorityQueueImpl.c1);
+		for (var entry : entries) {
+			sut.submit(entry);
+			baseline.add(entry);
+		}
+	}
+
+	public Random getRandom() {
+		return random;
+	}
+
+	public ObjectivePriorityQueueImpl getSut() {
+		return sut;
+	}
+
+	public PriorityQueue<VersionWithObjectiveValue> getBaseline() {
+		return baseline;
+	}
+
+	public VersionWithObjectiveValue nextEntry() {
+		return entries.get(random.nextInt(nEntries));
+	}
+
+	private static final class BenchmarkVersion implements Version {
+	}
+}
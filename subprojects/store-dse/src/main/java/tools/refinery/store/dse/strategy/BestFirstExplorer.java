@@ -5,6 +5,7 @@
  */
 package tools.refinery.store.dse.strategy;
 
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.model.Model;
 
 import java.util.Random;
@@ -25,18 +26,29 @@ public class BestFirstExplorer extends BestFirstWorker {
 
 	private boolean shouldRun() {
 		model.checkCancelled();
-		return !hasEnoughSolution();
+		return !hasEnoughSolution() && !storeManager.isExplorationAborted();
+	}
+
+	private VersionWithObjectiveValue restoreToNext() {
+		while (true) {
+			storeManager.resolveSymmetries();
+			VersionWithObjectiveValue next;
+			if (random.nextInt(10) == 0) {
+				next = restoreToRandom(random);
+			} else {
+				next = restoreToBest();
+			}
+			if (next != null || !storeManager.waitForStates()) {
+				return next;
+			}
+		}
 	}
 
 	public void explore() {
 		var lastBest = submit().newVersion();
 		while (shouldRun()) {
 			if (lastBest == null) {
-				if (random.nextInt(10) == 0) {
-					lastBest = restoreToRandom(random);
-				} else {
-					lastBest = restoreToBest();
-				}
+				lastBest = restoreToNext();
 				if (lastBest == null) {
 					return;
 				}
@@ -11,19 +11,32 @@ import tools.refinery.store.dse.transition.statespace.ActivationStore;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
 import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
 import tools.refinery.store.dse.transition.statespace.SolutionStore;
-import tools.refinery.store.dse.transition.statespace.internal.ActivationStoreImpl;
-import tools.refinery.store.dse.transition.statespace.internal.FastEquivalenceClassStore;
-import tools.refinery.store.dse.transition.statespace.internal.ObjectivePriorityQueueImpl;
-import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.dse.transition.statespace.internal.*;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.visualization.statespace.VisualizationStore;
 import tools.refinery.visualization.statespace.internal.VisualizationStoreImpl;
 
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 public class BestFirstStoreManager {
+	/**
+	 * Idle explorers are woken up by {@link #notifyStatesChanged()}, but cancellation can only be detected by polling
+	 * the cancellation token of the model store. Therefore, idle explorers still wake up periodically.
+	 */
+	private static final long CANCELLATION_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
 	ModelStore modelStore;
 	ObjectivePriorityQueue objectiveStore;
@@ -31,21 +44,72 @@ public class BestFirstStoreManager {
 	SolutionStore solutionStore;
 	EquivalenceClassStore equivalenceClassStore;
 	VisualizationStore visualizationStore;
+	private final AtomicInteger busyExplorers = new AtomicInteger();
+	private final AtomicLong stateChanges = new AtomicLong();
+	private final Lock idleLock = new ReentrantLock();
+	private final Condition statesChanged = idleLock.newCondition();
+	private volatile int numberOfExplorers = 1;
+	private volatile boolean explorationAborted;
 
 	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions) {
+		this(modelStore, maxNumberOfSolutions, false);
+	}
+
+	/**
+	 * Creates a new store manager.
+	 *
+	 * @param modelStore           The model store to explore.
+	 * @param maxNumberOfSolutions The number of solutions to find, or {@link SolutionStoreImpl#UNLIMITED}.
+	 * @param concurrent           Whether to use state space stores optimized for several exploration workers
+	 *                             instead of the ones optimized for a single worker.
+	 */
+	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions, boolean concurrent) {
 		this.modelStore = modelStore;
 		DesignSpaceExplorationStoreAdapter storeAdapter =
 				modelStore.getAdapter(DesignSpaceExplorationStoreAdapter.class);
+		var objectives = storeAdapter.getObjectives();
+		int numberOfTransformations = storeAdapter.getTransformations().size();
+		var stateCoderStoreAdapter = modelStore.getAdapter(StateCoderStoreAdapter.class);
 
-		objectiveStore = new ObjectivePriorityQueueImpl(storeAdapter.getObjectives());
+		// Several objectives can't be totally ordered, but without objectives, every state is equally good.
+		boolean paretoFronts = objectives.size() > 1;
+		if (paretoFronts) {
+			objectiveStore = new ParetoObjectivePriorityQueueImpl();
+		} else if (concurrent) {
+			objectiveStore = new ConcurrentObjectivePriorityQueueImpl(objectives);
+		} else {
+			objectiveStore = new ObjectivePriorityQueueImpl(objectives);
+		}
 		Consumer<VersionWithObjectiveValue> whenAllActivationsVisited = x -> objectiveStore.remove(x);
-		activationStore = new ActivationStoreImpl(storeAdapter.getTransformations().size(), whenAllActivationsVisited);
-		solutionStore = new SolutionStoreImpl(maxNumberOfSolutions);
-		equivalenceClassStore = new FastEquivalenceClassStore(modelStore.getAdapter(StateCoderStoreAdapter.class)) {
+		activationStore = concurrent ?
+				new ConcurrentActivationStoreImpl(numberOfTransformations, whenAllActivationsVisited) :
+				new ActivationStoreImpl(numberOfTransformations, whenAllActivationsVisited);
+		solutionStore = paretoFronts ? new ParetoSolutionStoreImpl(maxNumberOfSolutions) :
+				new SolutionStoreImpl(maxNumberOfSolutions, objectiveStore.getComparator());
+		// With a single worker, states are checked for isomorphism lazily on the worker thread to keep the exploration
+		// deterministic.
+		int checkingThreads = concurrent ? Math.max(1, Runtime.getRuntime().availableProcessors() / 4) : 0;
+		equivalenceClassStore = new SymmetryResolvingEquivalenceClassStore(stateCoderStoreAdapter, checkingThreads) {
 			@Override
 			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
-				throw new UnsupportedOperationException("This equivalence storage is not prepared to resolve " +
-						"symmetries!");
+				if (activationStore.markNewAsVisited(version, emptyActivations).mayHaveMore()) {
+					objectiveStore.submit(version);
+				}
+				if (accept) {
+					solutionStore.submit(version);
+				}
+				visualizationStore.addState(version.version(), version.objectiveValue().toString());
+				if (accept) {
+					visualizationStore.addSolution(version.version());
+				}
+				notifyStatesChanged();
+			}
+
+			@Override
+			protected void checkFinished() {
+				// Idle explorers have to resolve the symmetry if the state turned out to be new, or they may finish
+				// the exploration if this was the last pending check.
+				notifyStatesChanged();
 			}
 		};
 		visualizationStore = new VisualizationStoreImpl();
@@ -80,8 +144,163 @@ public class BestFirstStoreManager {
 	}
 
 	public void startExploration(Version initial, long randomSeed) {
-		BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, modelStore.createModelForState(initial),
-				randomSeed);
-		bestFirstExplorer.explore();
+		startExploration(initial, randomSeed, 1);
+	}
+
+	/**
+	 * Explores the state space starting from {@code initial} with several {@link BestFirstExplorer} instances that
+	 * share the state space stores of this manager.
+	 * <p>
+	 * Each worker runs on its own thread with its own {@link tools.refinery.store.model.Model} created by
+	 * {@link ModelStore#createModelForState(Version)}. The first worker uses {@code randomSeed} directly, so a single
+	 * worker behaves exactly as a sequential exploration. With more than one worker, the set of solutions found
+	 * depends on thread scheduling and is not deterministic.
+	 *
+	 * @param initial         The version to start the exploration from.
+	 * @param randomSeed      The random seed of the first worker. Seeds of other workers are derived from it.
+	 * @param numberOfWorkers The number of explorers to run in parallel.
+	 */
+	public void startExploration(Version initial, long randomSeed, int numberOfWorkers) {
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Number of workers must be positive, got: " + numberOfWorkers);
+		}
+		explorationAborted = false;
+		numberOfExplorers = numberOfWorkers;
+		busyExplorers.set(numberOfWorkers);
+		if (numberOfWorkers == 1) {
+			BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, modelStore.createModelForState(initial),
+					randomSeed);
+			bestFirstExplorer.explore();
+			return;
+		}
+		// The use of a non-cryptographic random generator is safe here, because we only use it to seed the
+		// workers of the state space exploration.
+		@SuppressWarnings("squid:S2245")
+		var seedGenerator = new Random(randomSeed);
+		try (var executorService = Executors.newFixedThreadPool(numberOfWorkers)) {
+			var futures = new ArrayList<Future<?>>(numberOfWorkers);
+			for (int i = 0; i < numberOfWorkers; i++) {
+				long workerSeed = i == 0 ? randomSeed : seedGenerator.nextLong();
+				futures.add(executorService.submit(() -> runExplorer(initial, workerSeed)));
+			}
+			for (var future : futures) {
+				awaitExplorer(future);
+			}
+		}
+	}
+
+	private void runExplorer(Version initial, long randomSeed) {
+		try {
+			var model = modelStore.createModelForState(initial);
+			new BestFirstExplorer(this, model, randomSeed).explore();
+		} catch (RuntimeException | Error e) {
+			// Stop the other workers as soon as possible, the exception will be re-thrown by the caller thread.
+			explorationAborted = true;
+			throw e;
+		} finally {
+			// Explorers only stop while busy if the exploration is over for every explorer (e.g., because there are
+			// enough solutions), so we have to wake up the idle ones.
+			notifyStatesChanged();
+		}
+	}
+
+	private void awaitExplorer(Future<?> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			explorationAborted = true;
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for exploration workers", e);
+		} catch (ExecutionException e) {
+			explorationAborted = true;
+			var cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException("Exploration worker failed", cause);
+		}
+	}
+
+	boolean isExplorationAborted() {
+		return explorationAborted;
+	}
+
+	/**
+	 * Adds the states that were found to be new by isomorphism checks since the last call to the state space stores.
+	 */
+	void resolveSymmetries() {
+		int count = equivalenceClassStore.getNumberOfUnresolvedSymmetries();
+		for (int i = 0; i < count && equivalenceClassStore.hasUnresolvedSymmetry(); i++) {
+			equivalenceClassStore.resolveOneSymmetry();
+		}
+	}
+
+	/**
+	 * Wakes up the idle explorers waiting in {@link #waitForStates()}.
+	 * <p>
+	 * Must be called after every event that may let an idle explorer continue or finish the exploration: a new state
+	 * in the objective store, a finished isomorphism check, or an explorer becoming idle or stopping.
+	 */
+	void notifyStatesChanged() {
+		stateChanges.incrementAndGet();
+		// Only take the lock if there are idle explorers. An explorer becoming idle decrements the counter before
+		// reading {@code stateChanges}, so it either sees this change or will be signalled.
+		if (busyExplorers.get() < numberOfExplorers) {
+			idleLock.lock();
+			try {
+				statesChanged.signalAll();
+			} finally {
+				idleLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Waits until there is a state to continue the exploration from.
+	 * <p>
+	 * The calling explorer is considered idle while waiting. If every other explorer is idle, too, no new states can
+	 * appear, and the exploration is finished.
+	 *
+	 * @return {@code true} if the caller should continue exploring, {@code false} if the exploration is finished.
+	 */
+	boolean waitForStates() {
+		if (busyExplorers.decrementAndGet() == 0) {
+			// Let the other idle explorers detect that the exploration is finished.
+			notifyStatesChanged();
+		}
+		while (true) {
+			long observedStateChanges = stateChanges.get();
+			resolveSymmetries();
+			if (objectiveStore.getSize() > 0) {
+				busyExplorers.incrementAndGet();
+				return true;
+			}
+			// States still being checked for isomorphism may turn out to be new.
+			if ((busyExplorers.get() == 0 && !equivalenceClassStore.hasUnresolvedSymmetry()) ||
+					explorationAborted || solutionStore.hasEnoughSolution()) {
+				return false;
+			}
+			modelStore.checkCancelled();
+			awaitStateChanges(observedStateChanges);
+		}
+	}
+
+	private void awaitStateChanges(long observedStateChanges) {
+		idleLock.lock();
+		try {
+			// Any change after reading {@code observedStateChanges} may have been signalled before we took the lock.
+			if (stateChanges.get() == observedStateChanges) {
+				//noinspection ResultOfMethodCallIgnored
+				statesChanged.awaitNanos(CANCELLATION_CHECK_NANOS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for new states", e);
+		} finally {
+			idleLock.unlock();
+		}
 	}
 }
@@ -15,6 +15,7 @@ import tools.refinery.store.map.Version;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.ModelQueryAdapter;
 import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.StateCoderResult;
 import tools.refinery.visualization.statespace.VisualizationStore;
 
 import java.util.Random;
@@ -57,19 +58,27 @@ public class BestFirstWorker {
 
 		var code = stateCoderAdapter.calculateStateCode();
 
-		boolean isNew = storeManager.getEquivalenceClassStore().submit(code);
+		var equivalenceClassStore = storeManager.getEquivalenceClassStore();
+		boolean isNew = equivalenceClassStore.submit(code);
 		if (isNew) {
 			Version version = model.commit();
 			ObjectiveValue objectiveValue = explorationAdapter.getObjectiveValue();
 			var versionWithObjectiveValue = new VersionWithObjectiveValue(version, objectiveValue);
+			equivalenceClassStore.addRepresentative(code, versionWithObjectiveValue);
 			last = versionWithObjectiveValue;
 			var accepted = explorationAdapter.checkAccept();
 
-			storeManager.getObjectiveStore().submit(versionWithObjectiveValue);
-			storeManager.getActivationStore().markNewAsVisited(versionWithObjectiveValue, activationStoreWorker.calculateEmptyActivationSize());
+			// Register the activations before publishing the version, because other workers may pick it from the
+			// objective store right away. Versions without any activation are never published.
+			var visitResult = storeManager.getActivationStore().markNewAsVisited(versionWithObjectiveValue,
+					activationStoreWorker.calculateEmptyActivationSize());
+			if (visitResult.mayHaveMore()) {
+				storeManager.getObjectiveStore().submit(versionWithObjectiveValue);
+			}
 			if(accepted) {
 				storeManager.solutionStore.submit(versionWithObjectiveValue);
 			}
+			storeManager.notifyStatesChanged();
 
 			if (isVisualizationEnabled) {
 				visualizationStore.addState(last.version(), last.objectiveValue().toString());
@@ -81,9 +90,35 @@ public class BestFirstWorker {
 			return new SubmitResult(true, accepted, objectiveValue, last);
 		}
 
+		if (last != null && equivalenceClassStore.shouldResolveSymmetry(code)) {
+			submitForSymmetryResolution(code);
+		}
+
 		return new SubmitResult(false, false, null, null);
 	}
 
+	private void submitForSymmetryResolution(StateCoderResult code) {
+		// The colliding state needs a version to be checked for isomorphism later, but the worker must stay at the
+		// last state, because the state is not new as far as the exploration is concerned. We only get here if the
+		// equivalence class store has reserved a check for the state, so we never commit a state needlessly.
+		var equivalenceClassStore = storeManager.getEquivalenceClassStore();
+		boolean submitted = false;
+		try {
+			Version version = model.commit();
+			ObjectiveValue objectiveValue = explorationAdapter.getObjectiveValue();
+			var accepted = explorationAdapter.checkAccept();
+			var emptyActivations = activationStoreWorker.calculateEmptyActivationSize();
+			submitted = true;
+			equivalenceClassStore.submit(new VersionWithObjectiveValue(version, objectiveValue), code,
+					emptyActivations, accepted);
+		} finally {
+			if (!submitted) {
+				equivalenceClassStore.cancelSymmetryResolution(code);
+			}
+		}
+		model.restore(last.version());
+	}
+
 	public void restoreToLast() {
 		if (explorationAdapter.getModel().hasUncommittedChanges()) {
 			explorationAdapter.getModel().restore(last.version());
@@ -14,4 +14,42 @@ public interface EquivalenceClassStore {
 	boolean hasUnresolvedSymmetry();
 	void resolveOneSymmetry();
 	int getNumberOfUnresolvedSymmetries();
+
+	/**
+	 * Determines whether a state rejected by {@link #submit(StateCoderResult)} should be committed and submitted
+	 * again with {@link #submit(VersionWithObjectiveValue, StateCoderResult, int[], boolean)} to check whether it is
+	 * isomorphic to an already known state.
+	 *
+	 * <p>
+	 * If this method returns {@code true}, the store reserves capacity for checking the state, which is released
+	 * either by submitting the state or by calling {@link #cancelSymmetryResolution(StateCoderResult)}.
+	 * </p>
+	 *
+	 * @param stateCoderResult The state code of the rejected state.
+	 * @return {@code true} if the store will resolve the symmetry of the state.
+	 */
+	default boolean shouldResolveSymmetry(StateCoderResult stateCoderResult) {
+		return false;
+	}
+
+	/**
+	 * Releases the capacity reserved by {@link #shouldResolveSymmetry(StateCoderResult)} if the state could not be
+	 * submitted.
+	 *
+	 * @param stateCoderResult The state code of the rejected state.
+	 */
+	default void cancelSymmetryResolution(StateCoderResult stateCoderResult) {
+		// Stores that do not resolve symmetries do not reserve any capacity.
+	}
+
+	/**
+	 * Records the version of a state that was accepted as new by {@link #submit(StateCoderResult)} and then
+	 * committed.
+	 *
+	 * @param stateCoderResult The state code of the state.
+	 * @param version          The committed version of the state.
+	 */
+	default void addRepresentative(StateCoderResult stateCoderResult, VersionWithObjectiveValue version) {
+		// Stores that do not resolve symmetries do not need the committed versions.
+	}
 }
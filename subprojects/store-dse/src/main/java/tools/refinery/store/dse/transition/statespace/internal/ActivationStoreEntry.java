@@ -24,6 +24,19 @@ public abstract class ActivationStoreEntry {
 
 	public abstract int getAndAddActivationAfter(int index);
 
+	/**
+	 * Marks the first unvisited activation at or after {@code index} (wrapping around) as visited.
+	 *
+	 * @param index Index of an activation to start the search from.
+	 * @return The index of the newly visited activation, or {@code -1} if all activations were already visited.
+	 */
+	public int tryGetAndAddActivationAfter(int index) {
+		if (getNumberOfUnvisitedActivations() <= 0) {
+			return -1;
+		}
+		return getAndAddActivationAfter(index);
+	}
+
 	//	public abstract boolean contains(int activation)
 	//	public abstract boolean add(int activation)
 
@@ -34,4 +47,12 @@ public abstract class ActivationStoreEntry {
 			return new ActivationStoreListEntry(size);
 		}
 	}
+
+	public static ActivationStoreEntry createConcurrent(int size) {
+		if(size <= Integer.SIZE*6) {
+			return new ConcurrentActivationStoreBitVectorEntry(size);
+		} else {
+			return new SynchronizedActivationStoreListEntry(size);
+		}
+	}
 }
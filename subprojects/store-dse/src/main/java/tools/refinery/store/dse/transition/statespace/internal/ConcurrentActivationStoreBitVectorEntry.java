@@ -0,0 +1,71 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A bit vector activation entry that can be updated by several exploration workers at the same time.
+ * <p>
+ * Activations are marked as visited with a compare-and-set on the word containing their bit, so workers exploring
+ * the same version never block each other.
+ */
+public class ConcurrentActivationStoreBitVectorEntry extends ActivationStoreEntry {
+	private static final int ELEMENT_POSITION = 5; // size of Integer.SIZE
+	private static final int ELEMENT_BITMASK = (1 << ELEMENT_POSITION) - 1;
+
+	final AtomicIntegerArray selected;
+
+	ConcurrentActivationStoreBitVectorEntry(int numberOfActivations) {
+		super(numberOfActivations);
+		this.selected = new AtomicIntegerArray((numberOfActivations / Integer.SIZE) + 1);
+	}
+
+	@Override
+	public int getNumberOfVisitedActivations() {
+		int visited = 0;
+		int length = selected.length();
+		for (int i = 0; i < length; i++) {
+			visited += Integer.bitCount(selected.get(i));
+		}
+		return visited;
+	}
+
+	@Override
+	public int getAndAddActivationAfter(int index) {
+		int result = tryGetAndAddActivationAfter(index);
+		if (result < 0) {
+			throw new IllegalArgumentException("There is are no unvisited activations!");
+		}
+		return result;
+	}
+
+	@Override
+	public int tryGetAndAddActivationAfter(int index) {
+		if (numberOfActivations == 0) {
+			return -1;
+		}
+		int position = index;
+		do {
+			final int selectedElement = position >> ELEMENT_POSITION;
+			final int selectedBit = 1 << (position & ELEMENT_BITMASK);
+			int element = selected.get(selectedElement);
+			while ((element & selectedBit) == 0) {
+				if (selected.compareAndSet(selectedElement, element, element | selectedBit)) {
+					return position;
+				}
+				// Another worker modified the same word, re-read it and check whether our bit is still free.
+				element = selected.get(selectedElement);
+			}
+			if (position < this.numberOfActivations - 1) {
+				position++;
+			} else {
+				position = 0;
+			}
+		} while (position != index);
+		return -1;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.ActivationStore;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * An {@link ActivationStore} for several exploration workers sharing the same state space.
+ * <p>
+ * Unlike {@link ActivationStoreImpl}, there is no store-wide lock. Versions are looked up in a concurrent map, and
+ * activations are marked as visited directly in entries created by {@link ActivationStoreEntry#createConcurrent(int)}.
+ * If the activation chosen by a worker gets visited by another worker in the meantime, the worker retries with a new
+ * random choice.
+ */
+public class ConcurrentActivationStoreImpl implements ActivationStore {
+	final int numberOfTransformations;
+	final Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited;
+	final ConcurrentMap<VersionWithObjectiveValue, ActivationStoreEntry[]> versionToActivations;
+
+	public ConcurrentActivationStoreImpl(final int numberOfTransformations,
+										 Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited) {
+		this.numberOfTransformations = numberOfTransformations;
+		this.actionWhenAllActivationVisited = actionWhenAllActivationVisited;
+		versionToActivations = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public VisitResult markNewAsVisited(VersionWithObjectiveValue to, int[] emptyEntrySizes) {
+		var newEntries = new ActivationStoreEntry[emptyEntrySizes.length];
+		for (int i = 0; i < newEntries.length; i++) {
+			newEntries[i] = ActivationStoreEntry.createConcurrent(emptyEntrySizes[i]);
+		}
+		var oldEntries = versionToActivations.putIfAbsent(to, newEntries);
+		boolean successful = oldEntries == null;
+		var entries = successful ? newEntries : oldEntries;
+		boolean hasMore = hasUnvisited(entries);
+		if (!hasMore) {
+			actionWhenAllActivationVisited.accept(to);
+		}
+		return new VisitResult(successful, hasMore, -1, -1);
+	}
+
+	@Override
+	public boolean hasUnmarkedActivation(VersionWithObjectiveValue version) {
+		var entries = versionToActivations.get(version);
+		return hasUnvisited(entries);
+	}
+
+	@Override
+	public VisitResult getRandomAndMarkAsVisited(VersionWithObjectiveValue version, Random random) {
+		var entries = versionToActivations.get(version);
+		var weights = new double[entries.length];
+		while (true) {
+			double totalWeight = 0;
+			for (int i = 0; i < weights.length; i++) {
+				int unvisited = entries[i].getNumberOfUnvisitedActivations();
+				double weight = unvisited <= 0 ? 0 : unvisited;
+				weights[i] = weight;
+				totalWeight += weight;
+			}
+
+			if (totalWeight == 0) {
+				actionWhenAllActivationVisited.accept(version);
+				return new VisitResult(false, false, -1, -1);
+			}
+
+			int transformation = selectTransformation(weights, random.nextDouble(totalWeight));
+			var entry = entries[transformation];
+			int activation = entry.tryGetAndAddActivationAfter(random.nextInt(entry.getNumberOfActivations()));
+			if (activation >= 0) {
+				boolean hasMore = hasUnvisited(entries);
+				if (!hasMore) {
+					actionWhenAllActivationVisited.accept(version);
+				}
+				return new VisitResult(true, hasMore, transformation, activation);
+			}
+			// Another worker has visited the remaining activations of the selected transformation, try again.
+		}
+	}
+
+	private static int selectTransformation(double[] weights, double offset) {
+		double remaining = offset;
+		int lastNonZero = -1;
+		for (int transformation = 0; transformation < weights.length; transformation++) {
+			double weight = weights[transformation];
+			if (weight > 0) {
+				if (remaining < weight) {
+					return transformation;
+				}
+				lastNonZero = transformation;
+			}
+			remaining -= weight;
+		}
+		if (lastNonZero < 0) {
+			throw new AssertionError("Unvisited activation %f not found".formatted(offset));
+		}
+		// Floating point rounding may push the offset slightly past the last non-empty transformation.
+		return lastNonZero;
+	}
+
+	private static boolean hasUnvisited(ActivationStoreEntry[] entries) {
+		// Use indexed for loop to avoid allocating an iterator.
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].getNumberOfUnvisitedActivations() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free {@link ObjectivePriorityQueue} for several exploration workers.
+ * <p>
+ * Entries are ordered by their objective values in a concurrent skip list, so {@link #getBest()} takes constant time
+ * and {@link #submit(VersionWithObjectiveValue)} and {@link #remove(VersionWithObjectiveValue)} take
+ * <i>O</i>(log <i>n</i>) time without blocking. A second skip list orders the entries by a scrambled submission
+ * number, and {@link #getRandom(Random)} picks the first entry after a random position in this order in
+ * <i>O</i>(log <i>n</i>) time. Every entry is picked with the same probability on average, but not necessarily for
+ * each particular state of the queue.
+ */
+public class ConcurrentObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
+	private final Comparator<VersionWithObjectiveValue> comparator;
+	private final ConcurrentMap<VersionWithObjectiveValue, Entry> entries = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Entry> orderedEntries;
+	private final ConcurrentSkipListSet<Entry> randomEntries =
+			new ConcurrentSkipListSet<>(Comparator.comparingLong(Entry::randomKey));
+	private final AtomicLong sequenceNumber = new AtomicLong();
+
+	public ConcurrentObjectivePriorityQueueImpl(List<Objective> objectives) {
+		comparator = ObjectivePriorityQueueImpl.getComparator(objectives);
+		// Break ties by submission order to keep entries with the same objective value distinct.
+		orderedEntries = new ConcurrentSkipListSet<>(Comparator.<Entry, VersionWithObjectiveValue>comparing(
+				Entry::versionWithObjectiveValue, comparator).thenComparingLong(Entry::randomKey));
+	}
+
+	@Override
+	public Comparator<VersionWithObjectiveValue> getComparator() {
+		return comparator;
+	}
+
+	@Override
+	public void submit(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = new Entry(versionWithObjectiveValue, scramble(sequenceNumber.getAndIncrement()));
+		if (entries.putIfAbsent(versionWithObjectiveValue, entry) != null) {
+			return;
+		}
+		orderedEntries.add(entry);
+		randomEntries.add(entry);
+		if (entry.removed) {
+			// A concurrent {@link #remove(VersionWithObjectiveValue)} may have run between adding the entry to the
+			// map and the skip lists, and could not remove it from the skip lists.
+			removeFromSkipLists(entry);
+		}
+	}
+
+	@Override
+	public void remove(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = entries.remove(versionWithObjectiveValue);
+		if (entry == null) {
+			return;
+		}
+		// Setting the flag before removing the entry from the skip lists ensures that either this thread or the
+		// submitting thread will see the entry in the skip lists.
+		entry.removed = true;
+		removeFromSkipLists(entry);
+	}
+
+	private void removeFromSkipLists(Entry entry) {
+		orderedEntries.remove(entry);
+		randomEntries.remove(entry);
+	}
+
+	@Override
+	public int getSize() {
+		return entries.size();
+	}
+
+	@Override
+	public VersionWithObjectiveValue getBest() {
+		var first = firstOrNull(orderedEntries);
+		return first == null ? null : first.versionWithObjectiveValue();
+	}
+
+	@Override
+	public VersionWithObjectiveValue getRandom(Random random) {
+		var entry = randomEntries.ceiling(new Entry(null, random.nextLong()));
+		if (entry == null) {
+			// Wrap around to the beginning of the order.
+			entry = firstOrNull(randomEntries);
+		}
+		return entry == null ? null : entry.versionWithObjectiveValue();
+	}
+
+	private static Entry firstOrNull(ConcurrentSkipListSet<Entry> set) {
+		// Avoid {@link ConcurrentSkipListSet#first()}, which throws an exception if a concurrent removal empties the
+		// set.
+		var iterator = set.iterator();
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	private static long scramble(long value) {
+		// Finalizer of MurmurHash3, which is a bijection, so distinct submissions get distinct random keys.
+		long result = value;
+		result ^= result >>> 33;
+		result *= 0xff51afd7ed558ccdL;
+		result ^= result >>> 33;
+		result *= 0xc4ceb9fe1a85ec53L;
+		result ^= result >>> 33;
+		return result;
+	}
+
+	private static final class Entry {
+		private final VersionWithObjectiveValue versionWithObjectiveValue;
+		private final long randomKey;
+		private volatile boolean removed;
+
+		Entry(VersionWithObjectiveValue versionWithObjectiveValue, long randomKey) {
+			this.versionWithObjectiveValue = versionWithObjectiveValue;
+			this.randomKey = randomKey;
+		}
+
+		VersionWithObjectiveValue versionWithObjectiveValue() {
+			return versionWithObjectiveValue;
+		}
+
+		long randomKey() {
+			return randomKey;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import java.util.*;
+
+/**
+ * A binary heap that also maps its elements to their positions in the heap array.
+ * <p>
+ * The heap operations mirror those of {@link PriorityQueue}, so the order of the backing array (and thus the
+ * result of {@link #get(int)}) is the same as the iteration order of a {@link PriorityQueue} subjected to the same
+ * sequence of operations. In contrast to {@link PriorityQueue}, removing an arbitrary element takes
+ * <i>O</i>(log <i>n</i>) time instead of a linear scan, and random access takes constant time.
+ * <p>
+ * Elements must be distinct according to {@link Object#equals(Object)}. This class is not thread-safe.
+ *
+ * @param <T> The type of the elements.
+ */
+class IndexedPriorityQueue<T> {
+	private static final int DEFAULT_INITIAL_CAPACITY = 11;
+
+	private final Comparator<? super T> comparator;
+	private final Map<T, Integer> positions = new HashMap<>();
+	private Object[] queue = new Object[DEFAULT_INITIAL_CAPACITY];
+	private int size;
+
+	IndexedPriorityQueue(Comparator<? super T> comparator) {
+		this.comparator = comparator;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(T element) {
+		return positions.containsKey(element);
+	}
+
+	public T peek() {
+		return size == 0 ? null : elementAt(0);
+	}
+
+	public T get(int index) {
+		Objects.checkIndex(index, size);
+		return elementAt(index);
+	}
+
+	public boolean add(T element) {
+		Objects.requireNonNull(element, "element");
+		if (positions.containsKey(element)) {
+			return false;
+		}
+		int k = size;
+		if (k >= queue.length) {
+			grow();
+		}
+		size = k + 1;
+		siftUp(k, element);
+		return true;
+	}
+
+	public boolean remove(T element) {
+		var position = positions.remove(element);
+		if (position == null) {
+			return false;
+		}
+		removeAt(position);
+		return true;
+	}
+
+	private void removeAt(int i) {
+		int s = --size;
+		if (s == i) {
+			queue[i] = null;
+		} else {
+			var moved = elementAt(s);
+			queue[s] = null;
+			siftDown(i, moved);
+			if (queue[i] == moved) {
+				siftUp(i, moved);
+			}
+		}
+	}
+
+	private void grow() {
+		int oldCapacity = queue.length;
+		// Double size if small, else grow by 50%, like {@link PriorityQueue}.
+		int newCapacity = oldCapacity + (oldCapacity < 64 ? oldCapacity + 2 : oldCapacity >> 1);
+		queue = Arrays.copyOf(queue, newCapacity);
+	}
+
+	private void siftUp(int k, T element) {
+		int position = k;
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			var parentElement = elementAt(parent);
+			if (comparator.compare(element, parentElement) >= 0) {
+				break;
+			}
+			place(position, parentElement);
+			position = parent;
+		}
+		place(position, element);
+	}
+
+	private void siftDown(int k, T element) {
+		int position = k;
+		int half = size >>> 1;
+		while (position < half) {
+			int child = (position << 1) + 1;
+			var childElement = elementAt(child);
+			int right = child + 1;
+			if (right < size && comparator.compare(childElement, elementAt(right)) > 0) {
+				child = right;
+				childElement = elementAt(child);
+			}
+			if (comparator.compare(element, childElement) <= 0) {
+				break;
+			}
+			place(position, childElement);
+			position = child;
+		}
+		place(position, element);
+	}
+
+	private void place(int position, T element) {
+		queue[position] = element;
+		positions.put(element, position);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int position) {
+		return (T) queue[position];
+	}
+}
@@ -12,27 +12,44 @@ import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.Random;
 
 public class ObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
+	/**
+	 * Compares versions without any objectives, i.e., considers every version equally good.
+	 */
+	public static final Comparator<VersionWithObjectiveValue> c0 = (o1, o2) -> 0;
 	public static final Comparator<VersionWithObjectiveValue> c1 = (o1, o2) -> Double.compare(
 			((ObjectiveValues.ObjectiveValue1) o1.objectiveValue()).value0(),
 			((ObjectiveValues.ObjectiveValue1) o2.objectiveValue()).value0());
-	// TODO: support multi objective!
-	final PriorityQueue<VersionWithObjectiveValue> priorityQueue;
+	// Several objectives are handled by ParetoObjectivePriorityQueueImpl instead.
+	final Comparator<VersionWithObjectiveValue> comparator;
+	final IndexedPriorityQueue<VersionWithObjectiveValue> priorityQueue;
 
 	public ObjectivePriorityQueueImpl(List<Objective> objectives) {
+		comparator = getComparator(objectives);
+		this.priorityQueue = new IndexedPriorityQueue<>(comparator);
+	}
 
-		if(objectives.size() == 1) {
-			this.priorityQueue = new PriorityQueue<>(c1);
-		} else {
-			throw new UnsupportedOperationException("Only single objective comparator is implemented currently!");
-		}
+	/**
+	 * Gets the comparator of versions for a list of objectives that can be totally ordered.
+	 *
+	 * @param objectives The objectives of the exploration.
+	 * @return The comparator, which ranks better versions first.
+	 * @throws UnsupportedOperationException If there are several objectives, which can only be partially ordered.
+	 */
+	public static Comparator<VersionWithObjectiveValue> getComparator(List<Objective> objectives) {
+		return switch (objectives.size()) {
+			case 0 -> c0;
+			case 1 -> c1;
+			default -> throw new UnsupportedOperationException(
+					"Only single objective comparator is implemented currently!");
+		};
 	}
+
 	@Override
 	public Comparator<VersionWithObjectiveValue> getComparator() {
-		return c1;
+		return comparator;
 	}
 
 	@Override
@@ -57,12 +74,11 @@ public class ObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
 
 	@Override
 	public synchronized VersionWithObjectiveValue getRandom(Random random) {
-		int randomPosition = random.nextInt(getSize());
-		for (VersionWithObjectiveValue entry : this.priorityQueue) {
-			if (randomPosition-- == 0) {
-				return entry;
-			}
+		int size = getSize();
+		if (size == 0) {
+			// Another worker may have removed the last entry since the caller checked the size.
+			return null;
 		}
-		throw new IllegalStateException("The priority queue is inconsistent!");
+		return priorityQueue.get(random.nextInt(size));
 	}
 }
@@ -0,0 +1,265 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained non-dominated sorting of versions by their objective values.
+ * <p>
+ * Every objective is minimized. Front {@code 0} is the Pareto frontier, and every version in front {@code k + 1} is
+ * dominated by some version in front {@code k}. Because fronts are nested this way, the front of a new version can
+ * be found by binary search over the fronts. Inserting or removing a version only moves versions by a single front,
+ * and only those versions that are dominated by a moved version are considered at each level.
+ * <p>
+ * Each front is kept in lexicographic order of objective values. A version can only be dominated by versions that
+ * precede it lexicographically, so dominance checks only scan a prefix of the front. For two objectives, the values
+ * in a front are monotonic, and checking the last preceding version is sufficient.
+ * <p>
+ * This class is not thread-safe.
+ */
+class ParetoFronts {
+	private static final Comparator<Entry> LEXICOGRAPHIC_ORDER = (e1, e2) -> {
+		var values1 = e1.values;
+		var values2 = e2.values;
+		int length = Math.min(values1.length, values2.length);
+		for (int i = 0; i < length; i++) {
+			int result = Double.compare(values1[i], values2[i]);
+			if (result != 0) {
+				return result;
+			}
+		}
+		int result = Integer.compare(values1.length, values2.length);
+		if (result != 0) {
+			return result;
+		}
+		return Long.compare(e1.sequenceNumber, e2.sequenceNumber);
+	};
+
+	private final List<TreeSet<Entry>> fronts = new ArrayList<>();
+	private final Map<VersionWithObjectiveValue, Entry> entries = new HashMap<>();
+	private long nextSequenceNumber;
+
+	static final class Entry {
+		final VersionWithObjectiveValue versionWithObjectiveValue;
+		final double[] values;
+		final long sequenceNumber;
+		int front;
+
+		private Entry(VersionWithObjectiveValue versionWithObjectiveValue, long sequenceNumber) {
+			this.versionWithObjectiveValue = versionWithObjectiveValue;
+			var objectiveValue = versionWithObjectiveValue.objectiveValue();
+			int size = objectiveValue.getSize();
+			values = new double[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = objectiveValue.get(i);
+			}
+			this.sequenceNumber = sequenceNumber;
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public int getNumberOfFronts() {
+		return fronts.size();
+	}
+
+	public boolean contains(VersionWithObjectiveValue versionWithObjectiveValue) {
+		return entries.containsKey(versionWithObjectiveValue);
+	}
+
+	/**
+	 * Gets the front of a version.
+	 *
+	 * @param versionWithObjectiveValue The version.
+	 * @return The index of the front containing the version, or {@code -1} if the version is not present.
+	 */
+	public int getFront(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = entries.get(versionWithObjectiveValue);
+		return entry == null ? -1 : entry.front;
+	}
+
+	/**
+	 * Gets the versions in a front in lexicographic order of their objective values.
+	 *
+	 * @param front The index of the front.
+	 * @return An unmodifiable view of the front.
+	 */
+	public NavigableSet<Entry> getFrontEntries(int front) {
+		return Collections.unmodifiableNavigableSet(fronts.get(front));
+	}
+
+	/**
+	 * Adds a version.
+	 *
+	 * @param versionWithObjectiveValue The version to add.
+	 * @return The index of the front the version was added to, or {@code -1} if the version was already present.
+	 */
+	public int add(VersionWithObjectiveValue versionWithObjectiveValue) {
+		if (entries.containsKey(versionWithObjectiveValue)) {
+			return -1;
+		}
+		var entry = new Entry(versionWithObjectiveValue, nextSequenceNumber++);
+		entries.put(versionWithObjectiveValue, entry);
+		int low = 0;
+		int high = fronts.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (isDominatedByFront(fronts.get(middle), entry)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		int frontIndex = low;
+		if (frontIndex == fronts.size()) {
+			fronts.add(new TreeSet<>(LEXICOGRAPHIC_ORDER));
+		}
+		var front = fronts.get(frontIndex);
+		List<Entry> moved = collectDominated(front, List.of(entry));
+		addToFront(frontIndex, entry);
+		int level = frontIndex;
+		while (!moved.isEmpty()) {
+			removeAllFromFront(level, moved);
+			level++;
+			List<Entry> nextMoved;
+			if (level == fronts.size()) {
+				fronts.add(new TreeSet<>(LEXICOGRAPHIC_ORDER));
+				nextMoved = List.of();
+			} else {
+				nextMoved = collectDominated(fronts.get(level), moved);
+			}
+			for (var movedEntry : moved) {
+				addToFront(level, movedEntry);
+			}
+			moved = nextMoved;
+		}
+		return frontIndex;
+	}
+
+	/**
+	 * Removes a version.
+	 *
+	 * @param versionWithObjectiveValue The version to remove.
+	 * @return {@code true} if the version was present.
+	 */
+	public boolean remove(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = entries.remove(versionWithObjectiveValue);
+		if (entry == null) {
+			return false;
+		}
+		int level = entry.front;
+		fronts.get(level).remove(entry);
+		List<Entry> left = List.of(entry);
+		while (!left.isEmpty() && level + 1 < fronts.size()) {
+			var front = fronts.get(level);
+			var nextFront = fronts.get(level + 1);
+			var promoted = new ArrayList<Entry>();
+			for (var candidate : collectDominated(nextFront, left)) {
+				if (!isDominatedByFront(front, candidate)) {
+					promoted.add(candidate);
+				}
+			}
+			removeAllFromFront(level + 1, promoted);
+			for (var promotedEntry : promoted) {
+				addToFront(level, promotedEntry);
+			}
+			left = promoted;
+			level++;
+		}
+		// Only the last fronts may become empty, because a version is only promoted if it lost all of its dominators
+		// in the previous front.
+		while (!fronts.isEmpty() && fronts.getLast().isEmpty()) {
+			fronts.removeLast();
+		}
+		return true;
+	}
+
+	private void addToFront(int frontIndex, Entry entry) {
+		entry.front = frontIndex;
+		fronts.get(frontIndex).add(entry);
+	}
+
+	private void removeAllFromFront(int frontIndex, List<Entry> toRemove) {
+		var front = fronts.get(frontIndex);
+		for (var entry : toRemove) {
+			front.remove(entry);
+		}
+	}
+
+	private static List<Entry> collectDominated(TreeSet<Entry> front, List<Entry> dominators) {
+		var result = new ArrayList<Entry>();
+		var first = dominators.getFirst();
+		for (var dominator : dominators) {
+			if (LEXICOGRAPHIC_ORDER.compare(dominator, first) < 0) {
+				first = dominator;
+			}
+		}
+		// A version can only be dominated by versions that precede it lexicographically.
+		for (var entry : front.tailSet(first, false)) {
+			for (var dominator : dominators) {
+				if (dominates(dominator.values, entry.values)) {
+					result.add(entry);
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	private static boolean isDominatedByFront(TreeSet<Entry> front, Entry entry) {
+		if (entry.values.length == 2) {
+			var candidate = front.lower(entry);
+			return candidate != null && dominates(candidate.values, entry.values);
+		}
+		for (var candidate : front.headSet(entry, false)) {
+			if (dominates(candidate.values, entry.values)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static boolean dominates(double[] values1, double[] values2) {
+		if (values1.length != values2.length) {
+			throw new IllegalArgumentException("Objective values have different number of objectives");
+		}
+		boolean strictlyBetter = false;
+		for (int i = 0; i < values1.length; i++) {
+			int result = Double.compare(values1[i], values2[i]);
+			if (result > 0) {
+				return false;
+			}
+			if (result < 0) {
+				strictlyBetter = true;
+			}
+		}
+		return strictlyBetter;
+	}
+
+	static boolean dominates(ObjectiveValue value1, ObjectiveValue value2) {
+		int size = value1.getSize();
+		if (size != value2.getSize()) {
+			throw new IllegalArgumentException("Objective values have different number of objectives");
+		}
+		boolean strictlyBetter = false;
+		for (int i = 0; i < size; i++) {
+			int result = Double.compare(value1.get(i), value2.get(i));
+			if (result > 0) {
+				return false;
+			}
+			if (result < 0) {
+				strictlyBetter = true;
+			}
+		}
+		return strictlyBetter;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An {@link ObjectivePriorityQueue} for any number of objectives, each of which is minimized.
+ * <p>
+ * Instead of collapsing the objectives into a single value, versions are sorted into non-dominated fronts by
+ * {@link ParetoFronts}. {@link #getBest()} cycles through the Pareto frontier in lexicographic order, so that
+ * subsequent restores continue the exploration from different trade-offs between the objectives.
+ */
+public class ParetoObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
+	/**
+	 * Orders a version before another one if it dominates the other one. Versions that do not dominate each other
+	 * are considered equal, so this is <em>not</em> a total order, and must not be used for sorting.
+	 */
+	public static final Comparator<VersionWithObjectiveValue> DOMINANCE = (o1, o2) -> {
+		if (ParetoFronts.dominates(o1.objectiveValue(), o2.objectiveValue())) {
+			return -1;
+		}
+		if (ParetoFronts.dominates(o2.objectiveValue(), o1.objectiveValue())) {
+			return 1;
+		}
+		return 0;
+	};
+
+	private final ParetoFronts fronts = new ParetoFronts();
+	private final ArrayList<VersionWithObjectiveValue> randomAccessEntries = new ArrayList<>();
+	private final Map<VersionWithObjectiveValue, Integer> randomAccessIndices = new HashMap<>();
+	private ParetoFronts.Entry lastBest;
+
+	@Override
+	public Comparator<VersionWithObjectiveValue> getComparator() {
+		return DOMINANCE;
+	}
+
+	@Override
+	public synchronized void submit(VersionWithObjectiveValue versionWithObjectiveValue) {
+		if (fronts.add(versionWithObjectiveValue) < 0) {
+			return;
+		}
+		randomAccessIndices.put(versionWithObjectiveValue, randomAccessEntries.size());
+		randomAccessEntries.add(versionWithObjectiveValue);
+	}
+
+	@Override
+	public synchronized void remove(VersionWithObjectiveValue versionWithObjectiveValue) {
+		if (!fronts.remove(versionWithObjectiveValue)) {
+			return;
+		}
+		int index = randomAccessIndices.remove(versionWithObjectiveValue);
+		var lastEntry = randomAccessEntries.removeLast();
+		if (index < randomAccessEntries.size()) {
+			randomAccessEntries.set(index, lastEntry);
+			randomAccessIndices.put(lastEntry, index);
+		}
+	}
+
+	@Override
+	public synchronized int getSize() {
+		return fronts.size();
+	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getBest() {
+		if (fronts.getNumberOfFronts() == 0) {
+			lastBest = null;
+			return null;
+		}
+		var frontier = fronts.getFrontEntries(0);
+		var next = lastBest == null ? null : frontier.higher(lastBest);
+		if (next == null) {
+			next = frontier.first();
+		}
+		lastBest = next;
+		return next.versionWithObjectiveValue;
+	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getRandom(Random random) {
+		int size = randomAccessEntries.size();
+		if (size == 0) {
+			return null;
+		}
+		return randomAccessEntries.get(random.nextInt(size));
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.SolutionStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link SolutionStore} for any number of objectives that only keeps the Pareto-optimal solutions.
+ * <p>
+ * Solutions dominated by a previously found solution are rejected, and solutions dominated by a newly found one are
+ * evicted. Once the store holds the requested number of solutions, only solutions dominating some of them are
+ * accepted.
+ */
+public class ParetoSolutionStoreImpl implements SolutionStore {
+	final int maxNumberSolutions;
+	final ParetoFronts solutions = new ParetoFronts();
+
+	public ParetoSolutionStoreImpl(int maxNumberSolutions) {
+		this.maxNumberSolutions = maxNumberSolutions;
+	}
+
+	@Override
+	public synchronized boolean submit(VersionWithObjectiveValue version) {
+		boolean full = hasEnoughSolution();
+		int front = solutions.add(version);
+		if (front != 0) {
+			if (front > 0) {
+				solutions.remove(version);
+			}
+			return false;
+		}
+		if (solutions.getNumberOfFronts() > 1) {
+			// The versions dominated by the new solution were all moved to the second front.
+			var dominated = new ArrayList<VersionWithObjectiveValue>();
+			for (var entry : solutions.getFrontEntries(1)) {
+				dominated.add(entry.versionWithObjectiveValue);
+			}
+			for (var dominatedVersion : dominated) {
+				solutions.remove(dominatedVersion);
+			}
+		} else if (full) {
+			solutions.remove(version);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized List<VersionWithObjectiveValue> getSolutions() {
+		if (solutions.getNumberOfFronts() == 0) {
+			return new ArrayList<>();
+		}
+		var result = new ArrayList<VersionWithObjectiveValue>(solutions.size());
+		for (var entry : solutions.getFrontEntries(0)) {
+			result.add(entry.versionWithObjectiveValue);
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized boolean hasEnoughSolution() {
+		if (maxNumberSolutions == SolutionStoreImpl.UNLIMITED) {
+			return false;
+		} else {
+			return solutions.size() >= maxNumberSolutions;
+		}
+	}
+}
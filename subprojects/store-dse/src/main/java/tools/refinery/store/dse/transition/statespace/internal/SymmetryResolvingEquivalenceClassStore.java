@@ -0,0 +1,373 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.statecoding.StateCoderStoreAdapter;
+import tools.refinery.store.statecoding.StateEquivalenceChecker;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An equivalence class store that does not lose states to state code collisions.
+ * <p>
+ * States are bucketed by their model code. Within a bucket, each representative state also has a 64-bit fingerprint
+ * computed from the multiset of its object codes. Isomorphic states always have the same fingerprint, so a state
+ * with a new fingerprint is accepted immediately without any isomorphism check.
+ * <p>
+ * If the fingerprint matches a known representative, the state is likely, but not certainly, a duplicate. Such a
+ * state is committed by the worker and checked with {@link StateCoderStoreAdapter#checkEquivalence} either on a
+ * background thread pool or lazily on the first call of {@link #resolveOneSymmetry()}. Non-isomorphic states are
+ * handed to {@link #delegate(VersionWithObjectiveValue, int[], boolean)} from {@link #resolveOneSymmetry()}, i.e.,
+ * always on an exploration worker thread.
+ * <p>
+ * Memory use and checking effort are bounded: each model code has at most a fixed number of representatives,
+ * representatives with the same fingerprint are only checked a fixed number of times, and there is a limit on the
+ * number of states waiting for a check. Beyond these limits, colliding states are treated as duplicates, just like in
+ * {@link FastEquivalenceClassStore}.
+ */
+public abstract class SymmetryResolvingEquivalenceClassStore extends AbstractEquivalenceClassStore
+		implements EquivalenceClassStore {
+	public static final int DEFAULT_MAX_REPRESENTATIVES = 16;
+	public static final int DEFAULT_CHECKS_PER_FINGERPRINT = 1;
+	public static final int DEFAULT_MAX_PENDING_CHECKS = 1024;
+	private static final long KEEP_ALIVE_SECONDS = 1;
+
+	private static final class Representative {
+		final long fingerprint;
+		volatile VersionWithObjectiveValue version;
+		int remainingChecks;
+
+		Representative(long fingerprint, int remainingChecks) {
+			this.fingerprint = fingerprint;
+			this.remainingChecks = remainingChecks;
+		}
+	}
+
+	private record UnresolvedState(StateCoderResult stateCoderResult, long fingerprint,
+								   VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+	}
+
+	private final MutableIntObjectMap<Object> modelCode2Representatives = IntObjectMaps.mutable.empty();
+	private final int maxRepresentatives;
+	private final int checksPerFingerprint;
+	private final int maxPendingChecks;
+	private final ThreadPoolExecutor executor;
+	private final Queue<UnresolvedState> uncheckedStates = new ConcurrentLinkedQueue<>();
+	private final Queue<UnresolvedState> resolvedStates = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingChecks = new AtomicInteger();
+	private volatile RuntimeException checkFailure;
+
+	/**
+	 * Creates a new store.
+	 *
+	 * @param stateCoderStoreAdapter The adapter used to check states for isomorphism.
+	 * @param checkingThreads        The number of background threads to check states on, or {@code 0} to check
+	 *                               states lazily on the thread calling {@link #resolveOneSymmetry()}, which keeps
+	 *                               the exploration deterministic.
+	 */
+	protected SymmetryResolvingEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter,
+													 int checkingThreads) {
+		this(stateCoderStoreAdapter, checkingThreads, DEFAULT_MAX_REPRESENTATIVES, DEFAULT_CHECKS_PER_FINGERPRINT,
+				DEFAULT_MAX_PENDING_CHECKS);
+	}
+
+	protected SymmetryResolvingEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter,
+													 int checkingThreads, int maxRepresentatives,
+													 int checksPerFingerprint, int maxPendingChecks) {
+		super(stateCoderStoreAdapter);
+		if (checkingThreads < 0) {
+			throw new IllegalArgumentException("Number of checking threads must not be negative, got: " +
+					checkingThreads);
+		}
+		this.maxRepresentatives = maxRepresentatives;
+		this.checksPerFingerprint = checksPerFingerprint;
+		this.maxPendingChecks = maxPendingChecks;
+		if (checkingThreads == 0) {
+			executor = null;
+		} else {
+			executor = new ThreadPoolExecutor(checkingThreads, checkingThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), Thread.ofPlatform().name("symmetry-checker-", 0).daemon().factory());
+			// Let the threads terminate when the exploration is over, so we don't have to shut the pool down.
+			executor.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	static long getFingerprint(StateCoderResult stateCoderResult) {
+		var objectCode = stateCoderResult.objectCode();
+		long fingerprint = stateCoderResult.modelCode();
+		int size = objectCode.getSize();
+		for (int i = 0; i < size; i++) {
+			long code = objectCode.get(i);
+			if (code != 0) {
+				// Summing mixed codes is invariant under the permutation of objects.
+				fingerprint += mix(code);
+			}
+		}
+		return fingerprint;
+	}
+
+	private static long mix(long value) {
+		// Finalizer of MurmurHash3.
+		long result = value;
+		result ^= result >>> 33;
+		result *= 0xff51afd7ed558ccdL;
+		result ^= result >>> 33;
+		result *= 0xc4ceb9fe1a85ec53L;
+		result ^= result >>> 33;
+		return result;
+	}
+
+	private static Representative[] getRepresentatives(Object value) {
+		if (value instanceof Representative representative) {
+			return new Representative[]{representative};
+		}
+		return (Representative[]) value;
+	}
+
+	private Representative findFirst(int modelCode, long fingerprint) {
+		var value = modelCode2Representatives.get(modelCode);
+		if (value == null) {
+			return null;
+		}
+		for (var representative : getRepresentatives(value)) {
+			if (representative.fingerprint == fingerprint) {
+				return representative;
+			}
+		}
+		return null;
+	}
+
+	private Representative addIfNew(int modelCode, long fingerprint) {
+		var value = modelCode2Representatives.get(modelCode);
+		if (value == null) {
+			var representative = new Representative(fingerprint, checksPerFingerprint);
+			modelCode2Representatives.put(modelCode, representative);
+			return representative;
+		}
+		var representatives = getRepresentatives(value);
+		if (representatives.length >= maxRepresentatives) {
+			return null;
+		}
+		for (var representative : representatives) {
+			if (representative.fingerprint == fingerprint) {
+				return null;
+			}
+		}
+		var representative = new Representative(fingerprint, checksPerFingerprint);
+		var newRepresentatives = Arrays.copyOf(representatives, representatives.length + 1);
+		newRepresentatives[representatives.length] = representative;
+		modelCode2Representatives.put(modelCode, newRepresentatives);
+		return representative;
+	}
+
+	@Override
+	public synchronized boolean tryToAdd(StateCoderResult stateCoderResult) {
+		return addIfNew(stateCoderResult.modelCode(), getFingerprint(stateCoderResult)) != null;
+	}
+
+	@Override
+	protected synchronized boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
+											int[] emptyActivations, boolean accept) {
+		var representative = addIfNew(stateCoderResult.modelCode(), getFingerprint(stateCoderResult));
+		if (representative == null) {
+			return false;
+		}
+		representative.version = newVersion;
+		return true;
+	}
+
+	@Override
+	public synchronized void addRepresentative(StateCoderResult stateCoderResult,
+											   VersionWithObjectiveValue version) {
+		var representative = findFirst(stateCoderResult.modelCode(), getFingerprint(stateCoderResult));
+		if (representative != null && representative.version == null) {
+			representative.version = version;
+		}
+	}
+
+	/**
+	 * Determines whether a colliding state should be checked for isomorphism. If it should, a pending check is
+	 * reserved for it, so that the worker only commits the state if it will actually be checked.
+	 */
+	@Override
+	public synchronized boolean shouldResolveSymmetry(StateCoderResult stateCoderResult) {
+		var representative = findFirst(stateCoderResult.modelCode(), getFingerprint(stateCoderResult));
+		// If the representative is not committed yet, another worker is still processing it, and we have nothing to
+		// check against. This is only possible with several workers, and we treat the state as a duplicate.
+		if (representative == null || representative.version == null || representative.remainingChecks <= 0 ||
+				!tryReservePendingCheck()) {
+			return false;
+		}
+		representative.remainingChecks--;
+		return true;
+	}
+
+	private boolean tryReservePendingCheck() {
+		// Pending checks are released without holding the lock, so we need a compare-and-set loop here.
+		int current;
+		do {
+			current = pendingChecks.get();
+			if (current >= maxPendingChecks) {
+				return false;
+			}
+		} while (!pendingChecks.compareAndSet(current, current + 1));
+		return true;
+	}
+
+	@Override
+	public void cancelSymmetryResolution(StateCoderResult stateCoderResult) {
+		releasePendingCheck();
+	}
+
+	private void releasePendingCheck() {
+		pendingChecks.decrementAndGet();
+		checkFinished();
+	}
+
+	/**
+	 * Submits a committed state. If the state is new according to its state code, it is immediately delegated.
+	 * Otherwise, it will be checked for isomorphism with the known representatives, and it will be delegated by
+	 * {@link #resolveOneSymmetry()} if it turns out to be a new state.
+	 * <p>
+	 * Must only be called after {@link #shouldResolveSymmetry(StateCoderResult)} reserved a pending check for the
+	 * state.
+	 * </p>
+	 *
+	 * @return {@code true} if the state was delegated immediately.
+	 */
+	@Override
+	public boolean submit(VersionWithObjectiveValue version, StateCoderResult stateCoderResult,
+						  int[] emptyActivations, boolean accept) {
+		if (tryToAdd(stateCoderResult, version, emptyActivations, accept)) {
+			releasePendingCheck();
+			delegate(version, emptyActivations, accept);
+			return true;
+		}
+		var unresolvedState = new UnresolvedState(stateCoderResult, getFingerprint(stateCoderResult), version,
+				emptyActivations, accept);
+		if (executor == null) {
+			uncheckedStates.add(unresolvedState);
+		} else {
+			executor.execute(() -> check(unresolvedState));
+		}
+		return false;
+	}
+
+	private void check(UnresolvedState unresolvedState) {
+		try {
+			if (isNewState(unresolvedState)) {
+				resolvedStates.add(unresolvedState);
+			}
+		} catch (RuntimeException e) {
+			if (checkFailure == null) {
+				checkFailure = e;
+			}
+		} finally {
+			// Only decrement after adding to the resolved states to never report every symmetry as resolved
+			// prematurely.
+			releasePendingCheck();
+		}
+	}
+
+	/**
+	 * Called after each isomorphism check, possibly on a background thread, once its result is visible through
+	 * {@link #hasUnresolvedSymmetry()}.
+	 */
+	protected void checkFinished() {
+		// Nothing to do by default.
+	}
+
+	private boolean isNewState(UnresolvedState unresolvedState) {
+		int modelCode = unresolvedState.stateCoderResult().modelCode();
+		long fingerprint = unresolvedState.fingerprint();
+		Representative first;
+		synchronized (this) {
+			first = findFirst(modelCode, fingerprint);
+		}
+		if (first == null) {
+			return false;
+		}
+		// Checks against the same fingerprint are serialized, so that two isomorphic colliding states can't both be
+		// accepted as new.
+		synchronized (first) {
+			Representative[] representatives;
+			synchronized (this) {
+				representatives = getRepresentatives(modelCode2Representatives.get(modelCode));
+			}
+			var version = unresolvedState.version().version();
+			for (var representative : representatives) {
+				var representativeVersion = representative.version;
+				if (representative.fingerprint == fingerprint && representativeVersion != null &&
+						stateCoderStoreAdapter.checkEquivalence(representativeVersion.version(), version) ==
+								StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC) {
+					return false;
+				}
+			}
+			// The state is not proven to be isomorphic to any representative, so we prefer exploring it again to
+			// pruning a potentially valid branch of the state space.
+			addNonIsomorphicRepresentative(modelCode, fingerprint, unresolvedState.version());
+			return true;
+		}
+	}
+
+	private synchronized void addNonIsomorphicRepresentative(int modelCode, long fingerprint,
+															 VersionWithObjectiveValue version) {
+		var representatives = getRepresentatives(modelCode2Representatives.get(modelCode));
+		if (representatives.length >= maxRepresentatives) {
+			return;
+		}
+		// Only the first representative with a given fingerprint tracks the number of remaining checks.
+		var representative = new Representative(fingerprint, 0);
+		representative.version = version;
+		var newRepresentatives = Arrays.copyOf(representatives, representatives.length + 1);
+		newRepresentatives[representatives.length] = representative;
+		modelCode2Representatives.put(modelCode, newRepresentatives);
+	}
+
+	/**
+	 * Delegates a single state that was found to be new by an isomorphism check. If there are no such states yet and
+	 * the store has no background threads, checks a single state on the calling thread first.
+	 */
+	@Override
+	public void resolveOneSymmetry() {
+		var resolvedState = resolvedStates.poll();
+		if (resolvedState == null && executor == null) {
+			var uncheckedState = uncheckedStates.poll();
+			if (uncheckedState != null) {
+				check(uncheckedState);
+				resolvedState = resolvedStates.poll();
+			}
+		}
+		var failure = checkFailure;
+		if (failure != null) {
+			throw new IllegalStateException("Failed to check states for isomorphism", failure);
+		}
+		if (resolvedState != null) {
+			delegate(resolvedState.version(), resolvedState.emptyActivations(), resolvedState.accept());
+		}
+	}
+
+	@Override
+	public boolean hasUnresolvedSymmetry() {
+		return pendingChecks.get() > 0 || !resolvedStates.isEmpty();
+	}
+
+	@Override
+	public int getNumberOfUnresolvedSymmetries() {
+		return pendingChecks.get() + resolvedStates.size();
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+/**
+ * A list activation entry guarded by its own monitor, so that workers only contend when they visit the same version.
+ */
+public class SynchronizedActivationStoreListEntry extends ActivationStoreListEntry {
+	SynchronizedActivationStoreListEntry(int numberOfActivations) {
+		super(numberOfActivations);
+	}
+
+	@Override
+	public synchronized int getNumberOfVisitedActivations() {
+		return super.getNumberOfVisitedActivations();
+	}
+
+	@Override
+	public synchronized int getAndAddActivationAfter(int index) {
+		return super.getAndAddActivationAfter(index);
+	}
+
+	@Override
+	public synchronized int tryGetAndAddActivationAfter(int index) {
+		return super.tryGetAndAddActivationAfter(index);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.dnf.RelationalQuery;
+import tools.refinery.logic.term.Variable;
+import tools.refinery.logic.term.int_.IntTerms;
+import tools.refinery.store.dse.modification.ModificationAdapter;
+import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
+import tools.refinery.store.dse.transition.Rule;
+import tools.refinery.store.dse.transition.objectives.Criteria;
+import tools.refinery.store.dse.transition.objectives.Objectives;
+import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static tools.refinery.logic.literal.Literals.check;
+import static tools.refinery.store.dse.modification.actions.ModificationActionLiterals.create;
+import static tools.refinery.store.dse.transition.actions.ActionLiterals.add;
+
+class BestFirstStoreManagerTest {
+	private static final Symbol<Boolean> classModel = Symbol.of("ClassModel", 1);
+	private static final Symbol<Boolean> classes = Symbol.of("Classes", 2);
+	private static final Symbol<Boolean> features = Symbol.of("Features", 2);
+
+	private static final AnySymbolView classModelView = new KeyOnlyView<>(classModel);
+	private static final AnySymbolView classesView = new KeyOnlyView<>(classes);
+	private static final AnySymbolView featuresView = new KeyOnlyView<>(features);
+
+	private static final RelationalQuery tooManyClasses = Query.of("tooManyClasses", (builder, model) -> builder
+			.clause(Integer.class, count -> List.of(
+					classModelView.call(model),
+					count.assign(classesView.count(model, Variable.of())),
+					check(IntTerms.less(IntTerms.constant(2), count))
+			)));
+
+	private static final RelationalQuery tooManyFeatures = Query.of("tooManyFeatures", (builder, model) -> builder
+			.clause(Integer.class, count -> List.of(
+					classModelView.call(model),
+					count.assign(featuresView.count(model, Variable.of())),
+					check(IntTerms.less(IntTerms.constant(2), count))
+			)));
+
+	private static final RelationalQuery feature = Query.of("feature", (builder, model, newFeature) -> builder
+			.clause(featuresView.call(model, newFeature)));
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4})
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void exploreTest(int numberOfWorkers) {
+		exploreAndCheckSolutions(numberOfWorkers, true);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2})
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void exploreWithoutObjectivesTest(int numberOfWorkers) {
+		exploreAndCheckSolutions(numberOfWorkers, false);
+	}
+
+	private void exploreAndCheckSolutions(int numberOfWorkers, boolean withObjective) {
+		var createClassRule = Rule.of("CreateClass", (builder, model) -> builder
+				.clause(classModelView.call(model))
+				.action(newClass -> List.of(
+						create(newClass),
+						add(classes, model, newClass)
+				)));
+		var createFeatureRule = Rule.of("CreateFeature", (builder, model) -> builder
+				.clause(classModelView.call(model))
+				.action(newFeature -> List.of(
+						create(newFeature),
+						add(features, model, newFeature)
+				)));
+		var explorationBuilder = DesignSpaceExplorationAdapter.builder()
+				.transformations(createClassRule, createFeatureRule)
+				.exclude(Criteria.or(Criteria.whenHasMatch(tooManyClasses), Criteria.whenHasMatch(tooManyFeatures)));
+		if (withObjective) {
+			explorationBuilder.objective(Objectives.count(feature));
+		}
+		var store = ModelStore.builder()
+				.symbols(classModel, classes, features)
+				.with(QueryInterpreterAdapter.builder())
+				.with(StateCoderAdapter.builder())
+				.with(ModificationAdapter.builder())
+				.with(explorationBuilder)
+				.build();
+
+		var model = store.createEmptyModel();
+		var modelElement = model.getAdapter(ModificationAdapter.class).createObject();
+		model.getInterpretation(classModel).put(modelElement, true);
+		var initialVersion = model.commit();
+		model.getAdapter(ModelQueryAdapter.class).flushChanges();
+
+		var bestFirst = new BestFirstStoreManager(store, SolutionStoreImpl.UNLIMITED, numberOfWorkers > 1);
+		bestFirst.startExploration(initialVersion, 1, numberOfWorkers);
+
+		// Every combination of at most 2 classes and 2 features is a solution, and no state may be found twice.
+		var solutions = bestFirst.getSolutionStore().getSolutions();
+		assertThat(solutions, hasSize(9));
+		var counts = new HashSet<Tuple>();
+		var solutionModel = store.createModelForState(initialVersion);
+		var classesInterpretation = solutionModel.getInterpretation(classes);
+		var featuresInterpretation = solutionModel.getInterpretation(features);
+		for (var solution : solutions) {
+			solutionModel.restore(solution.version());
+			counts.add(Tuple.of(classesInterpretation.getAdjacentSize(0, modelElement.get(0)),
+					featuresInterpretation.getAdjacentSize(0, modelElement.get(0))));
+		}
+		assertThat(counts, containsInAnyOrder(Tuple.of(0, 0), Tuple.of(0, 1), Tuple.of(0, 2), Tuple.of(1, 0),
+				Tuple.of(1, 1), Tuple.of(1, 2), Tuple.of(2, 0), Tuple.of(2, 1), Tuple.of(2, 2)));
+	}
+}
@@ -6,6 +6,7 @@
 package tools.refinery.store.dse.transition.statespace.internal;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -13,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -22,7 +24,9 @@ class ActivationUnitTest {
 	private static Stream<ActivationStoreEntry> entries() {
 		return Stream.of(
 				new ActivationStoreBitVectorEntry(SMALL_SIZE),
-				new ActivationStoreListEntry(SMALL_SIZE)
+				new ActivationStoreListEntry(SMALL_SIZE),
+				new ConcurrentActivationStoreBitVectorEntry(SMALL_SIZE),
+				new SynchronizedActivationStoreListEntry(SMALL_SIZE)
 		);
 	}
 
@@ -122,10 +126,48 @@ class ActivationUnitTest {
 		}
 	}
 
+	@ParameterizedTest
+	@MethodSource("entryFactories")
+	void tryFillingTest(Supplier<ActivationStoreEntry> entryFactory) {
+		var entry = entryFactory.get();
+		for (int i = 0; i < SMALL_SIZE; i++) {
+			Assertions.assertTrue(entry.tryGetAndAddActivationAfter(2) >= 0);
+		}
+		Assertions.assertEquals(-1, entry.tryGetAndAddActivationAfter(2));
+	}
+
+	@Test
+	void concurrentFillingTest() throws InterruptedException {
+		int size = 6 * Integer.SIZE;
+		var entry = new ConcurrentActivationStoreBitVectorEntry(size);
+		var visited = new AtomicIntegerArray(size);
+		var threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			int seed = i;
+			threads.add(Thread.ofPlatform().start(() -> {
+				@SuppressWarnings("squid:S2245")
+				var random = new Random(seed);
+				int activation;
+				while ((activation = entry.tryGetAndAddActivationAfter(random.nextInt(size))) >= 0) {
+					visited.incrementAndGet(activation);
+				}
+			}));
+		}
+		for (var thread : threads) {
+			thread.join();
+		}
+		Assertions.assertEquals(size, entry.getNumberOfVisitedActivations());
+		for (int i = 0; i < size; i++) {
+			Assertions.assertEquals(1, visited.get(i));
+		}
+	}
+
 	private static Stream<Supplier<ActivationStoreEntry>> entryFactories() {
 		return Stream.of(
 				() -> new ActivationStoreBitVectorEntry(SMALL_SIZE),
-				() -> new ActivationStoreListEntry(SMALL_SIZE)
+				() -> new ActivationStoreListEntry(SMALL_SIZE),
+				() -> new ConcurrentActivationStoreBitVectorEntry(SMALL_SIZE),
+				() -> new SynchronizedActivationStoreListEntry(SMALL_SIZE)
 		);
 	}
 }
@@ -0,0 +1,147 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.tests.DummyObjective;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ConcurrentObjectivePriorityQueueImplTest {
+	private static final class TestVersion implements Version {
+	}
+
+	private static VersionWithObjectiveValue version(double value) {
+		return new VersionWithObjectiveValue(new TestVersion(), ObjectiveValue.of(value));
+	}
+
+	private static ConcurrentObjectivePriorityQueueImpl createQueue() {
+		return new ConcurrentObjectivePriorityQueueImpl(List.of(new DummyObjective()));
+	}
+
+	@Test
+	void orderingTest() {
+		var queue = createQueue();
+		var a = version(3);
+		var b = version(1);
+		var c = version(2);
+		var d = version(1);
+		for (var version : List.of(a, b, c, d)) {
+			queue.submit(version);
+		}
+		Assertions.assertEquals(4, queue.getSize());
+		var first = queue.getBest();
+		Assertions.assertTrue(first == b || first == d);
+		queue.remove(first);
+		Assertions.assertSame(first == b ? d : b, queue.getBest());
+		queue.remove(queue.getBest());
+		Assertions.assertSame(c, queue.getBest());
+		queue.remove(c);
+		Assertions.assertSame(a, queue.getBest());
+		queue.remove(a);
+		Assertions.assertEquals(0, queue.getSize());
+		Assertions.assertNull(queue.getBest());
+		Assertions.assertNull(queue.getRandom(new Random(1)));
+	}
+
+	@Test
+	void duplicateSubmitTest() {
+		var queue = createQueue();
+		var a = version(1);
+		queue.submit(a);
+		queue.submit(a);
+		Assertions.assertEquals(1, queue.getSize());
+		queue.remove(a);
+		Assertions.assertEquals(0, queue.getSize());
+		Assertions.assertNull(queue.getBest());
+	}
+
+	@Test
+	void removeVisitedTest() {
+		var queue = createQueue();
+		var a = version(1);
+		var b = version(2);
+		var c = version(3);
+		for (var version : List.of(a, b, c)) {
+			queue.submit(version);
+		}
+		queue.remove(a);
+		// Removing a version again or removing a version that was never submitted has no effect.
+		queue.remove(a);
+		queue.remove(version(0));
+		Assertions.assertEquals(2, queue.getSize());
+		Assertions.assertSame(b, queue.getBest());
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		var picked = new HashSet<VersionWithObjectiveValue>();
+		for (int i = 0; i < 100; i++) {
+			picked.add(queue.getRandom(random));
+		}
+		Assertions.assertEquals(Set.of(b, c), picked);
+	}
+
+	@Test
+	void concurrentSubmitAndPollTest() throws InterruptedException {
+		int threadCount = 4;
+		int versionsPerThread = 2000;
+		var queue = createQueue();
+		var visited = ConcurrentHashMap.<VersionWithObjectiveValue>newKeySet();
+		var polled = ConcurrentHashMap.<VersionWithObjectiveValue>newKeySet();
+		var submitted = ConcurrentHashMap.<VersionWithObjectiveValue>newKeySet();
+		var threads = new ArrayList<Thread>();
+		for (int i = 0; i < threadCount; i++) {
+			int seed = i;
+			threads.add(Thread.ofPlatform().start(() -> {
+				@SuppressWarnings("squid:S2245")
+				var random = new Random(seed);
+				for (int j = 0; j < versionsPerThread; j++) {
+					// Use few distinct values to exercise ties.
+					var version = version(random.nextInt(10));
+					submitted.add(version);
+					queue.submit(version);
+					if (random.nextBoolean()) {
+						// All activations of the version were visited right away.
+						visited.add(version);
+						queue.remove(version);
+					}
+					if (random.nextInt(4) == 0) {
+						var best = queue.getBest();
+						if (best != null) {
+							polled.add(best);
+							queue.remove(best);
+						}
+					}
+				}
+			}));
+		}
+		for (var thread : threads) {
+			thread.join();
+		}
+		Assertions.assertEquals(threadCount * versionsPerThread, submitted.size());
+		var remaining = new ArrayList<VersionWithObjectiveValue>();
+		VersionWithObjectiveValue best;
+		while ((best = queue.getBest()) != null) {
+			Assertions.assertFalse(visited.contains(best));
+			Assertions.assertFalse(polled.contains(best));
+			if (!remaining.isEmpty()) {
+				Assertions.assertTrue(queue.getComparator().compare(remaining.getLast(), best) <= 0);
+			}
+			remaining.add(best);
+			queue.remove(best);
+		}
+		Assertions.assertEquals(0, queue.getSize());
+		Assertions.assertNull(queue.getRandom(new Random(1)));
+		var expected = new HashSet<>(submitted);
+		expected.removeAll(visited);
+		expected.removeAll(polled);
+		Assertions.assertEquals(expected, new HashSet<>(remaining));
+	}
+}
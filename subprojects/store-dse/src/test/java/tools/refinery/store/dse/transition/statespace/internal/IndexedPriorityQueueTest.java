@@ -0,0 +1,71 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+class IndexedPriorityQueueTest {
+	private record Element(int id, int priority) {
+	}
+
+	private static final Comparator<Element> COMPARATOR = Comparator.comparingInt(Element::priority);
+
+	@Test
+	void emptyTest() {
+		var queue = new IndexedPriorityQueue<>(COMPARATOR);
+		Assertions.assertTrue(queue.isEmpty());
+		Assertions.assertNull(queue.peek());
+		Assertions.assertFalse(queue.remove(new Element(0, 0)));
+	}
+
+	@Test
+	void duplicateTest() {
+		var queue = new IndexedPriorityQueue<>(COMPARATOR);
+		var element = new Element(0, 0);
+		Assertions.assertTrue(queue.add(element));
+		Assertions.assertFalse(queue.add(element));
+		Assertions.assertEquals(1, queue.size());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 2, 3, 4})
+	void sameOrderAsPriorityQueueTest(int seed) {
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(seed);
+		var queue = new IndexedPriorityQueue<>(COMPARATOR);
+		var expected = new PriorityQueue<>(COMPARATOR);
+		var elements = new ArrayList<Element>();
+		for (int i = 0; i < 2000; i++) {
+			if (!elements.isEmpty() && random.nextInt(3) == 0) {
+				var element = elements.remove(random.nextInt(elements.size()));
+				Assertions.assertTrue(queue.remove(element));
+				expected.remove(element);
+			} else {
+				// Use few priorities to exercise ties.
+				var element = new Element(i, random.nextInt(50));
+				elements.add(element);
+				queue.add(element);
+				expected.add(element);
+			}
+			Assertions.assertEquals(expected.size(), queue.size());
+			Assertions.assertEquals(expected.peek(), queue.peek());
+			int index = 0;
+			for (var element : expected) {
+				Assertions.assertEquals(element, queue.get(index));
+				Assertions.assertTrue(queue.contains(element));
+				index++;
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class ParetoFrontsTest {
+	private static final class TestVersion implements Version {
+	}
+
+	private static VersionWithObjectiveValue version(double... values) {
+		return new VersionWithObjectiveValue(new TestVersion(), ObjectiveValue.of(values));
+	}
+
+	@Test
+	void frontsTest() {
+		var fronts = new ParetoFronts();
+		var a = version(1, 3);
+		var b = version(3, 1);
+		var c = version(2, 4);
+		var d = version(3, 5);
+		Assertions.assertEquals(0, fronts.add(a));
+		Assertions.assertEquals(0, fronts.add(b));
+		Assertions.assertEquals(1, fronts.add(c));
+		Assertions.assertEquals(2, fronts.add(d));
+		fronts.remove(a);
+		Assertions.assertEquals(0, fronts.getFront(c));
+		Assertions.assertEquals(1, fronts.getFront(d));
+		Assertions.assertEquals(2, fronts.getNumberOfFronts());
+	}
+
+	@Test
+	void solutionStoreTest() {
+		var store = new ParetoSolutionStoreImpl(SolutionStoreImpl.UNLIMITED);
+		var a = version(2, 2);
+		Assertions.assertTrue(store.submit(a));
+		Assertions.assertFalse(store.submit(version(3, 3)));
+		var b = version(1, 3);
+		Assertions.assertTrue(store.submit(b));
+		var c = version(1, 1);
+		Assertions.assertTrue(store.submit(c));
+		Assertions.assertEquals(List.of(c), store.getSolutions());
+	}
+
+	static Stream<Arguments> randomSeeds() {
+		return IntStream.rangeClosed(1, 4).boxed()
+				.flatMap(arity -> IntStream.range(0, 5).mapToObj(seed -> Arguments.of(arity, seed)));
+	}
+
+	@ParameterizedTest
+	@MethodSource("randomSeeds")
+	void randomTest(int arity, int seed) {
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(seed);
+		var fronts = new ParetoFronts();
+		var present = new ArrayList<VersionWithObjectiveValue>();
+		for (int i = 0; i < 300; i++) {
+			if (!present.isEmpty() && random.nextInt(3) == 0) {
+				var removed = present.remove(random.nextInt(present.size()));
+				Assertions.assertTrue(fronts.remove(removed));
+			} else {
+				var values = new double[arity];
+				for (int j = 0; j < arity; j++) {
+					// Use few distinct values to exercise ties.
+					values[j] = random.nextInt(6);
+				}
+				var added = version(values);
+				present.add(added);
+				fronts.add(added);
+			}
+			assertSameFronts(present, fronts);
+		}
+	}
+
+	private static void assertSameFronts(List<VersionWithObjectiveValue> present, ParetoFronts fronts) {
+		var remaining = new ArrayList<>(present);
+		int frontIndex = 0;
+		while (!remaining.isEmpty()) {
+			var front = new ArrayList<VersionWithObjectiveValue>();
+			for (var candidate : remaining) {
+				boolean dominated = false;
+				for (var other : remaining) {
+					if (ParetoFronts.dominates(other.objectiveValue(), candidate.objectiveValue())) {
+						dominated = true;
+						break;
+					}
+				}
+				if (!dominated) {
+					front.add(candidate);
+				}
+			}
+			for (var version : front) {
+				Assertions.assertEquals(frontIndex, fronts.getFront(version));
+			}
+			Assertions.assertEquals(front.size(), fronts.getFrontEntries(frontIndex).size());
+			remaining.removeAll(front);
+			frontIndex++;
+		}
+		Assertions.assertEquals(frontIndex, fronts.getNumberOfFronts());
+		Assertions.assertEquals(present.size(), fronts.size());
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.statecoding.StateCoderStoreAdapter;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryResolvingEquivalenceClassStoreTest {
+	private final Symbol<Boolean> edge = new Symbol<>("edge", 2, Boolean.class, false);
+	private ModelStore store;
+	private List<VersionWithObjectiveValue> delegated;
+
+	@BeforeEach
+	void beforeEach() {
+		store = ModelStore.builder()
+				.symbols(edge)
+				.with(StateCoderAdapter.builder())
+				.build();
+		delegated = new ArrayList<>();
+	}
+
+	private SymmetryResolvingEquivalenceClassStore createEquivalenceClassStore(int checkingThreads) {
+		return createEquivalenceClassStore(checkingThreads,
+				SymmetryResolvingEquivalenceClassStore.DEFAULT_CHECKS_PER_FINGERPRINT,
+				SymmetryResolvingEquivalenceClassStore.DEFAULT_MAX_PENDING_CHECKS);
+	}
+
+	private SymmetryResolvingEquivalenceClassStore createEquivalenceClassStore(int checkingThreads,
+																			   int checksPerFingerprint,
+																			   int maxPendingChecks) {
+		return new SymmetryResolvingEquivalenceClassStore(store.getAdapter(StateCoderStoreAdapter.class),
+				checkingThreads, SymmetryResolvingEquivalenceClassStore.DEFAULT_MAX_REPRESENTATIVES,
+				checksPerFingerprint, maxPendingChecks) {
+			@Override
+			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+				synchronized (delegated) {
+					delegated.add(version);
+				}
+			}
+		};
+	}
+
+	private record State(StateCoderResult code, VersionWithObjectiveValue version) {
+	}
+
+	private State createState(int... edges) {
+		var model = store.createEmptyModel();
+		var edgeInterpretation = model.getInterpretation(edge);
+		for (int i = 0; i < edges.length; i += 2) {
+			edgeInterpretation.put(Tuple.of(edges[i], edges[i + 1]), true);
+		}
+		return commit(model);
+	}
+
+	private static State commit(Model model) {
+		var code = model.getAdapter(StateCoderAdapter.class).calculateStateCode();
+		var version = new VersionWithObjectiveValue(model.commit(), ObjectiveValue.of(0));
+		return new State(code, version);
+	}
+
+	private static void submitNew(SymmetryResolvingEquivalenceClassStore equivalenceClassStore, State state) {
+		assertTrue(equivalenceClassStore.submit(state.code()));
+		equivalenceClassStore.addRepresentative(state.code(), state.version());
+	}
+
+	private static boolean submitColliding(SymmetryResolvingEquivalenceClassStore equivalenceClassStore,
+										   State state) {
+		assertFalse(equivalenceClassStore.submit(state.code()));
+		if (!equivalenceClassStore.shouldResolveSymmetry(state.code())) {
+			return false;
+		}
+		assertFalse(equivalenceClassStore.submit(state.version(), state.code(), new int[0], false));
+		return true;
+	}
+
+	private static void resolveAll(SymmetryResolvingEquivalenceClassStore equivalenceClassStore) {
+		while (equivalenceClassStore.hasUnresolvedSymmetry()) {
+			equivalenceClassStore.resolveOneSymmetry();
+			Thread.onSpinWait();
+		}
+	}
+
+	@Test
+	void isomorphicStateTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0);
+		submitNew(equivalenceClassStore, createState(0, 1, 1, 2, 2, 3, 3, 0));
+		assertTrue(submitColliding(equivalenceClassStore, createState(0, 2, 2, 1, 1, 3, 3, 0)));
+		assertEquals(1, equivalenceClassStore.getNumberOfUnresolvedSymmetries());
+		resolveAll(equivalenceClassStore);
+		assertEquals(List.of(), delegated);
+	}
+
+	@Test
+	void nonIsomorphicStateTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0);
+		var cycle = createState(0, 1, 1, 2, 2, 3, 3, 0);
+		// Every node has a single incoming and outgoing edge in both states, so their state codes are the same.
+		var twoCycles = createState(0, 1, 1, 0, 2, 3, 3, 2);
+		assertEquals(cycle.code().modelCode(), twoCycles.code().modelCode());
+		submitNew(equivalenceClassStore, cycle);
+		assertTrue(submitColliding(equivalenceClassStore, twoCycles));
+		resolveAll(equivalenceClassStore);
+		assertEquals(List.of(twoCycles.version()), delegated);
+	}
+
+	@Test
+	void backgroundCheckTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(2);
+		submitNew(equivalenceClassStore, createState(0, 1, 1, 2, 2, 3, 3, 0));
+		var twoCycles = createState(0, 1, 1, 0, 2, 3, 3, 2);
+		assertTrue(submitColliding(equivalenceClassStore, twoCycles));
+		resolveAll(equivalenceClassStore);
+		assertEquals(List.of(twoCycles.version()), delegated);
+	}
+
+	@Test
+	void checkLimitTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0);
+		submitNew(equivalenceClassStore, createState(0, 1, 1, 2, 2, 3, 3, 0));
+		assertTrue(submitColliding(equivalenceClassStore, createState(0, 2, 2, 1, 1, 3, 3, 0)));
+		// Only a single check is allowed per fingerprint by default.
+		assertFalse(submitColliding(equivalenceClassStore, createState(0, 1, 1, 0, 2, 3, 3, 2)));
+		resolveAll(equivalenceClassStore);
+		assertEquals(List.of(), delegated);
+	}
+
+	@Test
+	void pendingCheckLimitTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0, 2, 1);
+		var cycle = createState(0, 1, 1, 2, 2, 3, 3, 0);
+		submitNew(equivalenceClassStore, cycle);
+		assertTrue(submitColliding(equivalenceClassStore, createState(0, 2, 2, 1, 1, 3, 3, 0)));
+		// The check of the previous state is still pending, so this state is not committed for checking.
+		var twoCycles = createState(0, 1, 1, 0, 2, 3, 3, 2);
+		assertFalse(submitColliding(equivalenceClassStore, twoCycles));
+		resolveAll(equivalenceClassStore);
+		assertTrue(submitColliding(equivalenceClassStore, twoCycles));
+		resolveAll(equivalenceClassStore);
+		assertEquals(List.of(twoCycles.version()), delegated);
+	}
+
+	@Test
+	void cancelSymmetryResolutionTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0);
+		var cycle = createState(0, 1, 1, 2, 2, 3, 3, 0);
+		submitNew(equivalenceClassStore, cycle);
+		var twoCycles = createState(0, 1, 1, 0, 2, 3, 3, 2);
+		assertTrue(equivalenceClassStore.shouldResolveSymmetry(twoCycles.code()));
+		assertTrue(equivalenceClassStore.hasUnresolvedSymmetry());
+		equivalenceClassStore.cancelSymmetryResolution(twoCycles.code());
+		assertFalse(equivalenceClassStore.hasUnresolvedSymmetry());
+	}
+
+	@Test
+	void differentFingerprintTest() {
+		var equivalenceClassStore = createEquivalenceClassStore(0);
+		var state = createState(0, 1, 1, 2);
+		var code = state.code();
+		submitNew(equivalenceClassStore, state);
+		var otherState = createState(0, 1);
+		// Simulate a collision of model codes between states with different object codes.
+		var collidingCode = new StateCoderResult(code.modelCode(), otherState.code().objectCode());
+		assertTrue(equivalenceClassStore.submit(collidingCode));
+		assertFalse(equivalenceClassStore.hasUnresolvedSymmetry());
+	}
+}
@@ -15,6 +15,7 @@ import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
 
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 @SuppressWarnings("UnusedReturnValue")
@@ -49,6 +50,18 @@ public interface QueryInterpreterBuilder extends ModelQueryBuilder {
 
 	QueryInterpreterBuilder computeHint(Function<Dnf, QueryEvaluationHint> computeHint);
 
+	/**
+	 * Sets a pool for propagating model changes through independent parts of the Rete network concurrently.
+	 * <p>
+	 * Query results do not depend on whether a pool is set, but result set listeners receive the changes of
+	 * independent queries one after the other instead of interleaved with each other. By default, changes are
+	 * propagated sequentially.
+	 *
+	 * @param propagationPool The pool, or {@code null} to propagate changes sequentially.
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder propagationPool(ForkJoinPool propagationPool);
+
 	@Override
 	QueryInterpreterStoreAdapter build(ModelStore store);
 }
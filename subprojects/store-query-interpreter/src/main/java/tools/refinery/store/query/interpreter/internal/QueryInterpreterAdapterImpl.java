@@ -26,6 +26,7 @@ import tools.refinery.interpreter.api.IQuerySpecification;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, ModelListener {
 	private final Model model;
@@ -86,6 +87,10 @@ public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, Mod
 		return storeAdapter.getCancellationToken();
 	}
 
+	public ForkJoinPool getPropagationPool() {
+		return storeAdapter.getPropagationPool();
+	}
+
 	@Override
 	public <T> ResultSet<T> getResultSet(Query<T> query) {
 		var canonicalQuery = storeAdapter.getCanonicalQuery(query);
@@ -19,15 +19,19 @@ import tools.refinery.store.query.interpreter.QueryInterpreterBuilder;
 import tools.refinery.store.query.interpreter.internal.localsearch.FlatCostFunction;
 import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher;
 import tools.refinery.store.query.interpreter.internal.pquery.Dnf2PQuery;
+import tools.refinery.store.query.interpreter.internal.pquery.QueryPlanCache;
+import tools.refinery.store.query.view.AnySymbolView;
 import tools.refinery.interpreter.api.IQuerySpecification;
 import tools.refinery.interpreter.api.InterpreterEngineOptions;
 import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchGenericBackendFactory;
 import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchHintOptions;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.matchers.context.IInputKey;
 import tools.refinery.interpreter.rete.matcher.ReteBackendFactory;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<QueryInterpreterStoreAdapterImpl>
@@ -39,7 +43,9 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 	), (IQueryBackendFactory) null);
 	private final CompositeRewriter rewriter;
 	private final Dnf2PQuery dnf2PQuery = new Dnf2PQuery();
+	private boolean customHint;
 	private final Set<AnyQuery> queries = new LinkedHashSet<>();
+	private ForkJoinPool propagationPool;
 
 	public QueryInterpreterBuilderImpl() {
 		EPackage.Registry.INSTANCE.put(RecipesPackage.eNS_URI, RecipesPackage.eINSTANCE);
@@ -111,24 +117,28 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 	public QueryInterpreterBuilder computeHint(Function<Dnf, QueryEvaluationHint> computeHint) {
 		checkNotConfigured();
 		dnf2PQuery.setComputeHint(computeHint);
+		customHint = true;
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder propagationPool(ForkJoinPool propagationPool) {
+		checkNotConfigured();
+		this.propagationPool = propagationPool;
 		return this;
 	}
 
 	@Override
 	public QueryInterpreterStoreAdapterImpl doBuild(ModelStore store) {
 		var canonicalQueryMap = new HashMap<AnyQuery, AnyQuery>();
-		var querySpecifications = new LinkedHashMap<AnyQuery, IQuerySpecification<RawPatternMatcher>>();
+		var translatableQueries = new LinkedHashSet<AnyQuery>();
 		var vacuousQueries = new LinkedHashSet<AnyQuery>();
 		for (var query : queries) {
 			var canonicalQuery = rewriter.rewrite(query);
 			canonicalQueryMap.put(query, canonicalQuery);
-			var dnf = canonicalQuery.getDnf();
-			var reduction = dnf.getReduction();
+			var reduction = canonicalQuery.getDnf().getReduction();
 			switch (reduction) {
-			case NOT_REDUCIBLE -> {
-				var pQuery = dnf2PQuery.translate(dnf);
-				querySpecifications.put(canonicalQuery, pQuery.build());
-			}
+			case NOT_REDUCIBLE -> translatableQueries.add(canonicalQuery);
 			case ALWAYS_FALSE -> vacuousQueries.add(canonicalQuery);
 			case ALWAYS_TRUE -> throw new IllegalArgumentException(
 					"Query %s is relationally unsafe (it matches every tuple)".formatted(query.name()));
@@ -136,10 +146,27 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 			}
 		}
 
-		validateSymbols(store);
-		return new QueryInterpreterStoreAdapterImpl(store, buildEngineOptions(), dnf2PQuery.getSymbolViews(),
+		var querySpecifications = new LinkedHashMap<AnyQuery, IQuerySpecification<RawPatternMatcher>>();
+		Map<AnySymbolView, IInputKey> symbolViews;
+		if (customHint) {
+			// The shared cache ignores evaluation hints, so we must translate the queries ourselves.
+			for (var query : translatableQueries) {
+				querySpecifications.put(query, dnf2PQuery.translate(query.getDnf()).build());
+			}
+			symbolViews = dnf2PQuery.getSymbolViews();
+		} else {
+			var dnfs = translatableQueries.stream().map(AnyQuery::getDnf).toList();
+			var translatedQueries = QueryPlanCache.getInstance().translate(dnfs);
+			for (var query : translatableQueries) {
+				querySpecifications.put(query, translatedQueries.querySpecifications().get(query.getDnf()));
+			}
+			symbolViews = translatedQueries.symbolViews();
+		}
+
+		validateSymbols(store, symbolViews.keySet());
+		return new QueryInterpreterStoreAdapterImpl(store, buildEngineOptions(), symbolViews,
 				Collections.unmodifiableMap(canonicalQueryMap), Collections.unmodifiableMap(querySpecifications),
-				Collections.unmodifiableSet(vacuousQueries), store::checkCancelled);
+				Collections.unmodifiableSet(vacuousQueries), store::checkCancelled, propagationPool);
 	}
 
 	private InterpreterEngineOptions buildEngineOptions() {
@@ -159,9 +186,9 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 		return engineOptionsBuilder.build();
 	}
 
-	private void validateSymbols(ModelStore store) {
+	private void validateSymbols(ModelStore store, Collection<AnySymbolView> symbolViews) {
 		var symbols = store.getSymbols();
-		for (var symbolView : dnf2PQuery.getSymbolViews().keySet()) {
+		for (var symbolView : symbolViews) {
 			var symbol = symbolView.getSymbol();
 			if (!symbols.contains(symbol)) {
 				throw new IllegalArgumentException("Cannot query view %s: symbol %s is not in the model"
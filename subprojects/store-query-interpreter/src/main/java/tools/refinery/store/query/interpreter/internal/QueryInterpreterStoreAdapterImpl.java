@@ -18,6 +18,7 @@ import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher
 import tools.refinery.store.query.view.AnySymbolView;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAdapter {
 	private final ModelStore store;
@@ -28,12 +29,14 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 	private final Set<AnyQuery> vacuousQueries;
 	private final Set<AnyQuery> allQueries;
 	private final CancellationToken cancellationToken;
+	private final ForkJoinPool propagationPool;
 
 	QueryInterpreterStoreAdapterImpl(ModelStore store, InterpreterEngineOptions engineOptions,
 									 Map<AnySymbolView, IInputKey> inputKeys,
 									 Map<AnyQuery, AnyQuery> canonicalQueryMap,
 									 Map<AnyQuery, IQuerySpecification<RawPatternMatcher>> querySpecifications,
-									 Set<AnyQuery> vacuousQueries, CancellationToken cancellationToken) {
+									 Set<AnyQuery> vacuousQueries, CancellationToken cancellationToken,
+									 ForkJoinPool propagationPool) {
 		this.store = store;
 		this.engineOptions = engineOptions;
 		this.inputKeys = inputKeys;
@@ -41,6 +44,7 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 		this.querySpecifications = querySpecifications;
 		this.vacuousQueries = vacuousQueries;
 		this.cancellationToken = cancellationToken;
+		this.propagationPool = propagationPool;
 		var mutableAllQueries = new LinkedHashSet<AnyQuery>(querySpecifications.size() + vacuousQueries.size());
 		mutableAllQueries.addAll(querySpecifications.keySet());
 		mutableAllQueries.addAll(vacuousQueries);
@@ -69,6 +73,10 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 		return cancellationToken;
 	}
 
+	public ForkJoinPool getPropagationPool() {
+		return propagationPool;
+	}
+
 	@Override
 	public <T> Query<T> getCanonicalQuery(Query<T> query) {
 		// We know that canonical forms of queries do not change output types.
@@ -80,7 +88,7 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 		return canonicalQuery;
 	}
 
-	Map<AnyQuery, IQuerySpecification<RawPatternMatcher>> getQuerySpecifications() {
+	public Map<AnyQuery, IQuerySpecification<RawPatternMatcher>> getQuerySpecifications() {
 		return querySpecifications;
 	}
 
@@ -7,6 +7,7 @@ package tools.refinery.store.query.interpreter.internal.context;
 
 import tools.refinery.interpreter.CancellationToken;
 import tools.refinery.interpreter.matchers.context.*;
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
 import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
@@ -15,18 +16,23 @@ import tools.refinery.interpreter.matchers.util.Accuracy;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
 import tools.refinery.store.query.interpreter.internal.pquery.SymbolViewWrapper;
+import tools.refinery.store.query.interpreter.internal.tuple.NodeIdElementCodec;
 import tools.refinery.store.query.interpreter.internal.update.ModelUpdateListener;
 import tools.refinery.store.query.view.AnySymbolView;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.Iterator;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 import static tools.refinery.store.util.CollectionsUtil.filter;
 import static tools.refinery.store.util.CollectionsUtil.map;
 
 public class RelationalRuntimeContext implements IQueryRuntimeContext {
+	private static final int[] EMPTY_SLOTS = new int[0];
+
+	private static final Object[] EMPTY_VALUES = new Object[0];
+
 	private final RelationalQueryMetaContext metaContext;
 
 	private final ModelUpdateListener modelUpdateListener;
@@ -35,11 +41,14 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 
 	private final CancellationToken cancellationToken;
 
+	private final ForkJoinPool propagationPool;
+
 	RelationalRuntimeContext(QueryInterpreterAdapterImpl adapter) {
 		model = adapter.getModel();
 		metaContext = new RelationalQueryMetaContext(adapter.getStoreAdapter().getInputKeys());
 		modelUpdateListener = new ModelUpdateListener(adapter);
 		cancellationToken = adapter.getCancellationToken();
+		propagationPool = adapter.getPropagationPool();
 	}
 
 	@Override
@@ -93,6 +102,15 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 
 	@Override
 	public int countTuples(IInputKey key, TupleMask seedMask, ITuple seed) {
+		var relationViewKey = checkKey(key);
+		if (seedMask.indices.length == relationViewKey.arity() && seedMask.isNonrepeating()) {
+			// A fully bound seed can be checked with a single lookup.
+			return relationViewKey.get(model, toTupleArray(seedMask, seed)) ? 1 : 0;
+		}
+		if (seedMask.isNonrepeating() && relationViewKey.canCountAdjacent(seedMask.indices)) {
+			// Unbound and indexable seeds of views without filtering can be counted with the adjacency indexes.
+			return (int) relationViewKey.countAdjacent(model, seedMask.indices, seed.getElements());
+		}
 		Iterator<Object[]> iterator = enumerate(key, seedMask, seed).iterator();
 		int result = 0;
 		while (iterator.hasNext()) {
@@ -102,9 +120,91 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 		return result;
 	}
 
+	private static Object[] toTupleArray(TupleMask seedMask, ITuple seed) {
+		var tuple = new Object[seedMask.indices.length];
+		for (int i = 0; i < tuple.length; i++) {
+			tuple[seedMask.indices[i]] = seed.get(i);
+		}
+		return tuple;
+	}
+
 	@Override
 	public Optional<Long> estimateCardinality(IInputKey key, TupleMask groupMask, Accuracy requiredAccuracy) {
-		return Optional.empty();
+		if (!(key instanceof SymbolViewWrapper wrapper) ||
+				!modelUpdateListener.containsSymbolView(wrapper.getWrappedKey())) {
+			return Optional.empty();
+		}
+		var symbolView = wrapper.getWrappedKey();
+		var indices = groupMask.indices;
+		if (!symbolView.canCountAdjacent(EMPTY_SLOTS)) {
+			return scanCardinality(symbolView, groupMask, requiredAccuracy);
+		}
+		long tupleCount = symbolView.countAdjacent(model, EMPTY_SLOTS, EMPTY_VALUES);
+		if (indices.length == 0) {
+			// All tuples are projected to the empty tuple.
+			return Optional.of(tupleCount > 0 ? 1L : 0L);
+		}
+		if (indices.length == symbolView.arity() && groupMask.isNonrepeating()) {
+			return Optional.of(tupleCount);
+		}
+		if (indices.length == 1 && symbolView.canCountAdjacent(indices)) {
+			return Optional.of(symbolView.countDistinct(model, indices[0]));
+		}
+		if (!Accuracy.BEST_UPPER_BOUND.atLeastAsPreciseAs(requiredAccuracy)) {
+			return Optional.empty();
+		}
+		// The number of distinct projected tuples is at most the product of the number of distinct values in each
+		// slot, and at most the number of tuples. We only know the number of distinct values in indexable slots.
+		long product = 1;
+		for (int slot : indices) {
+			if (!symbolView.canIndexSlot(slot)) {
+				return Optional.of(tupleCount);
+			}
+			product *= symbolView.countDistinct(model, slot);
+			if (product >= tupleCount) {
+				return Optional.of(tupleCount);
+			}
+		}
+		return Optional.of(product);
+	}
+
+	private Optional<Long> scanCardinality(AnySymbolView symbolView, TupleMask groupMask,
+										   Accuracy requiredAccuracy) {
+		var indices = groupMask.indices;
+		if (indices.length == 0) {
+			return Optional.of(symbolView.getAll(model).iterator().hasNext() ? 1L : 0L);
+		}
+		boolean keepsAllTuples = indices.length == symbolView.arity() && groupMask.isNonrepeating();
+		if (indices.length > 1 && !keepsAllTuples && !Accuracy.BEST_UPPER_BOUND.atLeastAsPreciseAs(requiredAccuracy)) {
+			return Optional.empty();
+		}
+		// The tuples of views that filter the entries of their symbol can't be counted with the indexes of the
+		// interpretation, so we have to enumerate them.
+		long tupleCount = 0;
+		var distinctValues = new ArrayList<Set<Object>>(keepsAllTuples ? 0 : indices.length);
+		if (!keepsAllTuples) {
+			for (int i = 0; i < indices.length; i++) {
+				distinctValues.add(new HashSet<>());
+			}
+		}
+		for (var tuple : symbolView.getAll(model)) {
+			tupleCount++;
+			for (int i = 0; i < distinctValues.size(); i++) {
+				distinctValues.get(i).add(tuple[indices[i]]);
+			}
+		}
+		if (keepsAllTuples) {
+			return Optional.of(tupleCount);
+		}
+		// The estimate is exact if there is a single slot.
+		long product = 1;
+		for (var values : distinctValues) {
+			product *= values.size();
+			if (product >= tupleCount) {
+				return Optional.of(tupleCount);
+			}
+		}
+		return Optional.of(product);
 	}
 
 	@Override
@@ -128,6 +228,12 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 	}
 
 	private Iterable<Object[]> getAllObjects(AnySymbolView key, TupleMask seedMask, ITuple seed) {
+		if (seedMask.indices.length >= 2 && seedMask.isNonrepeating()) {
+			var compositeObjects = getCompositeObjects(key, seedMask, seed);
+			if (compositeObjects != null) {
+				return compositeObjects;
+			}
+		}
 		for (int i = 0; i < seedMask.indices.length; i++) {
 			int slot = seedMask.indices[i];
 			if (key.canIndexSlot(slot)) {
@@ -137,6 +243,34 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 		return key.getAll(model);
 	}
 
+	private Iterable<Object[]> getCompositeObjects(AnySymbolView key, TupleMask seedMask, ITuple seed) {
+		var indices = seedMask.indices;
+		int indexableCount = 0;
+		for (int slot : indices) {
+			if (key.canIndexSlot(slot)) {
+				indexableCount++;
+			}
+		}
+		if (indexableCount < 2) {
+			return null;
+		}
+		var slots = new int[indexableCount];
+		var values = new Object[indexableCount];
+		int position = 0;
+		for (int i = 0; i < indices.length; i++) {
+			if (key.canIndexSlot(indices[i])) {
+				slots[position] = indices[i];
+				values[position] = seed.get(i);
+				position++;
+			}
+		}
+		if (!key.canIndexSlots(slots)) {
+			return null;
+		}
+		// Bound slots that cannot be indexed are checked by the caller with isMatching.
+		return key.getAdjacent(model, slots, values);
+	}
+
 	private static boolean isMatching(Object[] tuple, TupleMask seedMask, ITuple seed) {
 		for (int i = 0; i < seedMask.indices.length; i++) {
 			final Object seedElement = seed.get(i);
@@ -201,4 +335,14 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 	public CancellationToken getCancellationToken() {
 		return cancellationToken;
 	}
+
+	@Override
+	public IIntElementCodec getIntElementCodec() {
+		return NodeIdElementCodec.INSTANCE;
+	}
+
+	@Override
+	public ForkJoinPool getPropagationPool() {
+		return propagationPool;
+	}
 }
@@ -8,6 +8,7 @@ package tools.refinery.store.query.interpreter.internal.matcher;
 import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuples;
 import org.jetbrains.annotations.Nullable;
+import tools.refinery.store.query.interpreter.internal.tuple.RefineryTupleWrapper;
 import tools.refinery.store.tuple.*;
 
 import java.util.Iterator;
@@ -22,25 +23,15 @@ final class MatcherUtils {
 			return Tuples.staticArityFlatTupleOf();
 		} else if (refineryTuple instanceof Tuple1) {
 			return Tuples.staticArityFlatTupleOf(refineryTuple);
-		} else if (refineryTuple instanceof Tuple2 tuple2) {
-			return Tuples.staticArityFlatTupleOf(Tuple.of(tuple2.value0()), Tuple.of(tuple2.value1()));
-		} else if (refineryTuple instanceof Tuple3 tuple3) {
-			return Tuples.staticArityFlatTupleOf(Tuple.of(tuple3.value0()), Tuple.of(tuple3.value1()),
-					Tuple.of(tuple3.value2()));
-		} else if (refineryTuple instanceof Tuple4 tuple4) {
-			return Tuples.staticArityFlatTupleOf(Tuple.of(tuple4.value0()), Tuple.of(tuple4.value1()),
-					Tuple.of(tuple4.value2()), Tuple.of(tuple4.value3()));
-		} else {
-			int arity = refineryTuple.getSize();
-			var values = new Object[arity];
-			for (int i = 0; i < arity; i++) {
-				values[i] = Tuple.of(refineryTuple.get(i));
-			}
-			return Tuples.flatTupleOf(values);
 		}
+		// Avoid copying the elements of wider tuples, because they are usually only used for lookups.
+		return RefineryTupleWrapper.of(refineryTuple);
 	}
 
 	public static Tuple toRefineryTuple(ITuple viatraTuple) {
+		if (viatraTuple instanceof RefineryTupleWrapper wrapper) {
+			return wrapper.getRefineryTuple();
+		}
 		int arity = viatraTuple.getSize();
 		if (arity == 1) {
 			return getWrapper(viatraTuple, 0);
@@ -0,0 +1,197 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.pquery;
+
+import tools.refinery.interpreter.api.IQuerySpecification;
+import tools.refinery.interpreter.matchers.context.IInputKey;
+import tools.refinery.interpreter.matchers.psystem.ITypeConstraint;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
+import tools.refinery.logic.dnf.Dnf;
+import tools.refinery.logic.equality.DnfEqualityChecker;
+import tools.refinery.logic.rewriter.DuplicateDnfRemover;
+import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher;
+import tools.refinery.store.query.view.AnySymbolView;
+
+import java.util.*;
+
+/**
+ * Process-wide cache of the query specifications translated from {@link Dnf} queries.
+ * <p>
+ * Queries are interned by structural equality (with the same {@link DnfEqualityChecker} as
+ * {@link DuplicateDnfRemover}), so model stores built for structurally equal queries share the translated
+ * {@link PQuery} instances along with the bodies computed from them by the interpreter. Only queries translated
+ * without a custom evaluation hint may be cached, because the cache does not know about the hints. Rete recipes are
+ * not shared, because each query engine compiles and traces its own recipes.
+ * <p>
+ * The cache is split into {@link #STRIPE_COUNT} stripes by the hash code of the queries, and each stripe evicts its
+ * least recently used query once it holds more than {@link #MAX_CACHED_QUERIES_PER_STRIPE} queries. The stripes
+ * are only locked while looking up a query, while each query is translated under its own lock. Thus, model stores
+ * can be built concurrently as long as they do not translate the same query. Referenced queries are cached
+ * separately, so a query whose referenced query was evicted keeps referring to the old translation. Model stores
+ * already built keep referencing the query specifications they have obtained.
+ */
+public final class QueryPlanCache {
+	private static final int STRIPE_COUNT = 16;
+	private static final int MAX_CACHED_QUERIES_PER_STRIPE = 256;
+	private static final QueryPlanCache INSTANCE = new QueryPlanCache();
+
+	private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+	private QueryPlanCache() {
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Translates queries, reusing the query specifications of structurally equal queries translated earlier.
+	 *
+	 * @param dnfs The queries to translate. They must not be reducible to a constant truth value.
+	 * @return The query specifications and the symbol views they refer to.
+	 */
+	public TranslatedQueries translate(Collection<Dnf> dnfs) {
+		var interner = new Interner();
+		var querySpecifications = new HashMap<Dnf, IQuerySpecification<RawPatternMatcher>>(dnfs.size());
+		var symbolViews = new LinkedHashMap<AnySymbolView, IInputKey>();
+		for (var dnf : dnfs) {
+			var internedDnf = interner.rewrite(dnf);
+			var cachedQuery = getEntry(internedDnf).getOrTranslate();
+			querySpecifications.put(dnf, cachedQuery.querySpecification());
+			symbolViews.putAll(cachedQuery.symbolViews());
+		}
+		return new TranslatedQueries(Collections.unmodifiableMap(querySpecifications),
+				Collections.unmodifiableMap(symbolViews));
+	}
+
+	private CacheEntry getEntry(Dnf dnf) {
+		var canonicalDnf = new CanonicalDnf(dnf);
+		int hash = canonicalDnf.hashCode();
+		var stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+		synchronized (stripe) {
+			return stripe.computeIfAbsent(canonicalDnf, CacheEntry::new);
+		}
+	}
+
+	private CachedQuery doTranslate(Dnf dnf) {
+		var dnf2PQuery = new Dnf2PQuery() {
+			@Override
+			public RawPQuery translate(Dnf dnfQuery) {
+				if (dnfQuery == dnf) {
+					return super.translate(dnfQuery);
+				}
+				// Translate referenced queries through the cache, so that other queries can share them.
+				return getEntry(dnfQuery).getOrTranslate().pQuery();
+			}
+		};
+		var pQuery = dnf2PQuery.translate(dnf);
+		// Initialize the query before any other thread may see it, because {@link PQuery} instances are not safe to
+		// initialize concurrently. Referenced queries were already initialized when they were cached.
+		var symbolViews = collectSymbolViews(pQuery);
+		return new CachedQuery(pQuery, pQuery.build(), Collections.unmodifiableMap(symbolViews));
+	}
+
+	private static Map<AnySymbolView, IInputKey> collectSymbolViews(PQuery pQuery) {
+		var queries = new ArrayList<PQuery>();
+		queries.add(pQuery);
+		queries.addAll(pQuery.getAllReferredQueries());
+		var symbolViews = new LinkedHashMap<AnySymbolView, IInputKey>();
+		for (var query : queries) {
+			for (var body : query.getDisjunctBodies().getBodies()) {
+				for (var typeConstraint : body.getConstraintsOfType(ITypeConstraint.class)) {
+					var inputKey = typeConstraint.getEquivalentJudgement().getInputKey();
+					if (inputKey instanceof SymbolViewWrapper symbolViewWrapper) {
+						symbolViews.put(symbolViewWrapper.getWrappedKey(), symbolViewWrapper);
+					}
+				}
+			}
+		}
+		return symbolViews;
+	}
+
+	public static QueryPlanCache getInstance() {
+		return INSTANCE;
+	}
+
+	public record TranslatedQueries(Map<Dnf, IQuerySpecification<RawPatternMatcher>> querySpecifications,
+									Map<AnySymbolView, IInputKey> symbolViews) {
+	}
+
+	private record CachedQuery(RawPQuery pQuery, IQuerySpecification<RawPatternMatcher> querySpecification,
+							   Map<AnySymbolView, IInputKey> symbolViews) {
+	}
+
+	private final class CacheEntry {
+		private final Dnf dnf;
+		private CachedQuery cachedQuery;
+
+		public CacheEntry(CanonicalDnf canonicalDnf) {
+			dnf = canonicalDnf.dnf();
+		}
+
+		public synchronized CachedQuery getOrTranslate() {
+			// Referenced queries are always translated before the queries referring to them, so threads acquire the
+			// locks of the entries in a consistent order.
+			if (cachedQuery == null) {
+				cachedQuery = doTranslate(dnf);
+			}
+			return cachedQuery;
+		}
+	}
+
+	private static final class Stripe extends LinkedHashMap<CanonicalDnf, CacheEntry> {
+		public Stripe() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CanonicalDnf, CacheEntry> eldest) {
+			return size() > MAX_CACHED_QUERIES_PER_STRIPE;
+		}
+	}
+
+	/**
+	 * Replaces each query and subquery with the structurally equal one seen first by the cache.
+	 * <p>
+	 * A new instance is used for each call of {@link #translate(Collection)} to avoid holding on to the queries of
+	 * model stores that are no longer in use.
+	 */
+	private class Interner extends DuplicateDnfRemover {
+		@Override
+		protected Dnf map(Dnf dnf) {
+			var result = super.map(dnf);
+			return getEntry(result).dnf;
+		}
+	}
+
+	private record CanonicalDnf(Dnf dnf, int hash) {
+		public CanonicalDnf(Dnf dnf) {
+			this(dnf, dnf.hashCodeWithSubstitution());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			var otherCanonicalDnf = (CanonicalDnf) obj;
+			return hash == otherCanonicalDnf.hash &&
+					dnf.equalsWithSubstitution(DnfEqualityChecker.DEFAULT, otherCanonicalDnf.dnf);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return dnf.name();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.tuple;
+
+import tools.refinery.interpreter.matchers.tuple.IIntElementCodec;
+import tools.refinery.store.tuple.Tuple;
+import tools.refinery.store.tuple.Tuple1;
+
+/**
+ * Encodes node ids, which appear in interpreter tuples as {@link Tuple1} instances, as their {@code int} value.
+ */
+public final class NodeIdElementCodec implements IIntElementCodec {
+	public static final NodeIdElementCodec INSTANCE = new NodeIdElementCodec();
+
+	private NodeIdElementCodec() {
+	}
+
+	@Override
+	public boolean canEncode(Object element) {
+		return element instanceof Tuple1;
+	}
+
+	@Override
+	public int encode(Object element) {
+		return ((Tuple1) element).value0();
+	}
+
+	@Override
+	public Object decode(int value) {
+		return Tuple.of(value);
+	}
+}
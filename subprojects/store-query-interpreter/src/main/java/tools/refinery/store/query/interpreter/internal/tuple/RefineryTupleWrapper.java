@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.tuple;
+
+import tools.refinery.interpreter.matchers.tuple.BaseFlatTuple;
+import tools.refinery.interpreter.matchers.tuple.ITuple;
+import tools.refinery.store.tuple.Tuple;
+
+/**
+ * Presents a {@link Tuple} of node ids as an interpreter tuple of {@link tools.refinery.store.tuple.Tuple1} elements
+ * without copying its contents.
+ * <p>
+ * Elements are taken from the cache of {@link tools.refinery.store.tuple.Tuple1} instances on demand. The hash code
+ * and equality agree with a flat tuple of the same elements, so wrapped tuples can be mixed freely with tuples
+ * created by the query engine.
+ */
+public final class RefineryTupleWrapper extends BaseFlatTuple {
+	private final Tuple refineryTuple;
+
+	private RefineryTupleWrapper(Tuple refineryTuple) {
+		this.refineryTuple = refineryTuple;
+		int hash = 1;
+		int size = refineryTuple.getSize();
+		for (int i = 0; i < size; i++) {
+			// Same as {@link tools.refinery.store.tuple.Tuple1#hashCode()} of the element at index {@code i}.
+			hash = 31 * hash + 31 + refineryTuple.get(i);
+		}
+		cachedHash = hash;
+	}
+
+	public Tuple getRefineryTuple() {
+		return refineryTuple;
+	}
+
+	@Override
+	public int getSize() {
+		return refineryTuple.getSize();
+	}
+
+	@Override
+	public Object get(int index) {
+		if (index < 0 || index >= refineryTuple.getSize()) {
+			throw raiseIndexingError(index);
+		}
+		return Tuple.of(refineryTuple.get(index));
+	}
+
+	@Override
+	protected boolean internalEquals(ITuple other) {
+		if (other instanceof RefineryTupleWrapper otherWrapper) {
+			return refineryTuple.equals(otherWrapper.refineryTuple);
+		}
+		return super.internalEquals(other);
+	}
+
+	public static RefineryTupleWrapper of(Tuple refineryTuple) {
+		return new RefineryTupleWrapper(refineryTuple);
+	}
+}
@@ -30,6 +30,31 @@ public final class RelationViewFilter {
 		}
 	}
 
+	public void updateAll(Tuple[] updateTuples, boolean[] isInsertion, int size) {
+		if (seed == null) {
+			listener.update(inputKey, updateTuples, isInsertion, size);
+			return;
+		}
+		Tuple[] matchingTuples = null;
+		boolean[] matchingInsertions = null;
+		int matchingSize = 0;
+		for (int i = 0; i < size; i++) {
+			var updateTuple = updateTuples[i];
+			if (isMatching(updateTuple)) {
+				if (matchingTuples == null) {
+					matchingTuples = new Tuple[size - i];
+					matchingInsertions = new boolean[size - i];
+				}
+				matchingTuples[matchingSize] = updateTuple;
+				matchingInsertions[matchingSize] = isInsertion[i];
+				matchingSize++;
+			}
+		}
+		if (matchingSize > 0) {
+			listener.update(inputKey, matchingTuples, matchingInsertions, matchingSize);
+		}
+	}
+
 	private boolean isMatching(ITuple tuple) {
 		if (seed == null) {
 			return true;
@@ -10,18 +10,24 @@ import tools.refinery.interpreter.matchers.context.IQueryRuntimeContextListener;
 import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.InterpretationChanges;
 import tools.refinery.store.model.InterpretationListener;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
 import tools.refinery.store.query.view.SymbolView;
 import tools.refinery.store.query.view.TuplePreservingView;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public abstract class SymbolViewUpdateListener<T> implements InterpretationListener<T> {
 	private final QueryInterpreterAdapterImpl adapter;
 	private final Interpretation<T> interpretation;
 	private final List<RelationViewFilter> filters = new ArrayList<>();
+	private boolean batching;
+	private Tuple[] batchTuples;
+	private boolean[] batchInsertions;
+	private int batchSize;
 
 	protected SymbolViewUpdateListener(QueryInterpreterAdapterImpl adapter, Interpretation<T> interpretation) {
 		this.adapter = adapter;
@@ -43,7 +49,53 @@ public abstract class SymbolViewUpdateListener<T> implements InterpretationListe
 		}
 	}
 
+	@Override
+	public void putAll(InterpretationChanges<T> changes, boolean restoring) {
+		int changeCount = changes.size();
+		if (changeCount == 0 || filters.isEmpty()) {
+			return;
+		}
+		// A change in the interpretation may cause at most two updates of the view.
+		int capacity = 2 * changeCount;
+		if (batchTuples == null || batchTuples.length < capacity) {
+			batchTuples = new Tuple[capacity];
+			batchInsertions = new boolean[capacity];
+		}
+		try {
+			batching = true;
+			try {
+				for (int i = 0; i < changeCount; i++) {
+					put(changes.getKey(i), changes.getFromValue(i), changes.getToValue(i), restoring);
+				}
+			} finally {
+				batching = false;
+			}
+			int size = batchSize;
+			if (size == 0) {
+				return;
+			}
+			adapter.markAsPending();
+			int filterCount = filters.size();
+			// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
+			//noinspection ForLoopReplaceableByForEach
+			for (int i = 0; i < filterCount; i++) {
+				filters.get(i).updateAll(batchTuples, batchInsertions, size);
+			}
+		} finally {
+			// Do not keep the updated tuples reachable after the batch was processed, and do not let a failed batch
+			// leak its updates into the next one.
+			Arrays.fill(batchTuples, 0, batchSize, null);
+			batchSize = 0;
+		}
+	}
+
 	protected void processUpdate(Tuple tuple, boolean isInsertion) {
+		if (batching) {
+			batchTuples[batchSize] = tuple;
+			batchInsertions[batchSize] = isInsertion;
+			batchSize++;
+			return;
+		}
 		adapter.markAsPending();
 		int size = filters.size();
 		// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
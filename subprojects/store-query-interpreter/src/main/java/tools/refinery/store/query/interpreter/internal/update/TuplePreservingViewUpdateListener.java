@@ -5,9 +5,9 @@
  */
 package tools.refinery.store.query.interpreter.internal.update;
 
-import tools.refinery.interpreter.matchers.tuple.Tuples;
 import tools.refinery.store.model.Interpretation;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
+import tools.refinery.store.query.interpreter.internal.tuple.RefineryTupleWrapper;
 import tools.refinery.store.query.view.TuplePreservingView;
 import tools.refinery.store.tuple.Tuple;
 
@@ -27,7 +27,8 @@ public class TuplePreservingViewUpdateListener<T> extends SymbolViewUpdateListen
 		if (fromPresent == toPresent) {
 			return;
 		}
-		var translated = Tuples.flatTupleOf(view.forwardMap(key));
+		// The view maps each node id to a Tuple1, which is exactly what the wrapper returns without copying.
+		var translated = RefineryTupleWrapper.of(key);
 		processUpdate(translated, toPresent);
 	}
 }
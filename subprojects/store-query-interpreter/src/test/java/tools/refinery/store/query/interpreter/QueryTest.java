@@ -5,14 +5,17 @@
  */
 package tools.refinery.store.query.interpreter;
 
+import tools.refinery.interpreter.api.IQuerySpecification;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
 import org.junit.jupiter.api.Test;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.query.ModelQueryAdapter;
 import tools.refinery.logic.dnf.Dnf;
 import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.dnf.RelationalQuery;
 import tools.refinery.logic.term.ParameterDirection;
 import tools.refinery.logic.term.Variable;
+import tools.refinery.store.query.interpreter.internal.QueryInterpreterStoreAdapterImpl;
 import tools.refinery.store.query.interpreter.tests.QueryEngineTest;
 import tools.refinery.store.query.view.AnySymbolView;
 import tools.refinery.store.query.view.FilteredView;
@@ -22,9 +25,15 @@ import tools.refinery.store.representation.Symbol;
 import tools.refinery.logic.term.truthvalue.TruthValue;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static tools.refinery.logic.literal.Literals.check;
 import static tools.refinery.logic.literal.Literals.not;
 import static tools.refinery.logic.term.int_.IntTerms.constant;
@@ -791,4 +800,112 @@ class QueryTest {
 		queryEngine.flushChanges();
 		assertResults(Map.of(), predicateResultSet);
 	}
+
+	@Test
+	void structurallyEqualQueriesInSeparateStoresTest() {
+		var firstPerson = Symbol.of("Person", 1);
+		var firstPredicate = Query.of("SharedPredicate", (builder, p1) -> builder.clause(
+				new KeyOnlyView<>(firstPerson).call(p1)
+		));
+		var firstStore = ModelStore.builder()
+				.symbols(firstPerson)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(firstPredicate))
+				.build();
+
+		var secondPerson = Symbol.of("Person", 1);
+		var secondPredicate = Query.of("SharedPredicate", (builder, p1) -> builder.clause(
+				new KeyOnlyView<>(secondPerson).call(p1)
+		));
+		var secondStore = ModelStore.builder()
+				.symbols(secondPerson)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(secondPredicate))
+				.build();
+
+		var firstModel = firstStore.createEmptyModel();
+		var firstQueryEngine = firstModel.getAdapter(ModelQueryAdapter.class);
+		var firstResultSet = firstQueryEngine.getResultSet(firstPredicate);
+		var secondModel = secondStore.createEmptyModel();
+		var secondQueryEngine = secondModel.getAdapter(ModelQueryAdapter.class);
+		var secondResultSet = secondQueryEngine.getResultSet(secondPredicate);
+
+		firstModel.getInterpretation(firstPerson).put(Tuple.of(0), true);
+		secondModel.getInterpretation(secondPerson).put(Tuple.of(1), true);
+
+		firstQueryEngine.flushChanges();
+		secondQueryEngine.flushChanges();
+		assertResults(Map.of(
+				Tuple.of(0), true,
+				Tuple.of(1), false
+		), firstResultSet);
+		assertResults(Map.of(
+				Tuple.of(0), false,
+				Tuple.of(1), true
+		), secondResultSet);
+		assertSame(getQuerySpecification(firstStore, firstPredicate),
+				getQuerySpecification(secondStore, secondPredicate));
+	}
+
+	@Test
+	void concurrentStoreBuildingTest() throws Exception {
+		int threadCount = 8;
+		var barrier = new CyclicBarrier(threadCount);
+		var executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			var futures = new ArrayList<Future<IQuerySpecification<?>>>(threadCount);
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(() -> {
+					// Each thread creates its own, structurally equal queries.
+					var friendPredicate = Query.of("ConcurrentFriend", (builder, p1, p2) -> builder.clause(
+							friendMustView.call(p1, p2),
+							friendMustView.call(p2, p1)
+					));
+					var predicate = Query.of("ConcurrentHasFriend", (builder, p1) -> builder.clause((p2) -> List.of(
+							personView.call(p1),
+							friendPredicate.call(p1, p2)
+					)));
+					barrier.await();
+					var store = ModelStore.builder()
+							.symbols(person, friend)
+							.with(QueryInterpreterAdapter.builder()
+									.queries(predicate))
+							.build();
+
+					var model = store.createEmptyModel();
+					var personInterpretation = model.getInterpretation(person);
+					var friendInterpretation = model.getInterpretation(friend);
+					var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+					var predicateResultSet = queryEngine.getResultSet(predicate);
+
+					personInterpretation.put(Tuple.of(0), true);
+					personInterpretation.put(Tuple.of(1), true);
+					personInterpretation.put(Tuple.of(2), true);
+					friendInterpretation.put(Tuple.of(0, 1), TruthValue.TRUE);
+					friendInterpretation.put(Tuple.of(1, 0), TruthValue.TRUE);
+					friendInterpretation.put(Tuple.of(1, 2), TruthValue.TRUE);
+
+					queryEngine.flushChanges();
+					assertResults(Map.of(
+							Tuple.of(0), true,
+							Tuple.of(1), true,
+							Tuple.of(2), false
+					), predicateResultSet);
+					return getQuerySpecification(store, predicate);
+				}));
+			}
+			var querySpecification = futures.getFirst().get();
+			assertNotNull(querySpecification);
+			for (var future : futures) {
+				assertSame(querySpecification, future.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static IQuerySpecification<?> getQuerySpecification(ModelStore store, RelationalQuery query) {
+		var storeAdapter = (QueryInterpreterStoreAdapterImpl) store.getAdapter(QueryInterpreterStoreAdapter.class);
+		return storeAdapter.getQuerySpecifications().get(storeAdapter.getCanonicalQuery(query));
+	}
 }
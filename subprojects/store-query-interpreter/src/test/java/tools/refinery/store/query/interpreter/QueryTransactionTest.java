@@ -18,11 +18,13 @@ import tools.refinery.store.query.view.KeyOnlyView;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertNullableResults;
 import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
 
@@ -367,4 +369,159 @@ class QueryTransactionTest {
 		), predicateResultSet);
 		assertFalse(queryEngine.hasPendingChanges());
 	}
+
+	@Test
+	void parallelFlushTest() {
+		var friend = Symbol.of("friend", 2);
+		var friendView = new KeyOnlyView<>(friend);
+		var friendPredicate = Query.of("Friend", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2),
+				friendView.call(p2, p1)
+		));
+		var pool = new ForkJoinPool(2);
+		try {
+			var store = ModelStore.builder()
+					.symbols(person, friend)
+					.with(QueryInterpreterAdapter.builder()
+							.propagationPool(pool)
+							.queries(predicate, friendPredicate))
+					.build();
+
+			var model = store.createEmptyModel();
+			var personInterpretation = model.getInterpretation(person);
+			var friendInterpretation = model.getInterpretation(friend);
+			var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+			var predicateResultSet = queryEngine.getResultSet(predicate);
+			var friendResultSet = queryEngine.getResultSet(friendPredicate);
+			var changes = new ArrayList<Tuple>();
+			predicateResultSet.addListener((key, fromValue, toValue) -> changes.add(key));
+			friendResultSet.addListener((key, fromValue, toValue) -> changes.add(key));
+
+			personInterpretation.put(Tuple.of(0), true);
+			personInterpretation.put(Tuple.of(1), true);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			friendInterpretation.put(Tuple.of(1, 2), true);
+			queryEngine.flushChanges();
+
+			assertResults(Map.of(
+					Tuple.of(0), true,
+					Tuple.of(1), true,
+					Tuple.of(2), false
+			), predicateResultSet);
+			assertResults(Map.of(
+					Tuple.of(0, 1), true,
+					Tuple.of(1, 0), true,
+					Tuple.of(1, 2), false
+			), friendResultSet);
+			assertEquals(4, changes.size());
+			assertFalse(queryEngine.hasPendingChanges());
+
+			personInterpretation.put(Tuple.of(1), false);
+			friendInterpretation.put(Tuple.of(2, 1), true);
+			queryEngine.flushChanges();
+
+			assertResults(Map.of(
+					Tuple.of(0), true,
+					Tuple.of(1), false
+			), predicateResultSet);
+			assertResults(Map.of(
+					Tuple.of(0, 1), true,
+					Tuple.of(1, 0), true,
+					Tuple.of(1, 2), true,
+					Tuple.of(2, 1), true
+			), friendResultSet);
+			assertEquals(7, changes.size());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void parallelFlushCancellationTest() {
+		var friend = Symbol.of("friend", 2);
+		var friendView = new KeyOnlyView<>(friend);
+		var friendPredicate = Query.of("Friend", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2),
+				friendView.call(p2, p1)
+		));
+		var cancelled = new AtomicBoolean(false);
+		var pool = new ForkJoinPool(2);
+		try {
+			var store = ModelStore.builder()
+					.cancellationToken(() -> {
+						if (cancelled.get()) {
+							throw new TestCancelledException();
+						}
+					})
+					.symbols(person, friend)
+					.with(QueryInterpreterAdapter.builder()
+							.propagationPool(pool)
+							.queries(predicate, friendPredicate))
+					.build();
+
+			var model = store.createEmptyModel();
+			var personInterpretation = model.getInterpretation(person);
+			var friendInterpretation = model.getInterpretation(friend);
+			var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+			queryEngine.getResultSet(predicate);
+			queryEngine.getResultSet(friendPredicate);
+
+			personInterpretation.put(Tuple.of(0), true);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			cancelled.set(true);
+			// Both partitions fail, but the flush must only return once both of them have been joined.
+			var exception = assertThrows(TestCancelledException.class, queryEngine::flushChanges);
+			for (var suppressed : exception.getSuppressed()) {
+				assertInstanceOf(TestCancelledException.class, suppressed);
+			}
+			assertTrue(queryEngine.hasPendingChanges());
+
+			cancelled.set(false);
+			// Messages interrupted by cancellation are lost just like in sequential delivery, but the network must
+			// have left partitioned delivery, so that later flushes are not rejected.
+			personInterpretation.put(Tuple.of(1), true);
+			assertDoesNotThrow(queryEngine::flushChanges);
+			assertFalse(queryEngine.hasPendingChanges());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static class TestCancelledException extends RuntimeException {
+	}
+
+	@Test
+	void releasedModelTest() {
+		var store = ModelStore.builder()
+				.symbols(person)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(predicate))
+				.build();
+
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		var state1 = model.commit();
+		personInterpretation.put(Tuple.of(1), false);
+		personInterpretation.put(Tuple.of(2), true);
+		var state2 = model.commit();
+
+		var model1 = store.createModelForState(state1);
+		assertResults(Map.of(
+				Tuple.of(0), true,
+				Tuple.of(1), true
+		), model1.getAdapter(ModelQueryAdapter.class).getResultSet(predicate));
+		store.releaseModel(model1);
+
+		var model2 = store.createModelForState(state2);
+		var queryEngine = model2.getAdapter(ModelQueryAdapter.class);
+		assertFalse(queryEngine.hasPendingChanges());
+		assertResults(Map.of(
+				Tuple.of(0), true,
+				Tuple.of(2), true
+		), queryEngine.getResultSet(predicate));
+	}
 }
@@ -0,0 +1,165 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.context;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.context.IQueryRuntimeContext;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.Accuracy;
+import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.term.truthvalue.TruthValue;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
+import tools.refinery.store.query.interpreter.internal.pquery.SymbolViewWrapper;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.FilteredView;
+import tools.refinery.store.query.view.FunctionView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class RelationalRuntimeContextTest {
+	private static final Symbol<TruthValue> friend = Symbol.of("friend", 2, TruthValue.class, TruthValue.FALSE);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final Symbol<Boolean> edge = Symbol.of("edge", 3);
+	private static final AnySymbolView friendMustView = new FilteredView<>(friend, "must", TruthValue::must);
+	private static final AnySymbolView ageView = new FunctionView<>(age);
+	private static final AnySymbolView edgeView = new KeyOnlyView<>(edge);
+	private static final SymbolViewWrapper friendMustKey = new SymbolViewWrapper(friendMustView);
+	private static final SymbolViewWrapper ageKey = new SymbolViewWrapper(ageView);
+	private static final SymbolViewWrapper edgeKey = new SymbolViewWrapper(edgeView);
+
+	private Interpretation<TruthValue> friendInterpretation;
+	private Interpretation<Boolean> edgeInterpretation;
+	private IQueryRuntimeContext runtimeContext;
+	private Model model;
+
+	@BeforeEach
+	void beforeEach() {
+		var friendQuery = Query.of("Friend", (builder, p1, p2) -> builder.clause(friendMustView.call(p1, p2)));
+		var ageQuery = Query.of("Age", Integer.class, (builder, p1, output) -> builder.clause(
+				ageView.call(p1, output)
+		));
+		var edgeQuery = Query.of("Edge", (builder, p1, p2, p3) -> builder.clause(edgeView.call(p1, p2, p3)));
+		var store = ModelStore.builder()
+				.symbols(friend, age, edge)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(friendQuery, ageQuery, edgeQuery))
+				.build();
+		model = store.createEmptyModel();
+		friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), TruthValue.TRUE);
+		friendInterpretation.put(Tuple.of(0, 2), TruthValue.UNKNOWN);
+		friendInterpretation.put(Tuple.of(1, 2), TruthValue.TRUE);
+		friendInterpretation.put(Tuple.of(2, 2), TruthValue.TRUE);
+		var ageInterpretation = model.getInterpretation(age);
+		ageInterpretation.put(Tuple.of(0), 20);
+		ageInterpretation.put(Tuple.of(1), 20);
+		ageInterpretation.put(Tuple.of(2), 30);
+		edgeInterpretation = model.getInterpretation(edge);
+		edgeInterpretation.put(Tuple.of(0, 1, 0), true);
+		edgeInterpretation.put(Tuple.of(0, 2, 0), true);
+		edgeInterpretation.put(Tuple.of(1, 2, 0), true);
+		var adapter = (QueryInterpreterAdapterImpl) model.getAdapter(QueryInterpreterAdapter.class);
+		runtimeContext = new RelationalEngineContext(adapter).getQueryRuntimeContext();
+	}
+
+	@Test
+	void countTuplesTest() {
+		assertThat(countTuples(friendMustKey, new int[0]), is(3));
+		assertThat(countTuples(friendMustKey, new int[]{0}, Tuple.of(0)), is(1));
+		assertThat(countTuples(friendMustKey, new int[]{1}, Tuple.of(2)), is(2));
+		assertThat(countTuples(friendMustKey, new int[]{0, 1}, Tuple.of(0), Tuple.of(2)), is(0));
+		assertThat(countTuples(friendMustKey, new int[]{1, 0}, Tuple.of(2), Tuple.of(1)), is(1));
+		assertThat(countTuples(friendMustKey, new int[]{0, 1}, Tuple.of(2), Tuple.of(2)), is(1));
+		// The value slot of a function view cannot be indexed, so the view is filtered instead.
+		assertThat(countTuples(ageKey, new int[]{1}, 20), is(2));
+		assertThat(countTuples(ageKey, new int[]{0, 1}, Tuple.of(2), 20), is(0));
+		assertThat(countTuples(edgeKey, new int[]{0, 2}, Tuple.of(0), Tuple.of(0)), is(2));
+		// Views without filtering are counted with the adjacency indexes.
+		assertThat(countTuples(ageKey, new int[0]), is(3));
+		assertThat(countTuples(edgeKey, new int[0]), is(3));
+		assertThat(countTuples(edgeKey, new int[]{1}, Tuple.of(2)), is(2));
+		assertThat(countTuples(edgeKey, new int[]{2, 0}, Tuple.of(0), Tuple.of(1)), is(1));
+		assertThat(countTuples(edgeKey, new int[]{0}, Tuple.of(3)), is(0));
+	}
+
+	@Test
+	void countTuplesAfterChangeTest() {
+		var state = model.commit();
+		friendInterpretation.put(Tuple.of(0, 2), TruthValue.TRUE);
+		friendInterpretation.put(Tuple.of(2, 2), TruthValue.FALSE);
+		assertThat(countTuples(friendMustKey, new int[0]), is(3));
+		assertThat(countTuples(friendMustKey, new int[]{0}, Tuple.of(0)), is(2));
+		assertThat(countTuples(friendMustKey, new int[]{0}, Tuple.of(2)), is(0));
+		model.restore(state);
+		assertThat(countTuples(friendMustKey, new int[]{0}, Tuple.of(0)), is(1));
+		assertThat(countTuples(friendMustKey, new int[]{0}, Tuple.of(2)), is(1));
+		assertThat(countTuples(edgeKey, new int[]{0}, Tuple.of(0)), is(2));
+		edgeInterpretation.put(Tuple.of(0, 1, 0), false);
+		edgeInterpretation.put(Tuple.of(2, 1, 0), true);
+		assertThat(countTuples(edgeKey, new int[0]), is(3));
+		assertThat(countTuples(edgeKey, new int[]{0}, Tuple.of(0)), is(1));
+		assertThat(countTuples(edgeKey, new int[]{0, 1}, Tuple.of(2), Tuple.of(1)), is(1));
+	}
+
+	@Test
+	void estimateCardinalityTest() {
+		assertThat(estimateCardinality(friendMustKey, new int[0], Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		assertThat(estimateCardinality(friendMustKey, new int[]{0}, Accuracy.EXACT_COUNT), is(Optional.of(3L)));
+		assertThat(estimateCardinality(friendMustKey, new int[]{1}, Accuracy.EXACT_COUNT), is(Optional.of(2L)));
+		assertThat(estimateCardinality(friendMustKey, new int[]{1, 0}, Accuracy.EXACT_COUNT), is(Optional.of(3L)));
+		assertThat(estimateCardinality(ageKey, new int[0], Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		assertThat(estimateCardinality(ageKey, new int[]{0, 1}, Accuracy.EXACT_COUNT), is(Optional.of(3L)));
+		assertThat(estimateCardinality(ageKey, new int[]{0}, Accuracy.EXACT_COUNT), is(Optional.of(3L)));
+		// The distinct values of a function are not counted, so they can only be bounded by the number of tuples.
+		assertThat(estimateCardinality(ageKey, new int[]{1}, Accuracy.EXACT_COUNT), is(Optional.empty()));
+		assertThat(estimateCardinality(ageKey, new int[]{1}, Accuracy.BEST_UPPER_BOUND), is(Optional.of(3L)));
+		assertThat(estimateCardinality(edgeKey, new int[]{1}, Accuracy.EXACT_COUNT), is(Optional.of(2L)));
+		assertThat(estimateCardinality(edgeKey, new int[]{0, 1}, Accuracy.EXACT_COUNT), is(Optional.empty()));
+		assertThat(estimateCardinality(edgeKey, new int[]{0, 1}, Accuracy.APPROXIMATION), is(Optional.of(3L)));
+		assertThat(estimateCardinality(edgeKey, new int[]{0, 2}, Accuracy.BEST_UPPER_BOUND), is(Optional.of(2L)));
+	}
+
+	@Test
+	void estimateCardinalityAfterChangeTest() {
+		friendInterpretation.put(Tuple.of(0, 1), TruthValue.UNKNOWN);
+		friendInterpretation.put(Tuple.of(1, 2), TruthValue.FALSE);
+		friendInterpretation.put(Tuple.of(2, 2), TruthValue.ERROR);
+		assertThat(estimateCardinality(friendMustKey, new int[0], Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		assertThat(estimateCardinality(friendMustKey, new int[]{0}, Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		friendInterpretation.put(Tuple.of(2, 2), TruthValue.FALSE);
+		assertThat(estimateCardinality(friendMustKey, new int[0], Accuracy.EXACT_COUNT), is(Optional.of(0L)));
+		assertThat(estimateCardinality(friendMustKey, new int[]{0, 1}, Accuracy.EXACT_COUNT), is(Optional.of(0L)));
+		edgeInterpretation.put(Tuple.of(0, 1, 0), false);
+		edgeInterpretation.put(Tuple.of(0, 2, 0), false);
+		assertThat(estimateCardinality(edgeKey, new int[]{0}, Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		assertThat(estimateCardinality(edgeKey, new int[]{1}, Accuracy.EXACT_COUNT), is(Optional.of(1L)));
+		edgeInterpretation.put(Tuple.of(1, 2, 0), false);
+		assertThat(estimateCardinality(edgeKey, new int[0], Accuracy.EXACT_COUNT), is(Optional.of(0L)));
+		assertThat(estimateCardinality(edgeKey, new int[]{0}, Accuracy.EXACT_COUNT), is(Optional.of(0L)));
+	}
+
+	private int countTuples(SymbolViewWrapper key, int[] indices, Object... seed) {
+		var mask = TupleMask.fromSelectedIndices(key.getWrappedKey().arity(), indices);
+		return runtimeContext.countTuples(key, mask, Tuples.flatTupleOf(seed));
+	}
+
+	private Optional<Long> estimateCardinality(SymbolViewWrapper key, int[] indices, Accuracy accuracy) {
+		var mask = TupleMask.fromSelectedIndices(key.getWrappedKey().arity(), indices);
+		return runtimeContext.estimateCardinality(key, mask, accuracy);
+	}
+}
@@ -7,6 +7,7 @@ package tools.refinery.store.query.interpreter.internal.matcher;
 
 import tools.refinery.interpreter.matchers.tuple.*;
 import org.junit.jupiter.api.Test;
+import tools.refinery.store.query.interpreter.internal.tuple.RefineryTupleWrapper;
 import tools.refinery.store.tuple.Tuple;
 import tools.refinery.store.tuple.*;
 
@@ -38,7 +39,7 @@ class MatcherUtilsTest {
 		assertThat(viatraTuple.getSize(), is(2));
 		assertThat(viatraTuple.get(0), is(Tuple.of(2)));
 		assertThat(viatraTuple.get(1), is(Tuple.of(3)));
-		assertThat(viatraTuple, instanceOf(FlatTuple2.class));
+		assertThat(viatraTuple, instanceOf(RefineryTupleWrapper.class));
 	}
 
 	@Test
@@ -48,7 +49,7 @@ class MatcherUtilsTest {
 		assertThat(viatraTuple.get(0), is(Tuple.of(2)));
 		assertThat(viatraTuple.get(1), is(Tuple.of(3)));
 		assertThat(viatraTuple.get(2), is(Tuple.of(5)));
-		assertThat(viatraTuple, instanceOf(FlatTuple3.class));
+		assertThat(viatraTuple, instanceOf(RefineryTupleWrapper.class));
 	}
 
 	@Test
@@ -59,7 +60,7 @@ class MatcherUtilsTest {
 		assertThat(viatraTuple.get(1), is(Tuple.of(3)));
 		assertThat(viatraTuple.get(2), is(Tuple.of(5)));
 		assertThat(viatraTuple.get(3), is(Tuple.of(8)));
-		assertThat(viatraTuple, instanceOf(FlatTuple4.class));
+		assertThat(viatraTuple, instanceOf(RefineryTupleWrapper.class));
 	}
 
 	@Test
@@ -71,7 +72,23 @@ class MatcherUtilsTest {
 		assertThat(viatraTuple.get(2), is(Tuple.of(5)));
 		assertThat(viatraTuple.get(3), is(Tuple.of(8)));
 		assertThat(viatraTuple.get(4), is(Tuple.of(13)));
-		assertThat(viatraTuple, instanceOf(FlatTuple.class));
+		assertThat(viatraTuple, instanceOf(RefineryTupleWrapper.class));
+	}
+
+	@Test
+	void toViatraEqualsFlatTupleTest() {
+		var viatraTuple = MatcherUtils.toViatraTuple(Tuple.of(2, 3, 5));
+		var flatTuple = Tuples.flatTupleOf(Tuple.of(2), Tuple.of(3), Tuple.of(5));
+		assertThat(viatraTuple, is(flatTuple));
+		assertThat(flatTuple, is(viatraTuple));
+		assertThat(viatraTuple.hashCode(), is(flatTuple.hashCode()));
+	}
+
+	@Test
+	void toViatraRoundTripTest() {
+		var refineryTuple = Tuple.of(2, 3);
+		assertThat(MatcherUtils.toRefineryTuple(MatcherUtils.toViatraTuple(refineryTuple)),
+				sameInstance(refineryTuple));
 	}
 
 	@Test
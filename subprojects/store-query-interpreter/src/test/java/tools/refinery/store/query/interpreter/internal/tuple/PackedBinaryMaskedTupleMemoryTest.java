@@ -0,0 +1,177 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.tuple;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tools.refinery.interpreter.matchers.memories.DefaultMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.MaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.PackedBinaryMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedBinaryMaskedTupleMemoryTest {
+	private static final TupleMask MASK = TupleMask.fromSelectedIndices(3, new int[]{2, 0});
+
+	private static MaskedTupleMemory<Integer> createPacked(MemoryType bucketType) {
+		var memory = MaskedTupleMemory.<Integer>create(MASK, bucketType, "packed", false, false,
+				NodeIdElementCodec.INSTANCE);
+		assertInstanceOf(PackedBinaryMaskedTupleMemory.class, memory);
+		return memory;
+	}
+
+	private static Object element(Random random) {
+		int value = random.nextInt(5);
+		// Elements that are not node ids are stored in the fallback lookup indexed by signature tuples.
+		return random.nextInt(8) == 0 ? "e" + value : tools.refinery.store.tuple.Tuple.of(value);
+	}
+
+	private static Tuple nodes(int... values) {
+		var elements = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			elements[i] = tools.refinery.store.tuple.Tuple.of(values[i]);
+		}
+		return Tuples.flatTupleOf(elements);
+	}
+
+	@Test
+	void addRemoveTest() {
+		var memory = createPacked(MemoryType.SETS);
+		var a = nodes(0, 1, 2);
+		var b = nodes(0, 3, 2);
+		var signature = nodes(2, 0);
+		assertTrue(memory.add(a));
+		assertFalse(memory.add(b));
+		assertEquals(Set.of(a, b), Set.copyOf(memory.get(signature)));
+		assertEquals(List.of(signature), toList(memory.getSignatures()));
+		assertEquals(2, memory.getTotalSize());
+		assertEquals(1, memory.getKeysetSize());
+		assertFalse(memory.remove(a));
+		assertEquals(Set.of(b), Set.copyOf(memory.get(signature)));
+		assertTrue(memory.remove(b));
+		assertNull(memory.get(signature));
+		assertEquals(0, memory.getKeysetSize());
+	}
+
+	@Test
+	void duplicateInsertionTest() {
+		var memory = createPacked(MemoryType.SETS);
+		var tuple = nodes(0, 1, 2);
+		memory.add(tuple);
+		assertThrows(IllegalStateException.class, () -> memory.add(tuple));
+		memory.add(nodes(0, 3, 2));
+		assertThrows(IllegalStateException.class, () -> memory.add(tuple));
+	}
+
+	@Test
+	void duplicateDeletionTest() {
+		var memory = createPacked(MemoryType.SETS);
+		var tuple = nodes(0, 1, 2);
+		assertThrows(IllegalStateException.class, () -> memory.remove(tuple));
+		memory.add(nodes(0, 3, 2));
+		assertThrows(IllegalStateException.class, () -> memory.remove(tuple));
+	}
+
+	@Test
+	void multisetTest() {
+		var memory = createPacked(MemoryType.MULTISETS);
+		var tuple = nodes(0, 1, 2);
+		var signature = nodes(2, 0);
+		assertTrue(memory.add(tuple));
+		assertFalse(memory.add(tuple));
+		assertEquals(Set.of(tuple), Set.copyOf(memory.get(signature)));
+		assertFalse(memory.remove(tuple));
+		assertEquals(Set.of(tuple), Set.copyOf(memory.get(signature)));
+		assertTrue(memory.remove(tuple));
+		assertNull(memory.get(signature));
+	}
+
+	@ParameterizedTest
+	@EnumSource(MemoryType.class)
+	void randomOperationsTest(MemoryType bucketType) {
+		var packed = createPacked(bucketType);
+		var expected = new DefaultMaskedTupleMemory<Integer>(MASK, bucketType, "default");
+		var random = new Random(1);
+		var contents = new ArrayList<Tuple>();
+		for (int i = 0; i < 5000; i++) {
+			Tuple tuple;
+			if (!contents.isEmpty() && random.nextBoolean()) {
+				tuple = contents.get(random.nextInt(contents.size()));
+			} else {
+				tuple = Tuples.staticArityFlatTupleOf(element(random), element(random), element(random));
+			}
+			if (random.nextInt(3) == 0) {
+				checkRemove(expected, packed, tuple);
+				contents.remove(tuple);
+			} else {
+				checkAdd(expected, packed, tuple);
+				contents.add(tuple);
+			}
+			if (i % 100 == 0) {
+				checkContents(expected, packed);
+			}
+		}
+		checkContents(expected, packed);
+		packed.clear();
+		assertEquals(0, packed.getKeysetSize());
+		assertFalse(packed.iterator().hasNext());
+	}
+
+	private static void checkAdd(MaskedTupleMemory<Integer> expected, MaskedTupleMemory<Integer> actual,
+								 Tuple tuple) {
+		boolean expectedResult;
+		try {
+			expectedResult = expected.add(tuple);
+		} catch (IllegalStateException e) {
+			assertThrows(IllegalStateException.class, () -> actual.add(tuple));
+			return;
+		}
+		assertEquals(expectedResult, actual.add(tuple, MASK.transform(tuple)));
+	}
+
+	private static void checkRemove(MaskedTupleMemory<Integer> expected, MaskedTupleMemory<Integer> actual,
+									Tuple tuple) {
+		boolean expectedResult;
+		try {
+			expectedResult = expected.remove(tuple);
+		} catch (IllegalStateException e) {
+			assertThrows(IllegalStateException.class, () -> actual.remove(tuple));
+			return;
+		}
+		assertEquals(expectedResult, actual.remove(tuple));
+	}
+
+	private static void checkContents(MaskedTupleMemory<Integer> expected, MaskedTupleMemory<Integer> actual) {
+		var expectedSignatures = new HashSet<>(toList(expected.getSignatures()));
+		var actualSignatures = toList(actual.getSignatures());
+		assertEquals(expectedSignatures.size(), actualSignatures.size());
+		assertEquals(expectedSignatures, new HashSet<>(actualSignatures));
+		for (var signature : expectedSignatures) {
+			assertEquals(Set.copyOf(expected.get(signature)), Set.copyOf(actual.get(signature)));
+		}
+		assertEquals(toList(expected::iterator).size(), toList(actual::iterator).size());
+		assertEquals(new HashSet<>(toList(expected::iterator)), new HashSet<>(toList(actual::iterator)));
+		assertEquals(expected.getTotalSize(), actual.getTotalSize());
+		assertEquals(expected.getKeysetSize(), actual.getKeysetSize());
+	}
+
+	private static List<Tuple> toList(Iterable<Tuple> iterable) {
+		var list = new ArrayList<Tuple>();
+		iterable.forEach(list::add);
+		return list;
+	}
+}
@@ -49,6 +49,11 @@ public abstract class AbstractFunctionView<T> extends SymbolView<T> {
 		return true;
 	}
 
+	@Override
+	protected boolean isFiltering() {
+		return false;
+	}
+
 	protected Object forwardMapValue(T value) {
 		return value;
 	}
@@ -10,6 +10,7 @@ import tools.refinery.store.model.Model;
 import tools.refinery.logic.Constraint;
 import tools.refinery.store.representation.AnySymbol;
 
+import java.util.Arrays;
 import java.util.Set;
 
 public sealed interface AnySymbolView extends Constraint permits SymbolView {
@@ -36,4 +37,24 @@ public sealed interface AnySymbolView extends Constraint permits SymbolView {
 	default boolean canIndexSlot(int slot) {
 		return false;
 	}
+
+	default Iterable<Object[]> getAdjacent(Model model, int[] slots, Object[] values) {
+		throw new IllegalArgumentException("Cannot index slots " + Arrays.toString(slots));
+	}
+
+	default boolean canIndexSlots(int[] slots) {
+		return false;
+	}
+
+	default boolean canCountAdjacent(int[] slots) {
+		return false;
+	}
+
+	default long countAdjacent(Model model, int[] slots, Object[] values) {
+		throw new IllegalArgumentException("Cannot count slots " + Arrays.toString(slots));
+	}
+
+	default long countDistinct(Model model, int slot) {
+		throw new IllegalArgumentException("Cannot count slot " + slot);
+	}
 }
@@ -25,6 +25,11 @@ public final class KeyOnlyView<T> extends TuplePreservingView<T> {
 		return true;
 	}
 
+	@Override
+	protected boolean isFiltering() {
+		return false;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -9,8 +9,10 @@ import tools.refinery.store.map.CursorAsIterator;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
+import tools.refinery.store.tuple.Tuple1;
 
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -53,6 +55,18 @@ public abstract non-sealed class SymbolView<T> implements AnySymbolView {
 
 	protected abstract boolean doFilter(Tuple key, T value);
 
+	/**
+	 * Determines whether {@link #doFilter(Tuple, Object)} may reject some keys with non-default values.
+	 * <p>
+	 * Views that don't filter have exactly one tuple for each key with a non-default value, so their tuples can be
+	 * counted with the indexes of the interpretation instead of enumerating them.
+	 *
+	 * @return {@code false} if {@link #doFilter(Tuple, Object)} always returns {@code true}.
+	 */
+	protected boolean isFiltering() {
+		return true;
+	}
+
 	public abstract Object[] forwardMap(Tuple key, T value);
 
 	@Override
@@ -60,6 +74,58 @@ public abstract non-sealed class SymbolView<T> implements AnySymbolView {
 		return (() -> new CursorAsIterator<>(model.getInterpretation(symbol).getAll(), this::forwardMap, this::filter));
 	}
 
+	@Override
+	public boolean canIndexSlots(int[] slots) {
+		for (int slot : slots) {
+			if (!canIndexSlot(slot)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Iterable<Object[]> getAdjacent(Model model, int[] slots, Object[] values) {
+		int[] nodes = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] instanceof Tuple1 tuple1)) {
+				return Set.of();
+			}
+			nodes[i] = tuple1.value0();
+		}
+		return (() -> new CursorAsIterator<>(model.getInterpretation(getSymbol()).getAdjacent(slots, nodes),
+				this::forwardMap, this::filter));
+	}
+
+	@Override
+	public boolean canCountAdjacent(int[] slots) {
+		return !isFiltering() && canIndexSlots(slots);
+	}
+
+	@Override
+	public long countAdjacent(Model model, int[] slots, Object[] values) {
+		var interpretation = model.getInterpretation(symbol);
+		if (slots.length == 0) {
+			return interpretation.getSize();
+		}
+		int[] nodes = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] instanceof Tuple1 tuple1)) {
+				return 0;
+			}
+			nodes[i] = tuple1.value0();
+		}
+		if (slots.length == 1) {
+			return interpretation.getAdjacentSize(slots[0], nodes[0]);
+		}
+		return interpretation.getAdjacentSize(slots, nodes);
+	}
+
+	@Override
+	public long countDistinct(Model model, int slot) {
+		return model.getInterpretation(symbol).getDistinctNodeCount(slot);
+	}
+
 	@Override
 	public String toString() {
 		return name();
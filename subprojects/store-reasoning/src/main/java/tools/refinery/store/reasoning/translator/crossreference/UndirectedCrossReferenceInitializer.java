@@ -7,6 +7,7 @@ package tools.refinery.store.reasoning.translator.crossreference;
 
 import org.jetbrains.annotations.NotNull;
 import tools.refinery.logic.term.truthvalue.TruthValue;
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.reasoning.refinement.PartialModelInitializer;
 import tools.refinery.store.reasoning.representation.PartialRelation;
@@ -30,11 +31,7 @@ class UndirectedCrossReferenceInitializer implements PartialModelInitializer {
 	public void initialize(Model model, ModelSeed modelSeed) {
 		var mergedMap = getMergedMap(modelSeed);
 		var interpretation = model.getInterpretation(symbol);
-		for (var entry : mergedMap.entrySet()) {
-			var key = entry.getKey();
-			var value = entry.getValue();
-			interpretation.put(key, value);
-		}
+		interpretation.putAll(Cursors.of(mergedMap));
 	}
 
 	@NotNull
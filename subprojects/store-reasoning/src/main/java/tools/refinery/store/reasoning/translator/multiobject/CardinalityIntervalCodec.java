@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.reasoning.translator.multiobject;
+
+import tools.refinery.logic.term.cardinalityinterval.CardinalityInterval;
+import tools.refinery.logic.term.cardinalityinterval.CardinalityIntervals;
+import tools.refinery.logic.term.uppercardinality.FiniteUpperCardinality;
+import tools.refinery.logic.term.uppercardinality.UpperCardinalities;
+import tools.refinery.store.model.persistence.ValueCodec;
+import tools.refinery.store.model.persistence.VarInts;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes the values of {@link MultiObjectTranslator#COUNT_SYMBOL}.
+ * <p>
+ * Register it with
+ * {@link tools.refinery.store.model.persistence.ModelBinaryFormat#valueCodec(Class, ValueCodec)} for
+ * {@link CardinalityInterval} to encode the states of partial models.
+ * <p>
+ * The lower bound is written incremented by one, so that {@code 0} can stand for the empty interval. The upper bound
+ * is also written incremented by one, where {@code 0} stands for an unbounded upper bound.
+ */
+public final class CardinalityIntervalCodec implements ValueCodec<CardinalityInterval> {
+	public static final CardinalityIntervalCodec INSTANCE = new CardinalityIntervalCodec();
+
+	private static final int ERROR = 0;
+	private static final int UNBOUNDED = 0;
+
+	private CardinalityIntervalCodec() {
+	}
+
+	@Override
+	public void write(DataOutput output, CardinalityInterval value) throws IOException {
+		if (value.isError()) {
+			VarInts.writeVarInt(output, ERROR);
+			return;
+		}
+		VarInts.writeVarInt(output, value.lowerBound() + 1);
+		int upperBound = value.upperBound() instanceof FiniteUpperCardinality(var finiteUpperBound) ?
+				finiteUpperBound + 1 : UNBOUNDED;
+		VarInts.writeVarInt(output, upperBound);
+	}
+
+	@Override
+	public CardinalityInterval read(DataInput input) throws IOException {
+		int lowerBound = VarInts.readVarInt(input);
+		if (lowerBound == ERROR) {
+			return CardinalityIntervals.ERROR;
+		}
+		int upperBound = VarInts.readVarInt(input);
+		return CardinalityIntervals.between(lowerBound - 1, upperBound == UNBOUNDED ? UpperCardinalities.UNBOUNDED :
+				UpperCardinalities.atMost(upperBound - 1));
+	}
+}
@@ -6,6 +6,7 @@
 package tools.refinery.store.reasoning.translator.multiobject;
 
 import org.jetbrains.annotations.NotNull;
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.reasoning.ReasoningAdapter;
 import tools.refinery.store.reasoning.refinement.PartialModelInitializer;
@@ -19,6 +20,7 @@ import tools.refinery.store.tuple.Tuple;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.function.Function;
 
 class MultiObjectInitializer implements PartialModelInitializer {
@@ -33,8 +35,8 @@ class MultiObjectInitializer implements PartialModelInitializer {
 		var intervals = initializeIntervals(model, modelSeed);
 		initializeExists(intervals, model, modelSeed);
 		initializeEquals(intervals, model, modelSeed);
-		var countInterpretation = model.getInterpretation(countSymbol);
 		var uniqueTable = new HashMap<CardinalityInterval, CardinalityInterval>();
+		var countMap = LinkedHashMap.<Tuple, CardinalityInterval>newLinkedHashMap(intervals.length);
 		for (int i = 0; i < intervals.length; i++) {
 			var interval = intervals[i];
 			if (interval.isError()) {
@@ -42,8 +44,10 @@ class MultiObjectInitializer implements PartialModelInitializer {
 						"Inconsistent existence or equality for node " + i);
 			}
 			var uniqueInterval = uniqueTable.computeIfAbsent(intervals[i], Function.identity());
-			countInterpretation.put(Tuple.of(i), uniqueInterval);
+			countMap.put(Tuple.of(i), uniqueInterval);
 		}
+		var countInterpretation = model.getInterpretation(countSymbol);
+		countInterpretation.putAll(Cursors.of(countMap));
 	}
 
 	@NotNull
@@ -5,6 +5,7 @@
  */
 package tools.refinery.store.reasoning.translator.typehierarchy;
 
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.reasoning.refinement.PartialModelInitializer;
 import tools.refinery.store.reasoning.representation.PartialRelation;
@@ -15,6 +16,7 @@ import tools.refinery.store.tuple.Tuple;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.function.Function;
 
 public class TypeHierarchyInitializer implements PartialModelInitializer {
@@ -34,13 +36,15 @@ public class TypeHierarchyInitializer implements PartialModelInitializer {
 			model.checkCancelled();
 			initializeType(type, inferredTypes, model, modelSeed);
 		}
-		var typeInterpretation = model.getInterpretation(typeSymbol);
 		var uniqueTable = new HashMap<InferredType, InferredType>();
+		var typeMap = LinkedHashMap.<Tuple, InferredType>newLinkedHashMap(inferredTypes.length);
 		for (int i = 0; i < inferredTypes.length; i++) {
 			model.checkCancelled();
 			var uniqueType = uniqueTable.computeIfAbsent(inferredTypes[i], Function.identity());
-			typeInterpretation.put(Tuple.of(i), uniqueType);
+			typeMap.put(Tuple.of(i), uniqueType);
 		}
+		var typeInterpretation = model.getInterpretation(typeSymbol);
+		typeInterpretation.putAll(Cursors.of(typeMap));
 	}
 
 	private void initializeType(PartialRelation type, InferredType[] inferredTypes, Model model, ModelSeed modelSeed) {
@@ -0,0 +1,43 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.reasoning.translator.multiobject;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import tools.refinery.logic.term.cardinalityinterval.CardinalityInterval;
+import tools.refinery.logic.term.cardinalityinterval.CardinalityIntervals;
+
+import java.io.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CardinalityIntervalCodecTest {
+	@ParameterizedTest
+	@MethodSource
+	void roundTripTest(CardinalityInterval interval) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		CardinalityIntervalCodec.INSTANCE.write(new DataOutputStream(bytes), interval);
+		var input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertThat(CardinalityIntervalCodec.INSTANCE.read(input), is(interval));
+		assertThat(input.available(), is(0));
+	}
+
+	static Stream<Arguments> roundTripTest() {
+		return Stream.of(
+				Arguments.of(CardinalityIntervals.NONE),
+				Arguments.of(CardinalityIntervals.ONE),
+				Arguments.of(CardinalityIntervals.LONE),
+				Arguments.of(CardinalityIntervals.SET),
+				Arguments.of(CardinalityIntervals.SOME),
+				Arguments.of(CardinalityIntervals.between(3, 1000)),
+				Arguments.of(CardinalityIntervals.atLeast(1000)),
+				Arguments.of(CardinalityIntervals.ERROR)
+		);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full recomputation of state codes.
+ * <p>
+ * Run with {@code -prof gc} to check the allocation rate per call, e.g.,
+ * {@code ./gradlew :refinery-store:jmh --args='StateCoderBenchmark -prof gc'}.
+ * </p>
+ * <p>
+ * Calculating the codes is not allocation-free: each round still allocates a cursor per interpretation, and each
+ * call allocates its {@link tools.refinery.store.statecoding.StateCoderResult}.
+ * </p>
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+public class StateCoderBenchmark {
+	@Benchmark
+	public void calculateCodesBenchmark(StateCoderExecutionPlan executionPlan, Blackhole blackhole) {
+		blackhole.consume(executionPlan.getSut().calculateCodes());
+	}
+
+	@Benchmark
+	public void calculateCodesAfterChangeBenchmark(StateCoderExecutionPlan executionPlan, Blackhole blackhole) {
+		executionPlan.changeRandomTuple();
+		blackhole.consume(executionPlan.getSut().calculateCodes());
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCodeCalculator;
+import tools.refinery.store.statecoding.neighborhood.IncrementalNeighborhoodCalculator;
+import tools.refinery.store.statecoding.neighborhood.IndividualsArray;
+import tools.refinery.store.statecoding.neighborhood.NeighborhoodCalculator;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class StateCoderExecutionPlan {
+	@Param({"100", "10000"})
+	public int nNodes;
+
+	@Param({"full", "incremental"})
+	public String calculator;
+
+	private final Symbol<Boolean> person = new Symbol<>("Person", 1, Boolean.class, false);
+	private final Symbol<Integer> age = new Symbol<>("age", 1, Integer.class, null);
+	private final Symbol<Boolean> friend = new Symbol<>("friend", 2, Boolean.class, false);
+	private final Symbol<Boolean> parents = new Symbol<>("parents", 3, Boolean.class, false);
+
+	private Random random;
+
+	private Interpretation<Boolean> friendInterpretation;
+
+	private StateCodeCalculator sut;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		random = new Random(1);
+		var store = ModelStore.builder()
+				.symbols(person, age, friend, parents)
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var ageInterpretation = model.getInterpretation(age);
+		friendInterpretation = model.getInterpretation(friend);
+		var parentsInterpretation = model.getInterpretation(parents);
+		for (int i = 0; i < nNodes; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			ageInterpretation.put(Tuple.of(i), random.nextInt(100));
+			friendInterpretation.put(Tuple.of(i, random.nextInt(nNodes)), true);
+			friendInterpretation.put(Tuple.of(i, random.nextInt(nNodes)), true);
+			if (i % 3 == 0) {
+				parentsInterpretation.put(Tuple.of(i, random.nextInt(nNodes), random.nextInt(nNodes)), true);
+			}
+		}
+		model.commit();
+		var interpretations = List.of(personInterpretation, ageInterpretation, friendInterpretation,
+				parentsInterpretation);
+		var individuals = new IndividualsArray(new int[]{0});
+		var factory = switch (calculator) {
+			case "full" -> NeighborhoodCalculator.factory();
+			case "incremental" -> IncrementalNeighborhoodCalculator.factory();
+			default -> throw new IllegalArgumentException("Unknown calculator: " + calculator);
+		};
+		sut = factory.create(model, interpretations, individuals);
+	}
+
+	public StateCodeCalculator getSut() {
+		return sut;
+	}
+
+	public void changeRandomTuple() {
+		var key = Tuple.of(random.nextInt(nNodes), random.nextInt(nNodes));
+		friendInterpretation.put(key, !friendInterpretation.get(key));
+	}
+}
@@ -7,7 +7,13 @@ package tools.refinery.store.map;
 
 public interface VersionedMapStoreFactoryBuilder<K,V> {
 	enum StoreStrategy {
-		STATE, DELTA
+		STATE, DELTA,
+
+		/**
+		 * Start with {@link #DELTA} and switch to {@link #STATE} if the maps turn out to be large and slowly
+		 * changing. Accepts the parameters of both strategies.
+		 */
+		ADAPTIVE
 	}
 
 	enum DeltaTransactionStrategy {
@@ -25,6 +31,8 @@ public interface VersionedMapStoreFactoryBuilder<K,V> {
 	VersionedMapStoreFactoryBuilder<K,V> stateBasedSharingStrategy(SharingStrategy sharingStrategy);
 	VersionedMapStoreFactoryBuilder<K,V> stateBasedHashProvider(ContinuousHashProvider<K> hashProvider);
 	VersionedMapStoreFactoryBuilder<K,V> deltaTransactionStrategy(DeltaTransactionStrategy deltaStrategy);
+	VersionedMapStoreFactoryBuilder<K,V> deltaPacking(boolean packDeltas);
+	VersionedMapStoreFactoryBuilder<K,V> deltaCheckpointInterval(int checkpointInterval);
 
 	VersionedMapStoreFactory<K,V> build();
 }
@@ -8,7 +8,9 @@ package tools.refinery.store.map.internal;
 import tools.refinery.store.map.ContinuousHashProvider;
 import tools.refinery.store.map.VersionedMapStoreFactory;
 import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+import tools.refinery.store.map.internal.adaptive.AdaptiveVersionedMapStoreFactory;
 import tools.refinery.store.map.internal.delta.DeltaBasedVersionedMapStoreFactory;
+import tools.refinery.store.map.internal.delta.VersionedMapStoreDeltaImpl;
 import tools.refinery.store.map.internal.state.StateBasedVersionedMapStoreFactory;
 
 public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapStoreFactoryBuilder<K, V> {
@@ -21,6 +23,8 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 	private Boolean enableVersionFreeing = null;
 	private ContinuousHashProvider<K> continuousHashProvider = null;
 	private DeltaTransactionStrategy deltaTransactionStrategy = null;
+	private Boolean packDeltas = null;
+	private Integer checkpointInterval = null;
 
 	private StoreStrategy checkStrategy() {
 		StoreStrategy currentStrategy = strategy;
@@ -28,10 +32,15 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 		currentStrategy = mergeStrategies(currentStrategy, sharingStrategy, StoreStrategy.STATE);
 		currentStrategy = mergeStrategies(currentStrategy, continuousHashProvider, StoreStrategy.STATE);
 		currentStrategy = mergeStrategies(currentStrategy, deltaTransactionStrategy, StoreStrategy.DELTA);
+		currentStrategy = mergeStrategies(currentStrategy, packDeltas, StoreStrategy.DELTA);
+		currentStrategy = mergeStrategies(currentStrategy, checkpointInterval, StoreStrategy.DELTA);
 		return currentStrategy;
 	}
 
 	private StoreStrategy mergeStrategies(StoreStrategy old, StoreStrategy newStrategy) {
+		if (old == StoreStrategy.ADAPTIVE) {
+			return old;
+		}
 		if (old != null && newStrategy != null && old != newStrategy) {
 			throw new IllegalArgumentException("Mixed strategy parametrization in VersionedMap builder!");
 		}
@@ -100,6 +109,23 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 		return this;
 	}
 
+	@Override
+	public VersionedMapStoreFactoryBuilder<K, V> deltaPacking(boolean packDeltas) {
+		this.packDeltas = packDeltas;
+		checkStrategy();
+		return this;
+	}
+
+	@Override
+	public VersionedMapStoreFactoryBuilder<K, V> deltaCheckpointInterval(int checkpointInterval) {
+		if (checkpointInterval < 0) {
+			throw new IllegalArgumentException("Checkpoint interval must not be negative!");
+		}
+		this.checkpointInterval = checkpointInterval;
+		checkStrategy();
+		return this;
+	}
+
 	private <T> T getOrDefault(T value, T defaultValue) {
 		if(value != null) {
 			return value;
@@ -115,25 +141,34 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 		}
 		var strategyToUse = checkStrategy();
 		if (strategyToUse == null) {
-			return new DeltaBasedVersionedMapStoreFactory<>(defaultValue,
-					getOrDefault(deltaTransactionStrategy, DeltaTransactionStrategy.LIST));
+			return createDeltaBasedFactory();
 		}
 		return switch (strategyToUse) {
-			case STATE -> {
-				if(continuousHashProvider == null) {
-					throw new IllegalArgumentException("Continuous hash provider is missing!");
-				}
-				yield new StateBasedVersionedMapStoreFactory<>(defaultValue,
-						getOrDefault(transformToImmutable,true),
-						getOrDefault(sharingStrategy, SharingStrategy.SHARED_NODE_CACHE_IN_GROUP),
-						getOrDefault(enableVersionFreeing, true),
-						continuousHashProvider);
-			}
-			case DELTA -> new DeltaBasedVersionedMapStoreFactory<>(defaultValue,
-					getOrDefault(deltaTransactionStrategy, DeltaTransactionStrategy.LIST));
+			case STATE -> createStateBasedFactory();
+			case DELTA -> createDeltaBasedFactory();
+			case ADAPTIVE -> new AdaptiveVersionedMapStoreFactory<>(createDeltaBasedFactory(),
+					createStateBasedFactory());
 		};
 	}
 
+	private VersionedMapStoreFactory<K, V> createStateBasedFactory() {
+		if(continuousHashProvider == null) {
+			throw new IllegalArgumentException("Continuous hash provider is missing!");
+		}
+		return new StateBasedVersionedMapStoreFactory<>(defaultValue,
+				getOrDefault(transformToImmutable,true),
+				getOrDefault(sharingStrategy, SharingStrategy.SHARED_NODE_CACHE_IN_GROUP),
+				getOrDefault(enableVersionFreeing, true),
+				continuousHashProvider);
+	}
+
+	private VersionedMapStoreFactory<K, V> createDeltaBasedFactory() {
+		return new DeltaBasedVersionedMapStoreFactory<>(defaultValue,
+				getOrDefault(deltaTransactionStrategy, DeltaTransactionStrategy.LIST),
+				getOrDefault(packDeltas, false),
+				getOrDefault(checkpointInterval, VersionedMapStoreDeltaImpl.NO_CHECKPOINTS));
+	}
+
 	@Override
 	public String toString() {
 		return "VersionedMapStoreFactoryBuilderImpl{" +
@@ -145,6 +180,8 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 				", enableVersionFreeing=" + enableVersionFreeing +
 				", continuousHashProvider=" + continuousHashProvider +
 				", deltaTransactionStrategy=" + deltaTransactionStrategy +
+				", packDeltas=" + packDeltas +
+				", checkpointInterval=" + checkpointInterval +
 				'}';
 	}
 }
@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AdaptiveVersionedMapStoreFactory<K, V> implements VersionedMapStoreFactory<K, V> {
+	private final VersionedMapStoreFactory<K, V> deltaFactory;
+	private final VersionedMapStoreFactory<K, V> stateFactory;
+
+	public AdaptiveVersionedMapStoreFactory(VersionedMapStoreFactory<K, V> deltaFactory,
+											VersionedMapStoreFactory<K, V> stateFactory) {
+		this.deltaFactory = deltaFactory;
+		this.stateFactory = stateFactory;
+	}
+
+	@Override
+	public VersionedMapStore<K, V> createOne() {
+		return new VersionedMapStoreAdaptiveImpl<>(deltaFactory.createOne(), stateFactory.createOne());
+	}
+
+	@Override
+	public List<VersionedMapStore<K, V>> createGroup(int amount) {
+		var deltaStores = deltaFactory.createGroup(amount);
+		var stateStores = stateFactory.createGroup(amount);
+		List<VersionedMapStore<K, V>> result = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			result.add(new VersionedMapStoreAdaptiveImpl<>(deltaStores.get(i), stateStores.get(i)));
+		}
+		return result;
+	}
+}
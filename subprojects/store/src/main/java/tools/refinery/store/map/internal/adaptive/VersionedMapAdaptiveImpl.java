@@ -0,0 +1,151 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class VersionedMapAdaptiveImpl<K, V> implements VersionedMap<K, V> {
+	private final VersionedMapStoreAdaptiveImpl<K, V> store;
+	private VersionedMap<K, V> delegate;
+	private boolean stateBased;
+	private boolean initialized;
+	private long changes;
+
+	public VersionedMapAdaptiveImpl(VersionedMapStoreAdaptiveImpl<K, V> store) {
+		this.store = store;
+		stateBased = store.isStateBased();
+		delegate = store.createMap(stateBased);
+	}
+
+	@Override
+	public V getDefaultValue() {
+		return delegate.getDefaultValue();
+	}
+
+	@Override
+	public V get(K key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public Cursor<K, V> getAll() {
+		return delegate.getAll();
+	}
+
+	@Override
+	public V put(K key, V value) {
+		var oldValue = delegate.put(key, value);
+		if (!Objects.equals(oldValue, value)) {
+			changes++;
+		}
+		return oldValue;
+	}
+
+	@Override
+	public void putAll(Cursor<K, V> cursor) {
+		if (cursor.getDependingMaps().contains(delegate)) {
+			List<K> keys = new ArrayList<>();
+			List<V> values = new ArrayList<>();
+			while (cursor.move()) {
+				keys.add(cursor.getKey());
+				values.add(cursor.getValue());
+			}
+			for (int i = 0; i < keys.size(); i++) {
+				this.put(keys.get(i), values.get(i));
+			}
+		} else {
+			while (cursor.move()) {
+				this.put(cursor.getKey(), cursor.getValue());
+			}
+		}
+	}
+
+	@Override
+	public long getSize() {
+		return delegate.getSize();
+	}
+
+	@Override
+	public Version commit() {
+		if (initialized) {
+			// The first commit of a new map only loads its initial contents, which tells nothing about churn.
+			store.observeCommit(delegate.getSize(), changes);
+		}
+		initialized = true;
+		changes = 0;
+		switchStrategyIfNeeded();
+		return delegate.commit();
+	}
+
+	@Override
+	public void restore(Version state) {
+		initialized = true;
+		changes = 0;
+		boolean shouldBeStateBased = store.isStateBased();
+		if (stateBased == shouldBeStateBased) {
+			delegate.restore(shouldBeStateBased ? store.toStateVersion(state) : store.toDeltaVersion(state));
+		} else {
+			delegate = store.createMap(shouldBeStateBased, state);
+			stateBased = shouldBeStateBased;
+		}
+	}
+
+	private void switchStrategyIfNeeded() {
+		boolean shouldBeStateBased = store.isStateBased();
+		if (stateBased == shouldBeStateBased) {
+			return;
+		}
+		var newDelegate = store.createMap(shouldBeStateBased);
+		newDelegate.putAll(delegate.getAll());
+		delegate = newDelegate;
+		stateBased = shouldBeStateBased;
+	}
+
+	@Override
+	public DiffCursor<K, V> getDiffCursor(Version state) {
+		// Compare in the storage of this map, so that computing a diff never switches strategies.
+		return delegate.getDiffCursor(stateBased ? store.toStateVersion(state) : store.toDeltaVersion(state));
+	}
+
+	@Override
+	public int contentHashCode(ContentHashCode mode) {
+		return delegate.contentHashCode(mode);
+	}
+
+	@Override
+	public boolean contentEquals(AnyVersionedMap other) {
+		if (!(other instanceof VersionedMapAdaptiveImpl<?, ?> otherAdaptive)) {
+			throw new UnsupportedOperationException("Comparing different map implementations is ineffective.");
+		}
+		if (otherAdaptive == this) {
+			return true;
+		}
+		if (stateBased == otherAdaptive.stateBased) {
+			return delegate.contentEquals(otherAdaptive.delegate);
+		}
+		@SuppressWarnings("unchecked")
+		var otherMap = (VersionedMapAdaptiveImpl<K, V>) otherAdaptive;
+		if (getSize() != otherMap.getSize() || !Objects.equals(getDefaultValue(), otherMap.getDefaultValue())) {
+			return false;
+		}
+		var cursor = getAll();
+		while (cursor.move()) {
+			if (!Objects.equals(cursor.getValue(), otherMap.get(cursor.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void checkIntegrity() {
+		delegate.checkIntegrity();
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.DiffCursor;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.map.internal.state.ImmutableNode;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A map store that chooses between delta-based and state-based storage by observing how its maps are used.
+ * <p>
+ * Maps start out delta-based. Every {@link #OBSERVED_COMMITS} commits (not counting the commits that load the
+ * initial contents of a fresh map), the store revises its decision. It switches to state-based storage if its maps
+ * were large and only a small fraction of their entries changed between commits. It only switches back to
+ * delta-based storage if the maps became clearly smaller or less stable, so that the store does not keep alternating
+ * between strategies near the threshold. Maps follow the decision of the store at their next commit or restore.
+ * <p>
+ * Versions committed with either strategy remain valid after switching. They are copied into the store of the other
+ * strategy when they are first restored or compared with a version of the other strategy. Copies are only kept while
+ * the original version is reachable, and are looked up by the identity of the original version, since versions may
+ * compare their whole history when compared by equality. Instead of copying every entry of the map, a version is
+ * converted to the state-based store by applying its difference from the previously converted version to the copy of
+ * that version. Versions are still copied entirely to the delta-based store, because applying differences would make
+ * the copies a chain of transactions that has to be replayed from its start to restore a copy.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class VersionedMapStoreAdaptiveImpl<K, V> implements VersionedMapStore<K, V> {
+	static final int OBSERVED_COMMITS = 16;
+	static final long MIN_STATE_BASED_SIZE = 1024;
+	static final int MAX_CHANGED_FRACTION = 64;
+	static final int HYSTERESIS = 4;
+
+	private final VersionedMapStore<K, V> deltaStore;
+	private final VersionedMapStore<K, V> stateStore;
+	private final ConvertedVersions stateVersions = new ConvertedVersions();
+	private final ConvertedVersions deltaVersions = new ConvertedVersions();
+	private volatile StoreStrategy strategy;
+	private int observedCommits;
+	private long observedSize;
+	private long observedChanges;
+
+	public VersionedMapStoreAdaptiveImpl(VersionedMapStore<K, V> deltaStore, VersionedMapStore<K, V> stateStore) {
+		this.deltaStore = deltaStore;
+		this.stateStore = stateStore;
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap() {
+		return new VersionedMapAdaptiveImpl<>(this);
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap(Version state) {
+		var result = new VersionedMapAdaptiveImpl<>(this);
+		result.restore(state);
+		return result;
+	}
+
+	/**
+	 * Gets the storage strategy currently chosen by this store.
+	 *
+	 * @return The chosen strategy, or {@code null} if the store has not observed enough commits to decide yet.
+	 */
+	public StoreStrategy getStrategy() {
+		return strategy;
+	}
+
+	boolean isStateBased() {
+		return strategy == StoreStrategy.STATE;
+	}
+
+	VersionedMap<K, V> createMap(boolean stateBased) {
+		return stateBased ? stateStore.createMap() : deltaStore.createMap();
+	}
+
+	VersionedMap<K, V> createMap(boolean stateBased, Version state) {
+		return stateBased ? stateStore.createMap(toStateVersion(state)) : deltaStore.createMap(toDeltaVersion(state));
+	}
+
+	synchronized void observeCommit(long size, long changes) {
+		observedCommits++;
+		observedSize += size;
+		observedChanges += changes;
+		if (observedCommits < OBSERVED_COMMITS) {
+			return;
+		}
+		long averageSize = observedSize / observedCommits;
+		long averageChanges = observedChanges / observedCommits;
+		observedCommits = 0;
+		observedSize = 0;
+		observedChanges = 0;
+		if (isStateBased()) {
+			boolean smallOrUnstable = averageSize * HYSTERESIS < MIN_STATE_BASED_SIZE ||
+					averageChanges * MAX_CHANGED_FRACTION > averageSize * HYSTERESIS;
+			if (smallOrUnstable) {
+				strategy = StoreStrategy.DELTA;
+			}
+		} else {
+			boolean largeAndStable = averageSize >= MIN_STATE_BASED_SIZE &&
+					averageChanges * MAX_CHANGED_FRACTION <= averageSize;
+			strategy = largeAndStable ? StoreStrategy.STATE : StoreStrategy.DELTA;
+		}
+	}
+
+	static boolean isStateVersion(Version state) {
+		return state instanceof ImmutableNode<?, ?>;
+	}
+
+	/**
+	 * Converts a version to a version of the state-based store.
+	 *
+	 * @param state A version committed by either a delta-based or a state-based map.
+	 * @return A state-based version with the same contents.
+	 */
+	Version toStateVersion(Version state) {
+		if (state == null || isStateVersion(state)) {
+			return state;
+		}
+		return convertVersion(state, stateVersions, deltaStore, stateStore, true);
+	}
+
+	/**
+	 * Converts a version to a version of the delta-based store.
+	 *
+	 * @param state A version committed by either a delta-based or a state-based map.
+	 * @return A delta-based version with the same contents.
+	 */
+	Version toDeltaVersion(Version state) {
+		if (state == null || !isStateVersion(state)) {
+			return state;
+		}
+		return convertVersion(state, deltaVersions, stateStore, deltaStore, false);
+	}
+
+	private Version convertVersion(Version state, ConvertedVersions convertedVersions,
+								   VersionedMapStore<K, V> sourceStore, VersionedMapStore<K, V> targetStore,
+								   boolean incremental) {
+		Version convertedVersion;
+		ConvertedVersions.Conversion lastConversion;
+		synchronized (convertedVersions) {
+			convertedVersion = convertedVersions.get(state);
+			lastConversion = convertedVersions.lastConversion;
+		}
+		if (convertedVersion != null) {
+			return convertedVersion;
+		}
+		// Copy the contents without holding the lock. If several threads convert the same version at once, the
+		// copies are equivalent, and we only keep the first one.
+		VersionedMap<K, V> targetMap;
+		if (!incremental || lastConversion == null) {
+			targetMap = targetStore.createMap();
+			targetMap.putAll(sourceStore.createMap(state).getAll());
+		} else {
+			// Successively restored versions are usually close to each other, so only apply their difference.
+			targetMap = targetStore.createMap(lastConversion.target());
+			var diffCursor = sourceStore.getDiffCursor(lastConversion.source(), state);
+			while (diffCursor.move()) {
+				targetMap.put(diffCursor.getKey(), diffCursor.getToValue());
+			}
+		}
+		convertedVersion = targetMap.commit();
+		synchronized (convertedVersions) {
+			var existingVersion = convertedVersions.putIfAbsent(state, convertedVersion);
+			if (existingVersion != null) {
+				return existingVersion;
+			}
+			if (incremental) {
+				convertedVersions.lastConversion = new ConvertedVersions.Conversion(state, convertedVersion);
+			}
+			return convertedVersion;
+		}
+	}
+
+	@Override
+	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
+		if (isStateVersion(fromState) || isStateVersion(toState)) {
+			return stateStore.getDiffCursor(toStateVersion(fromState), toStateVersion(toState));
+		}
+		return deltaStore.getDiffCursor(fromState, toState);
+	}
+
+	/**
+	 * Maps versions to their converted copies by identity, and only keeps the copies while the original version is
+	 * reachable.
+	 * <p>
+	 * The most recent conversion is kept reachable, so that the next conversion can start from it.
+	 */
+	private static class ConvertedVersions {
+		private final Map<VersionReference, Version> versions = new HashMap<>();
+		private final ReferenceQueue<Version> queue = new ReferenceQueue<>();
+		Conversion lastConversion;
+
+		Version get(Version version) {
+			expungeStaleEntries();
+			return versions.get(new VersionReference(version, null));
+		}
+
+		Version putIfAbsent(Version version, Version convertedVersion) {
+			expungeStaleEntries();
+			return versions.putIfAbsent(new VersionReference(version, queue), convertedVersion);
+		}
+
+		private void expungeStaleEntries() {
+			Reference<? extends Version> reference;
+			while ((reference = queue.poll()) != null) {
+				versions.remove(reference);
+			}
+		}
+
+		record Conversion(Version source, Version target) {
+		}
+	}
+
+	private static class VersionReference extends WeakReference<Version> {
+		private final int hashCode;
+
+		VersionReference(Version version, ReferenceQueue<Version> queue) {
+			super(version, queue);
+			hashCode = System.identityHashCode(version);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof VersionReference other) || hashCode != other.hashCode) {
+				return false;
+			}
+			var version = get();
+			return version != null && version == other.get();
+		}
+	}
+}
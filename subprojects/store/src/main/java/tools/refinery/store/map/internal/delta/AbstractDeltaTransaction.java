@@ -0,0 +1,214 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import tools.refinery.store.map.Version;
+
+import java.util.List;
+
+/**
+ * Common ancestry information of committed delta transactions.
+ * <p>
+ * Besides its parent, each transaction has a skew-binary jump pointer to one of its ancestors, which allows finding
+ * ancestors and common ancestors in {@code O(log depth)} steps while only adding a single pointer to each
+ * transaction. Each transaction also knows the total number of changes since the root, so the length of a path
+ * between two transactions can be computed without following it.
+ * <p>
+ * A transaction may have a checkpoint, i.e., the full contents of the map after the transaction. The
+ * {@code checkpointBase} of a transaction is its nearest ancestor-or-self with a checkpoint, or {@code null} if the
+ * state has to be replayed from the empty map.
+ *
+ * @param <T> The type of the transactions.
+ * @param <D> The type of the changes stored in a transaction.
+ */
+abstract class AbstractDeltaTransaction<T extends AbstractDeltaTransaction<T, D>, D> implements Version {
+	private final D deltas;
+	private final T parent;
+	private final T jump;
+	private final int depth;
+	private final long changes;
+	private final D checkpoint;
+	private final T checkpointBase;
+
+	@SuppressWarnings("unchecked")
+	protected AbstractDeltaTransaction(D deltas, int size, T parent, D checkpoint) {
+		this.deltas = deltas;
+		this.parent = parent;
+		this.checkpoint = checkpoint;
+		if (parent == null) {
+			depth = 0;
+			jump = null;
+			changes = size;
+		} else {
+			depth = parent.depth() + 1;
+			jump = computeJump(parent);
+			changes = parent.changes() + size;
+		}
+		if (checkpoint != null) {
+			checkpointBase = (T) this;
+		} else if (parent == null) {
+			checkpointBase = null;
+		} else {
+			checkpointBase = parent.checkpointBase();
+		}
+	}
+
+	public D deltas() {
+		return deltas;
+	}
+
+	public T parent() {
+		return parent;
+	}
+
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Gets the number of changes from the root transaction up to and including this transaction.
+	 *
+	 * @return The number of changes.
+	 */
+	long changes() {
+		return changes;
+	}
+
+	D checkpoint() {
+		return checkpoint;
+	}
+
+	T checkpointBase() {
+		return checkpointBase;
+	}
+
+	protected abstract int getSize(D changesToCount);
+
+	@SuppressWarnings("unchecked")
+	T getJump() {
+		// The root transaction jumps to itself.
+		return jump == null ? (T) this : jump;
+	}
+
+	private static <T extends AbstractDeltaTransaction<T, D>, D> T computeJump(T parent) {
+		var parentJump = parent.getJump();
+		var parentJumpJump = parentJump.getJump();
+		if (parent.depth() - parentJump.depth() == parentJump.depth() - parentJumpJump.depth()) {
+			return parentJumpJump;
+		}
+		return parent;
+	}
+
+	/**
+	 * Gets the number of changes needed to reach this state by loading its checkpoint base into an empty map.
+	 *
+	 * @return The number of changes to apply.
+	 */
+	long getRestoreCost() {
+		if (checkpointBase == null) {
+			return changes;
+		}
+		return getSize(checkpointBase.checkpoint()) + changes - checkpointBase.changes();
+	}
+
+	/**
+	 * Gets the number of changes committed since the last checkpoint or since the root if there is no checkpoint.
+	 *
+	 * @return The number of changes.
+	 */
+	long getChangesSinceCheckpoint() {
+		return checkpointBase == null ? changes : changes - checkpointBase.changes();
+	}
+
+	static <T extends AbstractDeltaTransaction<T, D>, D> T getAncestor(T transaction, int depth) {
+		var ancestor = transaction;
+		while (ancestor.depth() > depth) {
+			var jump = ancestor.getJump();
+			ancestor = jump.depth() >= depth ? jump : ancestor.parent();
+		}
+		return ancestor;
+	}
+
+	static <T extends AbstractDeltaTransaction<T, D>, D> T getCommonAncestor(T first, T second) {
+		if (first == null || second == null) {
+			return null;
+		}
+		T firstAncestor = first;
+		T secondAncestor = second;
+		if (firstAncestor.depth() > secondAncestor.depth()) {
+			firstAncestor = getAncestor(firstAncestor, secondAncestor.depth());
+		} else {
+			secondAncestor = getAncestor(secondAncestor, firstAncestor.depth());
+		}
+		while (firstAncestor != secondAncestor) {
+			// Transactions of the same depth have their jump pointers at the same depth.
+			var firstJump = firstAncestor.getJump();
+			var secondJump = secondAncestor.getJump();
+			if (firstJump != secondJump && firstJump != firstAncestor) {
+				firstAncestor = firstJump;
+				secondAncestor = secondJump;
+			} else {
+				firstAncestor = firstAncestor.parent();
+				secondAncestor = secondAncestor.parent();
+				if (firstAncestor == null || secondAncestor == null) {
+					// The transactions have different roots.
+					return null;
+				}
+			}
+		}
+		return firstAncestor;
+	}
+
+	private static long getChanges(AbstractDeltaTransaction<?, ?> transaction) {
+		return transaction == null ? 0 : transaction.changes();
+	}
+
+	/**
+	 * Collects the changes to get from one state to another.
+	 * <p>
+	 * If the path through the common ancestor of the states has more changes than needed to rebuild the map from the
+	 * checkpoint of the target state, the latter path is collected instead. In this case, the caller must clear the
+	 * map and load the checkpoint of {@code to.checkpointBase()} before applying the forward changes.
+	 *
+	 * @param from                 The current state of the map.
+	 * @param to                   The target state.
+	 * @param initialCost          The number of uncommitted changes the caller has to revert before following the
+	 *                             path through the common ancestor.
+	 * @param clearCost            The number of steps needed to clear the map, or {@code -1} if the path must go
+	 *                             through the common ancestor.
+	 * @param backwardTransactions The list to add the changes to revert to.
+	 * @param forwardTransactions  The list to add the changes to apply to in reverse order.
+	 * @return {@code true} if the collected path starts from the checkpoint of the target state.
+	 */
+	static <T extends AbstractDeltaTransaction<T, D>, D> boolean getPath(
+			T from, T to, long initialCost, long clearCost, List<D> backwardTransactions,
+			List<D> forwardTransactions) {
+		if (from == to) {
+			return false;
+		}
+		var commonAncestor = getCommonAncestor(from, to);
+		long commonAncestorChanges = getChanges(commonAncestor);
+		long cost = initialCost + (getChanges(from) - commonAncestorChanges) + (getChanges(to) - commonAncestorChanges);
+		if (clearCost >= 0) {
+			long checkpointCost = clearCost + (to == null ? 0 : to.getRestoreCost());
+			if (checkpointCost < cost) {
+				addDeltas(to, to == null ? null : to.checkpointBase(), forwardTransactions);
+				return true;
+			}
+		}
+		addDeltas(from, commonAncestor, backwardTransactions);
+		addDeltas(to, commonAncestor, forwardTransactions);
+		return false;
+	}
+
+	private static <T extends AbstractDeltaTransaction<T, D>, D> void addDeltas(T from, T ancestor, List<D> list) {
+		var transaction = from;
+		while (transaction != ancestor) {
+			list.add(transaction.deltas());
+			transaction = transaction.parent();
+		}
+	}
+}
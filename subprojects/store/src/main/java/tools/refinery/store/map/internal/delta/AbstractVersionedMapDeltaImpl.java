@@ -0,0 +1,171 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import tools.refinery.store.map.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Common implementation of delta-based versioned maps, which only differ in the way they store committed
+ * transactions.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ * @param <T> The type of the committed transactions.
+ */
+abstract class AbstractVersionedMapDeltaImpl<K, V, T extends AbstractDeltaTransaction<T, ?>>
+		implements VersionedMap<K, V> {
+	final PackedTupleKeyMap<K, V> current;
+
+	final UncommittedDeltaStore<K, V> uncommittedStore;
+	T previous;
+
+	protected final V defaultValue;
+
+	protected AbstractVersionedMapDeltaImpl(boolean summarizeChanges, V defaultValue) {
+		this.defaultValue = defaultValue;
+
+		current = new PackedTupleKeyMap<>();
+		if (summarizeChanges) {
+			this.uncommittedStore = new UncommittedDeltaMapStore<>(this);
+		} else {
+			this.uncommittedStore = new UncommittedDeltaArrayStore<>();
+		}
+	}
+
+	@Override
+	public V getDefaultValue() {
+		return defaultValue;
+	}
+
+	protected void backward(MapDelta<K, V>[] changes) {
+		for (int i = changes.length - 1; i >= 0; i--) {
+			final MapDelta<K, V> change = changes[i];
+			K key = change.getKey();
+			V oldValue = change.oldValue();
+
+			if(oldValue == defaultValue) {
+				current.remove(key);
+			} else {
+				current.put(key,oldValue);
+			}
+		}
+	}
+
+	@Override
+	public V get(K key) {
+		return current.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public Cursor<K, V> getAll() {
+		return current.cursor(this);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		final V oldValue;
+		if (Objects.equals(value, defaultValue)) {
+			final V res = current.remove(key);
+			if (res == null) {
+				// no changes: default > default
+				oldValue = defaultValue;
+			} else {
+				oldValue = res;
+			}
+		} else {
+			final var mapValue = current.put(key, value);
+			if (mapValue == null) {
+				oldValue = defaultValue;
+			} else {
+				oldValue = mapValue;
+			}
+		}
+		if(!Objects.equals(oldValue,value)) {
+			uncommittedStore.processChange(key, oldValue, value);
+		}
+		return oldValue;
+	}
+
+	@Override
+	public void putAll(Cursor<K, V> cursor) {
+		if (cursor.getDependingMaps().contains(this)) {
+			List<K> keys = new ArrayList<>();
+			List<V> values = new ArrayList<>();
+			while (cursor.move()) {
+				keys.add(cursor.getKey());
+				values.add(cursor.getValue());
+			}
+			for (int i = 0; i < keys.size(); i++) {
+				this.put(keys.get(i), values.get(i));
+			}
+		} else {
+			while (cursor.move()) {
+				this.put(cursor.getKey(), cursor.getValue());
+			}
+		}
+	}
+
+	@Override
+	public long getSize() {
+		return current.size();
+	}
+
+	@Override
+	public int contentHashCode(ContentHashCode mode) {
+		return this.current.hashCode();
+	}
+
+	@Override
+	public boolean contentEquals(AnyVersionedMap other) {
+		if (other instanceof AbstractVersionedMapDeltaImpl<?, ?, ?> versioned) {
+			if (versioned == this) {
+				return true;
+			} else {
+				return Objects.equals(this.defaultValue, versioned.defaultValue) &&
+						Objects.equals(this.current, versioned.current);
+			}
+		} else {
+			throw new UnsupportedOperationException("Comparing different map implementations is ineffective.");
+		}
+	}
+
+	@Override
+	public void checkIntegrity() {
+		this.uncommittedStore.checkIntegrity();
+
+		var cursor = this.current.cursor(this);
+		while (cursor.move()) {
+			var value = cursor.getValue();
+			if (value == this.defaultValue) {
+				throw new IllegalStateException("Default value stored in map!");
+			} else if (value == null) {
+				throw new IllegalStateException("null value stored in map!");
+			}
+		}
+		T transaction = this.previous;
+		while(transaction != null) {
+			T parent = transaction.parent();
+			if(parent != null) {
+				if(parent.depth() != transaction.depth()-1) {
+					throw new IllegalStateException("Parent depths are inconsistent!");
+				}
+			} else {
+				if(transaction.depth() != 0) {
+					throw new IllegalArgumentException("Root depth is not 0!");
+				}
+			}
+			if (transaction.checkpoint() == null && parent != null &&
+					transaction.checkpointBase() != parent.checkpointBase()) {
+				throw new IllegalStateException("Checkpoints are inconsistent!");
+			}
+			transaction = transaction.parent();
+		}
+	}
+}
@@ -15,23 +15,42 @@ import java.util.List;
 public class DeltaBasedVersionedMapStoreFactory<K, V> implements VersionedMapStoreFactory<K, V> {
 	private final V defaultValue;
 	private final boolean summarizeChanges;
+	private final boolean packDeltas;
+	private final int checkpointInterval;
 
 	public DeltaBasedVersionedMapStoreFactory(V defaultValue,
 											  VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy deltaTransactionStrategy) {
+		this(defaultValue, deltaTransactionStrategy, false);
+	}
+
+	public DeltaBasedVersionedMapStoreFactory(V defaultValue,
+											  VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy deltaTransactionStrategy,
+											  boolean packDeltas) {
+		this(defaultValue, deltaTransactionStrategy, packDeltas, VersionedMapStoreDeltaImpl.NO_CHECKPOINTS);
+	}
+
+	public DeltaBasedVersionedMapStoreFactory(V defaultValue,
+											  VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy deltaTransactionStrategy,
+											  boolean packDeltas, int checkpointInterval) {
 		this.defaultValue = defaultValue;
 		this.summarizeChanges = deltaTransactionStrategy == VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.SET;
+		this.packDeltas = packDeltas;
+		this.checkpointInterval = checkpointInterval;
 	}
 
 	@Override
 	public VersionedMapStore<K, V> createOne() {
-		return new VersionedMapStoreDeltaImpl<>(summarizeChanges, defaultValue);
+		if (packDeltas) {
+			return new VersionedMapStorePackedDeltaImpl<>(summarizeChanges, defaultValue, checkpointInterval);
+		}
+		return new VersionedMapStoreDeltaImpl<>(summarizeChanges, defaultValue, checkpointInterval);
 	}
 
 	@Override
 	public List<VersionedMapStore<K, V>> createGroup(int amount) {
 		List<VersionedMapStore<K, V>> result = new ArrayList<>(amount);
 		for(int i=0; i<amount; i++) {
-			result.add(new VersionedMapStoreDeltaImpl<>(summarizeChanges,defaultValue));
+			result.add(createOne());
 		}
 		return result;
 	}
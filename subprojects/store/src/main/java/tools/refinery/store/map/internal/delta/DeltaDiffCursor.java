@@ -8,9 +8,7 @@ package tools.refinery.store.map.internal.delta;
 import tools.refinery.store.map.AnyVersionedMap;
 import tools.refinery.store.map.DiffCursor;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 public class DeltaDiffCursor<K, V> implements DiffCursor<K, V> {
 	final List<MapDelta<K, V>[]> backwardTransactions;
@@ -44,6 +42,37 @@ public class DeltaDiffCursor<K, V> implements DiffCursor<K, V> {
 		started = false;
 	}
 
+	/**
+	 * Creates a diff cursor between the contents of two maps.
+	 *
+	 * @param fromContents The non-default entries of the source map.
+	 * @param toContents   The non-default entries of the target map. Entries are removed from this map while the
+	 *                     cursor is created.
+	 * @param defaultValue The default value of the maps.
+	 * @return The diff cursor.
+	 */
+	static <K, V> DeltaDiffCursor<K, V> ofContents(Map<K, V> fromContents, Map<K, V> toContents, V defaultValue) {
+		var changes = new ArrayList<MapDelta<K, V>>();
+		for (var entry : fromContents.entrySet()) {
+			var key = entry.getKey();
+			var fromValue = entry.getValue();
+			var toValue = toContents.containsKey(key) ? toContents.remove(key) : defaultValue;
+			if (!Objects.equals(fromValue, toValue)) {
+				changes.add(new MapDelta<>(key, fromValue, toValue));
+			}
+		}
+		for (var entry : toContents.entrySet()) {
+			changes.add(new MapDelta<>(entry.getKey(), defaultValue, entry.getValue()));
+		}
+		List<MapDelta<K, V>[]> forwardTransactions = new ArrayList<>(1);
+		if (!changes.isEmpty()) {
+			@SuppressWarnings("unchecked")
+			MapDelta<K, V>[] changesArray = changes.toArray(new MapDelta[0]);
+			forwardTransactions.add(changesArray);
+		}
+		return new DeltaDiffCursor<>(new ArrayList<>(), forwardTransactions);
+	}
+
 	protected MapDelta<K, V> getCurrentDelta() {
 		final List<MapDelta<K, V>[]> list;
 		if (!direction) {
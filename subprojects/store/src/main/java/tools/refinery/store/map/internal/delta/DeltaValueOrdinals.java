@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns small integer ordinals to the values of a map store, so that {@link PackedDeltas} can store values in a
+ * single byte if the value domain is small, e.g., for {@code Boolean} or {@code TruthValue} maps.
+ * <p>
+ * The ordinal of the default value is always {@code 0}. Other values only get an ordinal if they are {@code Boolean}
+ * or {@code enum} constants. Otherwise, e.g., for {@code Integer} maps, the first values to be committed would take
+ * every ordinal for the lifetime of the store, and later values could not be packed anyway. The table is shared by
+ * all maps of a store, which may be committed from several threads at once.
+ *
+ * @param <V> The type of the values.
+ */
+class DeltaValueOrdinals<V> {
+	static final int MAX_ORDINALS = 256;
+	static final int NO_ORDINAL = -1;
+
+	private final V defaultValue;
+	private final Map<V, Integer> ordinals = new ConcurrentHashMap<>();
+	private volatile Object[] values;
+
+	DeltaValueOrdinals(V defaultValue) {
+		this.defaultValue = defaultValue;
+		values = new Object[]{defaultValue};
+	}
+
+	int getOrdinal(V value) {
+		if (Objects.equals(value, defaultValue)) {
+			return 0;
+		}
+		if (!(value instanceof Boolean || value instanceof Enum<?>)) {
+			return NO_ORDINAL;
+		}
+		var ordinal = ordinals.get(value);
+		if (ordinal != null) {
+			return ordinal;
+		}
+		return addOrdinal(value);
+	}
+
+	private synchronized int addOrdinal(V value) {
+		var ordinal = ordinals.get(value);
+		if (ordinal != null) {
+			return ordinal;
+		}
+		int newOrdinal = values.length;
+		if (newOrdinal >= MAX_ORDINALS) {
+			return NO_ORDINAL;
+		}
+		var newValues = Arrays.copyOf(values, newOrdinal + 1);
+		newValues[newOrdinal] = value;
+		// Publish the value before its ordinal, so that any thread seeing the ordinal can also decode it.
+		values = newValues;
+		ordinals.put(value, newOrdinal);
+		return newOrdinal;
+	}
+
+	@SuppressWarnings("unchecked")
+	V getValue(int ordinal) {
+		return (V) values[ordinal];
+	}
+}
@@ -5,19 +5,25 @@
  */
 package tools.refinery.store.map.internal.delta;
 
-import tools.refinery.store.map.Version;
-
 import java.util.Arrays;
 import java.util.Objects;
 
-public record MapTransaction<K, V>(MapDelta<K, V>[] deltas, MapTransaction<K, V> parent, int depth) implements Version {
+public final class MapTransaction<K, V> extends AbstractDeltaTransaction<MapTransaction<K, V>, MapDelta<K, V>[]> {
+	public MapTransaction(MapDelta<K, V>[] deltas, MapTransaction<K, V> parent, MapDelta<K, V>[] checkpoint) {
+		super(deltas, deltas.length, parent, checkpoint);
+	}
+
+	@Override
+	protected int getSize(MapDelta<K, V>[] changesToCount) {
+		return changesToCount.length;
+	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.hashCode(deltas);
-		result = prime * result + Objects.hash(parent, depth);
+		result = prime * result + Arrays.hashCode(deltas());
+		result = prime * result + Objects.hash(parent(), depth());
 		return result;
 	}
 
@@ -31,11 +37,12 @@ public record MapTransaction<K, V>(MapDelta<K, V>[] deltas, MapTransaction<K, V>
 			return false;
 		@SuppressWarnings("unchecked")
 		MapTransaction<K, V> other = (MapTransaction<K, V>) obj;
-		return depth == other.depth && Objects.equals(parent, other.parent) && Arrays.equals(deltas, other.deltas);
+		return depth() == other.depth() && Objects.equals(parent(), other.parent()) &&
+				Arrays.equals(deltas(), other.deltas());
 	}
 
 	@Override
 	public String toString() {
-		return "MapTransaction " + depth + " " + Arrays.toString(deltas);
+		return "MapTransaction " + depth() + " " + Arrays.toString(deltas());
 	}
 }
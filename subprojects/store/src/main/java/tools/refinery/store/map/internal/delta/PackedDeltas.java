@@ -0,0 +1,250 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A compact, immutable sequence of map changes.
+ * <p>
+ * If every key is a {@link Tuple} of the same arity, keys are stored as a flat {@code int} array of node ids.
+ * Otherwise, keys are stored as objects. If every value has an ordinal in the {@link DeltaValueOrdinals} of the
+ * store, values are stored as bytes. Otherwise, values are stored as objects. Compared to an array of
+ * {@link MapDelta} instances, this avoids a delta object and a key object for each change.
+ * <p>
+ * To save memory, the value ordinals are not referenced from here, so they have to be passed to the methods reading
+ * values.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class PackedDeltas<K, V> {
+	private static final int OBJECT_KEYS = -1;
+	private static final int VALUES_PER_INT = 4;
+
+	private final int size;
+	private final int arity;
+	private final boolean packedValues;
+
+	/**
+	 * Packed keys followed by byte-sized value ordinals, four in each {@code int}.
+	 */
+	private final int[] data;
+
+	/**
+	 * Keys that could not be packed followed by values that could not be packed.
+	 */
+	private final Object[] objects;
+
+	private PackedDeltas(Object[] keys, Object[] values, DeltaValueOrdinals<V> valueOrdinals) {
+		size = keys.length;
+		arity = getArity(keys);
+		var ordinals = getOrdinals(values, valueOrdinals);
+		packedValues = ordinals != null;
+		int keyInts = arity == OBJECT_KEYS ? 0 : size * arity;
+		int valueInts = packedValues ? (values.length + VALUES_PER_INT - 1) / VALUES_PER_INT : 0;
+		data = keyInts + valueInts == 0 ? null : new int[keyInts + valueInts];
+		if (arity != OBJECT_KEYS) {
+			packKeys(keys, arity, data);
+		}
+		if (packedValues) {
+			for (int i = 0; i < ordinals.length; i++) {
+				data[keyInts + i / VALUES_PER_INT] |= ordinals[i] << (8 * (i % VALUES_PER_INT));
+			}
+		}
+		int keyObjects = arity == OBJECT_KEYS ? size : 0;
+		int valueObjects = packedValues ? 0 : values.length;
+		if (keyObjects + valueObjects == 0) {
+			objects = null;
+		} else {
+			objects = new Object[keyObjects + valueObjects];
+			if (keyObjects != 0) {
+				System.arraycopy(keys, 0, objects, 0, keyObjects);
+			}
+			if (valueObjects != 0) {
+				System.arraycopy(values, 0, objects, keyObjects, valueObjects);
+			}
+		}
+	}
+
+	/**
+	 * Packs a sequence of changes.
+	 *
+	 * @param deltas        The changes in the order they were made.
+	 * @param valueOrdinals The value ordinals of the store.
+	 */
+	static <K, V> PackedDeltas<K, V> of(MapDelta<K, V>[] deltas, DeltaValueOrdinals<V> valueOrdinals) {
+		int length = deltas.length;
+		var keys = new Object[length];
+		// Old and new values are interleaved.
+		var values = new Object[2 * length];
+		for (int i = 0; i < length; i++) {
+			var delta = deltas[i];
+			keys[i] = delta.getKey();
+			values[2 * i] = delta.getOldValue();
+			values[2 * i + 1] = delta.getNewValue();
+		}
+		return new PackedDeltas<>(keys, values, valueOrdinals);
+	}
+
+	/**
+	 * Packs the contents of a map as a sequence of changes that set each entry starting from an empty map.
+	 *
+	 * @param contents      The non-default entries of the map.
+	 * @param defaultValue  The default value of the map.
+	 * @param valueOrdinals The value ordinals of the store.
+	 */
+	static <K, V> PackedDeltas<K, V> ofContents(Map<K, V> contents, V defaultValue,
+												DeltaValueOrdinals<V> valueOrdinals) {
+		int length = contents.size();
+		var keys = new Object[length];
+		var values = new Object[2 * length];
+		int i = 0;
+		for (var entry : contents.entrySet()) {
+			keys[i] = entry.getKey();
+			values[2 * i] = defaultValue;
+			values[2 * i + 1] = entry.getValue();
+			i++;
+		}
+		return new PackedDeltas<>(keys, values, valueOrdinals);
+	}
+
+	private static int getArity(Object[] keys) {
+		if (keys.length == 0 || !(keys[0] instanceof Tuple firstTuple)) {
+			return OBJECT_KEYS;
+		}
+		int arity = firstTuple.getSize();
+		for (var key : keys) {
+			if (!(key instanceof Tuple tuple) || tuple.getSize() != arity) {
+				return OBJECT_KEYS;
+			}
+		}
+		return arity;
+	}
+
+	private static void packKeys(Object[] keys, int arity, int[] data) {
+		int index = 0;
+		for (var key : keys) {
+			var tuple = (Tuple) key;
+			for (int j = 0; j < arity; j++) {
+				data[index] = tuple.get(j);
+				index++;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> int[] getOrdinals(Object[] values, DeltaValueOrdinals<V> valueOrdinals) {
+		var result = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			int ordinal = valueOrdinals.getOrdinal((V) values[i]);
+			if (ordinal == DeltaValueOrdinals.NO_ORDINAL) {
+				return null;
+			}
+			result[i] = ordinal;
+		}
+		return result;
+	}
+
+	int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	K getKey(int index) {
+		if (arity == OBJECT_KEYS) {
+			return (K) objects[index];
+		}
+		int offset = index * arity;
+		return (K) switch (arity) {
+			case 0 -> Tuple.of();
+			case 1 -> Tuple.of(data[offset]);
+			case 2 -> Tuple.of(data[offset], data[offset + 1]);
+			case 3 -> Tuple.of(data[offset], data[offset + 1], data[offset + 2]);
+			default -> Tuple.of(Arrays.copyOfRange(data, offset, offset + arity));
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private V getValue(int valueIndex, DeltaValueOrdinals<V> valueOrdinals) {
+		if (!packedValues) {
+			int keyObjects = arity == OBJECT_KEYS ? size : 0;
+			return (V) objects[keyObjects + valueIndex];
+		}
+		int keyInts = arity == OBJECT_KEYS ? 0 : size * arity;
+		int word = data[keyInts + valueIndex / VALUES_PER_INT];
+		int ordinal = (word >>> (8 * (valueIndex % VALUES_PER_INT))) & 0xff;
+		return valueOrdinals.getValue(ordinal);
+	}
+
+	V getOldValue(int index, DeltaValueOrdinals<V> valueOrdinals) {
+		return getValue(2 * index, valueOrdinals);
+	}
+
+	V getNewValue(int index, DeltaValueOrdinals<V> valueOrdinals) {
+		return getValue(2 * index + 1, valueOrdinals);
+	}
+
+	void forward(Map<K, V> current, DeltaValueOrdinals<V> valueOrdinals) {
+		var defaultValue = valueOrdinals.getValue(0);
+		if (current instanceof PackedTupleKeyMap<K, V> packedMap && canPassPackedKeys(packedMap)) {
+			for (int i = 0; i < size; i++) {
+				setPacked(packedMap, i, getNewValue(i, valueOrdinals), defaultValue);
+			}
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			set(current, getKey(i), getNewValue(i, valueOrdinals), defaultValue);
+		}
+	}
+
+	void backward(Map<K, V> current, DeltaValueOrdinals<V> valueOrdinals) {
+		var defaultValue = valueOrdinals.getValue(0);
+		if (current instanceof PackedTupleKeyMap<K, V> packedMap && canPassPackedKeys(packedMap)) {
+			for (int i = size - 1; i >= 0; i--) {
+				setPacked(packedMap, i, getOldValue(i, valueOrdinals), defaultValue);
+			}
+			return;
+		}
+		for (int i = size - 1; i >= 0; i--) {
+			set(current, getKey(i), getOldValue(i, valueOrdinals), defaultValue);
+		}
+	}
+
+	private boolean canPassPackedKeys(PackedTupleKeyMap<K, V> packedMap) {
+		return arity != OBJECT_KEYS && size > 0 && packedMap.acceptsPackedKeys(arity);
+	}
+
+	private void setPacked(PackedTupleKeyMap<K, V> current, int index, V value, V defaultValue) {
+		// Avoid creating a key tuple for each change if the map also stores packed keys.
+		long key = PackedTupleKeyMap.pack(data, index * arity, arity);
+		if (value == defaultValue) {
+			current.removePacked(key);
+		} else {
+			current.putPacked(key, value);
+		}
+	}
+
+	private static <K, V> void set(Map<K, V> current, K key, V value, V defaultValue) {
+		if (value == defaultValue) {
+			current.remove(key);
+		} else {
+			current.put(key, value);
+		}
+	}
+
+	MapDelta<K, V>[] toDeltas(DeltaValueOrdinals<V> valueOrdinals) {
+		@SuppressWarnings("unchecked")
+		MapDelta<K, V>[] result = new MapDelta[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = new MapDelta<>(getKey(i), getOldValue(i, valueOrdinals), getNewValue(i, valueOrdinals));
+		}
+		return result;
+	}
+}
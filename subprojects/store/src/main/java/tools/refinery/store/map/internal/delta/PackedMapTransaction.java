@@ -0,0 +1,32 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+/**
+ * A committed transaction of a {@link VersionedMapPackedDeltaImpl}.
+ * <p>
+ * Unlike {@link MapTransaction}, transactions are compared by identity, because each commit creates a new transaction.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class PackedMapTransaction<K, V> extends AbstractDeltaTransaction<PackedMapTransaction<K, V>,
+		PackedDeltas<K, V>> {
+	PackedMapTransaction(PackedDeltas<K, V> deltas, PackedMapTransaction<K, V> parent, PackedDeltas<K, V> checkpoint) {
+		super(deltas, deltas.size(), parent, checkpoint);
+	}
+
+	@Override
+	protected int getSize(PackedDeltas<K, V> changesToCount) {
+		return changesToCount.size();
+	}
+
+	@Override
+	public String toString() {
+		return "PackedMapTransaction " + depth() + " (" + deltas().size() + " changes" +
+				(checkpoint() == null ? "" : ", checkpoint") + ")";
+	}
+}
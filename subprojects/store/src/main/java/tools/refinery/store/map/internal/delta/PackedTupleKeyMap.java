@@ -0,0 +1,500 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import tools.refinery.store.map.AnyVersionedMap;
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.IteratorAsCursor;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * The current contents of a delta-based map.
+ * <p>
+ * If every key is a {@link Tuple} of the same arity of at most {@link #MAX_PACKED_ARITY}, keys are packed into a
+ * {@code long}. Entries are appended to dense key and value arrays in insertion order, and an open addressing hash
+ * table with linear probing stores their positions. Compared to a {@link LinkedHashMap}, this avoids an entry object
+ * for each mapping and does not keep the key tuples reachable, but iterates in the same order. Key tuples are created
+ * again when iterating over the map, so {@link #cursor(VersionedMap)}, {@link #hashCode()} and {@link #equals(Object)}
+ * read the dense arrays directly to avoid creating them where possible. As soon as any other key is put into the map, the contents are moved into a
+ * {@link LinkedHashMap}. The arrays are only allocated when the first packed key is put into the map.
+ * <p>
+ * Since delta-based maps never store {@code null} values, a removed entry of the dense arrays has a {@code null}
+ * value. Removed entries are dropped when the dense arrays are full.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class PackedTupleKeyMap<K, V> extends AbstractMap<K, V> {
+	static final int MAX_PACKED_ARITY = 2;
+	private static final int UNKNOWN_ARITY = -1;
+	private static final int INITIAL_CAPACITY = 8;
+	private static final int[] EMPTY_TABLE = new int[0];
+	private static final long[] EMPTY_KEYS = new long[0];
+	private static final Object[] EMPTY_VALUES = new Object[0];
+
+	private int arity = UNKNOWN_ARITY;
+
+	/**
+	 * Positions of entries in the dense arrays plus one, or {@code 0} for empty slots. Twice as long as the dense
+	 * arrays, so the load factor of the table is at most 1/2.
+	 */
+	private int[] table = EMPTY_TABLE;
+	private long[] keys = EMPTY_KEYS;
+	private Object[] values = EMPTY_VALUES;
+	private int used;
+	private int size;
+	private int modCount;
+	private Map<K, V> fallback;
+	private Set<Entry<K, V>> entrySet;
+
+	/**
+	 * Determines whether keys of the given arity may be passed to the map packed with {@link #pack(int[], int, int)}.
+	 *
+	 * @param keyArity The arity of the keys.
+	 * @return {@code true} if packed keys of the given arity are accepted.
+	 */
+	boolean acceptsPackedKeys(int keyArity) {
+		if (fallback != null || keyArity < 0 || keyArity > MAX_PACKED_ARITY) {
+			return false;
+		}
+		if (arity == UNKNOWN_ARITY) {
+			arity = keyArity;
+			return true;
+		}
+		return arity == keyArity;
+	}
+
+	static long pack(int[] data, int offset, int keyArity) {
+		return switch (keyArity) {
+			case 0 -> 0;
+			case 1 -> data[offset];
+			case 2 -> pack(data[offset], data[offset + 1]);
+			default -> throw new IllegalArgumentException("Cannot pack tuple of arity " + keyArity);
+		};
+	}
+
+	private static long pack(int first, int second) {
+		return ((long) first << Integer.SIZE) | (second & 0xffffffffL);
+	}
+
+	private static long pack(Tuple tuple) {
+		return switch (tuple.getSize()) {
+			case 0 -> 0;
+			case 1 -> tuple.get(0);
+			case 2 -> pack(tuple.get(0), tuple.get(1));
+			default -> throw new IllegalArgumentException("Cannot pack tuple of arity " + tuple.getSize());
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private K unpack(long key) {
+		return (K) switch (arity) {
+			case 0 -> Tuple.of();
+			case 1 -> Tuple.of((int) key);
+			case 2 -> Tuple.of((int) (key >>> Integer.SIZE), (int) key);
+			default -> throw new IllegalStateException("Unknown key arity " + arity);
+		};
+	}
+
+	private int keyHashCode(long key) {
+		// Must agree with the {@code hashCode} of the unpacked tuple, since maps that fell back to a
+		// {@link LinkedHashMap} have to be compared with packed maps.
+		return switch (arity) {
+			case 0 -> Tuple.of().hashCode();
+			case 1 -> 31 + (int) key;
+			case 2 -> 31 * (31 + (int) (key >>> Integer.SIZE)) + (int) key;
+			default -> throw new IllegalStateException("Unknown key arity " + arity);
+		};
+	}
+
+	private boolean canPack(Object key) {
+		return key instanceof Tuple tuple && tuple.getSize() == arity;
+	}
+
+	private int findSlot(long key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		int position = table[slot];
+		while (position != 0 && keys[position - 1] != key) {
+			slot = (slot + 1) & mask;
+			position = table[slot];
+		}
+		return slot;
+	}
+
+	private static int hash(long key) {
+		// Final mixing step of MurmurHash3 to spread consecutive node ids over the table.
+		long hash = key;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return (int) hash;
+	}
+
+	@SuppressWarnings("unchecked")
+	V getPacked(long key) {
+		if (size == 0) {
+			return null;
+		}
+		int position = table[findSlot(key)];
+		return position == 0 ? null : (V) values[position - 1];
+	}
+
+	V putPacked(long key, V value) {
+		if (table.length == 0) {
+			rebuild(INITIAL_CAPACITY);
+		}
+		int slot = findSlot(key);
+		int position = table[slot];
+		if (position != 0) {
+			@SuppressWarnings("unchecked")
+			var oldValue = (V) values[position - 1];
+			values[position - 1] = value;
+			return oldValue;
+		}
+		if (used == keys.length) {
+			// Drop removed entries if they take up at least half of the dense arrays, grow them otherwise.
+			rebuild(2 * size <= keys.length ? keys.length : 2 * keys.length);
+			slot = findSlot(key);
+		}
+		keys[used] = key;
+		values[used] = value;
+		used++;
+		table[slot] = used;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	V removePacked(long key) {
+		if (size == 0) {
+			return null;
+		}
+		int slot = findSlot(key);
+		int position = table[slot];
+		if (position == 0) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		var oldValue = (V) values[position - 1];
+		values[position - 1] = null;
+		deleteSlot(slot);
+		size--;
+		modCount++;
+		return oldValue;
+	}
+
+	private void deleteSlot(int slot) {
+		int mask = table.length - 1;
+		int emptySlot = slot;
+		int current = slot;
+		// Shift entries back instead of leaving tombstones behind, so lookups never need to skip deleted slots.
+		while (true) {
+			current = (current + 1) & mask;
+			int position = table[current];
+			if (position == 0) {
+				break;
+			}
+			int home = hash(keys[position - 1]) & mask;
+			boolean canMove = emptySlot <= current ? (home <= emptySlot || home > current) :
+					(home <= emptySlot && home > current);
+			if (canMove) {
+				table[emptySlot] = position;
+				emptySlot = current;
+			}
+		}
+		table[emptySlot] = 0;
+	}
+
+	private void rebuild(int capacity) {
+		var oldKeys = keys;
+		var oldValues = values;
+		int oldUsed = used;
+		table = new int[2 * capacity];
+		keys = new long[capacity];
+		values = new Object[capacity];
+		used = 0;
+		for (int i = 0; i < oldUsed; i++) {
+			var value = oldValues[i];
+			if (value != null) {
+				keys[used] = oldKeys[i];
+				values[used] = value;
+				used++;
+				table[findSlot(oldKeys[i])] = used;
+			}
+		}
+		modCount++;
+	}
+
+	private void inflate() {
+		var newFallback = new LinkedHashMap<K, V>();
+		for (int i = 0; i < used; i++) {
+			@SuppressWarnings("unchecked")
+			var value = (V) values[i];
+			if (value != null) {
+				newFallback.put(unpack(keys[i]), value);
+			}
+		}
+		fallback = newFallback;
+		table = null;
+		keys = null;
+		values = null;
+		used = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return fallback == null ? size : fallback.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (fallback != null) {
+			return fallback.get(key);
+		}
+		if (!canPack(key)) {
+			return null;
+		}
+		return getPacked(pack((Tuple) key));
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		var value = get(key);
+		return value == null ? defaultValue : value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("null values are not supported");
+		}
+		if (fallback == null && key instanceof Tuple tuple && acceptsPackedKeys(tuple.getSize())) {
+			return putPacked(pack(tuple), value);
+		}
+		if (fallback == null) {
+			inflate();
+		}
+		return fallback.put(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (fallback != null) {
+			return fallback.remove(key);
+		}
+		if (!canPack(key)) {
+			return null;
+		}
+		return removePacked(pack((Tuple) key));
+	}
+
+	@Override
+	public void clear() {
+		if (fallback != null) {
+			fallback.clear();
+			return;
+		}
+		Arrays.fill(table, 0);
+		Arrays.fill(values, 0, used, null);
+		used = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Creates a cursor over the entries of the map in iteration order.
+	 * <p>
+	 * Unlike iterating over the {@link #entrySet()}, the cursor doesn't create an entry object for each mapping, and
+	 * only creates key tuples when they are requested.
+	 *
+	 * @param source The versioned map whose current contents are stored in this map.
+	 * @return The cursor.
+	 */
+	Cursor<K, V> cursor(VersionedMap<K, V> source) {
+		if (fallback != null) {
+			return new IteratorAsCursor<>(source, fallback);
+		}
+		return new PackedCursor(source);
+	}
+
+	@Override
+	public int hashCode() {
+		if (fallback != null) {
+			return fallback.hashCode();
+		}
+		int hash = 0;
+		for (int i = 0; i < used; i++) {
+			var value = values[i];
+			if (value != null) {
+				hash += keyHashCode(keys[i]) ^ value.hashCode();
+			}
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (other == this) {
+			return true;
+		}
+		if (fallback == null && other instanceof PackedTupleKeyMap<?, ?> otherMap && otherMap.fallback == null &&
+				(size == 0 || otherMap.size == 0 || arity == otherMap.arity)) {
+			if (size != otherMap.size) {
+				return false;
+			}
+			for (int i = 0; i < used; i++) {
+				var value = values[i];
+				if (value != null && !value.equals(otherMap.getPacked(keys[i]))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return super.equals(other);
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			if (fallback != null) {
+				return fallback.entrySet().iterator();
+			}
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return PackedTupleKeyMap.this.size();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<K, V>> {
+		private final int expectedModCount = modCount;
+		private int nextPosition;
+
+		EntryIterator() {
+			skipRemovedEntries();
+		}
+
+		private void skipRemovedEntries() {
+			while (nextPosition < used && values[nextPosition] == null) {
+				nextPosition++;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return modCount != expectedModCount || nextPosition < used;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nextPosition >= used) {
+				throw new NoSuchElementException();
+			}
+			@SuppressWarnings("unchecked")
+			var value = (V) values[nextPosition];
+			var entry = new SimpleImmutableEntry<>(unpack(keys[nextPosition]), value);
+			nextPosition++;
+			skipRemovedEntries();
+			return entry;
+		}
+	}
+
+	private final class PackedCursor implements Cursor<K, V> {
+		private final Set<AnyVersionedMap> dependingMaps;
+		private final int expectedModCount = modCount;
+		private int position = -1;
+		private boolean terminated;
+		private K key;
+		private V value;
+
+		PackedCursor(VersionedMap<K, V> source) {
+			dependingMaps = Set.of(source);
+		}
+
+		@Override
+		public K getKey() {
+			if (key == null && value != null) {
+				checkModCount();
+				key = unpack(keys[position]);
+			}
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return terminated;
+		}
+
+		@Override
+		public boolean move() {
+			if (terminated) {
+				return false;
+			}
+			checkModCount();
+			key = null;
+			position++;
+			while (position < used && values[position] == null) {
+				position++;
+			}
+			if (position >= used) {
+				terminated = true;
+				value = null;
+				return false;
+			}
+			@SuppressWarnings("unchecked")
+			var nextValue = (V) values[position];
+			value = nextValue;
+			return true;
+		}
+
+		private void checkModCount() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Set<AnyVersionedMap> getDependingMaps() {
+			return dependingMaps;
+		}
+	}
+}
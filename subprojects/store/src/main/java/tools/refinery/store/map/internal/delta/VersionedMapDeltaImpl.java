@@ -9,62 +9,46 @@ import tools.refinery.store.map.*;
 
 import java.util.*;
 
-public class VersionedMapDeltaImpl<K, V> implements VersionedMap<K, V> {
+public class VersionedMapDeltaImpl<K, V> extends AbstractVersionedMapDeltaImpl<K, V, MapTransaction<K, V>> {
 	protected final VersionedMapStoreDeltaImpl<K, V> store;
 
-	final Map<K, V> current;
-
-	final UncommittedDeltaStore<K, V> uncommittedStore;
-	MapTransaction<K, V> previous;
-
-	protected final V defaultValue;
-
 	public VersionedMapDeltaImpl(VersionedMapStoreDeltaImpl<K, V> store, boolean summarizeChanges, V defaultValue) {
+		super(summarizeChanges, defaultValue);
 		this.store = store;
-		this.defaultValue = defaultValue;
-
-		current = new LinkedHashMap<>();
-		if (summarizeChanges) {
-			this.uncommittedStore = new UncommittedDeltaMapStore<>(this);
-		} else {
-			this.uncommittedStore = new UncommittedDeltaArrayStore<>();
-		}
-	}
-
-	@Override
-	public V getDefaultValue() {
-		return defaultValue;
 	}
 
 	@Override
 	public Version commit() {
 		MapDelta<K, V>[] deltas = uncommittedStore.extractAndDeleteDeltas();
-		final MapTransaction<K,V> committedTransaction = this.store.appendTransaction(deltas, previous);
+		final MapTransaction<K,V> committedTransaction = this.store.appendTransaction(deltas, previous, current);
 		this.previous = committedTransaction;
 		return committedTransaction;
 	}
 
 	@Override
 	public void restore(Version state) {
-		// 1. restore uncommitted states
+		final MapTransaction<K, V> target = store.getState(state);
 		MapDelta<K, V>[] uncommitted = this.uncommittedStore.extractAndDeleteDeltas();
-		if (uncommitted != null) {
-			backward(uncommitted);
-		}
-
-		// 2. get common ancestor
-		final MapTransaction<K,V> parent;
+		int uncommittedSize = uncommitted == null ? 0 : uncommitted.length;
+		List<MapDelta<K, V>[]> backward = new ArrayList<>();
 		List<MapDelta<K, V>[]> forward = new ArrayList<>();
-		if (this.previous == null) {
-			parent = this.store.getPath(state, forward);
-			this.forward(forward);
+		if (store.getPath(this.previous, target, uncommittedSize, current.size(), backward, forward)) {
+			// 1. start from the checkpoint of the target state
+			current.clear();
+			var checkpointBase = target == null ? null : target.checkpointBase();
+			if (checkpointBase != null) {
+				forward(checkpointBase.checkpoint());
+			}
 		} else {
-			List<MapDelta<K, V>[]> backward = new ArrayList<>();
-			parent = this.store.getPath(this.previous, state, backward, forward);
+			// 1. restore uncommitted states
+			if (uncommitted != null) {
+				backward(uncommitted);
+			}
+			// 2. go back to the common ancestor
 			this.backward(backward);
-			this.forward(forward);
 		}
-		this.previous = parent;
+		this.forward(forward);
+		this.previous = target;
 	}
 
 	protected void forward(List<MapDelta<K, V>[]> changes) {
@@ -97,141 +81,45 @@ public class VersionedMapDeltaImpl<K, V> implements VersionedMap<K, V> {
 		}
 	}
 
-	protected void backward(MapDelta<K, V>[] changes) {
-		for (int i = changes.length - 1; i >= 0; i--) {
-			final MapDelta<K, V> change = changes[i];
-			K key = change.getKey();
-			V oldValue = change.oldValue();
-
-			if(oldValue == defaultValue) {
-				current.remove(key);
-			} else {
-				current.put(key,oldValue);
-			}
-		}
-	}
-
-	@Override
-	public V get(K key) {
-		return current.getOrDefault(key, defaultValue);
-	}
-
-	@Override
-	public Cursor<K, V> getAll() {
-		return new IteratorAsCursor<>(this, current);
-	}
-
-	@Override
-	public V put(K key, V value) {
-		final V oldValue;
-		if (Objects.equals(value, defaultValue)) {
-			final V res = current.remove(key);
-			if (res == null) {
-				// no changes: default > default
-				oldValue = defaultValue;
-			} else {
-				oldValue = res;
-			}
-		} else {
-			final var mapValue = current.put(key, value);
-			if (mapValue == null) {
-				oldValue = defaultValue;
-			} else {
-				oldValue = mapValue;
-			}
-		}
-		if(!Objects.equals(oldValue,value)) {
-			uncommittedStore.processChange(key, oldValue, value);
-		}
-		return oldValue;
-	}
-
-	@Override
-	public void putAll(Cursor<K, V> cursor) {
-		if (cursor.getDependingMaps().contains(this)) {
-			List<K> keys = new ArrayList<>();
-			List<V> values = new ArrayList<>();
-			while (cursor.move()) {
-				keys.add(cursor.getKey());
-				values.add(cursor.getValue());
-			}
-			for (int i = 0; i < keys.size(); i++) {
-				this.put(keys.get(i), values.get(i));
-			}
-		} else {
-			while (cursor.move()) {
-				this.put(cursor.getKey(), cursor.getValue());
-			}
-		}
-	}
-
-	@Override
-	public long getSize() {
-		return current.size();
-	}
-
 	@Override
 	public DiffCursor<K, V> getDiffCursor(Version state) {
+		final MapTransaction<K, V> target = store.getState(state);
 		MapDelta<K, V>[] backward = this.uncommittedStore.extractDeltas();
+		int uncommittedSize = backward == null ? 0 : backward.length;
 		List<MapDelta<K, V>[]> backwardTransactions = new ArrayList<>();
 		List<MapDelta<K, V>[]> forwardTransactions = new ArrayList<>();
 
-		if (backward != null) {
-			backwardTransactions.add(backward);
+		if (store.getPath(this.previous, target, uncommittedSize, current.size(), backwardTransactions,
+				forwardTransactions)) {
+			return getDiffCursorFromCheckpoint(target, forwardTransactions);
 		}
-
-		if (this.previous != null) {
-			store.getPath(this.previous, state, backwardTransactions, forwardTransactions);
-		} else {
-			store.getPath(state, forwardTransactions);
+		if (backward != null) {
+			backwardTransactions.add(0, backward);
 		}
-
 		return new DeltaDiffCursor<>(backwardTransactions, forwardTransactions);
 	}
 
-	@Override
-	public int contentHashCode(ContentHashCode mode) {
-		return this.current.hashCode();
-	}
-
-	@Override
-	public boolean contentEquals(AnyVersionedMap other) {
-		if (other instanceof VersionedMapDeltaImpl<?, ?> versioned) {
-			if (versioned == this) {
-				return true;
-			} else {
-				return Objects.equals(this.defaultValue, versioned.defaultValue) && Objects.equals(this.current, versioned.current);
-			}
-		} else {
-			throw new UnsupportedOperationException("Comparing different map implementations is ineffective.");
+	private DiffCursor<K, V> getDiffCursorFromCheckpoint(MapTransaction<K, V> target,
+														 List<MapDelta<K, V>[]> forwardTransactions) {
+		var targetContents = new HashMap<K, V>();
+		var checkpointBase = target == null ? null : target.checkpointBase();
+		if (checkpointBase != null) {
+			forward(targetContents, checkpointBase.checkpoint());
+		}
+		for (int i = forwardTransactions.size() - 1; i >= 0; i--) {
+			forward(targetContents, forwardTransactions.get(i));
 		}
+		return DeltaDiffCursor.ofContents(current, targetContents, defaultValue);
 	}
 
-	@Override
-	public void checkIntegrity() {
-		this.uncommittedStore.checkIntegrity();
-
-		for (var entry : this.current.entrySet()) {
-			var value = entry.getValue();
-			if (value == this.defaultValue) {
-				throw new IllegalStateException("Default value stored in map!");
-			} else if (value == null) {
-				throw new IllegalStateException("null value stored in map!");
-			}
-		}
-		MapTransaction<K,V> transaction = this.previous;
-		while(transaction != null) {
-			MapTransaction<K,V> parent = transaction.parent();
-			if(parent != null) {
-				if(parent.depth() != transaction.depth()-1) {
-					throw new IllegalStateException("Parent depths are inconsistent!");
-				}
+	private void forward(Map<K, V> contents, MapDelta<K, V>[] changes) {
+		for (var change : changes) {
+			var newValue = change.getNewValue();
+			if (newValue == defaultValue) {
+				contents.remove(change.getKey());
 			} else {
-				if(transaction.depth() != 0) {
-					throw new IllegalArgumentException("Root depth is not 0!");
-				}
+				contents.put(change.getKey(), newValue);
 			}
-			transaction = transaction.parent();
 		}
 	}
 }
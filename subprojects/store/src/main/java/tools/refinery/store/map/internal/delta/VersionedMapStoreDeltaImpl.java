@@ -13,15 +13,35 @@ import tools.refinery.store.map.VersionedMapStore;
 import java.util.*;
 
 public class VersionedMapStoreDeltaImpl<K, V> implements VersionedMapStore<K, V> {
+	public static final int NO_CHECKPOINTS = 0;
+
 	// Configuration
 	protected final boolean summarizeChanges;
+	protected final int checkpointInterval;
 
 	// Static data
 	protected final V defaultValue;
 
 	public VersionedMapStoreDeltaImpl(boolean summarizeChanges, V defaultValue) {
+		this(summarizeChanges, defaultValue, NO_CHECKPOINTS);
+	}
+
+	/**
+	 * Creates a new delta-based map store.
+	 *
+	 * @param summarizeChanges   Whether to only keep the last change of each key in a transaction.
+	 * @param defaultValue       The default value of the maps.
+	 * @param checkpointInterval The number of commits after which the full contents of a map are stored to bound the
+	 *                           number of changes to replay when restoring, or {@link #NO_CHECKPOINTS}.
+	 */
+	public VersionedMapStoreDeltaImpl(boolean summarizeChanges, V defaultValue, int checkpointInterval) {
+		if (checkpointInterval < 0) {
+			throw new IllegalArgumentException("Checkpoint interval must not be negative, got: " +
+					checkpointInterval);
+		}
 		this.summarizeChanges = summarizeChanges;
 		this.defaultValue = defaultValue;
+		this.checkpointInterval = checkpointInterval;
 	}
 
 	@Override
@@ -36,54 +56,60 @@ public class VersionedMapStoreDeltaImpl<K, V> implements VersionedMapStore<K, V>
 		return result;
 	}
 
-	public MapTransaction<K, V> appendTransaction(MapDelta<K, V>[] deltas, MapTransaction<K, V> previous) {
+	public MapTransaction<K, V> appendTransaction(MapDelta<K, V>[] deltas, MapTransaction<K, V> previous,
+												  Map<K, V> current) {
 		if (deltas == null) {
 			return previous;
-		} else {
-			final int depth;
-			if(previous != null) {
-				depth = previous.depth()+1;
-			} else {
-				depth = 0;
-			}
-			return new MapTransaction<>(deltas, previous, depth);
 		}
+		MapDelta<K, V>[] checkpoint = null;
+		int depth = previous == null ? 0 : previous.depth() + 1;
+		if (checkpointInterval != NO_CHECKPOINTS && depth > 0 && depth % checkpointInterval == 0) {
+			checkpoint = createCheckpoint(current);
+		}
+		return new MapTransaction<>(deltas, previous, checkpoint);
+	}
+
+	private MapDelta<K, V>[] createCheckpoint(Map<K, V> current) {
+		@SuppressWarnings("unchecked")
+		MapDelta<K, V>[] checkpoint = new MapDelta[current.size()];
+		int i = 0;
+		for (var entry : current.entrySet()) {
+			checkpoint[i] = new MapDelta<>(entry.getKey(), defaultValue, entry.getValue());
+			i++;
+		}
+		return checkpoint;
 	}
 
 	@SuppressWarnings("unchecked")
-	private MapTransaction<K, V> getState(Version state) {
+	MapTransaction<K, V> getState(Version state) {
 		return (MapTransaction<K, V>) state;
 	}
 
 	public MapTransaction<K, V> getPath(Version to, List<MapDelta<K, V>[]> forwardTransactions) {
-		final MapTransaction<K, V> target = getState(to);
-		MapTransaction<K, V> toTransaction = target;
-		while (toTransaction != null) {
-			forwardTransactions.add(toTransaction.deltas());
-			toTransaction = toTransaction.parent();
-		}
-		return target;
+		return getPath(null, to, new ArrayList<>(), forwardTransactions);
 	}
 
 	public MapTransaction<K, V> getPath(Version from, Version to,
 						List<MapDelta<K, V>[]> backwardTransactions,
 						List<MapDelta<K, V>[]> forwardTransactions) {
-		MapTransaction<K, V> fromTransaction = getState(from);
 		final MapTransaction<K, V> target = getState(to);
-		MapTransaction<K, V> toTransaction = target;
-
-		while (fromTransaction != toTransaction) {
-			if (fromTransaction == null || (toTransaction != null && fromTransaction.depth() < toTransaction.depth())) {
-				forwardTransactions.add(toTransaction.deltas());
-				toTransaction = toTransaction.parent();
-			} else {
-				backwardTransactions.add(fromTransaction.deltas());
-				fromTransaction = fromTransaction.parent();
-			}
-		}
+		AbstractDeltaTransaction.getPath(getState(from), target, 0, -1, backwardTransactions, forwardTransactions);
 		return target;
 	}
 
+	/**
+	 * Collects the changes to get from one state to another, possibly starting from the checkpoint of the target
+	 * state instead of the common ancestor.
+	 *
+	 * @see AbstractDeltaTransaction#getPath(AbstractDeltaTransaction, AbstractDeltaTransaction, long, long, List,
+	 * List)
+	 */
+	boolean getPath(MapTransaction<K, V> from, MapTransaction<K, V> to, long initialCost, long clearCost,
+					List<MapDelta<K, V>[]> backwardTransactions, List<MapDelta<K, V>[]> forwardTransactions) {
+		return AbstractDeltaTransaction.getPath(from, to, initialCost, clearCost, backwardTransactions,
+				forwardTransactions);
+	}
+
 	@Override
 	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
 		List<MapDelta<K, V>[]> backwardTransactions = new ArrayList<>();
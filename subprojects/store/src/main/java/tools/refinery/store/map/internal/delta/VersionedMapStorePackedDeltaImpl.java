@@ -0,0 +1,120 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import tools.refinery.store.map.DiffCursor;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A variant of {@link VersionedMapStoreDeltaImpl} that stores committed changes as {@link PackedDeltas}.
+ * <p>
+ * A transaction also stores a checkpoint with the full contents of the map whenever the number of changes to replay
+ * since the previous checkpoint grows larger than twice the size of the map. Therefore, restoring a map from a
+ * checkpoint never takes more than about three times as many steps as the size of the map, while checkpoints take up
+ * at most half as much memory as the changes themselves. Additional checkpoints may be requested every
+ * {@code checkpointInterval} commits.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class VersionedMapStorePackedDeltaImpl<K, V> implements VersionedMapStore<K, V> {
+	private static final int MIN_CHECKPOINT_DISTANCE = 64;
+
+	// Configuration
+	protected final boolean summarizeChanges;
+
+	protected final int checkpointInterval;
+
+	// Static data
+	protected final V defaultValue;
+
+	// Shared data
+	final DeltaValueOrdinals<V> valueOrdinals;
+
+	public VersionedMapStorePackedDeltaImpl(boolean summarizeChanges, V defaultValue) {
+		this(summarizeChanges, defaultValue, VersionedMapStoreDeltaImpl.NO_CHECKPOINTS);
+	}
+
+	public VersionedMapStorePackedDeltaImpl(boolean summarizeChanges, V defaultValue, int checkpointInterval) {
+		if (checkpointInterval < 0) {
+			throw new IllegalArgumentException("Checkpoint interval must not be negative");
+		}
+		this.summarizeChanges = summarizeChanges;
+		this.checkpointInterval = checkpointInterval;
+		this.defaultValue = defaultValue;
+		valueOrdinals = new DeltaValueOrdinals<>(defaultValue);
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap() {
+		return new VersionedMapPackedDeltaImpl<>(this, this.summarizeChanges, this.defaultValue);
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap(Version state) {
+		VersionedMapPackedDeltaImpl<K, V> result = new VersionedMapPackedDeltaImpl<>(this, this.summarizeChanges,
+				this.defaultValue);
+		result.restore(state);
+		return result;
+	}
+
+	PackedMapTransaction<K, V> appendTransaction(MapDelta<K, V>[] deltas, PackedMapTransaction<K, V> previous,
+												 Map<K, V> current) {
+		if (deltas == null) {
+			return previous;
+		}
+		var packedDeltas = PackedDeltas.of(deltas, valueOrdinals);
+		long replayLength = (previous == null ? 0 : previous.getChangesSinceCheckpoint()) + packedDeltas.size();
+		int depth = previous == null ? 0 : previous.depth() + 1;
+		boolean scheduledCheckpoint = checkpointInterval != VersionedMapStoreDeltaImpl.NO_CHECKPOINTS && depth > 0 &&
+				depth % checkpointInterval == 0;
+		PackedDeltas<K, V> checkpoint = null;
+		if (scheduledCheckpoint || replayLength > 2L * current.size() + MIN_CHECKPOINT_DISTANCE) {
+			checkpoint = PackedDeltas.ofContents(current, defaultValue, valueOrdinals);
+		}
+		return new PackedMapTransaction<>(packedDeltas, previous, checkpoint);
+	}
+
+	@SuppressWarnings("unchecked")
+	PackedMapTransaction<K, V> getState(Version state) {
+		return (PackedMapTransaction<K, V>) state;
+	}
+
+	/**
+	 * Collects the changes to get from one state to another.
+	 *
+	 * @see AbstractDeltaTransaction#getPath(AbstractDeltaTransaction, AbstractDeltaTransaction, long, long, List, List)
+	 */
+	boolean getPath(PackedMapTransaction<K, V> from, PackedMapTransaction<K, V> to, long initialCost,
+					long clearCost, List<PackedDeltas<K, V>> backwardTransactions,
+					List<PackedDeltas<K, V>> forwardTransactions) {
+		return AbstractDeltaTransaction.getPath(from, to, initialCost, clearCost, backwardTransactions,
+				forwardTransactions);
+	}
+
+	List<MapDelta<K, V>[]> unpack(List<PackedDeltas<K, V>> transactions) {
+		var result = new ArrayList<MapDelta<K, V>[]>(transactions.size());
+		for (var transaction : transactions) {
+			result.add(transaction.toDeltas(valueOrdinals));
+		}
+		return result;
+	}
+
+	@Override
+	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
+		List<PackedDeltas<K, V>> backwardTransactions = new ArrayList<>();
+		List<PackedDeltas<K, V>> forwardTransactions = new ArrayList<>();
+		// Without a map with the contents of the source state, we can only follow the path through the common ancestor.
+		getPath(getState(fromState), getState(toState), 0, -1, backwardTransactions, forwardTransactions);
+		return new DeltaDiffCursor<>(unpack(backwardTransactions), unpack(forwardTransactions));
+	}
+}
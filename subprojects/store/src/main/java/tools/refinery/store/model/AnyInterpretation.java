@@ -15,4 +15,8 @@ public sealed interface AnyInterpretation permits Interpretation {
 	long getSize();
 
 	int getAdjacentSize(int slot, int node);
+
+	int getAdjacentSize(int[] slots, int[] nodes);
+
+	int getDistinctNodeCount(int slot);
 }
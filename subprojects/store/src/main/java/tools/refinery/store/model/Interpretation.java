@@ -21,6 +21,8 @@ public non-sealed interface Interpretation<T> extends AnyInterpretation {
 
 	Cursor<Tuple, T> getAdjacent(int slot, int node);
 
+	Cursor<Tuple, T> getAdjacent(int[] slots, int[] nodes);
+
 	T put(Tuple key, T value);
 
 	void putAll(Cursor<Tuple, T> cursor);
@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model;
+
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+
+/**
+ * A batch of changes made to an {@link Interpretation}, in the order they were made.
+ *
+ * @param <T> The type of the values of the interpretation.
+ */
+public final class InterpretationChanges<T> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Tuple[] keys;
+	private Object[] values;
+	private int size;
+
+	public InterpretationChanges() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public InterpretationChanges(int capacity) {
+		keys = new Tuple[Math.max(capacity, 1)];
+		// From and to values are interleaved.
+		values = new Object[2 * keys.length];
+	}
+
+	public void add(Tuple key, T fromValue, T toValue) {
+		if (size == keys.length) {
+			int newCapacity = 2 * keys.length;
+			keys = Arrays.copyOf(keys, newCapacity);
+			values = Arrays.copyOf(values, 2 * newCapacity);
+		}
+		keys[size] = key;
+		values[2 * size] = fromValue;
+		values[2 * size + 1] = toValue;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public Tuple getKey(int index) {
+		return keys[checkIndex(index)];
+	}
+
+	@SuppressWarnings("unchecked")
+	public T getFromValue(int index) {
+		return (T) values[2 * checkIndex(index)];
+	}
+
+	@SuppressWarnings("unchecked")
+	public T getToValue(int index) {
+		return (T) values[2 * checkIndex(index) + 1];
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index %d out of bounds for %d changes".formatted(index, size));
+		}
+		return index;
+	}
+}
@@ -9,4 +9,20 @@ import tools.refinery.store.tuple.Tuple;
 
 public interface InterpretationListener<T> {
 	void put(Tuple key, T fromValue, T toValue, boolean restoring);
+
+	/**
+	 * Processes a batch of changes at once.
+	 * <p>
+	 * The default implementation calls {@link #put(Tuple, Object, Object, boolean)} for each change in order.
+	 * Listeners with a high per-change overhead should override this method.
+	 *
+	 * @param changes   The changes made to the interpretation.
+	 * @param restoring Whether the changes are caused by restoring the model to an earlier state.
+	 */
+	default void putAll(InterpretationChanges<T> changes, boolean restoring) {
+		int size = changes.size();
+		for (int i = 0; i < size; i++) {
+			put(changes.getKey(i), changes.getFromValue(i), changes.getToValue(i), restoring);
+		}
+	}
 }
@@ -18,8 +18,41 @@ public interface ModelStore {
 
 	Model createEmptyModel();
 
+	/**
+	 * Creates a model for a committed state.
+	 * <p>
+	 * If a model was handed back to the store with {@link #releaseModel(Model)}, it is restored to {@code state}
+	 * and returned instead of creating a new model. This only propagates the differences between the states to the
+	 * adapters of the model (e.g., already initialized query engines), which is usually much cheaper than creating
+	 * and initializing new adapters.
+	 * <p>
+	 * A reused model is not indistinguishable from a new one: its adapters keep whatever state they accumulated
+	 * during earlier use, such as initialized matchers, listeners and caches registered by adapters, or adapter
+	 * settings changed by the previous user of the model. Callers that depend on fresh adapters should call
+	 * {@link #clearReleasedModels()} first or create the model with {@link #createEmptyModel()}.
+	 *
+	 * @param state The state of the model.
+	 * @return The model.
+	 */
 	Model createModelForState(Version state);
 
+	/**
+	 * Hands a model that is no longer needed back to the store, so that it can be reused by
+	 * {@link #createModelForState(Version)}.
+	 * <p>
+	 * The caller must not access the model after releasing it. Any listeners added to the model or its adapters
+	 * by the caller must be removed before releasing the model.
+	 *
+	 * @param model The model created by this store.
+	 */
+	void releaseModel(Model model);
+
+	/**
+	 * Discards the models handed back to the store with {@link #releaseModel(Model)}, so that they are no longer
+	 * reused and can be garbage collected along with their adapters.
+	 */
+	void clearReleasedModels();
+
 	ModelDiffCursor getDiffCursor(Version from, Version to);
 
 	<T extends ModelStoreAdapter> Optional<T> tryGetAdapter(Class<? extends T> adapterType);
@@ -6,6 +6,7 @@
 package tools.refinery.store.model;
 
 import tools.refinery.store.adapter.ModelAdapterBuilder;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
 import tools.refinery.store.representation.AnySymbol;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.util.CancellationToken;
@@ -32,6 +33,25 @@ public interface ModelStoreBuilder {
 
 	<T> ModelStoreBuilder symbol(Symbol<T> symbol);
 
+	/**
+	 * Adds a symbol with a hint on how to store its interpretation.
+	 *
+	 * @param symbol   The symbol to add.
+	 * @param strategy The strategy for storing the interpretation of the symbol. Use
+	 *                 {@link StoreStrategy#ADAPTIVE} to choose a strategy based on the observed size and rate of
+	 *                 change of the interpretation.
+	 * @return The builder for chaining.
+	 */
+	<T> ModelStoreBuilder symbol(Symbol<T> symbol, StoreStrategy strategy);
+
+	/**
+	 * Sets the store strategy for symbols added without an explicit strategy hint.
+	 *
+	 * @param strategy The strategy to use. Defaults to {@link StoreStrategy#DELTA}.
+	 * @return The builder for chaining.
+	 */
+	ModelStoreBuilder defaultStoreStrategy(StoreStrategy strategy);
+
 	ModelStoreBuilder with(ModelAdapterBuilder adapterBuilder);
 
 	ModelStoreBuilder with(ModelStoreConfiguration configuration);
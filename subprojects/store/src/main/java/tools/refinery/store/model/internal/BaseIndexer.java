@@ -5,98 +5,407 @@
  */
 package tools.refinery.store.model.internal;
 
-import org.eclipse.collections.api.factory.Maps;
-import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 import tools.refinery.store.map.*;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 class BaseIndexer<T> {
-	private final MutableIntObjectMap<MutableMap<Tuple, T>>[] maps;
+	/**
+	 * The maximal number of composite indexes kept for a map.
+	 * <p>
+	 * Composite indexes are updated on every change of the map, so we only create indexes for the first few
+	 * combinations of slots that are queried. Lookups for further combinations filter a single-slot index instead.
+	 */
+	static final int MAX_COMPOSITE_INDEXES = 4;
+
+	/**
+	 * Single-slot indexes, or {@code null} for slots whose adjacency was not queried yet.
+	 */
+	private final VersionedAdjacencyIndex[] slotIndexes;
+	private final List<VersionedAdjacencyIndex> compositeIndexes = new ArrayList<>();
 	private final VersionedMap<Tuple, T> versionedMap;
+	private final VersionedMapStore<Tuple, Tuple> indexStore;
+	private final List<VersionedAdjacencyIndex> replayedIndexes = new ArrayList<>();
 
-	public BaseIndexer(int arity, VersionedMap<Tuple, T> map) {
+	/**
+	 * Creates an index for a versioned map.
+	 *
+	 * @param arity        The arity of the keys of the map.
+	 * @param map          The indexed map.
+	 * @param indexStore   The store of the versioned maps of the index.
+	 * @param indexVersion The version of the index committed along with the current state of {@code map}, or
+	 *                     {@code null} if indexes must be computed from {@code map} when they are first needed.
+	 */
+	public BaseIndexer(int arity, VersionedMap<Tuple, T> map, VersionedMapStore<Tuple, Tuple> indexStore,
+					   IndexVersion indexVersion) {
 		if (arity < 2) {
 			throw new IllegalArgumentException("Only arity >= 2 symbols need to be indexed");
 		}
-		// There is no way in Java to create a generic array in a checked way.
-		@SuppressWarnings({"unchecked", "squid:S1905"})
-		var uncheckedMaps = (MutableIntObjectMap<MutableMap<Tuple, T>>[]) new MutableIntObjectMap[arity];
-		maps = uncheckedMaps;
-		for (int i = 0; i < arity; i++) {
-			maps[i] = IntObjectMaps.mutable.empty();
-		}
 		this.versionedMap = map;
-		if (map != null) {
-			var cursor = map.getAll();
-			while (cursor.move()) {
-				put(cursor.getKey(), cursor.getValue());
+		this.indexStore = indexStore;
+		slotIndexes = new VersionedAdjacencyIndex[arity];
+		if (indexVersion != null) {
+			for (var entry : indexVersion.entries()) {
+				var slots = entry.slots();
+				var index = VersionedAdjacencyIndex.of(entry, indexStore);
+				if (slots.length == 1) {
+					slotIndexes[slots[0]] = index;
+				} else {
+					compositeIndexes.add(index);
+				}
 			}
 		}
 	}
 
-	public void put(Tuple key, T value) {
-		for (int i = 0; i < maps.length; i++) {
-			var map = maps[i];
-			int element = key.get(i);
-			var adjacentTuples = map.getIfAbsentPut(element, Maps.mutable::empty);
-			adjacentTuples.put(key, value);
+	public void put(Tuple key) {
+		for (var slotIndex : slotIndexes) {
+			if (slotIndex != null) {
+				slotIndex.put(key);
+			}
+		}
+		int compositeIndexCount = compositeIndexes.size();
+		// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < compositeIndexCount; i++) {
+			compositeIndexes.get(i).put(key);
 		}
 	}
 
 	public void remove(Tuple key) {
-		for (int i = 0; i < maps.length; i++) {
-			var map = maps[i];
-			int element = key.get(i);
-			var adjacentTuples = map.get(element);
-			if (adjacentTuples == null) {
-				continue;
+		for (var slotIndex : slotIndexes) {
+			if (slotIndex != null) {
+				slotIndex.remove(key);
 			}
-			adjacentTuples.remove(key);
-			if (adjacentTuples.isEmpty()) {
-				map.remove(element);
+		}
+		int compositeIndexCount = compositeIndexes.size();
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < compositeIndexCount; i++) {
+			compositeIndexes.get(i).remove(key);
+		}
+	}
+
+	public IndexVersion commit() {
+		var entries = new ArrayList<IndexVersion.Entry>(slotIndexes.length + compositeIndexes.size());
+		for (var slotIndex : slotIndexes) {
+			if (slotIndex != null) {
+				entries.add(slotIndex.commit());
 			}
 		}
+		for (var compositeIndex : compositeIndexes) {
+			entries.add(compositeIndex.commit());
+		}
+		return new IndexVersion(List.copyOf(entries));
 	}
 
-	private MutableMap<Tuple, T> getAdjacentMap(int slot, int node) {
-		if (slot < 0 || slot >= maps.length) {
+	/**
+	 * Prepares the index for restoring the indexed map to another version.
+	 * <p>
+	 * Indexes that were not committed in {@code state} can't be restored directly. Instead, the changes of the
+	 * indexed map have to be replayed on them by calling {@link #replay(Tuple, boolean)} before
+	 * {@link #restore(IndexVersion)}. This keeps the cost of the restore proportional to the changes, while creating
+	 * the index again would have to scan the whole map.
+	 *
+	 * @param state The version of the index, or {@code null} if the version of the indexed map was committed
+	 *              without any index.
+	 * @return {@code true} if the changes of the indexed map have to be replayed.
+	 */
+	public boolean beginRestore(IndexVersion state) {
+		replayedIndexes.clear();
+		for (var slotIndex : slotIndexes) {
+			if (slotIndex != null && findEntry(state, slotIndex.getSlots()) == null) {
+				replayedIndexes.add(slotIndex);
+			}
+		}
+		for (var compositeIndex : compositeIndexes) {
+			if (findEntry(state, compositeIndex.getSlots()) == null) {
+				replayedIndexes.add(compositeIndex);
+			}
+		}
+		return !replayedIndexes.isEmpty();
+	}
+
+	/**
+	 * Applies a change of the indexed map during a restore to the indexes that can't be restored directly.
+	 *
+	 * @param key     The changed key.
+	 * @param present {@code true} if the key has a non-default value after the change.
+	 */
+	public void replay(Tuple key, boolean present) {
+		int replayedIndexCount = replayedIndexes.size();
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < replayedIndexCount; i++) {
+			var index = replayedIndexes.get(i);
+			if (present) {
+				index.put(key);
+			} else {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Restores the index to a version committed along with the indexed map.
+	 * <p>
+	 * Indexes that were committed in {@code state} are restored directly, while the other indexes must have been
+	 * brought up to date by {@link #replay(Tuple, boolean)}. Indexes that were only committed in {@code state} are
+	 * also restored, unless this would exceed the number of allowed composite indexes.
+	 *
+	 * @param state The version of the index, or {@code null} if the version of the indexed map was committed
+	 *              without any index.
+	 */
+	public void restore(IndexVersion state) {
+		replayedIndexes.clear();
+		if (state == null) {
+			return;
+		}
+		for (var entry : state.entries()) {
+			var slots = entry.slots();
+			if (slots.length == 1) {
+				int slot = slots[0];
+				var slotIndex = slotIndexes[slot];
+				if (slotIndex == null) {
+					slotIndexes[slot] = VersionedAdjacencyIndex.of(entry, indexStore);
+				} else {
+					slotIndex.restore(entry);
+				}
+			} else {
+				int position = findCompositeIndex(slots);
+				if (position >= 0) {
+					compositeIndexes.get(position).restore(entry);
+				} else if (compositeIndexes.size() < MAX_COMPOSITE_INDEXES) {
+					compositeIndexes.add(VersionedAdjacencyIndex.of(entry, indexStore));
+				}
+			}
+		}
+	}
+
+	private static IndexVersion.Entry findEntry(IndexVersion state, int[] slots) {
+		if (state == null) {
+			return null;
+		}
+		for (var entry : state.entries()) {
+			if (Arrays.equals(entry.slots(), slots)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	private VersionedAdjacencyIndex getSlotIndex(int slot) {
+		if (slot < 0 || slot >= slotIndexes.length) {
 			throw new IllegalArgumentException("Invalid index: " + slot);
 		}
-		var map = maps[slot];
-		return map.get(node);
+		var slotIndex = slotIndexes[slot];
+		if (slotIndex == null) {
+			// Most symbols are only ever queried along a few of their slots, so we only index them on demand.
+			slotIndex = createIndex(new int[]{slot});
+			slotIndexes[slot] = slotIndex;
+		}
+		return slotIndex;
 	}
 
 	public int getAdjacentSize(int slot, int node) {
-		var adjacentTuples = getAdjacentMap(slot, node);
-		if (adjacentTuples == null) {
-			return 0;
-		}
-		return adjacentTuples.size();
+		return getSlotIndex(slot).getSize(new int[]{node});
 	}
 
 	public Cursor<Tuple, T> getAdjacent(int slot, int node) {
-		var adjacentTuples = getAdjacentMap(slot, node);
-		if (adjacentTuples == null) {
+		return getSlotIndex(slot).getAdjacent(new int[]{node}, versionedMap);
+	}
+
+	public int getDistinctNodeCount(int slot) {
+		return getSlotIndex(slot).getBucketCount();
+	}
+
+	/**
+	 * Gets the tuples with the given elements at several slots.
+	 * <p>
+	 * If every slot is bound, the tuple is looked up directly. Otherwise, a composite index for the set of bound
+	 * slots is created on the first lookup and maintained afterward. Once {@link #MAX_COMPOSITE_INDEXES} composite
+	 * indexes exist, lookups for other sets of slots filter the tuples adjacent to the most selective bound slot.
+	 *
+	 * @param slots The bound slots. Each slot may only appear once.
+	 * @param nodes The elements at the bound slots, in the same order as {@code slots}.
+	 * @return The cursor of the matching tuples.
+	 */
+	public Cursor<Tuple, T> getAdjacent(int[] slots, int[] nodes) {
+		if (slots.length == 1) {
+			return getAdjacent(slots[0], nodes[0]);
+		}
+		var sortedNodes = sortBySlot(slots, nodes);
+		if (sortedNodes.length == slotIndexes.length) {
+			var key = Tuple.of(sortedNodes);
+			var value = getValue(key);
+			return value == null ? Cursors.empty() : Cursors.singleton(key, value);
+		}
+		var sortedSlots = sortSlots(slots);
+		var compositeIndex = getCompositeIndex(sortedSlots);
+		if (compositeIndex == null) {
+			return getFilteredAdjacent(sortedSlots, sortedNodes);
+		}
+		return compositeIndex.getAdjacent(sortedNodes, versionedMap);
+	}
+
+	public int getAdjacentSize(int[] slots, int[] nodes) {
+		if (slots.length == 1) {
+			return getAdjacentSize(slots[0], nodes[0]);
+		}
+		var sortedNodes = sortBySlot(slots, nodes);
+		if (sortedNodes.length == slotIndexes.length) {
+			return getValue(Tuple.of(sortedNodes)) == null ? 0 : 1;
+		}
+		var sortedSlots = sortSlots(slots);
+		var compositeIndex = getCompositeIndex(sortedSlots);
+		if (compositeIndex == null) {
+			var cursor = getFilteredAdjacent(sortedSlots, sortedNodes);
+			int size = 0;
+			while (cursor.move()) {
+				size++;
+			}
+			return size;
+		}
+		return compositeIndex.getSize(sortedNodes);
+	}
+
+	private T getValue(Tuple key) {
+		var value = versionedMap.get(key);
+		return Objects.equals(value, versionedMap.getDefaultValue()) ? null : value;
+	}
+
+	private int[] sortBySlot(int[] slots, int[] nodes) {
+		if (slots.length != nodes.length) {
+			throw new IllegalArgumentException("Expected %d nodes, got %d".formatted(slots.length, nodes.length));
+		}
+		int arity = slotIndexes.length;
+		var sortedNodes = new int[arity];
+		var bound = new boolean[arity];
+		for (int i = 0; i < slots.length; i++) {
+			int slot = slots[i];
+			if (slot < 0 || slot >= arity || bound[slot]) {
+				throw new IllegalArgumentException("Invalid indices: " + Arrays.toString(slots));
+			}
+			bound[slot] = true;
+			sortedNodes[slot] = nodes[i];
+		}
+		int length = 0;
+		for (int slot = 0; slot < arity; slot++) {
+			if (bound[slot]) {
+				sortedNodes[length] = sortedNodes[slot];
+				length++;
+			}
+		}
+		return length == arity ? sortedNodes : Arrays.copyOf(sortedNodes, length);
+	}
+
+	private int findCompositeIndex(int[] sortedSlots) {
+		int compositeIndexCount = compositeIndexes.size();
+		for (int i = 0; i < compositeIndexCount; i++) {
+			if (Arrays.equals(compositeIndexes.get(i).getSlots(), sortedSlots)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int[] sortSlots(int[] slots) {
+		var sortedSlots = slots.clone();
+		Arrays.sort(sortedSlots);
+		return sortedSlots;
+	}
+
+	private VersionedAdjacencyIndex getCompositeIndex(int[] sortedSlots) {
+		int position = findCompositeIndex(sortedSlots);
+		if (position >= 0) {
+			return compositeIndexes.get(position);
+		}
+		if (compositeIndexes.size() >= MAX_COMPOSITE_INDEXES) {
+			// Evicting an index would make us scan the whole map again whenever its slots are queried next.
+			return null;
+		}
+		var compositeIndex = createIndex(sortedSlots);
+		compositeIndexes.add(compositeIndex);
+		return compositeIndex;
+	}
+
+	private Cursor<Tuple, T> getFilteredAdjacent(int[] sortedSlots, int[] sortedNodes) {
+		int selectedSlot = sortedSlots[0];
+		int selectedNode = sortedNodes[0];
+		int selectedSize = getAdjacentSize(selectedSlot, selectedNode);
+		for (int i = 1; i < sortedSlots.length && selectedSize > 0; i++) {
+			int size = getAdjacentSize(sortedSlots[i], sortedNodes[i]);
+			if (size < selectedSize) {
+				selectedSlot = sortedSlots[i];
+				selectedNode = sortedNodes[i];
+				selectedSize = size;
+			}
+		}
+		if (selectedSize == 0) {
 			return Cursors.empty();
 		}
-		return new IndexCursor<>(adjacentTuples, versionedMap);
+		return new FilteredCursor<>(getAdjacent(selectedSlot, selectedNode), sortedSlots, sortedNodes);
+	}
+
+	private VersionedAdjacencyIndex createIndex(int[] slots) {
+		var index = VersionedAdjacencyIndex.of(slots, indexStore);
+		var cursor = versionedMap.getAll();
+		while (cursor.move()) {
+			index.put(cursor.getKey());
+		}
+		return index;
 	}
 
-	private static class IndexCursor<T> extends IteratorBasedCursor<Tuple, T> {
-		private final Set<AnyVersionedMap> dependingMaps;
+	private static class FilteredCursor<T> implements Cursor<Tuple, T> {
+		private final Cursor<Tuple, T> cursor;
+		private final int[] slots;
+		private final int[] nodes;
+
+		public FilteredCursor(Cursor<Tuple, T> cursor, int[] slots, int[] nodes) {
+			this.cursor = cursor;
+			this.slots = slots;
+			this.nodes = nodes;
+		}
+
+		@Override
+		public Tuple getKey() {
+			return cursor.getKey();
+		}
+
+		@Override
+		public T getValue() {
+			return cursor.getValue();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return cursor.isTerminated();
+		}
 
-		public IndexCursor(MutableMap<Tuple, T> map, VersionedMap<Tuple, T> versionedMap) {
-			super(map.entrySet().iterator());
-			dependingMaps = versionedMap == null ? Set.of() : Set.of(versionedMap);
+		@Override
+		public boolean move() {
+			while (cursor.move()) {
+				if (matches(cursor.getKey())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean matches(Tuple key) {
+			for (int i = 0; i < slots.length; i++) {
+				if (key.get(slots[i]) != nodes[i]) {
+					return false;
+				}
+			}
+			return true;
 		}
 
 		@Override
 		public Set<AnyVersionedMap> getDependingMaps() {
-			return dependingMaps;
+			return cursor.getDependingMaps();
 		}
 	}
 }
@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.Version;
+
+import java.util.List;
+
+/**
+ * The versions of the {@link VersionedAdjacencyIndex} instances of an interpretation committed along with the
+ * interpretation.
+ *
+ * @param entries The versions of the indexes that existed at the time of the commit, each identified by its slots.
+ *                Indexes are only created once they are queried, so some slots may have no entries.
+ */
+record IndexVersion(List<Entry> entries) implements Version {
+	record Entry(int[] slots, Version bucketsVersion, Version positionsVersion) {
+	}
+}
@@ -6,7 +6,10 @@
 package tools.refinery.store.model.internal;
 
 import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Version;
 import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.model.InterpretationChanges;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
@@ -14,10 +17,12 @@ import java.util.Objects;
 
 class IndexedVersionedInterpretation<T> extends VersionedInterpretation<T> {
 	private final BaseIndexer<T> indexer;
+	private boolean replayingRestore;
 
-	public IndexedVersionedInterpretation(ModelImpl model, Symbol<T> symbol, VersionedMap<Tuple, T> map) {
+	public IndexedVersionedInterpretation(ModelImpl model, Symbol<T> symbol, VersionedMap<Tuple, T> map,
+										  VersionedMapStore<Tuple, Tuple> indexStore, Version indexState) {
 		super(model, symbol, map);
-		indexer = new BaseIndexer<>(symbol.arity(), map);
+		indexer = new BaseIndexer<>(symbol.arity(), map, indexStore, (IndexVersion) indexState);
 	}
 
 	@Override
@@ -30,19 +35,73 @@ class IndexedVersionedInterpretation<T> extends VersionedInterpretation<T> {
 		return indexer.getAdjacentSize(slot, node);
 	}
 
+	@Override
+	public int getDistinctNodeCount(int slot) {
+		return indexer.getDistinctNodeCount(slot);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAdjacent(int[] slots, int[] nodes) {
+		return indexer.getAdjacent(slots, nodes);
+	}
+
+	@Override
+	public int getAdjacentSize(int[] slots, int[] nodes) {
+		return indexer.getAdjacentSize(slots, nodes);
+	}
+
+	@Override
+	Version commitIndex() {
+		return indexer.commit();
+	}
+
 	@Override
 	protected boolean shouldNotifyRestoreListeners() {
-		// Always call the {@code valueChanged} method to update the index.
-		return true;
+		// Call the {@code valueChanged} method to update the indexes that have no version to restore.
+		return replayingRestore || super.shouldNotifyRestoreListeners();
+	}
+
+	@Override
+	public void restore(Version state, Version indexState) {
+		var indexVersion = (IndexVersion) indexState;
+		// Only the indexes that were not committed along with {@code state} have to replay the changes.
+		replayingRestore = indexer.beginRestore(indexVersion);
+		try {
+			super.restore(state, indexState);
+		} finally {
+			replayingRestore = false;
+		}
+		// Restore the index only after the listeners have seen the old state of the interpretation.
+		indexer.restore(indexVersion);
 	}
 
 	@Override
 	protected void valueChanged(Tuple key, T fromValue, T toValue, boolean restoring) {
-		if (Objects.equals(toValue, getSymbol().defaultValue())) {
-			indexer.remove(key);
+		updateIndex(key, toValue, restoring);
+		super.valueChanged(key, fromValue, toValue, restoring);
+	}
+
+	@Override
+	protected void valuesChanged(InterpretationChanges<T> changes, boolean restoring) {
+		if (!restoring || replayingRestore) {
+			int size = changes.size();
+			for (int i = 0; i < size; i++) {
+				updateIndex(changes.getKey(i), changes.getToValue(i), restoring);
+			}
+		}
+		super.valuesChanged(changes, restoring);
+	}
+
+	private void updateIndex(Tuple key, T toValue, boolean restoring) {
+		boolean present = !Objects.equals(toValue, getSymbol().defaultValue());
+		if (restoring) {
+			if (replayingRestore) {
+				indexer.replay(key, present);
+			}
+		} else if (present) {
+			indexer.put(key);
 		} else {
-			indexer.put(key, toValue);
+			indexer.remove(key);
 		}
-		super.valueChanged(key, fromValue, toValue, restoring);
 	}
 }
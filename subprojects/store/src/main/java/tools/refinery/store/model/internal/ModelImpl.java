@@ -63,8 +63,9 @@ public class ModelImpl implements Model {
 	@Override
 	public ModelDiffCursor getDiffCursor(Version to) {
 		var diffCursors = new HashMap<AnySymbol, DiffCursor<Tuple, ?>>(interpretations.size());
+		int i = 0;
 		for (var entry : interpretations.entrySet()) {
-			diffCursors.put(entry.getKey(), entry.getValue().getDiffCursor(to));
+			diffCursors.put(entry.getKey(), entry.getValue().getDiffCursor(ModelVersion.getInternalVersion(to, i++)));
 		}
 		return new ModelDiffCursor(diffCursors);
 	}
@@ -85,7 +86,7 @@ public class ModelImpl implements Model {
 		return uncommittedChanges;
 	}
 
-	private boolean hasPendingAction() {
+	boolean hasPendingAction() {
 		return pendingAction != ModelAction.NONE || restoringToState != null;
 	}
 
@@ -108,12 +109,16 @@ public class ModelImpl implements Model {
 
 			// Doing the commit on the interpretations
 			Version[] interpretationVersions = new Version[interpretations.size()];
+			Version[] indexVersions = new Version[interpretations.size()];
 			int j = 0;
 			for (var interpretationEntry : interpretations.entrySet()) {
 				checkCancelled();
-				interpretationVersions[j++] = interpretationEntry.getValue().commit();
+				var interpretation = interpretationEntry.getValue();
+				interpretationVersions[j] = interpretation.commit();
+				indexVersions[j] = interpretation.commitIndex();
+				j++;
 			}
-			ModelVersion modelVersion = new ModelVersion(interpretationVersions);
+			ModelVersion modelVersion = new ModelVersion(interpretationVersions, indexVersions);
 			setState(modelVersion);
 
 			// After commit message to listeners
@@ -147,7 +152,9 @@ public class ModelImpl implements Model {
 			int j = 0;
 			for (var interpretation : interpretations.values()) {
 				checkCancelled();
-				interpretation.restore(ModelVersion.getInternalVersion(version, j++));
+				interpretation.restore(ModelVersion.getInternalVersion(version, j),
+						ModelVersion.getIndexVersion(version, j));
+				j++;
 			}
 
 			setState(version);
@@ -10,9 +10,11 @@ import tools.refinery.store.adapter.ModelAdapterBuilder;
 import tools.refinery.store.map.VersionedMapStore;
 import tools.refinery.store.map.VersionedMapStoreFactory;
 import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.model.ModelStoreBuilder;
 import tools.refinery.store.model.ModelStoreConfiguration;
+import tools.refinery.store.model.TupleHashProvider;
 import tools.refinery.store.representation.AnySymbol;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
@@ -23,7 +25,8 @@ import java.util.*;
 public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 	private CancellationToken cancellationToken;
 	private final LinkedHashSet<AnySymbol> allSymbols = new LinkedHashSet<>();
-	private final LinkedHashMap<SymbolEquivalenceClass<?>, List<AnySymbol>> equivalenceClasses = new LinkedHashMap<>();
+	private final Map<AnySymbol, StoreStrategy> storeStrategies = new HashMap<>();
+	private StoreStrategy defaultStoreStrategy = StoreStrategy.DELTA;
 	private final List<ModelAdapterBuilder> adapters = new ArrayList<>();
 
 	@Override
@@ -40,14 +43,29 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 
 	@Override
 	public <T> ModelStoreBuilder symbol(Symbol<T> symbol) {
-		if (!allSymbols.add(symbol)) {
-			// No need to add symbol twice.
-			return this;
+		allSymbols.add(symbol);
+		return this;
+	}
+
+	@Override
+	public <T> ModelStoreBuilder symbol(Symbol<T> symbol, StoreStrategy strategy) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("Store strategy must not be null");
+		}
+		var oldStrategy = storeStrategies.putIfAbsent(symbol, strategy);
+		if (oldStrategy != null && oldStrategy != strategy) {
+			throw new IllegalArgumentException("Symbol %s was already added with store strategy %s"
+					.formatted(symbol, oldStrategy));
 		}
-		var equivalenceClass = new SymbolEquivalenceClass<>(symbol);
-		var symbolsInEquivalenceClass = equivalenceClasses.computeIfAbsent(equivalenceClass,
-				ignored -> new ArrayList<>());
-		symbolsInEquivalenceClass.add(symbol);
+		return symbol(symbol);
+	}
+
+	@Override
+	public ModelStoreBuilder defaultStoreStrategy(StoreStrategy strategy) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("Store strategy must not be null");
+		}
+		defaultStoreStrategy = strategy;
 		return this;
 	}
 
@@ -85,11 +103,17 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 		for (int i = adapters.size() - 1; i >= 0; i--) {
 			adapters.get(i).configure(this);
 		}
+		var equivalenceClasses = new LinkedHashMap<SymbolEquivalenceClass<?>, List<AnySymbol>>();
+		for (var symbol : allSymbols) {
+			var strategy = storeStrategies.getOrDefault(symbol, defaultStoreStrategy);
+			var equivalenceClass = new SymbolEquivalenceClass<>((Symbol<?>) symbol, strategy);
+			equivalenceClasses.computeIfAbsent(equivalenceClass, ignored -> new ArrayList<>()).add(symbol);
+		}
 		var stores = new LinkedHashMap<AnySymbol, VersionedMapStore<Tuple, ?>>(allSymbols.size());
 		for (var entry : equivalenceClasses.entrySet()) {
 			createStores(stores, entry.getKey(), entry.getValue());
 		}
-		var modelStore = new ModelStoreImpl(stores, adapters.size(), cancellationToken == null ?
+		var modelStore = new ModelStoreImpl(stores, createIndexStores(), adapters.size(), cancellationToken == null ?
 				CancellationToken.NONE : cancellationToken);
 		for (var adapterBuilder : adapters) {
 			var storeAdapter = adapterBuilder.build(modelStore);
@@ -101,14 +125,50 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 	private <T> void createStores(Map<AnySymbol, VersionedMapStore<Tuple, ?>> stores,
 								  SymbolEquivalenceClass<T> equivalenceClass, List<AnySymbol> symbols) {
 		int size = symbols.size();
-		VersionedMapStoreFactory<Tuple, T> mapFactory = VersionedMapStore
+		var strategy = equivalenceClass.strategy();
+		var mapFactoryBuilder = VersionedMapStore
 				.<Tuple, T>builder()
-				.strategy(VersionedMapStoreFactoryBuilder.StoreStrategy.DELTA)
-				.defaultValue(equivalenceClass.defaultValue())
-				.build();
+				.strategy(strategy)
+				.defaultValue(equivalenceClass.defaultValue());
+		if (strategy != StoreStrategy.DELTA) {
+			// Stores may be committed to from multiple threads, so we must not share node caches between them.
+			mapFactoryBuilder
+					.stateBasedHashProvider(TupleHashProvider.INSTANCE)
+					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE);
+		}
+		VersionedMapStoreFactory<Tuple, T> mapFactory = mapFactoryBuilder.build();
 		var storeGroup = mapFactory.createGroup(size);
 		for (int i = 0; i < size; i++) {
 			stores.put(symbols.get(i), storeGroup.get(i));
 		}
 	}
+
+	private Map<AnySymbol, VersionedMapStore<Tuple, Tuple>> createIndexStores() {
+		var indexedSymbols = new ArrayList<AnySymbol>();
+		for (var symbol : allSymbols) {
+			if (symbol.arity() >= 2) {
+				indexedSymbols.add(symbol);
+			}
+		}
+		if (indexedSymbols.isEmpty()) {
+			return Map.of();
+		}
+		// Indexes are restored along with every restore of the model, so we use state-based stores, which can restore
+		// a map without traversing the changes. The stores are empty until the adjacency of a symbol is first queried,
+		// because only then the maps of the index are created.
+		VersionedMapStoreFactory<Tuple, Tuple> indexFactory = VersionedMapStore
+				.<Tuple, Tuple>builder()
+				.strategy(StoreStrategy.STATE)
+				.defaultValue(null)
+				.stateBasedHashProvider(TupleHashProvider.INSTANCE)
+				.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE)
+				.build();
+		int size = indexedSymbols.size();
+		var storeGroup = indexFactory.createGroup(size);
+		var indexStores = new HashMap<AnySymbol, VersionedMapStore<Tuple, Tuple>>(size);
+		for (int i = 0; i < size; i++) {
+			indexStores.put(indexedSymbols.get(i), storeGroup.get(i));
+		}
+		return indexStores;
+	}
 }
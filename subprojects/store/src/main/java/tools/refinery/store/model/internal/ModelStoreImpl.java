@@ -10,6 +10,7 @@ import tools.refinery.store.adapter.ModelStoreAdapter;
 import tools.refinery.store.map.DiffCursor;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.model.Model;
 import tools.refinery.store.model.ModelDiffCursor;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.representation.AnySymbol;
@@ -19,13 +20,22 @@ import tools.refinery.store.util.CancellationToken;
 import java.util.*;
 
 public class ModelStoreImpl implements ModelStore {
+	/**
+	 * The maximum number of released models kept for reuse. Each model holds on to its adapters, which may be large.
+	 */
+	private static final int MAX_RELEASED_MODELS = 8;
+
 	private final LinkedHashMap<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores;
+	private final Map<AnySymbol, VersionedMapStore<Tuple, Tuple>> indexStores;
 	private final List<ModelStoreAdapter> adapters;
 	private final CancellationToken cancellationToken;
+	private final Deque<ModelImpl> releasedModels = new ArrayDeque<>();
 
-	ModelStoreImpl(LinkedHashMap<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores, int adapterCount,
+	ModelStoreImpl(LinkedHashMap<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores,
+				   Map<AnySymbol, VersionedMapStore<Tuple, Tuple>> indexStores, int adapterCount,
 				   CancellationToken cancellationToken) {
 		this.stores = stores;
+		this.indexStores = indexStores;
 		adapters = new ArrayList<>(adapterCount);
 		this.cancellationToken = cancellationToken;
 	}
@@ -45,7 +55,8 @@ public class ModelStoreImpl implements ModelStore {
 		var interpretations = new LinkedHashMap<AnySymbol, VersionedInterpretation<?>>(stores.size());
 		for (var entry : this.stores.entrySet()) {
 			var symbol = entry.getKey();
-			interpretations.put(symbol, VersionedInterpretation.of(model, symbol, entry.getValue()));
+			interpretations.put(symbol, VersionedInterpretation.of(model, symbol, entry.getValue(),
+					indexStores.get(symbol)));
 		}
 		model.setInterpretations(interpretations);
 		adaptModel(model);
@@ -53,7 +64,19 @@ public class ModelStoreImpl implements ModelStore {
 	}
 
 	@Override
-	public synchronized ModelImpl createModelForState(Version state) {
+	public ModelImpl createModelForState(Version state) {
+		if (state != null) {
+			var releasedModel = pollReleasedModel();
+			if (releasedModel != null) {
+				// If the restoration fails (e.g., because of cancellation), the model is simply not reused.
+				releasedModel.restore(state);
+				return releasedModel;
+			}
+		}
+		return createNewModelForState(state);
+	}
+
+	private synchronized ModelImpl createNewModelForState(Version state) {
 		var model = createModelWithoutInterpretations(state);
 		var interpretations = new LinkedHashMap<AnySymbol, VersionedInterpretation<?>>(stores.size());
 
@@ -65,7 +88,10 @@ public class ModelStoreImpl implements ModelStore {
 							model,
 							symbol,
 							entry.getValue(),
-							ModelVersion.getInternalVersion(state,i++)));
+							indexStores.get(symbol),
+							ModelVersion.getInternalVersion(state, i),
+							ModelVersion.getIndexVersion(state, i)));
+			i++;
 		}
 
 		model.setInterpretations(interpretations);
@@ -73,6 +99,40 @@ public class ModelStoreImpl implements ModelStore {
 		return model;
 	}
 
+	@Override
+	public void releaseModel(Model model) {
+		if (!(model instanceof ModelImpl modelImpl) || modelImpl.getStore() != this) {
+			throw new IllegalArgumentException("Model %s was not created by this store".formatted(model));
+		}
+		if (modelImpl.hasPendingAction()) {
+			throw new IllegalStateException("Cannot release a model during commit or restore");
+		}
+		synchronized (releasedModels) {
+			if (releasedModels.contains(modelImpl)) {
+				throw new IllegalArgumentException("Model %s was already released".formatted(model));
+			}
+			if (releasedModels.size() >= MAX_RELEASED_MODELS) {
+				// Evict the least recently released model, which is the least likely to be close to the next
+				// requested state.
+				releasedModels.removeLast();
+			}
+			releasedModels.addFirst(modelImpl);
+		}
+	}
+
+	@Override
+	public void clearReleasedModels() {
+		synchronized (releasedModels) {
+			releasedModels.clear();
+		}
+	}
+
+	private ModelImpl pollReleasedModel() {
+		synchronized (releasedModels) {
+			return releasedModels.pollFirst();
+		}
+	}
+
 	private void adaptModel(ModelImpl model) {
 		for (var storeAdapter : adapters) {
 			var adapter = storeAdapter.createModelAdapter(model);
@@ -83,9 +143,12 @@ public class ModelStoreImpl implements ModelStore {
 	@Override
 	public synchronized ModelDiffCursor getDiffCursor(Version from, Version to) {
 		var diffCursors = new HashMap<AnySymbol, DiffCursor<?, ?>>();
+		int i = 0;
 		for (var entry : stores.entrySet()) {
 			var representation = entry.getKey();
-			var diffCursor = entry.getValue().getDiffCursor(from, to);
+			var diffCursor = entry.getValue().getDiffCursor(ModelVersion.getInternalVersion(from, i),
+					ModelVersion.getInternalVersion(to, i));
+			i++;
 			diffCursors.put(representation, diffCursor);
 		}
 		return new ModelDiffCursor(diffCursors);
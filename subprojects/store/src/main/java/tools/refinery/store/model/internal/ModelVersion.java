@@ -11,15 +11,34 @@ import java.util.Arrays;
 
 public class ModelVersion implements Version {
 	final Version[] mapVersions;
+	final Version[] indexVersions;
 
 	public ModelVersion(Version[] mapVersions) {
+		this(mapVersions, null);
+	}
+
+	public ModelVersion(Version[] mapVersions, Version[] indexVersions) {
 		this.mapVersions = mapVersions;
+		this.indexVersions = indexVersions;
 	}
 
 	public static Version getInternalVersion(Version modelVersion, int interpretationIndex) {
+		if (modelVersion == null) {
+			// The empty model has no version.
+			return null;
+		}
 		return ((ModelVersion) modelVersion).mapVersions[interpretationIndex];
 	}
 
+	public static Version getIndexVersion(Version modelVersion, int interpretationIndex) {
+		if (modelVersion == null) {
+			return null;
+		}
+		var indexVersions = ((ModelVersion) modelVersion).indexVersions;
+		// Versions committed without index versions make the indexes replay the changes of the restore instead.
+		return indexVersions == null ? null : indexVersions[interpretationIndex];
+	}
+
 	@Override
 	public String toString() {
 		return "ModelVersion{" +
@@ -10,6 +10,8 @@ import tools.refinery.store.map.VersionedMap;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.Arrays;
+
 class NullaryVersionedInterpretation<T> extends VersionedInterpretation<T> {
 	public NullaryVersionedInterpretation(ModelImpl model, Symbol<T> symbol, VersionedMap<Tuple, T> map) {
 		super(model, symbol, map);
@@ -24,4 +26,19 @@ class NullaryVersionedInterpretation<T> extends VersionedInterpretation<T> {
 	public int getAdjacentSize(int slot, int node) {
 		throw new IllegalArgumentException("Invalid index: " + slot);
 	}
+
+	@Override
+	public int getDistinctNodeCount(int slot) {
+		throw new IllegalArgumentException("Invalid index: " + slot);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAdjacent(int[] slots, int[] nodes) {
+		throw new IllegalArgumentException("Invalid indices: " + Arrays.toString(slots));
+	}
+
+	@Override
+	public int getAdjacentSize(int[] slots, int[] nodes) {
+		throw new IllegalArgumentException("Invalid indices: " + Arrays.toString(slots));
+	}
 }
@@ -5,10 +5,11 @@
  */
 package tools.refinery.store.model.internal;
 
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
 import tools.refinery.store.representation.Symbol;
 
-public record SymbolEquivalenceClass<T>(int arity, Class<T> valueType, T defaultValue) {
-	public SymbolEquivalenceClass(Symbol<T> symbol) {
-		this(symbol.arity(), symbol.valueType(), symbol.defaultValue());
+public record SymbolEquivalenceClass<T>(int arity, Class<T> valueType, T defaultValue, StoreStrategy strategy) {
+	public SymbolEquivalenceClass(Symbol<T> symbol, StoreStrategy strategy) {
+		this(symbol.arity(), symbol.valueType(), symbol.defaultValue(), strategy);
 	}
 }
@@ -11,6 +11,7 @@ import tools.refinery.store.map.VersionedMap;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 class UnaryVersionedInterpretation<T> extends VersionedInterpretation<T> {
@@ -45,4 +46,28 @@ class UnaryVersionedInterpretation<T> extends VersionedInterpretation<T> {
 		}
 		return 1;
 	}
+
+	@Override
+	public int getDistinctNodeCount(int slot) {
+		validateSlot(slot);
+		return (int) getSize();
+	}
+
+	private static void validateSlots(int[] slots, int[] nodes) {
+		if (slots.length != 1 || nodes.length != 1) {
+			throw new IllegalArgumentException("Invalid indices: " + Arrays.toString(slots));
+		}
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAdjacent(int[] slots, int[] nodes) {
+		validateSlots(slots, nodes);
+		return getAdjacent(slots[0], nodes[0]);
+	}
+
+	@Override
+	public int getAdjacentSize(int[] slots, int[] nodes) {
+		validateSlots(slots, nodes);
+		return getAdjacentSize(slots[0], nodes[0]);
+	}
 }
@@ -0,0 +1,228 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.*;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Index of the tuples of a {@link VersionedMap} by their elements at some slots, stored in versioned maps itself.
+ * <p>
+ * The tuples with the same projection to {@code slots} are stored in a dense list: the {@code buckets} map contains
+ * the entry {@code (projection..., i) -> tuple} for the {@code i}-th tuple, and the entry {@code (projection..., -1)
+ * -> (size)}. The number of non-empty lists is stored in the entry {@code (-1..., -1) -> (count)}, which can't clash
+ * with any projection, because node identifiers are non-negative. The {@code positions} map contains the entry
+ * {@code tuple -> (i)}, which lets us remove a tuple by moving the last tuple of the list into its position.
+ * Therefore, each change of the indexed map results in a constant number of changes to the index maps, and the index
+ * can be committed and restored along with the indexed map in time proportional to the changes.
+ */
+class VersionedAdjacencyIndex {
+	private static final int SIZE_POSITION = -1;
+
+	private final int[] slots;
+	private final Tuple bucketCountKey;
+	private final VersionedMap<Tuple, Tuple> buckets;
+	private final VersionedMap<Tuple, Tuple> positions;
+
+	private VersionedAdjacencyIndex(int[] slots, VersionedMap<Tuple, Tuple> buckets,
+									VersionedMap<Tuple, Tuple> positions) {
+		this.slots = slots;
+		var countNodes = new int[slots.length];
+		Arrays.fill(countNodes, SIZE_POSITION);
+		bucketCountKey = bucketKey(countNodes, SIZE_POSITION);
+		this.buckets = buckets;
+		this.positions = positions;
+	}
+
+	public int[] getSlots() {
+		return slots;
+	}
+
+	public int getSize(int[] nodes) {
+		var size = buckets.get(bucketKey(nodes, SIZE_POSITION));
+		return size == null ? 0 : size.get(0);
+	}
+
+	/**
+	 * Gets the number of distinct projections of the indexed tuples to the indexed slots.
+	 *
+	 * @return The number of non-empty buckets.
+	 */
+	public int getBucketCount() {
+		var count = buckets.get(bucketCountKey);
+		return count == null ? 0 : count.get(0);
+	}
+
+	public <T> Cursor<Tuple, T> getAdjacent(int[] nodes, VersionedMap<Tuple, T> versionedMap) {
+		int size = getSize(nodes);
+		if (size == 0) {
+			return Cursors.empty();
+		}
+		return new AdjacencyCursor<>(this, nodes, size, versionedMap);
+	}
+
+	public void put(Tuple key) {
+		if (positions.get(key) != null) {
+			// Only the value associated with the tuple has changed.
+			return;
+		}
+		var nodes = project(key);
+		int size = getSize(nodes);
+		buckets.put(bucketKey(nodes, size), key);
+		buckets.put(bucketKey(nodes, SIZE_POSITION), Tuple.of(size + 1));
+		positions.put(key, Tuple.of(size));
+		if (size == 0) {
+			updateBucketCount(1);
+		}
+	}
+
+	public void remove(Tuple key) {
+		var position = positions.get(key);
+		if (position == null) {
+			return;
+		}
+		var nodes = project(key);
+		int index = position.get(0);
+		int lastIndex = getSize(nodes) - 1;
+		if (index != lastIndex) {
+			var lastKey = buckets.get(bucketKey(nodes, lastIndex));
+			buckets.put(bucketKey(nodes, index), lastKey);
+			positions.put(lastKey, position);
+		}
+		buckets.put(bucketKey(nodes, lastIndex), null);
+		buckets.put(bucketKey(nodes, SIZE_POSITION), lastIndex == 0 ? null : Tuple.of(lastIndex));
+		positions.put(key, null);
+		if (lastIndex == 0) {
+			updateBucketCount(-1);
+		}
+	}
+
+	private void updateBucketCount(int delta) {
+		int count = getBucketCount() + delta;
+		buckets.put(bucketCountKey, count == 0 ? null : Tuple.of(count));
+	}
+
+	public IndexVersion.Entry commit() {
+		return new IndexVersion.Entry(slots, buckets.commit(), positions.commit());
+	}
+
+	public void restore(IndexVersion.Entry state) {
+		buckets.restore(state.bucketsVersion());
+		positions.restore(state.positionsVersion());
+	}
+
+	private int[] project(Tuple key) {
+		var nodes = new int[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			nodes[i] = key.get(slots[i]);
+		}
+		return nodes;
+	}
+
+	private static Tuple bucketKey(int[] nodes, int index) {
+		if (nodes.length == 1) {
+			return Tuple.of(nodes[0], index);
+		}
+		var elements = new int[nodes.length + 1];
+		System.arraycopy(nodes, 0, elements, 0, nodes.length);
+		elements[nodes.length] = index;
+		return Tuple.of(elements);
+	}
+
+	public static VersionedAdjacencyIndex of(int[] slots, VersionedMapStore<Tuple, Tuple> store) {
+		return new VersionedAdjacencyIndex(slots, store.createMap(), store.createMap());
+	}
+
+	public static VersionedAdjacencyIndex of(IndexVersion.Entry state, VersionedMapStore<Tuple, Tuple> store) {
+		return new VersionedAdjacencyIndex(state.slots(), store.createMap(state.bucketsVersion()),
+				store.createMap(state.positionsVersion()));
+	}
+
+	/**
+	 * Cursor over the dense list of tuples in a bucket.
+	 * <p>
+	 * Each step only looks up the tuple at the next position of the bucket. The value of the tuple is only looked up
+	 * in the indexed map if it is requested, because most callers only need the keys.
+	 */
+	private static class AdjacencyCursor<T> implements Cursor<Tuple, T> {
+		private final VersionedMap<Tuple, Tuple> buckets;
+		private final int node;
+		private final int[] bucketKey;
+		private final int size;
+		private final VersionedMap<Tuple, T> versionedMap;
+		private final Set<AnyVersionedMap> dependingMaps;
+		private int position = -1;
+		private Tuple key;
+		private T value;
+		private boolean valueFetched;
+
+		public AdjacencyCursor(VersionedAdjacencyIndex index, int[] nodes, int size,
+							   VersionedMap<Tuple, T> versionedMap) {
+			buckets = index.buckets;
+			node = nodes[0];
+			if (nodes.length == 1) {
+				bucketKey = null;
+			} else {
+				// Reuse the elements of the bucket key, since {@link Tuple#of(int...)} copies them.
+				bucketKey = Arrays.copyOf(nodes, nodes.length + 1);
+			}
+			this.size = size;
+			this.versionedMap = versionedMap;
+			dependingMaps = Set.of(versionedMap);
+		}
+
+		@Override
+		public Tuple getKey() {
+			return key;
+		}
+
+		@Override
+		public T getValue() {
+			if (!valueFetched) {
+				value = key == null ? null : versionedMap.get(key);
+				valueFetched = true;
+			}
+			return value;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return position >= size;
+		}
+
+		@Override
+		public boolean move() {
+			if (isTerminated()) {
+				return false;
+			}
+			position++;
+			value = null;
+			valueFetched = false;
+			if (isTerminated()) {
+				key = null;
+				return false;
+			}
+			key = buckets.get(getBucketKey());
+			return true;
+		}
+
+		private Tuple getBucketKey() {
+			if (bucketKey == null) {
+				return Tuple.of(node, position);
+			}
+			bucketKey[bucketKey.length - 1] = position;
+			return Tuple.of(bucketKey);
+		}
+
+		@Override
+		public Set<AnyVersionedMap> getDependingMaps() {
+			return dependingMaps;
+		}
+	}
+}
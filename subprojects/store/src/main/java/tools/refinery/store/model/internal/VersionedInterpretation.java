@@ -7,6 +7,7 @@ package tools.refinery.store.model.internal;
 
 import tools.refinery.store.map.*;
 import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.InterpretationChanges;
 import tools.refinery.store.model.InterpretationListener;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.representation.AnySymbol;
@@ -72,6 +73,19 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 		}
 	}
 
+	protected void valuesChanged(InterpretationChanges<T> changes, boolean restoring) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		var listenerList = restoring ? restoreListeners : listeners;
+		int listenerCount = listenerList.size();
+		// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < listenerCount; i++) {
+			listenerList.get(i).putAll(changes, restoring);
+		}
+	}
+
 	@Override
 	public T put(Tuple key, T value) {
 		checkKey(key);
@@ -85,23 +99,29 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 	@Override
 	public void putAll(Cursor<Tuple, T> cursor) {
 		model.markAsChanged();
-		if (cursor.getDependingMaps().contains(map)) {
-			List<Tuple> keys = new ArrayList<>();
-			List<T> values = new ArrayList<>();
-			while (cursor.move()) {
-				model.checkCancelled();
-				keys.add(cursor.getKey());
-				values.add(cursor.getValue());
-			}
-			var keyIterator = keys.iterator();
-			var valueIterator = values.iterator();
-			while (keyIterator.hasNext()) {
-				put(keyIterator.next(), valueIterator.next());
-			}
-		} else {
-			while (cursor.move()) {
-				put(cursor.getKey(), cursor.getValue());
+		// Read and validate every entry before changing the map. The cursor may also depend on the map itself.
+		List<Tuple> keys = new ArrayList<>();
+		List<T> values = new ArrayList<>();
+		while (cursor.move()) {
+			var key = cursor.getKey();
+			checkKey(key);
+			model.checkCancelled();
+			keys.add(key);
+			values.add(cursor.getValue());
+		}
+		var changes = new InterpretationChanges<T>();
+		try {
+			int size = keys.size();
+			for (int i = 0; i < size; i++) {
+				var key = keys.get(i);
+				var value = values.get(i);
+				var oldValue = map.put(key, value);
+				changes.add(key, oldValue, value);
 			}
+		} finally {
+			// Deliver all changes to the listeners at once instead of a separate round-trip for each tuple. The
+			// changes already made must be delivered even if the batch fails, so that the listeners see the map.
+			valuesChanged(changes, false);
 		}
 	}
 
@@ -114,16 +134,27 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 		return map.commit();
 	}
 
+	/**
+	 * Commits the indexes of the interpretation, if they are versioned separately from the underlying map.
+	 *
+	 * @return The version of the indexes, or {@code null} if the interpretation has no versioned indexes.
+	 */
+	Version commitIndex() {
+		return null;
+	}
+
 	protected boolean shouldNotifyRestoreListeners() {
 		return !restoreListeners.isEmpty();
 	}
 
-	public void restore(Version state) {
+	public void restore(Version state, Version indexState) {
 		if (shouldNotifyRestoreListeners()) {
+			var changes = new InterpretationChanges<T>();
 			var diffCursor = getDiffCursor(state);
 			while (diffCursor.move()) {
-				valueChanged(diffCursor.getKey(), diffCursor.getFromValue(), diffCursor.getToValue(), true);
+				changes.add(diffCursor.getKey(), diffCursor.getFromValue(), diffCursor.getToValue());
 			}
+			valuesChanged(changes, true);
 		}
 		map.restore(state);
 	}
@@ -142,27 +173,30 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 		restoreListeners.remove(listener);
 	}
 
-	static <T> VersionedInterpretation<T> of(ModelImpl model, AnySymbol symbol, VersionedMapStore<Tuple, T> store) {
+	static <T> VersionedInterpretation<T> of(ModelImpl model, AnySymbol symbol, VersionedMapStore<Tuple, T> store,
+											 VersionedMapStore<Tuple, Tuple> indexStore) {
 		@SuppressWarnings("unchecked")
 		var typedSymbol = (Symbol<T>) symbol;
 		var map = store.createMap();
-		return of(model, typedSymbol, map);
+		return of(model, typedSymbol, map, indexStore, null);
 	}
 
 	static <T> VersionedInterpretation<T> of(ModelImpl model, AnySymbol symbol, VersionedMapStore<Tuple, T> store,
-											 Version state) {
+											 VersionedMapStore<Tuple, Tuple> indexStore, Version state,
+											 Version indexState) {
 		@SuppressWarnings("unchecked")
 		var typedSymbol = (Symbol<T>) symbol;
 		var map = store.createMap(state);
-		return of(model, typedSymbol, map);
+		return of(model, typedSymbol, map, indexStore, indexState);
 	}
 
 	private static <T> VersionedInterpretation<T> of(ModelImpl model, Symbol<T> typedSymbol,
-													 VersionedMap<Tuple, T> map) {
+													 VersionedMap<Tuple, T> map,
+													 VersionedMapStore<Tuple, Tuple> indexStore, Version indexState) {
 		return switch (typedSymbol.arity()) {
 			case 0 -> new NullaryVersionedInterpretation<>(model, typedSymbol, map);
 			case 1 -> new UnaryVersionedInterpretation<>(model, typedSymbol, map);
-			default -> new IndexedVersionedInterpretation<>(model, typedSymbol, map);
+			default -> new IndexedVersionedInterpretation<>(model, typedSymbol, map, indexStore, indexState);
 		};
 	}
 }
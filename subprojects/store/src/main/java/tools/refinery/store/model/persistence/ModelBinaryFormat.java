@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.AnySymbol;
+import tools.refinery.store.representation.Symbol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Compact binary representation of model states and differences between model states.
+ * <p>
+ * A stream starts with a header and a table of symbols, followed by any number of frames. A frame contains either the
+ * full state of a model or the changes reported by a {@link tools.refinery.store.model.ModelDiffCursor
+ * ModelDiffCursor}. Node ids and counts are written as variable-length integers, while values are replaced by their
+ * ordinal in a per-symbol dictionary, so each distinct value is only written once per stream. The frames may
+ * optionally be compressed.
+ */
+public final class ModelBinaryFormat {
+	static final int MAGIC = 0x52464d42;
+	static final int FORMAT_VERSION = 1;
+	static final int COMPRESSED_FLAG = 1;
+	static final int END_FRAME = 0;
+	static final int STATE_FRAME = 1;
+	static final int DIFF_FRAME = 2;
+
+	private final List<Symbol<?>> symbols;
+	private final Map<Class<?>, ValueCodec<?>> valueCodecs = new HashMap<>();
+	private boolean compressed;
+
+	private ModelBinaryFormat(List<Symbol<?>> symbols) {
+		this.symbols = symbols;
+	}
+
+	public List<Symbol<?>> getSymbols() {
+		return symbols;
+	}
+
+	public boolean isCompressed() {
+		return compressed;
+	}
+
+	/**
+	 * Sets whether frames written with this format should be compressed. Readers detect compression from the header
+	 * of the stream, so this setting only affects writers.
+	 *
+	 * @param compressed {@code true} to compress frames with the {@code DEFLATE} algorithm.
+	 * @return This object for chaining.
+	 */
+	public ModelBinaryFormat compressed(boolean compressed) {
+		this.compressed = compressed;
+		return this;
+	}
+
+	/**
+	 * Sets the codec for the values of symbols with the given value type.
+	 *
+	 * @param valueType The type of the values.
+	 * @param codec     The codec to use.
+	 * @param <T>       The type of the values.
+	 * @return This object for chaining.
+	 */
+	public <T> ModelBinaryFormat valueCodec(Class<T> valueType, ValueCodec<T> codec) {
+		valueCodecs.put(valueType, codec);
+		return this;
+	}
+
+	public <T> ValueCodec<T> getValueCodec(Class<T> valueType) {
+		return ValueCodecs.resolve(valueCodecs, valueType);
+	}
+
+	public ModelBinaryWriter createWriter(OutputStream output) throws IOException {
+		return new ModelBinaryWriter(this, output);
+	}
+
+	public ModelBinaryReader createReader(InputStream input) throws IOException {
+		return new ModelBinaryReader(this, input);
+	}
+
+	public static ModelBinaryFormat of(ModelStore store) {
+		return of(store.getSymbols());
+	}
+
+	public static ModelBinaryFormat of(Collection<? extends AnySymbol> symbols) {
+		var symbolList = new ArrayList<Symbol<?>>(symbols.size());
+		for (var symbol : symbols) {
+			symbolList.add((Symbol<?>) symbol);
+		}
+		return new ModelBinaryFormat(Collections.unmodifiableList(symbolList));
+	}
+}
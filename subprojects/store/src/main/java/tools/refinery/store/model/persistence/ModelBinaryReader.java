@@ -0,0 +1,183 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import tools.refinery.store.map.Cursors;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads model states and differences written by a {@link ModelBinaryWriter}.
+ * <p>
+ * Symbols in the stream are matched to the symbols of the {@link ModelBinaryFormat} by their name, so the order of
+ * symbols in the reading and writing model stores may differ.
+ */
+public final class ModelBinaryReader implements Closeable {
+	private final Inflater inflater;
+	private final DataInputStream input;
+	private final List<SymbolReader<?>> symbolReaders;
+	private boolean finished;
+
+	ModelBinaryReader(ModelBinaryFormat format, InputStream input) throws IOException {
+		var headerInput = new DataInputStream(input);
+		if (headerInput.readInt() != ModelBinaryFormat.MAGIC) {
+			throw new IOException("Not a binary model stream");
+		}
+		int formatVersion = headerInput.readUnsignedByte();
+		if (formatVersion != ModelBinaryFormat.FORMAT_VERSION) {
+			throw new IOException("Unsupported binary model format " + formatVersion);
+		}
+		int flags = headerInput.readUnsignedByte();
+		InputStream bodyInput;
+		if ((flags & ModelBinaryFormat.COMPRESSED_FLAG) != 0) {
+			inflater = new Inflater();
+			bodyInput = new InflaterInputStream(input, inflater);
+		} else {
+			inflater = null;
+			bodyInput = input;
+		}
+		this.input = new DataInputStream(new BufferedInputStream(bodyInput));
+		symbolReaders = readSymbolTable(format);
+	}
+
+	private List<SymbolReader<?>> readSymbolTable(ModelBinaryFormat format) throws IOException {
+		var symbolsByName = new HashMap<String, Symbol<?>>();
+		for (var symbol : format.getSymbols()) {
+			symbolsByName.put(symbol.name(), symbol);
+		}
+		int symbolCount = VarInts.readVarInt(input);
+		var readers = new ArrayList<SymbolReader<?>>(symbolCount);
+		for (int i = 0; i < symbolCount; i++) {
+			var name = input.readUTF();
+			int arity = VarInts.readVarInt(input);
+			var valueTypeName = input.readUTF();
+			var symbol = symbolsByName.get(name);
+			if (symbol == null || symbol.arity() != arity || !symbol.valueType().getName().equals(valueTypeName)) {
+				throw new IllegalArgumentException("No symbol %s/%d with values of type %s to read"
+						.formatted(name, arity, valueTypeName));
+			}
+			readers.add(createSymbolReader(symbol, format));
+		}
+		return readers;
+	}
+
+	private static <T> SymbolReader<T> createSymbolReader(Symbol<T> symbol, ModelBinaryFormat format) {
+		return new SymbolReader<>(symbol, format.getValueCodec(symbol.valueType()));
+	}
+
+	/**
+	 * Reads the next frame of the stream into a model.
+	 * <p>
+	 * If the frame contains a full state, the interpretations of the model are replaced by the state. Otherwise, the
+	 * changes in the frame are applied to the model. All changes of a symbol are applied with a single
+	 * {@link tools.refinery.store.model.Interpretation#putAll(tools.refinery.store.map.Cursor) putAll} call.
+	 *
+	 * @param model The model to update.
+	 * @return {@code true} if a frame was read, {@code false} if the end of the stream was reached.
+	 * @throws IOException If the stream cannot be read or is malformed.
+	 */
+	public boolean read(Model model) throws IOException {
+		if (finished) {
+			return false;
+		}
+		int kind = input.read();
+		switch (kind) {
+		case -1, ModelBinaryFormat.END_FRAME -> {
+			finished = true;
+			return false;
+		}
+		case ModelBinaryFormat.STATE_FRAME -> {
+			for (var symbolReader : symbolReaders) {
+				symbolReader.read(input, model, true);
+			}
+			return true;
+		}
+		case ModelBinaryFormat.DIFF_FRAME -> {
+			for (var symbolReader : symbolReaders) {
+				symbolReader.read(input, model, false);
+			}
+			return true;
+		}
+		default -> throw new IOException("Unknown frame kind " + kind);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			input.close();
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+			}
+		}
+	}
+
+	private static final class SymbolReader<T> {
+		private final Symbol<T> symbol;
+		private final ValueCodec<T> codec;
+		private final List<T> values = new ArrayList<>();
+
+		SymbolReader(Symbol<T> symbol, ValueCodec<T> codec) {
+			this.symbol = symbol;
+			this.codec = codec;
+			values.add(symbol.defaultValue());
+		}
+
+		void read(DataInput input, Model model, boolean state) throws IOException {
+			var interpretation = model.getInterpretation(symbol);
+			var changes = new LinkedHashMap<Tuple, T>();
+			int arity = symbol.arity();
+			int blockSize = VarInts.readVarInt(input);
+			while (blockSize > 0) {
+				for (int i = 0; i < blockSize; i++) {
+					var key = readKey(input, arity);
+					changes.put(key, readValue(input));
+				}
+				blockSize = VarInts.readVarInt(input);
+			}
+			if (state) {
+				// Remove the entries of the model that are not part of the state.
+				var defaultValue = symbol.defaultValue();
+				var cursor = interpretation.getAll();
+				while (cursor.move()) {
+					changes.putIfAbsent(cursor.getKey(), defaultValue);
+				}
+			}
+			if (!changes.isEmpty()) {
+				interpretation.putAll(Cursors.of(changes));
+			}
+		}
+
+		private static Tuple readKey(DataInput input, int arity) throws IOException {
+			var elements = new int[arity];
+			for (int i = 0; i < arity; i++) {
+				elements[i] = VarInts.readVarInt(input);
+			}
+			return Tuple.of(elements);
+		}
+
+		private T readValue(DataInput input) throws IOException {
+			int reference = VarInts.readVarInt(input);
+			int ordinal = reference >>> 1;
+			if ((reference & 1) != 0) {
+				if (ordinal != values.size()) {
+					throw new IOException("Unexpected new value with ordinal %d for %s".formatted(ordinal, symbol));
+				}
+				values.add(codec.read(input));
+			} else if (ordinal >= values.size()) {
+				throw new IOException("Unknown value ordinal %d for %s".formatted(ordinal, symbol));
+			}
+			return values.get(ordinal);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelDiffCursor;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes model states and differences to a stream in the {@link ModelBinaryFormat}.
+ * <p>
+ * Entries of a symbol are written in blocks of at most {@link #BLOCK_SIZE} entries, so frames can be written without
+ * knowing the number of entries in advance.
+ */
+public final class ModelBinaryWriter implements Closeable, Flushable {
+	static final int BLOCK_SIZE = 256;
+
+	private final List<SymbolWriter<?>> symbolWriters;
+	private final Deflater deflater;
+	private final DataOutputStream output;
+	private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream();
+	private final DataOutputStream blockOutput = new DataOutputStream(blockBuffer);
+	private boolean closed;
+
+	ModelBinaryWriter(ModelBinaryFormat format, OutputStream output) throws IOException {
+		var symbols = format.getSymbols();
+		symbolWriters = new ArrayList<>(symbols.size());
+		for (var symbol : symbols) {
+			symbolWriters.add(createSymbolWriter(symbol, format));
+		}
+		var headerOutput = new DataOutputStream(output);
+		headerOutput.writeInt(ModelBinaryFormat.MAGIC);
+		headerOutput.writeByte(ModelBinaryFormat.FORMAT_VERSION);
+		headerOutput.writeByte(format.isCompressed() ? ModelBinaryFormat.COMPRESSED_FLAG : 0);
+		OutputStream bodyOutput;
+		if (format.isCompressed()) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+			// Use sync flush, so that flushing the writer makes all written frames available to the reader.
+			bodyOutput = new DeflaterOutputStream(output, deflater, true);
+		} else {
+			deflater = null;
+			bodyOutput = output;
+		}
+		this.output = new DataOutputStream(new BufferedOutputStream(bodyOutput));
+		writeSymbolTable();
+	}
+
+	private static <T> SymbolWriter<T> createSymbolWriter(Symbol<T> symbol, ModelBinaryFormat format) {
+		return new SymbolWriter<>(symbol, format.getValueCodec(symbol.valueType()));
+	}
+
+	private void writeSymbolTable() throws IOException {
+		VarInts.writeVarInt(output, symbolWriters.size());
+		for (var symbolWriter : symbolWriters) {
+			var symbol = symbolWriter.symbol;
+			output.writeUTF(symbol.name());
+			VarInts.writeVarInt(output, symbol.arity());
+			output.writeUTF(symbol.valueType().getName());
+		}
+	}
+
+	/**
+	 * Writes the full state of a model.
+	 *
+	 * @param model The model to write.
+	 * @throws IOException If the underlying stream cannot be written.
+	 */
+	public void writeState(Model model) throws IOException {
+		checkOpen();
+		output.writeByte(ModelBinaryFormat.STATE_FRAME);
+		for (var symbolWriter : symbolWriters) {
+			writeState(symbolWriter, model);
+		}
+	}
+
+	private <T> void writeState(SymbolWriter<T> symbolWriter, Model model) throws IOException {
+		Cursor<Tuple, T> cursor = model.getInterpretation(symbolWriter.symbol).getAll();
+		int count = 0;
+		while (cursor.move()) {
+			symbolWriter.writeEntry(blockOutput, cursor.getKey(), cursor.getValue());
+			count = countEntry(count);
+		}
+		finishEntries(count);
+	}
+
+	/**
+	 * Writes the changes reported by a diff cursor.
+	 * <p>
+	 * Changes are written in the order they are reported, so reading the frame produces the same result even if the
+	 * cursor reports multiple changes of the same key.
+	 *
+	 * @param diffCursor The diff cursor to write.
+	 * @throws IOException If the underlying stream cannot be written.
+	 */
+	public void writeDiff(ModelDiffCursor diffCursor) throws IOException {
+		checkOpen();
+		output.writeByte(ModelBinaryFormat.DIFF_FRAME);
+		for (var symbolWriter : symbolWriters) {
+			writeDiff(symbolWriter, diffCursor);
+		}
+	}
+
+	private <T> void writeDiff(SymbolWriter<T> symbolWriter, ModelDiffCursor diffCursor) throws IOException {
+		var cursor = diffCursor.getCursor(symbolWriter.symbol);
+		int count = 0;
+		while (cursor.move()) {
+			symbolWriter.writeEntry(blockOutput, cursor.getKey(), cursor.getToValue());
+			count = countEntry(count);
+		}
+		finishEntries(count);
+	}
+
+	private int countEntry(int count) throws IOException {
+		int newCount = count + 1;
+		if (newCount < BLOCK_SIZE) {
+			return newCount;
+		}
+		writeBlock(newCount);
+		return 0;
+	}
+
+	private void finishEntries(int count) throws IOException {
+		if (count > 0) {
+			writeBlock(count);
+		}
+		// An empty block marks the end of the entries of the symbol.
+		VarInts.writeVarInt(output, 0);
+	}
+
+	private void writeBlock(int count) throws IOException {
+		VarInts.writeVarInt(output, count);
+		blockBuffer.writeTo(output);
+		blockBuffer.reset();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		output.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			output.writeByte(ModelBinaryFormat.END_FRAME);
+			output.close();
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+		}
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("Writer was already closed");
+		}
+	}
+
+	private static final class SymbolWriter<T> {
+		private final Symbol<T> symbol;
+		private final ValueCodec<T> codec;
+		private final Map<T, Integer> ordinals = new HashMap<>();
+
+		SymbolWriter(Symbol<T> symbol, ValueCodec<T> codec) {
+			this.symbol = symbol;
+			this.codec = codec;
+			// The default value is known by the reader, so it never has to be written.
+			ordinals.put(symbol.defaultValue(), 0);
+		}
+
+		void writeEntry(DataOutput output, Tuple key, T value) throws IOException {
+			int arity = key.getSize();
+			for (int i = 0; i < arity; i++) {
+				VarInts.writeVarInt(output, key.get(i));
+			}
+			var ordinal = ordinals.get(value);
+			if (ordinal != null) {
+				VarInts.writeVarInt(output, ordinal << 1);
+				return;
+			}
+			int newOrdinal = ordinals.size();
+			ordinals.put(value, newOrdinal);
+			// The lowest bit marks that the value follows, because it is the first occurrence in the stream.
+			VarInts.writeVarInt(output, (newOrdinal << 1) | 1);
+			codec.write(output, value);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts the values of a symbol to and from their binary representation.
+ * <p>
+ * Values are always written and read in the same order, so the representation does not have to be self-delimiting
+ * beyond what {@link #read(DataInput)} consumes.
+ *
+ * @param <T> The type of the values.
+ */
+public interface ValueCodec<T> {
+	void write(DataOutput output, T value) throws IOException;
+
+	T read(DataInput input) throws IOException;
+}
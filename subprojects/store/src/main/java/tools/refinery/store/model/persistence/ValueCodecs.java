@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+public final class ValueCodecs {
+	public static final ValueCodec<Boolean> BOOLEAN = new ValueCodec<>() {
+		@Override
+		public void write(DataOutput output, Boolean value) throws IOException {
+			output.writeBoolean(value);
+		}
+
+		@Override
+		public Boolean read(DataInput input) throws IOException {
+			return input.readBoolean();
+		}
+	};
+
+	public static final ValueCodec<Integer> INTEGER = new ValueCodec<>() {
+		@Override
+		public void write(DataOutput output, Integer value) throws IOException {
+			VarInts.writeSignedVarInt(output, value);
+		}
+
+		@Override
+		public Integer read(DataInput input) throws IOException {
+			return VarInts.readSignedVarInt(input);
+		}
+	};
+
+	public static final ValueCodec<Long> LONG = new ValueCodec<>() {
+		@Override
+		public void write(DataOutput output, Long value) throws IOException {
+			VarInts.writeSignedVarLong(output, value);
+		}
+
+		@Override
+		public Long read(DataInput input) throws IOException {
+			return VarInts.readSignedVarLong(input);
+		}
+	};
+
+	public static final ValueCodec<String> STRING = new ValueCodec<>() {
+		@Override
+		public void write(DataOutput output, String value) throws IOException {
+			output.writeUTF(value);
+		}
+
+		@Override
+		public String read(DataInput input) throws IOException {
+			return input.readUTF();
+		}
+	};
+
+	private ValueCodecs() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Creates a codec for an enum type.
+	 * <p>
+	 * Constants are written by their name instead of their ordinal, so persisted values remain readable if constants
+	 * are reordered.
+	 *
+	 * @param enumType The enum type.
+	 * @param <E>      The enum type.
+	 * @return The codec.
+	 */
+	public static <E extends Enum<E>> ValueCodec<E> ofEnum(Class<E> enumType) {
+		return new ValueCodec<>() {
+			@Override
+			public void write(DataOutput output, E value) throws IOException {
+				output.writeUTF(value.name());
+			}
+
+			@Override
+			public E read(DataInput input) throws IOException {
+				var name = input.readUTF();
+				try {
+					return Enum.valueOf(enumType, name);
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Unknown constant %s of %s".formatted(name, enumType.getName()), e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Gets a built-in codec for a value type.
+	 *
+	 * @param valueType The type of the values.
+	 * @param <T>       The type of the values.
+	 * @return The codec, or {@link Optional#empty()} if there is no built-in codec for {@code valueType}.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public static <T> Optional<ValueCodec<T>> forType(Class<T> valueType) {
+		ValueCodec<?> codec;
+		if (Boolean.class.equals(valueType)) {
+			codec = BOOLEAN;
+		} else if (Integer.class.equals(valueType)) {
+			codec = INTEGER;
+		} else if (Long.class.equals(valueType)) {
+			codec = LONG;
+		} else if (String.class.equals(valueType)) {
+			codec = STRING;
+		} else if (valueType.isEnum()) {
+			codec = ofEnum((Class) valueType);
+		} else {
+			codec = null;
+		}
+		return Optional.ofNullable((ValueCodec<T>) codec);
+	}
+
+	static <T> ValueCodec<T> resolve(Map<Class<?>, ValueCodec<?>> customCodecs, Class<T> valueType) {
+		@SuppressWarnings("unchecked")
+		var codec = (ValueCodec<T>) customCodecs.get(valueType);
+		if (codec != null) {
+			return codec;
+		}
+		return forType(valueType).orElseThrow(() -> new IllegalArgumentException(
+				"No value codec for %s, set one with valueCodec".formatted(valueType.getName())));
+	}
+}
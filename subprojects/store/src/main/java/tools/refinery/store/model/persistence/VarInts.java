@@ -0,0 +1,86 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length encoding of integers with 7 bits per byte, least significant group first.
+ * <p>
+ * Non-negative numbers, such as node ids and counts, should be written with {@link #writeVarInt(DataOutput, int)}.
+ * Numbers that are likely to be negative should be written with {@link #writeSignedVarInt(DataOutput, int)}, which
+ * applies zig-zag encoding first.
+ */
+public final class VarInts {
+	private static final int PAYLOAD_MASK = 0x7f;
+	private static final int CONTINUATION_BIT = 0x80;
+
+	private VarInts() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static void writeVarInt(DataOutput output, int value) throws IOException {
+		int remaining = value;
+		while ((remaining & ~PAYLOAD_MASK) != 0) {
+			output.writeByte((remaining & PAYLOAD_MASK) | CONTINUATION_BIT);
+			remaining >>>= 7;
+		}
+		output.writeByte(remaining);
+	}
+
+	public static int readVarInt(DataInput input) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			int b = input.readUnsignedByte();
+			result |= (b & PAYLOAD_MASK) << shift;
+			if ((b & CONTINUATION_BIT) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	public static void writeVarLong(DataOutput output, long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~PAYLOAD_MASK) != 0) {
+			output.writeByte((int) ((remaining & PAYLOAD_MASK) | CONTINUATION_BIT));
+			remaining >>>= 7;
+		}
+		output.writeByte((int) remaining);
+	}
+
+	public static long readVarLong(DataInput input) throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < Long.SIZE; shift += 7) {
+			int b = input.readUnsignedByte();
+			result |= (long) (b & PAYLOAD_MASK) << shift;
+			if ((b & CONTINUATION_BIT) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	public static void writeSignedVarInt(DataOutput output, int value) throws IOException {
+		writeVarInt(output, (value << 1) ^ (value >> (Integer.SIZE - 1)));
+	}
+
+	public static int readSignedVarInt(DataInput input) throws IOException {
+		int encoded = readVarInt(input);
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	public static void writeSignedVarLong(DataOutput output, long value) throws IOException {
+		writeVarLong(output, (value << 1) ^ (value >> (Long.SIZE - 1)));
+	}
+
+	public static long readSignedVarLong(DataInput input) throws IOException {
+		long encoded = readVarLong(input);
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+}
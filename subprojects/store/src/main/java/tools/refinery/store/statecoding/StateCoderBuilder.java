@@ -44,6 +44,21 @@ public interface StateCoderBuilder extends ModelAdapterBuilder {
 
 	StateCoderBuilder stateEquivalenceChecker(StateEquivalenceChecker stateEquivalenceChecker);
 
+	/**
+	 * Hashes the tuples of the model in parallel if the model has at least the given number of objects.
+	 * <p>
+	 * The computed state codes are the same as without parallel hashing.
+	 * </p>
+	 * <p>
+	 * Only applies to state code calculators extending
+	 * {@link tools.refinery.store.statecoding.neighborhood.AbstractNeighborhoodCalculator}.
+	 * </p>
+	 *
+	 * @param parallelThreshold The minimum number of objects for parallel hashing.
+	 * @return This builder.
+	 */
+	StateCoderBuilder parallelThreshold(int parallelThreshold);
+
 	@Override
 	StateCoderStoreAdapter build(ModelStore store);
 }
@@ -15,6 +15,7 @@ import tools.refinery.store.statecoding.StateCodeCalculatorFactory;
 import tools.refinery.store.statecoding.StateCoderBuilder;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.store.statecoding.StateEquivalenceChecker;
+import tools.refinery.store.statecoding.neighborhood.AbstractNeighborhoodCalculator;
 import tools.refinery.store.statecoding.neighborhood.NeighborhoodCalculator;
 import tools.refinery.store.statecoding.stateequivalence.StateEquivalenceCheckerImpl;
 import tools.refinery.store.tuple.Tuple1;
@@ -29,6 +30,7 @@ public class StateCoderBuilderImpl extends AbstractModelAdapterBuilder<StateCode
 	private final MutableIntSet individuals = IntSets.mutable.empty();
 	private StateCodeCalculatorFactory calculator = NeighborhoodCalculator.factory();
 	private StateEquivalenceChecker checker = new StateEquivalenceCheckerImpl();
+	private int parallelThreshold = AbstractNeighborhoodCalculator.NO_PARALLELISM;
 
 	@Override
 	public StateCoderBuilder exclude(AnySymbol symbol) {
@@ -58,6 +60,16 @@ public class StateCoderBuilderImpl extends AbstractModelAdapterBuilder<StateCode
 		return this;
 	}
 
+	@Override
+	public StateCoderBuilder parallelThreshold(int parallelThreshold) {
+		checkNotConfigured();
+		if (parallelThreshold < 0) {
+			throw new IllegalArgumentException("Parallel threshold must be non-negative");
+		}
+		this.parallelThreshold = parallelThreshold;
+		return this;
+	}
+
 	@Override
 	protected StateCoderStoreAdapter doBuild(ModelStore store) {
 		Set<Symbol<?>> symbols = new LinkedHashSet<>();
@@ -66,6 +78,6 @@ public class StateCoderBuilderImpl extends AbstractModelAdapterBuilder<StateCode
 				symbols.add(typed);
 			}
 		}
-		return new StateCoderStoreAdapterImpl(store, calculator, checker, symbols, individuals);
+		return new StateCoderStoreAdapterImpl(store, calculator, checker, symbols, individuals, parallelThreshold);
 	}
 }
@@ -14,6 +14,7 @@ import tools.refinery.store.statecoding.StateCodeCalculatorFactory;
 import tools.refinery.store.statecoding.StateCoderAdapter;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.store.statecoding.StateEquivalenceChecker;
+import tools.refinery.store.statecoding.neighborhood.AbstractNeighborhoodCalculator;
 import tools.refinery.store.statecoding.neighborhood.IndividualsSet;
 import tools.refinery.store.statecoding.neighborhood.IndividualsArray;
 
@@ -27,18 +28,21 @@ public class StateCoderStoreAdapterImpl implements StateCoderStoreAdapter {
 
 	final StateEquivalenceChecker equivalenceChecker;
 	final StateCodeCalculatorFactory codeCalculatorFactory;
+	final int parallelThreshold;
 
 	StateCoderStoreAdapterImpl(ModelStore store,
 							   StateCodeCalculatorFactory codeCalculatorFactory,
 							   StateEquivalenceChecker equivalenceChecker,
 							   Collection<Symbol<?>> symbols,
-							   IntSet individuals)
+							   IntSet individuals,
+							   int parallelThreshold)
 	{
 		this.codeCalculatorFactory = codeCalculatorFactory;
 		this.equivalenceChecker = equivalenceChecker;
 		this.store = store;
 		this.symbols = symbols;
 		this.individuals = new IndividualsArray(individuals.toSortedArray());
+		this.parallelThreshold = parallelThreshold;
 	}
 
 	@Override
@@ -51,9 +55,30 @@ public class StateCoderStoreAdapterImpl implements StateCoderStoreAdapter {
 		if (Objects.equals(v1, v2)) {
 			return StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC;
 		}
-		var model1 = this.getStore().createModelForState(v1);
-		var model2 = this.getStore().createModelForState(v2);
+		Model model1 = null;
+		Model model2 = null;
+		boolean compared = false;
+		try {
+			model1 = store.createModelForState(v1);
+			model2 = store.createModelForState(v2);
+			var result = checkEquivalence(model1, model2);
+			compared = true;
+			return result;
+		} finally {
+			// The models are only needed for the comparison, so the next comparison may reuse them. However, the
+			// adapters of a model may be left inconsistent if calculating its state code fails (e.g., because of
+			// cancellation), so such models are dropped instead. The first model is still unused if creating the
+			// second one failed.
+			if (model1 != null && (compared || model2 == null)) {
+				store.releaseModel(model1);
+			}
+			if (model2 != null && compared) {
+				store.releaseModel(model2);
+			}
+		}
+	}
 
+	private StateEquivalenceChecker.EquivalenceResult checkEquivalence(Model model1, Model model2) {
 		var s1 = model1.getAdapter(StateCoderAdapter.class).calculateStateCode();
 		var s2 = model2.getAdapter(StateCoderAdapter.class).calculateStateCode();
 
@@ -71,6 +96,10 @@ public class StateCoderStoreAdapterImpl implements StateCoderStoreAdapter {
 	public StateCoderAdapter createModelAdapter(Model model) {
 		var interpretations = symbols.stream().map(model::getInterpretation).toList();
 		var coder = codeCalculatorFactory.create(model, interpretations, individuals);
+		if (parallelThreshold != AbstractNeighborhoodCalculator.NO_PARALLELISM &&
+				coder instanceof AbstractNeighborhoodCalculator<?> neighborhoodCalculator) {
+			neighborhoodCalculator.setParallelThreshold(parallelThreshold);
+		}
 		return new StateCoderAdapterImpl(this, coder, model);
 	}
 }
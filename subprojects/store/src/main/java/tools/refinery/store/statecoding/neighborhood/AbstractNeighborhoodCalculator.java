@@ -5,26 +5,38 @@
  */
 package tools.refinery.store.statecoding.neighborhood;
 
-import org.eclipse.collections.api.factory.primitive.IntLongMaps;
-import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
 import tools.refinery.store.map.Cursor;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.statecoding.ObjectCode;
 import tools.refinery.store.statecoding.StateCodeCalculator;
 import tools.refinery.store.statecoding.StateCoderResult;
 import tools.refinery.store.tuple.Tuple;
+import tools.refinery.store.tuple.Tuple1;
+import tools.refinery.store.tuple.Tuple2;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalculator {
+	public static final int NO_PARALLELISM = Integer.MAX_VALUE;
+
 	private final Model model;
 	private final IndividualsSet individuals;
 	private final int depth;
 	private List<T> nullImpactValues;
-	private LinkedHashMap<T, long[]> impactValues;
-	private MutableIntLongMap individualHashValues;
+	private List<T> impactInterpretations;
+	private int[] impactArities;
+	private long[][] impactValues;
+	private int[] individualObjects;
+	private long[] individualHashValues;
 	private ObjectCodeImpl previousObjectCode = new ObjectCodeImpl();
 	private ObjectCodeImpl nextObjectCode = new ObjectCodeImpl();
+	private int parallelThreshold = NO_PARALLELISM;
+	private int[] interpretationTupleStarts;
+	private int[] tupleOffsets;
+	private int[] tupleObjects;
+	private int[] tupleValueHashes;
+	private long[] tupleHashes;
 
 	protected static final long PRIME = 31;
 
@@ -38,6 +50,24 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 		return model;
 	}
 
+	/**
+	 * Sets the number of objects above which the tuples are hashed in parallel.
+	 * <p>
+	 * The first round of hashing is always sequential, and it determines the number of objects. If there are enough
+	 * objects, the tuples of the model are copied on the calling thread for the rest of the rounds, so the model is
+	 * never accessed from other threads. The tuple hashes are summed in the same order as in sequential hashing,
+	 * so the computed codes do not depend on the threshold.
+	 * </p>
+	 *
+	 * @param parallelThreshold The minimum number of objects for parallel hashing, or {@link #NO_PARALLELISM}.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 0) {
+			throw new IllegalArgumentException("Parallel threshold must be non-negative");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
 	protected abstract List<T> getInterpretations();
 
 	protected abstract int getArity(T interpretation);
@@ -55,11 +85,23 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 		previousObjectCode.clear();
 		nextObjectCode.clear();
 		initializeWithIndividuals(previousObjectCode);
+		boolean parallel = false;
 
 		int rounds = 0;
 		do {
 			model.checkCancelled();
-			constructNextObjectCodes(previousObjectCode, nextObjectCode);
+			if (rounds == 1 && parallelThreshold != NO_PARALLELISM &&
+					previousObjectCode.getEffectiveSize() >= parallelThreshold) {
+				// Every object in a tuple has a code after the first round, so we only copy the tuples for models
+				// that are large enough to benefit from parallel hashing.
+				collectTuples();
+				parallel = true;
+			}
+			if (parallel) {
+				constructNextObjectCodesInParallel(previousObjectCode, nextObjectCode);
+			} else {
+				constructNextObjectCodes(previousObjectCode, nextObjectCode);
+			}
 			var tempObjectCode = previousObjectCode;
 			previousObjectCode = nextObjectCode;
 			nextObjectCode = tempObjectCode;
@@ -76,34 +118,47 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 			return;
 		}
 
-		nullImpactValues = new ArrayList<>();
-		impactValues = new LinkedHashMap<>();
-		individualHashValues = IntLongMaps.mutable.empty();
+		var nullInterpretations = new ArrayList<T>();
+		var interpretationsWithImpact = new ArrayList<T>();
+		var impacts = new ArrayList<long[]>();
 		// Random isn't used for cryptographical purposes but just to assign distinguishable identifiers to symbols.
 		@SuppressWarnings("squid:S2245")
 		Random random = new Random(1);
 
-		individuals.stream().forEach(o -> individualHashValues.put(o, random.nextLong()));
+		individualObjects = individuals.stream().toArray();
+		individualHashValues = new long[individualObjects.length];
+		for (int i = 0; i < individualObjects.length; i++) {
+			individualHashValues[i] = random.nextLong();
+		}
 
 		for (var interpretation : getInterpretations()) {
 			int arity = getArity(interpretation);
 			if (arity == 0) {
-				nullImpactValues.add(interpretation);
+				nullInterpretations.add(interpretation);
 			} else {
 				long[] impact = new long[arity];
 				for (int i = 0; i < arity; i++) {
 					impact[i] = random.nextInt();
 				}
-				impactValues.put(interpretation, impact);
+				interpretationsWithImpact.add(interpretation);
+				impacts.add(impact);
 			}
+		}
 
+		nullImpactValues = nullInterpretations;
+		impactInterpretations = interpretationsWithImpact;
+		impactArities = new int[impacts.size()];
+		for (int i = 0; i < impactArities.length; i++) {
+			impactArities[i] = impacts.get(i).length;
 		}
+		impactValues = impacts.toArray(new long[0][]);
 	}
 
 	private long calculateLastSum(ObjectCode codes) {
 		long result = 0;
-		for (var nullImpactValue : nullImpactValues) {
-			result = result * PRIME + Objects.hashCode(getNullValue(nullImpactValue));
+		int nullImpactValueCount = nullImpactValues.size();
+		for (int i = 0; i < nullImpactValueCount; i++) {
+			result = result * PRIME + Objects.hashCode(getNullValue(nullImpactValues.get(i)));
 		}
 
 		for (int i = 0; i < codes.getSize(); i++) {
@@ -115,16 +170,93 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 	}
 
 	private void constructNextObjectCodes(ObjectCodeImpl previous, ObjectCodeImpl next) {
-		for (var impactValueEntry : this.impactValues.entrySet()) {
+		for (int i = 0; i < impactValues.length; i++) {
 			model.checkCancelled();
-			var interpretation = impactValueEntry.getKey();
-			var cursor = getCursor(interpretation);
-			int arity = getArity(interpretation);
-			long[] impactValue = impactValueEntry.getValue();
-			impactCalculation(previous, next, impactValue, cursor, arity);
+			var cursor = getCursor(impactInterpretations.get(i));
+			impactCalculation(previous, next, impactValues[i], cursor, impactArities[i]);
 		}
 	}
 
+	private void collectTuples() {
+		if (interpretationTupleStarts == null) {
+			interpretationTupleStarts = new int[impactValues.length + 1];
+			tupleOffsets = new int[16];
+			tupleObjects = new int[16];
+			tupleValueHashes = new int[16];
+		}
+		int tupleCount = 0;
+		int objectCount = 0;
+		for (int i = 0; i < impactValues.length; i++) {
+			model.checkCancelled();
+			interpretationTupleStarts[i] = tupleCount;
+			int arity = impactArities[i];
+			var cursor = getCursor(impactInterpretations.get(i));
+			while (cursor.move()) {
+				ensureTupleCapacity(tupleCount + 2, objectCount + arity);
+				var tuple = cursor.getKey();
+				for (int j = 0; j < arity; j++) {
+					tupleObjects[objectCount + j] = tuple.get(j);
+				}
+				tupleOffsets[tupleCount] = objectCount;
+				tupleValueHashes[tupleCount] = Objects.hashCode(cursor.getValue());
+				objectCount += arity;
+				tupleCount++;
+			}
+		}
+		interpretationTupleStarts[impactValues.length] = tupleCount;
+		tupleOffsets[tupleCount] = objectCount;
+	}
+
+	private void ensureTupleCapacity(int tupleCapacity, int objectCapacity) {
+		if (tupleCapacity > tupleOffsets.length) {
+			int newLength = Math.max(tupleCapacity, tupleOffsets.length * 2);
+			tupleOffsets = Arrays.copyOf(tupleOffsets, newLength);
+			tupleValueHashes = Arrays.copyOf(tupleValueHashes, newLength);
+		}
+		if (objectCapacity > tupleObjects.length) {
+			tupleObjects = Arrays.copyOf(tupleObjects, Math.max(objectCapacity, tupleObjects.length * 2));
+		}
+	}
+
+	private void constructNextObjectCodesInParallel(ObjectCodeImpl previous, ObjectCodeImpl next) {
+		int tupleCount = interpretationTupleStarts[impactValues.length];
+		if (tupleHashes == null || tupleHashes.length < tupleCount) {
+			tupleHashes = new long[tupleOffsets.length];
+		}
+		// Only the collected tuples and the previous object codes are read by the worker threads.
+		IntStream.range(0, tupleCount).parallel().forEach(k -> tupleHashes[k] = getCollectedTupleHash(k, previous));
+		// Sum the hashes in the same order as the sequential rounds, because ObjectCodeImpl.set replaces
+		// intermediate sums of 0.
+		for (int i = 0; i < impactValues.length; i++) {
+			long[] impactValue = impactValues[i];
+			int end = interpretationTupleStarts[i + 1];
+			for (int k = interpretationTupleStarts[i]; k < end; k++) {
+				int offset = tupleOffsets[k];
+				long tupleHash = tupleHashes[k];
+				for (int j = 0; j < impactValue.length; j++) {
+					addHash(next, tupleObjects[offset + j], impactValue[j], tupleHash);
+				}
+			}
+		}
+	}
+
+	private long getCollectedTupleHash(int tupleIndex, ObjectCode previous) {
+		int offset = tupleOffsets[tupleIndex];
+		int arity = tupleOffsets[tupleIndex + 1] - offset;
+		int valueHash = tupleValueHashes[tupleIndex];
+		return switch (arity) {
+			case 1 -> getTupleHash1(tupleObjects[offset], valueHash, previous);
+			case 2 -> getTupleHash2(tupleObjects[offset], tupleObjects[offset + 1], valueHash, previous);
+			default -> {
+				long result = valueHash;
+				for (int j = 0; j < arity; j++) {
+					result = result * PRIME + previous.get(tupleObjects[offset + j]);
+				}
+				yield result;
+			}
+		};
+	}
+
 	protected void impactCalculation(ObjectCodeImpl previous, ObjectCodeImpl next, long[] impactValue,
 									 Cursor<Tuple, ?> cursor, int arity) {
 		switch (arity) {
@@ -150,20 +282,25 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 									Cursor<Tuple, ?> cursor) {
 
 		Tuple tuple = cursor.getKey();
-		int o = tuple.get(0);
-		Object value = cursor.getValue();
-		long tupleHash = getTupleHash1(tuple, value, previous);
+		int o = tuple instanceof Tuple1 tuple1 ? tuple1.value0() : tuple.get(0);
+		long tupleHash = getTupleHash1(o, Objects.hashCode(cursor.getValue()), previous);
 		addHash(next, o, impactValues[0], tupleHash);
 	}
 
 	private void impactCalculation2(ObjectCodeImpl previous, ObjectCodeImpl next, long[] impactValues,
 									Cursor<Tuple, ?> cursor) {
 		final Tuple tuple = cursor.getKey();
-		final int o1 = tuple.get(0);
-		final int o2 = tuple.get(1);
+		final int o1;
+		final int o2;
+		if (tuple instanceof Tuple2(int value0, int value1)) {
+			o1 = value0;
+			o2 = value1;
+		} else {
+			o1 = tuple.get(0);
+			o2 = tuple.get(1);
+		}
 
-		Object value = cursor.getValue();
-		long tupleHash = getTupleHash2(tuple, value, previous);
+		long tupleHash = getTupleHash2(o1, o2, Objects.hashCode(cursor.getValue()), previous);
 
 		addHash(next, o1, impactValues[0], tupleHash);
 		addHash(next, o2, impactValues[1], tupleHash);
@@ -182,22 +319,30 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 	}
 
 	protected void initializeWithIndividuals(ObjectCodeImpl previous) {
-		for (var entry : individualHashValues.keyValuesView()) {
-			previous.set(entry.getOne(), entry.getTwo());
+		for (int i = 0; i < individualObjects.length; i++) {
+			previous.set(individualObjects[i], individualHashValues[i]);
 		}
 	}
 
 	protected long getTupleHash1(Tuple tuple, Object value, ObjectCode objectCodeImpl) {
-		long result = Objects.hashCode(value);
-		result = result * PRIME + objectCodeImpl.get(tuple.get(0));
+		return getTupleHash1(tuple.get(0), Objects.hashCode(value), objectCodeImpl);
+	}
+
+	static long getTupleHash1(int o, int valueHash, ObjectCode objectCodeImpl) {
+		long result = valueHash;
+		result = result * PRIME + objectCodeImpl.get(o);
 		return result;
 	}
 
 	protected long getTupleHash2(Tuple tuple, Object value, ObjectCode objectCodeImpl) {
-		long result = Objects.hashCode(value);
-		result = result * PRIME + objectCodeImpl.get(tuple.get(0));
-		result = result * PRIME + objectCodeImpl.get(tuple.get(1));
-		if (tuple.get(0) == tuple.get(1)) {
+		return getTupleHash2(tuple.get(0), tuple.get(1), Objects.hashCode(value), objectCodeImpl);
+	}
+
+	static long getTupleHash2(int o1, int o2, int valueHash, ObjectCode objectCodeImpl) {
+		long result = valueHash;
+		result = result * PRIME + objectCodeImpl.get(o1);
+		result = result * PRIME + objectCodeImpl.get(o2);
+		if (o1 == o2) {
 			result += PRIME;
 			result *= PRIME;
 		}
@@ -205,7 +350,11 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 	}
 
 	protected long getTupleHashN(Tuple tuple, Object value, ObjectCode objectCodeImpl) {
-		long result = Objects.hashCode(value);
+		return getTupleHashN(tuple, Objects.hashCode(value), objectCodeImpl);
+	}
+
+	static long getTupleHashN(Tuple tuple, int valueHash, ObjectCode objectCodeImpl) {
+		long result = valueHash;
 		for (int i = 0; i < tuple.getSize(); i++) {
 			result = result * PRIME + objectCodeImpl.get(tuple.get(i));
 		}
@@ -0,0 +1,435 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding.neighborhood;
+
+import org.eclipse.collections.api.factory.primitive.IntIntMaps;
+import org.eclipse.collections.api.factory.primitive.IntLongMaps;
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.statecoding.ObjectCode;
+import tools.refinery.store.statecoding.StateCodeCalculator;
+import tools.refinery.store.statecoding.StateCodeCalculatorFactory;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * A state code calculator that maintains the object codes of every round of {@link NeighborhoodCalculator}
+ * incrementally.
+ * <p>
+ * Because the code of an object in a round is the sum of the hashes of the tuples it appears in, a change of a
+ * tuple only affects the objects within {@code depth} hops of it. The calculator records the changes reported by
+ * {@link tools.refinery.store.model.InterpretationListener} and, upon the next call of {@link #calculateCodes()},
+ * propagates them round by round through the adjacent tuples of the affected objects. Restoring the model is
+ * handled the same way, because the interpretations report the difference between the two states. Only changes
+ * affecting a large fraction of the objects make the calculator fall back to a full recomputation.
+ * </p>
+ * <p>
+ * The returned {@link ObjectCode} is updated in place by later calls of {@link #calculateCodes()}.
+ * </p>
+ * <p>
+ * The codes agree with the ones computed by {@link NeighborhoodCalculator}, except when a tuple hash is {@code 0}
+ * (e.g., an {@code Integer} value of {@code 0} on an object without an individual code). In that case, the
+ * non-incremental calculator depends on the order of the tuples, while this calculator only depends on the state.
+ * </p>
+ */
+public class IncrementalNeighborhoodCalculator implements StateCodeCalculator {
+	private static final long PRIME = AbstractNeighborhoodCalculator.PRIME;
+
+	private final Model model;
+	private final int depth;
+	private final List<Interpretation<?>> nullaryInterpretations = new ArrayList<>();
+	private final List<Interpretation<?>> coded = new ArrayList<>();
+	private final List<Object> defaultValues = new ArrayList<>();
+	private final List<long[]> impactValues = new ArrayList<>();
+	private final MutableIntLongMap individualHashValues = IntLongMaps.mutable.empty();
+	private final Map<ChangeKey, Change> pendingChanges = new LinkedHashMap<>();
+	private final RoundCode oldCode = new RoundCode(true);
+	private final RoundCode newCode = new RoundCode(false);
+	private long[][] rawCodes;
+	private int[] degrees;
+	private int touchedCount;
+	private MutableIntIntMap oldDegrees = IntIntMaps.mutable.empty();
+	private MutableIntLongMap previousOldRawCodes = IntLongMaps.mutable.empty();
+	private MutableIntLongMap currentOldRawCodes = IntLongMaps.mutable.empty();
+	private boolean valid;
+	private final ObjectCodeImpl objectCode = new ObjectCodeImpl();
+	private int objectCodeRound;
+	private long objectCodeSum;
+
+	protected IncrementalNeighborhoodCalculator(Model model, List<? extends Interpretation<?>> interpretations,
+												IndividualsSet individuals, int depth) {
+		this.model = model;
+		this.depth = depth;
+		rawCodes = new long[depth + 2][10];
+		degrees = new int[10];
+		// Use the same random sequence as {@link AbstractNeighborhoodCalculator} to obtain the same codes.
+		@SuppressWarnings("squid:S2245")
+		Random random = new Random(1);
+		individuals.stream().forEach(o -> {
+			long value = random.nextLong();
+			individualHashValues.put(o, adjustCode(value));
+		});
+		for (var interpretation : interpretations) {
+			int arity = interpretation.getSymbol().arity();
+			if (arity == 0) {
+				nullaryInterpretations.add(interpretation);
+			} else {
+				long[] impact = new long[arity];
+				for (int i = 0; i < arity; i++) {
+					impact[i] = random.nextInt();
+				}
+				registerListener(coded.size(), interpretation);
+				coded.add(interpretation);
+				defaultValues.add(interpretation.getSymbol().defaultValue());
+				impactValues.add(impact);
+			}
+		}
+	}
+
+	private <V> void registerListener(int index, Interpretation<V> interpretation) {
+		// Also listen to restorations to update the codes by the difference between the two states.
+		interpretation.addListener((key, fromValue, toValue, restoring) -> recordChange(index, key, fromValue,
+				toValue), true);
+	}
+
+	private void recordChange(int index, Tuple key, Object fromValue, Object toValue) {
+		if (!valid) {
+			return;
+		}
+		var changeKey = new ChangeKey(index, key);
+		var change = pendingChanges.get(changeKey);
+		if (change == null) {
+			pendingChanges.put(changeKey, new Change(fromValue, toValue));
+		} else if (Objects.equals(change.fromValue, toValue)) {
+			// E.g., restoring to the state where the codes were last calculated cancels the changes.
+			pendingChanges.remove(changeKey);
+		} else {
+			change.toValue = toValue;
+		}
+	}
+
+	@Override
+	public StateCoderResult calculateCodes() {
+		model.checkCancelled();
+		if (!valid) {
+			recalculateAll();
+		} else if (!pendingChanges.isEmpty()) {
+			update();
+		}
+		long result = 0;
+		for (var nullaryInterpretation : nullaryInterpretations) {
+			result = result * PRIME + Objects.hashCode(nullaryInterpretation.get(Tuple.of()));
+		}
+		result += objectCodeSum;
+		return new StateCoderResult((int) result, objectCode);
+	}
+
+	private void recalculateAll() {
+		pendingChanges.clear();
+		for (long[] roundCodes : rawCodes) {
+			Arrays.fill(roundCodes, 0);
+		}
+		Arrays.fill(degrees, 0);
+		oldDegrees.clear();
+		for (int round = 1; round < rawCodes.length; round++) {
+			model.checkCancelled();
+			var previous = newCode.atRound(round - 1);
+			for (int i = 0; i < coded.size(); i++) {
+				var interpretation = coded.get(i);
+				long[] impact = impactValues.get(i);
+				int arity = impact.length;
+				var cursor = interpretation.getAll();
+				while (cursor.move()) {
+					var tuple = cursor.getKey();
+					long tupleHash = getTupleHash(tuple, cursor.getValue(), previous);
+					for (int j = 0; j < arity; j++) {
+						int o = tuple.get(j);
+						ensureCapacity(o);
+						rawCodes[round][o] += tupleHash * impact[j];
+						if (round == 1) {
+							degrees[o]++;
+						}
+					}
+				}
+			}
+		}
+		touchedCount = 0;
+		for (int degree : degrees) {
+			if (degree > 0) {
+				touchedCount++;
+			}
+		}
+		valid = true;
+		recalculateObjectCode();
+	}
+
+	private void update() {
+		if (pendingChanges.size() * 2 > touchedCount) {
+			recalculateAll();
+			return;
+		}
+		var changedKeys = new ArrayList<Set<Tuple>>(coded.size());
+		for (int i = 0; i < coded.size(); i++) {
+			changedKeys.add(new HashSet<>());
+		}
+		oldDegrees.clear();
+		for (var entry : pendingChanges.entrySet()) {
+			var key = entry.getKey();
+			var change = entry.getValue();
+			changedKeys.get(key.index()).add(key.tuple());
+			ensureCapacity(key.tuple());
+			int degreeChange = (isDefault(key.index(), change.toValue) ? 0 : 1) -
+					(isDefault(key.index(), change.fromValue) ? 0 : 1);
+			if (degreeChange != 0) {
+				updateDegrees(key.tuple(), degreeChange);
+			}
+		}
+		MutableIntSet changedObjects = IntSets.mutable.empty();
+		previousOldRawCodes.clear();
+		for (int round = 1; round < rawCodes.length; round++) {
+			model.checkCancelled();
+			if (changedObjects.size() * 2 > touchedCount) {
+				recalculateAll();
+				return;
+			}
+			currentOldRawCodes.clear();
+			var previousOld = oldCode.atRound(round - 1);
+			var previousNew = newCode.atRound(round - 1);
+			for (var entry : pendingChanges.entrySet()) {
+				var key = entry.getKey();
+				var change = entry.getValue();
+				long newHash = isDefault(key.index(), change.toValue) ? 0 :
+						getTupleHash(key.tuple(), change.toValue, previousNew);
+				long oldHash = isDefault(key.index(), change.fromValue) ? 0 :
+						getTupleHash(key.tuple(), change.fromValue, previousOld);
+				addRawCodes(round, key.tuple(), impactValues.get(key.index()), newHash - oldHash);
+			}
+			for (var iterator = changedObjects.intIterator(); iterator.hasNext(); ) {
+				int o = iterator.next();
+				for (int i = 0; i < coded.size(); i++) {
+					updateAdjacent(round, i, o, changedObjects, changedKeys.get(i));
+				}
+			}
+			var swap = previousOldRawCodes;
+			previousOldRawCodes = currentOldRawCodes;
+			currentOldRawCodes = swap;
+			changedObjects = IntSets.mutable.empty();
+			var currentOld = oldCode.atRound(round);
+			var currentNew = newCode.atRound(round);
+			for (var iterator = previousOldRawCodes.keysView().intIterator(); iterator.hasNext(); ) {
+				int o = iterator.next();
+				if (currentOld.get(o) != currentNew.get(o)) {
+					changedObjects.add(o);
+				}
+			}
+		}
+		pendingChanges.clear();
+		updateObjectCode();
+		oldDegrees.clear();
+	}
+
+	private void updateAdjacent(int round, int index, int o, MutableIntSet changedObjects, Set<Tuple> changedKeys) {
+		var interpretation = coded.get(index);
+		long[] impact = impactValues.get(index);
+		var previousOld = oldCode.atRound(round - 1);
+		var previousNew = newCode.atRound(round - 1);
+		for (int slot = 0; slot < impact.length; slot++) {
+			var cursor = interpretation.getAdjacent(slot, o);
+			while (cursor.move()) {
+				var tuple = cursor.getKey();
+				if (!isFirstChangedSlot(tuple, slot, changedObjects) || changedKeys.contains(tuple)) {
+					continue;
+				}
+				var value = cursor.getValue();
+				long hashChange = getTupleHash(tuple, value, previousNew) - getTupleHash(tuple, value, previousOld);
+				addRawCodes(round, tuple, impact, hashChange);
+			}
+		}
+	}
+
+	private static boolean isFirstChangedSlot(Tuple tuple, int slot, MutableIntSet changedObjects) {
+		for (int i = 0; i < slot; i++) {
+			if (changedObjects.contains(tuple.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addRawCodes(int round, Tuple tuple, long[] impact, long hashChange) {
+		long[] roundCodes = rawCodes[round];
+		for (int i = 0; i < impact.length; i++) {
+			int o = tuple.get(i);
+			if (!currentOldRawCodes.containsKey(o)) {
+				currentOldRawCodes.put(o, roundCodes[o]);
+			}
+			roundCodes[o] += hashChange * impact[i];
+		}
+	}
+
+	private void updateDegrees(Tuple tuple, int degreeChange) {
+		for (int i = 0; i < tuple.getSize(); i++) {
+			int o = tuple.get(i);
+			int oldDegree = degrees[o];
+			if (!oldDegrees.containsKey(o)) {
+				oldDegrees.put(o, oldDegree);
+			}
+			int newDegree = oldDegree + degreeChange;
+			degrees[o] = newDegree;
+			if (oldDegree == 0 && newDegree > 0) {
+				touchedCount++;
+			} else if (oldDegree > 0 && newDegree == 0) {
+				touchedCount--;
+			}
+		}
+	}
+
+	private boolean isDefault(int index, Object value) {
+		return Objects.equals(value, defaultValues.get(index));
+	}
+
+	private static long getTupleHash(Tuple tuple, Object value, ObjectCode previous) {
+		int valueHash = Objects.hashCode(value);
+		return switch (tuple.getSize()) {
+			case 1 -> AbstractNeighborhoodCalculator.getTupleHash1(tuple.get(0), valueHash, previous);
+			case 2 -> AbstractNeighborhoodCalculator.getTupleHash2(tuple.get(0), tuple.get(1), valueHash, previous);
+			default -> AbstractNeighborhoodCalculator.getTupleHashN(tuple, valueHash, previous);
+		};
+	}
+
+	private void ensureCapacity(Tuple tuple) {
+		for (int i = 0; i < tuple.getSize(); i++) {
+			ensureCapacity(tuple.get(i));
+		}
+	}
+
+	private void ensureCapacity(int object) {
+		if (object < degrees.length) {
+			return;
+		}
+		int newLength = degrees.length * 2;
+		while (object >= newLength) {
+			newLength *= 2;
+		}
+		degrees = Arrays.copyOf(degrees, newLength);
+		for (int round = 0; round < rawCodes.length; round++) {
+			rawCodes[round] = Arrays.copyOf(rawCodes[round], newLength);
+		}
+	}
+
+	private int getLastRound() {
+		// The non-incremental calculator stops early if there are fewer affected objects than rounds.
+		return Math.min(depth, touchedCount) + 1;
+	}
+
+	private void recalculateObjectCode() {
+		objectCodeRound = getLastRound();
+		var lastCode = newCode.atRound(objectCodeRound);
+		objectCode.clear();
+		objectCodeSum = 0;
+		for (int o = 0; o < degrees.length; o++) {
+			long code = lastCode.get(o);
+			if (code != 0) {
+				objectCode.set(o, code);
+				objectCodeSum += code * PRIME;
+			}
+		}
+	}
+
+	private void updateObjectCode() {
+		int lastRound = getLastRound();
+		if (lastRound != objectCodeRound || lastRound != rawCodes.length - 1) {
+			// We only keep track of the objects changed in the final round. If fewer objects are affected than there
+			// are rounds, recalculating is cheap anyway.
+			recalculateObjectCode();
+			return;
+		}
+		var lastCode = newCode.atRound(lastRound);
+		// The raw codes of objects with a changed degree also change, so they are included in previousOldRawCodes.
+		for (var iterator = previousOldRawCodes.keysView().intIterator(); iterator.hasNext(); ) {
+			int o = iterator.next();
+			long oldCode = objectCode.get(o);
+			long code = lastCode.get(o);
+			if (oldCode != code) {
+				objectCodeSum += (code - oldCode) * PRIME;
+				if (code == 0) {
+					objectCode.remove(o);
+				} else {
+					objectCode.set(o, code);
+				}
+			}
+		}
+	}
+
+	private static long adjustCode(long rawCode) {
+		// Matches {@link ObjectCodeImpl#set(int, long)}, which never stores 0 for an affected object.
+		return rawCode == 0 ? 1 : rawCode;
+	}
+
+	private record ChangeKey(int index, Tuple tuple) {
+	}
+
+	private static final class Change {
+		private final Object fromValue;
+		private Object toValue;
+
+		private Change(Object fromValue, Object toValue) {
+			this.fromValue = fromValue;
+			this.toValue = toValue;
+		}
+	}
+
+	private final class RoundCode implements ObjectCode {
+		private final boolean old;
+		private int round;
+
+		private RoundCode(boolean old) {
+			this.old = old;
+		}
+
+		public RoundCode atRound(int round) {
+			this.round = round;
+			return this;
+		}
+
+		@Override
+		public long get(int object) {
+			if (round == 0) {
+				return individualHashValues.get(object);
+			}
+			if (object >= degrees.length) {
+				return 0;
+			}
+			int degree = old ? oldDegrees.getIfAbsent(object, degrees[object]) : degrees[object];
+			if (degree == 0) {
+				return 0;
+			}
+			long rawCode = old ? previousOldRawCodes.getIfAbsent(object, rawCodes[round][object]) :
+					rawCodes[round][object];
+			return adjustCode(rawCode);
+		}
+
+		@Override
+		public int getSize() {
+			return degrees.length;
+		}
+	}
+
+	public static StateCodeCalculatorFactory factory(int depth) {
+		return (model, interpretations, individuals) -> new IncrementalNeighborhoodCalculator(model,
+				interpretations, individuals, depth);
+	}
+
+	public static StateCodeCalculatorFactory factory() {
+		return factory(NeighborhoodCalculator.DEFAULT_DEPTH);
+	}
+}
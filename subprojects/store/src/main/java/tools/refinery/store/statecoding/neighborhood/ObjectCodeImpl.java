@@ -34,9 +34,7 @@ public class ObjectCodeImpl implements ObjectCode {
 
 	public void clear() {
 		effectiveSize = 0;
-		for (int i = 0; i < size; i++) {
-			vector[i] = 0;
-		}
+		Arrays.fill(vector, 0, size, 0);
 	}
 
 	public void ensureSize(int object) {
@@ -71,6 +69,13 @@ public class ObjectCodeImpl implements ObjectCode {
 		vector[object] = valueToPut;
 	}
 
+	public void remove(int object) {
+		if (object < vector.length && vector[object] != 0) {
+			vector[object] = 0;
+			effectiveSize--;
+		}
+	}
+
 	public int getSize() {
 		return this.size;
 	}
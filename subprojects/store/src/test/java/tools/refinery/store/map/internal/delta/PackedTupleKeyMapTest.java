@@ -0,0 +1,251 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.delta;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedTupleKeyMapTest {
+	@Test
+	void putAndGetTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		assertNull(map.put(Tuple.of(1, 2), "a"));
+		assertNull(map.put(Tuple.of(2, 1), "b"));
+		assertEquals("a", map.put(Tuple.of(1, 2), "c"));
+		assertEquals(2, map.size());
+		assertEquals("c", map.get(Tuple.of(1, 2)));
+		assertEquals("b", map.get(Tuple.of(2, 1)));
+		assertNull(map.get(Tuple.of(1, 1)));
+		assertNull(map.get(Tuple.of(1)));
+		assertNull(map.get(1));
+	}
+
+	@Test
+	void negativeKeysTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(-1, 0), "a");
+		map.put(Tuple.of(0, -1), "b");
+		map.put(Tuple.of(-1, -1), "c");
+		assertEquals(Map.of(Tuple.of(-1, 0), "a", Tuple.of(0, -1), "b", Tuple.of(-1, -1), "c"), Map.copyOf(map));
+	}
+
+	@Test
+	void removeTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(1), "a");
+		map.put(Tuple.of(2), "b");
+		assertEquals("a", map.remove(Tuple.of(1)));
+		assertNull(map.remove(Tuple.of(1)));
+		assertNull(map.remove(Tuple.of(3, 4)));
+		assertEquals(1, map.size());
+		assertNull(map.get(Tuple.of(1)));
+		assertEquals("b", map.get(Tuple.of(2)));
+	}
+
+	@Test
+	void nullValueTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		var key = Tuple.of(1);
+		assertThrows(IllegalArgumentException.class, () -> map.put(key, null));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 2, 3})
+	void randomOperationsTest(int arity) {
+		// Few distinct keys make probe sequences collide and removals shift entries back, while many keys resize the
+		// table several times.
+		for (int keyRange : new int[]{4, 64, 2048}) {
+			var map = new PackedTupleKeyMap<Tuple, Integer>();
+			var reference = new LinkedHashMap<Tuple, Integer>();
+			var random = new Random(arity * 31L + keyRange);
+			for (int i = 0; i < 20000; i++) {
+				var key = randomTuple(random, arity, keyRange);
+				if (random.nextInt(3) == 0) {
+					assertEquals(reference.remove(key), map.remove(key));
+				} else {
+					var value = random.nextInt(100);
+					// Re-putting an existing key keeps its position in both maps.
+					assertEquals(reference.put(key, value), map.put(key, value));
+				}
+				assertEquals(reference.size(), map.size());
+				if (i % 1000 == 0) {
+					assertEquals(new ArrayList<>(reference.entrySet()), new ArrayList<>(map.entrySet()));
+				}
+			}
+			for (var entry : reference.entrySet()) {
+				assertEquals(entry.getValue(), map.get(entry.getKey()));
+			}
+			assertEquals(new ArrayList<>(reference.entrySet()), new ArrayList<>(map.entrySet()));
+			map.clear();
+			assertTrue(map.isEmpty());
+			assertFalse(map.entrySet().iterator().hasNext());
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 2, 3})
+	void cursorAndEqualityTest(int arity) {
+		VersionedMap<Tuple, Integer> source = VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0)
+				.strategy(StoreStrategy.DELTA)
+				.build()
+				.createOne()
+				.createMap();
+		var map = new PackedTupleKeyMap<Tuple, Integer>();
+		var reference = new LinkedHashMap<Tuple, Integer>();
+		var random = new Random(arity);
+		for (int i = 0; i < 5000; i++) {
+			var key = randomTuple(random, arity, 256);
+			// Removing most entries in some rounds makes the dense arrays drop removed entries when they are full.
+			if (random.nextInt(i % 1000 < 500 ? 4 : 2) == 0) {
+				assertEquals(reference.remove(key), map.remove(key));
+			} else {
+				var value = random.nextInt(100) + 1;
+				assertEquals(reference.put(key, value), map.put(key, value));
+			}
+			if (i % 250 == 0) {
+				checkCursorAndEquality(reference, map, source);
+			}
+		}
+		checkCursorAndEquality(reference, map, source);
+	}
+
+	private static void checkCursorAndEquality(LinkedHashMap<Tuple, Integer> reference,
+											   PackedTupleKeyMap<Tuple, Integer> map,
+											   VersionedMap<Tuple, Integer> source) {
+		var entries = new ArrayList<Map.Entry<Tuple, Integer>>();
+		var cursor = map.cursor(source);
+		while (cursor.move()) {
+			entries.add(Map.entry(cursor.getKey(), cursor.getValue()));
+		}
+		assertTrue(cursor.isTerminated());
+		assertEquals(new ArrayList<>(reference.entrySet()), entries);
+		assertEquals(reference.hashCode(), map.hashCode());
+		assertEquals(reference, map);
+		assertEquals(map, reference);
+		// Compare with a map with the same contents inserted in the opposite order.
+		var reversed = new PackedTupleKeyMap<Tuple, Integer>();
+		var reversedEntries = new ArrayList<>(reference.entrySet());
+		Collections.reverse(reversedEntries);
+		for (var entry : reversedEntries) {
+			reversed.put(entry.getKey(), entry.getValue());
+		}
+		assertEquals(map.hashCode(), reversed.hashCode());
+		assertEquals(map, reversed);
+		if (!reference.isEmpty()) {
+			var changed = new PackedTupleKeyMap<Tuple, Integer>();
+			changed.putAll(reference);
+			changed.put(reversedEntries.get(0).getKey(), 0);
+			assertNotEquals(map, changed);
+		}
+	}
+
+	@Test
+	void inflatedCursorTest() {
+		var map = new PackedTupleKeyMap<Tuple, Integer>();
+		map.put(Tuple.of(2), 1);
+		map.put(Tuple.of(1, 2), 2);
+		map.remove(Tuple.of(1, 2));
+		var packed = new PackedTupleKeyMap<Tuple, Integer>();
+		packed.put(Tuple.of(2), 1);
+		// Maps that fell back to a LinkedHashMap are still equal to packed maps with the same contents.
+		assertEquals(packed.hashCode(), map.hashCode());
+		assertEquals(packed, map);
+		assertEquals(map, packed);
+	}
+
+	private static Tuple randomTuple(Random random, int arity, int keyRange) {
+		return switch (arity) {
+			case 0 -> Tuple.of();
+			case 1 -> Tuple.of(random.nextInt(keyRange));
+			case 2 -> Tuple.of(random.nextInt(keyRange), random.nextInt(keyRange));
+			case 3 -> Tuple.of(random.nextInt(keyRange), random.nextInt(keyRange), random.nextInt(keyRange));
+			default -> throw new IllegalArgumentException("Unsupported arity " + arity);
+		};
+	}
+
+	@Test
+	void insertionOrderTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		for (int i = 100; i > 0; i--) {
+			map.put(Tuple.of(i), "a");
+		}
+		map.remove(Tuple.of(50));
+		map.put(Tuple.of(50), "b");
+		var expected = new LinkedHashMap<Tuple, String>();
+		for (int i = 100; i > 0; i--) {
+			if (i != 50) {
+				expected.put(Tuple.of(i), "a");
+			}
+		}
+		expected.put(Tuple.of(50), "b");
+		assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.entrySet()));
+	}
+
+	@Test
+	void inflateTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(2), "a");
+		map.put(Tuple.of(1), "b");
+		map.put(Tuple.of(1, 2), "c");
+		// Inflating keeps the insertion order.
+		assertEquals(Map.entry(Tuple.of(2), "a"), map.entrySet().iterator().next());
+		assertEquals(3, map.size());
+		assertEquals("b", map.get(Tuple.of(1)));
+		assertEquals("c", map.get(Tuple.of(1, 2)));
+		assertEquals("b", map.remove(Tuple.of(1)));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	void concurrentModificationTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(1), "a");
+		map.put(Tuple.of(2), "b");
+		var iterator = map.entrySet().iterator();
+		iterator.next();
+		map.put(Tuple.of(3), "c");
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+	}
+
+	@Test
+	void concurrentInflationTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(1), "a");
+		map.put(Tuple.of(2), "b");
+		var iterator = map.entrySet().iterator();
+		iterator.next();
+		map.put(Tuple.of(1, 2), "c");
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+	}
+
+	@Test
+	void updateDuringIterationTest() {
+		var map = new PackedTupleKeyMap<Tuple, String>();
+		map.put(Tuple.of(1), "a");
+		map.put(Tuple.of(2), "b");
+		var iterator = map.entrySet().iterator();
+		iterator.next();
+		// Changing the value of an existing key is not a structural modification.
+		map.put(Tuple.of(2), "c");
+		assertEquals(Map.entry(Tuple.of(2), "c"), iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+}
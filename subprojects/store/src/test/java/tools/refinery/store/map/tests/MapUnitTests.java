@@ -6,11 +6,21 @@
 package tools.refinery.store.map.tests;
 
 import org.junit.jupiter.api.Test;
+import tools.refinery.store.map.Version;
 import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.map.internal.adaptive.VersionedMapStoreAdaptiveImpl;
 import tools.refinery.store.map.internal.state.VersionedMapStoreStateImpl;
 import tools.refinery.store.model.TupleHashProvider;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class MapUnitTests {
@@ -94,4 +104,162 @@ class MapUnitTests {
 		map.restore(version2);
 		assertEquals(0,map.getSize());
 	}
+
+	@Test
+	void packedDeltaTupleTest() {
+		VersionedMapStore<Tuple, Integer> store = VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0)
+				.deltaPacking(true)
+				.build()
+				.createOne();
+		// Integer values are not packed, so they are stored as objects.
+		checkRestoreAndDiff(store, 0, random -> random.nextInt(10) == 0 ? random.nextInt(1000) : random.nextInt(3));
+	}
+
+	@Test
+	void packedDeltaBooleanTupleTest() {
+		VersionedMapStore<Tuple, Boolean> store = VersionedMapStore.<Tuple, Boolean>builder()
+				.defaultValue(false)
+				.deltaPacking(true)
+				.build()
+				.createOne();
+		checkRestoreAndDiff(store, false, Random::nextBoolean);
+	}
+
+	@Test
+	void deltaCheckpointTupleTest() {
+		VersionedMapStore<Tuple, Integer> store = VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0)
+				.deltaCheckpointInterval(3)
+				.build()
+				.createOne();
+		checkRestoreAndDiff(store, 0, random -> random.nextInt(10) == 0 ? random.nextInt(1000) : random.nextInt(3));
+	}
+
+	@Test
+	void adaptiveStrategySwitchTest() {
+		VersionedMapStore<Tuple, Integer> store = VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0)
+				.strategy(StoreStrategy.ADAPTIVE)
+				.stateBasedHashProvider(TupleHashProvider.INSTANCE)
+				.build()
+				.createOne();
+		var adaptiveStore = (VersionedMapStoreAdaptiveImpl<Tuple, Integer>) store;
+		var map = store.createMap();
+		List<Version> versions = new ArrayList<>();
+		List<Map<Tuple, Integer>> contents = new ArrayList<>();
+		var reference = new HashMap<Tuple, Integer>();
+		for (int i = 0; i < 2000; i++) {
+			map.put(Tuple.of(i), 1);
+			reference.put(Tuple.of(i), 1);
+		}
+		// Large maps with few changes per commit are stored state-based.
+		for (int i = 0; i <= 16; i++) {
+			versions.add(map.commit());
+			contents.add(new HashMap<>(reference));
+			map.put(Tuple.of(i), 2);
+			reference.put(Tuple.of(i), 2);
+		}
+		assertEquals(StoreStrategy.STATE, adaptiveStore.getStrategy());
+		// The decision is revised once most entries change between commits.
+		for (int i = 0; i < 16; i++) {
+			for (int j = 0; j < 2000; j++) {
+				map.put(Tuple.of(j), i + 3);
+				reference.put(Tuple.of(j), i + 3);
+			}
+			versions.add(map.commit());
+			contents.add(new HashMap<>(reference));
+		}
+		assertEquals(StoreStrategy.DELTA, adaptiveStore.getStrategy());
+		versions.add(map.commit());
+		contents.add(new HashMap<>(reference));
+		for (int i = 0; i < versions.size(); i++) {
+			map.restore(versions.get(i));
+			assertEquals(contents.get(i).size(), map.getSize());
+			for (var entry : contents.get(i).entrySet()) {
+				assertEquals(entry.getValue(), map.get(entry.getKey()));
+			}
+			var diff = new HashMap<>(contents.get(0));
+			var diffCursor = store.getDiffCursor(versions.get(0), versions.get(i));
+			while (diffCursor.move()) {
+				diff.put(diffCursor.getKey(), diffCursor.getToValue());
+			}
+			assertEquals(contents.get(i), diff);
+		}
+		map.checkIntegrity();
+	}
+
+	@Test
+	void adaptiveDeepHistoryConversionTest() {
+		VersionedMapStore<Tuple, Integer> store = VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0)
+				.strategy(StoreStrategy.ADAPTIVE)
+				.stateBasedHashProvider(TupleHashProvider.INSTANCE)
+				.build()
+				.createOne();
+		var adaptiveStore = (VersionedMapStoreAdaptiveImpl<Tuple, Integer>) store;
+		var map = store.createMap();
+		// A small map with many commits stays delta-based and builds a long chain of transactions.
+		List<Version> versions = new ArrayList<>();
+		for (int i = 0; i < 50000; i++) {
+			map.put(Tuple.of(i % 100), i + 1);
+			versions.add(map.commit());
+		}
+		assertEquals(StoreStrategy.DELTA, adaptiveStore.getStrategy());
+		for (int i = 0; i < 2000; i++) {
+			map.put(Tuple.of(i), 1);
+		}
+		for (int i = 0; i <= 32; i++) {
+			map.put(Tuple.of(i), 2);
+			map.commit();
+		}
+		assertEquals(StoreStrategy.STATE, adaptiveStore.getStrategy());
+		// Converting old versions must neither hash nor compare their whole history.
+		for (int i = versions.size() - 1; i >= versions.size() - 200; i--) {
+			map.restore(versions.get(i));
+			assertEquals(100, map.getSize());
+			assertEquals(i + 1, map.get(Tuple.of(i % 100)));
+		}
+		map.restore(versions.get(0));
+		assertEquals(1, map.getSize());
+		assertEquals(1, map.get(Tuple.of(0)));
+		map.checkIntegrity();
+	}
+
+	private static <V> void checkRestoreAndDiff(VersionedMapStore<Tuple, V> store, V defaultValue,
+												Function<Random, V> valueGenerator) {
+		var map = store.createMap();
+		var random = new Random(1);
+		List<Version> versions = new ArrayList<>();
+		List<Map<Tuple, V>> contents = new ArrayList<>();
+		var reference = new HashMap<Tuple, V>();
+		for (int i = 0; i < 2000; i++) {
+			var key = Tuple.of(random.nextInt(20), random.nextInt(20));
+			var value = valueGenerator.apply(random);
+			map.put(key, value);
+			if (defaultValue.equals(value)) {
+				reference.remove(key);
+			} else {
+				reference.put(key, value);
+			}
+			if (i % 10 == 0) {
+				versions.add(map.commit());
+				contents.add(new HashMap<>(reference));
+			}
+			if (i % 50 == 0) {
+				int index = random.nextInt(versions.size());
+				var diffCursor = map.getDiffCursor(versions.get(index));
+				while (diffCursor.move()) {
+					reference.put(diffCursor.getKey(), diffCursor.getToValue());
+				}
+				reference.values().removeIf(defaultValue::equals);
+				assertEquals(contents.get(index), reference);
+				map.restore(versions.get(index));
+				reference = new HashMap<>(contents.get(index));
+				assertEquals(reference.size(), map.getSize());
+				reference.forEach((entryKey, entryValue) -> assertEquals(entryValue, map.get(entryKey)));
+			}
+		}
+		map.checkIntegrity();
+	}
 }
@@ -47,7 +47,25 @@ public final class FuzzTestCollections {
 			VersionedMapStore.<Integer,String>builder()
 					.deltaTransactionStrategy(VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.SET),
 			// List based transactions
+			VersionedMapStore.<Integer,String>builder()
+					.deltaTransactionStrategy(VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.LIST),
+			// Packed set based transactions
+			VersionedMapStore.<Integer,String>builder()
+					.deltaTransactionStrategy(VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.SET)
+					.deltaPacking(true),
+			// Packed list based transactions
+			VersionedMapStore.<Integer,String>builder()
+					.deltaTransactionStrategy(VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.LIST)
+					.deltaPacking(true),
+			// List based transactions with checkpoints
 			VersionedMapStore.<Integer,String>builder()
 					.deltaTransactionStrategy(VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy.LIST)
+					.deltaCheckpointInterval(10),
+
+			// Adaptive
+			VersionedMapStore.<Integer,String>builder()
+					.strategy(VersionedMapStoreFactoryBuilder.StoreStrategy.ADAPTIVE)
+					.stateBasedHashProvider(MapTestEnvironment.prepareHashProvider(false))
+					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE)
 	};
 }
@@ -0,0 +1,86 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.tests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.model.persistence.ModelBinaryFormat;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelBinaryFormatTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+
+	@ParameterizedTest
+	@ValueSource(booleans = {false, true})
+	void stateAndDiffRoundTripTest(boolean compressed) throws IOException {
+		var store = ModelStore.builder().symbols(person, age, friend).build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var ageInterpretation = model.getInterpretation(age);
+		var friendInterpretation = model.getInterpretation(friend);
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		ageInterpretation.put(Tuple.of(0), 3);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		var state1 = model.commit();
+		personInterpretation.put(Tuple.of(1), false);
+		ageInterpretation.put(Tuple.of(0), 4);
+		ageInterpretation.put(Tuple.of(2), 300);
+		friendInterpretation.put(Tuple.of(0, 1), false);
+		friendInterpretation.put(Tuple.of(2, 0), true);
+		var state2 = model.commit();
+
+		var output = new ByteArrayOutputStream();
+		try (var writer = ModelBinaryFormat.of(store).compressed(compressed).createWriter(output)) {
+			writer.writeState(store.createModelForState(state1));
+			writer.writeDiff(store.getDiffCursor(state1, state2));
+		}
+
+		var readStore = ModelStore.builder().symbols(friend, age, person).build();
+		var readModel = readStore.createEmptyModel();
+		readModel.getInterpretation(person).put(Tuple.of(5), true);
+		try (var reader = ModelBinaryFormat.of(readStore).createReader(
+				new ByteArrayInputStream(output.toByteArray()))) {
+			assertTrue(reader.read(readModel));
+			assertTrue(readModel.getInterpretation(person).get(Tuple.of(1)));
+			assertFalse(readModel.getInterpretation(person).get(Tuple.of(5)));
+			assertEquals(3, readModel.getInterpretation(age).get(Tuple.of(0)));
+			assertTrue(readModel.getInterpretation(friend).get(Tuple.of(0, 1)));
+
+			assertTrue(reader.read(readModel));
+			assertEquals(1, readModel.getInterpretation(person).getSize());
+			assertEquals(4, readModel.getInterpretation(age).get(Tuple.of(0)));
+			assertEquals(300, readModel.getInterpretation(age).get(Tuple.of(2)));
+			assertFalse(readModel.getInterpretation(friend).get(Tuple.of(0, 1)));
+			assertTrue(readModel.getInterpretation(friend).get(Tuple.of(2, 0)));
+
+			assertFalse(reader.read(readModel));
+		}
+	}
+
+	@Test
+	void missingSymbolTest() throws IOException {
+		var store = ModelStore.builder().symbols(person, friend).build();
+		var output = new ByteArrayOutputStream();
+		try (var writer = ModelBinaryFormat.of(store).createWriter(output)) {
+			writer.writeState(store.createEmptyModel());
+		}
+		var format = ModelBinaryFormat.of(ModelStore.builder().symbols(person).build());
+		var input = new ByteArrayInputStream(output.toByteArray());
+		assertThrows(IllegalArgumentException.class, () -> format.createReader(input));
+	}
+}
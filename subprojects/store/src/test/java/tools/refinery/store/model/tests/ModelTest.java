@@ -6,12 +6,26 @@
 package tools.refinery.store.model.tests;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.InterpretationChanges;
+import tools.refinery.store.model.InterpretationListener;
 import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelDiffCursor;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ModelTest {
@@ -109,6 +123,155 @@ class ModelTest {
 	@Test
 	void restoreTest() {
 		var store = ModelStore.builder().symbols(person, friend).build();
+		checkRestore(store);
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void storeStrategyRestoreTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().symbol(person, strategy).symbol(friend).build();
+		checkRestore(store);
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void defaultStoreStrategyRestoreTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(person, friend).build();
+		checkRestore(store);
+	}
+
+	@Test
+	void conflictingStoreStrategyTest() {
+		var builder = ModelStore.builder().symbol(person, StoreStrategy.STATE);
+		assertThrows(IllegalArgumentException.class, () -> builder.symbol(person, StoreStrategy.DELTA));
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void diffCursorTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(person, age, friend).build();
+		var model = store.createEmptyModel();
+		model.getInterpretation(person).put(Tuple.of(0), true);
+		model.getInterpretation(age).put(Tuple.of(0), 3);
+		var state1 = model.commit();
+		model.getInterpretation(person).put(Tuple.of(1), true);
+		model.getInterpretation(age).put(Tuple.of(0), 4);
+		model.getInterpretation(friend).put(Tuple.of(0, 1), true);
+		var state2 = model.commit();
+
+		checkDiff(store.getDiffCursor(state1, state2));
+		model.restore(state1);
+		checkDiff(model.getDiffCursor(state2));
+	}
+
+	private static void checkDiff(ModelDiffCursor diffCursor) {
+		var personCursor = diffCursor.getCursor(person);
+		assertTrue(personCursor.move());
+		assertEquals(Tuple.of(1), personCursor.getKey());
+		assertFalse(personCursor.getFromValue());
+		assertTrue(personCursor.getToValue());
+		assertFalse(personCursor.move());
+		var ageCursor = diffCursor.getCursor(age);
+		assertTrue(ageCursor.move());
+		assertEquals(Tuple.of(0), ageCursor.getKey());
+		assertEquals(3, ageCursor.getFromValue());
+		assertEquals(4, ageCursor.getToValue());
+		assertFalse(ageCursor.move());
+		var friendCursor = diffCursor.getCursor(friend);
+		assertTrue(friendCursor.move());
+		assertEquals(Tuple.of(0, 1), friendCursor.getKey());
+		assertFalse(friendCursor.move());
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void emptyModelDiffCursorTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(person).build();
+		var model = store.createEmptyModel();
+		model.getInterpretation(person).put(Tuple.of(0), true);
+		var state = model.commit();
+
+		var personCursor = store.getDiffCursor(null, state).getCursor(person);
+		assertTrue(personCursor.move());
+		assertEquals(Tuple.of(0), personCursor.getKey());
+		assertFalse(personCursor.getFromValue());
+		assertTrue(personCursor.getToValue());
+		assertFalse(personCursor.move());
+	}
+
+	@Test
+	void putAllBatchTest() {
+		var store = ModelStore.builder().symbols(friend).build();
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		var initialState = model.commit();
+
+		var batchSizes = new ArrayList<Integer>();
+		friendInterpretation.addListener(new InterpretationListener<>() {
+			@Override
+			public void put(Tuple key, Boolean fromValue, Boolean toValue, boolean restoring) {
+				fail("Changes should be delivered in a batch");
+			}
+
+			@Override
+			public void putAll(InterpretationChanges<Boolean> changes, boolean restoring) {
+				batchSizes.add(changes.size());
+			}
+		}, true);
+
+		var newValues = new LinkedHashMap<Tuple, Boolean>();
+		newValues.put(Tuple.of(0, 1), false);
+		newValues.put(Tuple.of(1, 2), true);
+		newValues.put(Tuple.of(2, 0), true);
+		friendInterpretation.putAll(Cursors.of(newValues));
+
+		assertEquals(List.of(3), batchSizes);
+		assertFalse(friendInterpretation.get(Tuple.of(0, 1)));
+		assertTrue(friendInterpretation.get(Tuple.of(1, 2)));
+		assertEquals(2, friendInterpretation.getSize());
+
+		model.restore(initialState);
+
+		assertEquals(List.of(3, 3), batchSizes);
+		assertTrue(friendInterpretation.get(Tuple.of(0, 1)));
+		assertEquals(1, friendInterpretation.getSize());
+	}
+
+	@Test
+	void putAllInvalidKeyTest() {
+		var store = ModelStore.builder().symbols(friend).build();
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+		var batchSizes = new ArrayList<Integer>();
+		friendInterpretation.addListener(new InterpretationListener<>() {
+			@Override
+			public void put(Tuple key, Boolean fromValue, Boolean toValue, boolean restoring) {
+				fail("Changes should be delivered in a batch");
+			}
+
+			@Override
+			public void putAll(InterpretationChanges<Boolean> changes, boolean restoring) {
+				batchSizes.add(changes.size());
+			}
+		}, false);
+
+		var newValues = new LinkedHashMap<Tuple, Boolean>();
+		newValues.put(Tuple.of(0, 2), true);
+		newValues.put(Tuple.of(0), true);
+		var cursor = Cursors.of(newValues);
+		assertThrows(IllegalArgumentException.class, () -> friendInterpretation.putAll(cursor));
+
+		// The batch is rejected before changing the map, so the index and the listeners are still consistent.
+		assertEquals(List.of(), batchSizes);
+		assertFalse(friendInterpretation.get(Tuple.of(0, 2)));
+		assertEquals(1, friendInterpretation.getSize());
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+	}
+
+	private static void checkRestore(ModelStore store) {
 		var model = store.createEmptyModel();
 		var personInterpretation = model.getInterpretation(person);
 		var friendInterpretation = model.getInterpretation(friend);
@@ -159,4 +322,237 @@ class ModelTest {
 		assertTrue(personInterpretation.get(Tuple.of(2)));
 		assertTrue(friendInterpretation.get(Tuple.of(0, 2)));
 	}
+
+	@Test
+	void compositeAdjacencyTest() {
+		var edge = Symbol.of("edge", 3);
+		var store = ModelStore.builder().symbols(edge).build();
+		var model = store.createEmptyModel();
+		var edgeInterpretation = model.getInterpretation(edge);
+		edgeInterpretation.put(Tuple.of(0, 1, 2), true);
+		edgeInterpretation.put(Tuple.of(0, 3, 2), true);
+		edgeInterpretation.put(Tuple.of(0, 1, 3), true);
+		var state = model.commit();
+
+		assertEquals(2, edgeInterpretation.getAdjacentSize(new int[]{2, 0}, new int[]{2, 0}));
+		assertEquals(1, edgeInterpretation.getAdjacentSize(new int[]{0, 1, 2}, new int[]{0, 3, 2}));
+		assertEquals(0, edgeInterpretation.getAdjacentSize(new int[]{0, 1, 2}, new int[]{0, 3, 3}));
+
+		edgeInterpretation.put(Tuple.of(0, 3, 2), false);
+		edgeInterpretation.put(Tuple.of(0, 4, 2), true);
+		var cursor = edgeInterpretation.getAdjacent(new int[]{0, 2}, new int[]{0, 2});
+		var keys = new ArrayList<Tuple>();
+		while (cursor.move()) {
+			keys.add(cursor.getKey());
+		}
+		assertEquals(2, keys.size());
+		assertTrue(keys.contains(Tuple.of(0, 1, 2)));
+		assertTrue(keys.contains(Tuple.of(0, 4, 2)));
+
+		model.restore(state);
+		assertEquals(1, edgeInterpretation.getAdjacentSize(new int[]{1, 2}, new int[]{3, 2}));
+		assertEquals(0, edgeInterpretation.getAdjacentSize(new int[]{1, 2}, new int[]{4, 2}));
+	}
+
+	@Test
+	void compositeAdjacencyLimitTest() {
+		var hyperedge = Symbol.of("hyperedge", 4);
+		var store = ModelStore.builder().symbols(hyperedge).build();
+		var model = store.createEmptyModel();
+		var hyperedgeInterpretation = model.getInterpretation(hyperedge);
+		var tuples = new ArrayList<Tuple>();
+		for (int i = 0; i < 20; i++) {
+			var tuple = Tuple.of(i % 2, i % 3, i % 4, i % 5);
+			hyperedgeInterpretation.put(tuple, true);
+			tuples.add(tuple);
+		}
+		var state = model.commit();
+		// Request more combinations of slots than the number of composite indexes created.
+		var slotCombinations = List.of(new int[]{0, 1}, new int[]{0, 2}, new int[]{0, 3}, new int[]{1, 2},
+				new int[]{1, 3}, new int[]{2, 3}, new int[]{0, 1, 2}, new int[]{1, 2, 3}, new int[]{0, 1});
+		for (var slots : slotCombinations) {
+			checkCompositeAdjacency(hyperedgeInterpretation, tuples, slots);
+		}
+
+		hyperedgeInterpretation.put(tuples.get(0), false);
+		hyperedgeInterpretation.put(Tuple.of(1, 1, 1, 2), true);
+		var changedTuples = new ArrayList<>(tuples.subList(1, tuples.size()));
+		changedTuples.add(Tuple.of(1, 1, 1, 2));
+		for (var slots : slotCombinations) {
+			checkCompositeAdjacency(hyperedgeInterpretation, changedTuples, slots);
+		}
+
+		model.restore(state);
+		for (var slots : slotCombinations) {
+			checkCompositeAdjacency(hyperedgeInterpretation, tuples, slots);
+		}
+	}
+
+	private static void checkCompositeAdjacency(Interpretation<Boolean> interpretation, List<Tuple> tuples,
+												int[] slots) {
+		for (var tuple : tuples) {
+			var nodes = new int[slots.length];
+			for (int i = 0; i < slots.length; i++) {
+				nodes[i] = tuple.get(slots[i]);
+			}
+			var expected = tuples.stream().filter(other -> {
+				for (int i = 0; i < slots.length; i++) {
+					if (other.get(slots[i]) != nodes[i]) {
+						return false;
+					}
+				}
+				return true;
+			}).collect(Collectors.toSet());
+			assertEquals(expected.size(), interpretation.getAdjacentSize(slots, nodes));
+			var cursor = interpretation.getAdjacent(slots, nodes);
+			var keys = new HashSet<Tuple>();
+			while (cursor.move()) {
+				assertTrue(cursor.getValue());
+				keys.add(cursor.getKey());
+			}
+			assertEquals(expected, keys);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void adjacencyAfterRestoreTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(friend).build();
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(0, 2), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		var state1 = model.commit();
+		friendInterpretation.put(Tuple.of(0, 1), false);
+		friendInterpretation.put(Tuple.of(0, 3), true);
+		assertEquals(1, friendInterpretation.getAdjacentSize(new int[]{0, 1}, new int[]{0, 2}));
+		var state2 = model.commit();
+
+		model.restore(state1);
+		assertEquals(2, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(1, friendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(0, friendInterpretation.getAdjacentSize(1, 3));
+		var cursor = friendInterpretation.getAdjacent(1, 2);
+		var keys = new ArrayList<Tuple>();
+		while (cursor.move()) {
+			assertTrue(cursor.getValue());
+			keys.add(cursor.getKey());
+		}
+		assertEquals(2, keys.size());
+		assertTrue(keys.contains(Tuple.of(0, 2)));
+		assertTrue(keys.contains(Tuple.of(1, 2)));
+
+		var otherModel = store.createModelForState(state2);
+		var otherFriendInterpretation = otherModel.getInterpretation(friend);
+		assertEquals(2, otherFriendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(0, otherFriendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(1, otherFriendInterpretation.getAdjacentSize(1, 3));
+		assertEquals(1, otherFriendInterpretation.getAdjacentSize(new int[]{0, 1}, new int[]{0, 2}));
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void lazyAdjacencyIndexTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(friend).build();
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(2, 1), true);
+		// No index exists in this version, because the adjacency was not queried yet.
+		var state1 = model.commit();
+		friendInterpretation.put(Tuple.of(0, 2), true);
+		assertEquals(2, friendInterpretation.getAdjacentSize(0, 0));
+		friendInterpretation.put(Tuple.of(0, 3), true);
+		friendInterpretation.put(Tuple.of(2, 1), false);
+		var state2 = model.commit();
+
+		model.restore(state1);
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(2, friendInterpretation.getAdjacentSize(1, 1));
+		model.restore(state2);
+		assertEquals(3, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(1, friendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(0, friendInterpretation.getAdjacentSize(0, 2));
+		model.restore(state1);
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 2));
+
+		var otherModel = store.createModelForState(state1);
+		var otherFriendInterpretation = otherModel.getInterpretation(friend);
+		assertEquals(2, otherFriendInterpretation.getAdjacentSize(1, 1));
+		otherFriendInterpretation.put(Tuple.of(3, 1), true);
+		assertEquals(3, otherFriendInterpretation.getAdjacentSize(1, 1));
+	}
+
+	@ParameterizedTest
+	@EnumSource(StoreStrategy.class)
+	void replayAdjacencyIndexTest(StoreStrategy strategy) {
+		var store = ModelStore.builder().defaultStoreStrategy(strategy).symbols(friend).build();
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+		// Only the index of slot 0 is committed in this version.
+		var state1 = model.commit();
+		friendInterpretation.put(Tuple.of(0, 2), true);
+		friendInterpretation.put(Tuple.of(2, 1), true);
+		assertEquals(2, friendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(1, friendInterpretation.getAdjacentSize(new int[]{0, 1}, new int[]{2, 1}));
+		var state2 = model.commit();
+
+		// The indexes of slot 1 and of both slots are kept up to date by replaying the changes.
+		model.restore(state1);
+		assertEquals(1, friendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(0, friendInterpretation.getAdjacentSize(new int[]{0, 1}, new int[]{2, 1}));
+		friendInterpretation.put(Tuple.of(3, 1), true);
+		assertEquals(2, friendInterpretation.getAdjacentSize(1, 1));
+		var state3 = model.commit();
+
+		model.restore(state2);
+		assertEquals(2, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(2, friendInterpretation.getAdjacentSize(1, 1));
+		assertEquals(1, friendInterpretation.getAdjacentSize(new int[]{0, 1}, new int[]{2, 1}));
+		model.restore(state3);
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+		assertEquals(0, friendInterpretation.getAdjacentSize(0, 2));
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 3));
+		assertEquals(2, friendInterpretation.getAdjacentSize(1, 1));
+	}
+
+	@Test
+	void releaseModelTest() {
+		var store = ModelStore.builder().symbols(person, friend).build();
+		var model = store.createEmptyModel();
+		model.getInterpretation(person).put(Tuple.of(0), true);
+		model.getInterpretation(friend).put(Tuple.of(0, 1), true);
+		var state1 = model.commit();
+		model.getInterpretation(friend).put(Tuple.of(0, 1), false);
+		model.getInterpretation(friend).put(Tuple.of(1, 0), true);
+		var state2 = model.commit();
+
+		var model1 = store.createModelForState(state1);
+		assertTrue(model1.getInterpretation(friend).get(Tuple.of(0, 1)));
+		store.releaseModel(model1);
+		assertThrows(IllegalArgumentException.class, () -> store.releaseModel(model1));
+
+		var model2 = store.createModelForState(state2);
+		assertSame(model1, model2);
+		assertEquals(state2, model2.getState());
+		assertFalse(model2.hasUncommittedChanges());
+		var friendInterpretation = model2.getInterpretation(friend);
+		assertFalse(friendInterpretation.get(Tuple.of(0, 1)));
+		assertTrue(friendInterpretation.get(Tuple.of(1, 0)));
+		assertEquals(1, friendInterpretation.getAdjacentSize(0, 1));
+
+		store.releaseModel(model2);
+		store.clearReleasedModels();
+		var model3 = store.createModelForState(state1);
+		assertNotSame(model2, model3);
+		assertTrue(model3.getInterpretation(friend).get(Tuple.of(0, 1)));
+
+		var otherStore = ModelStore.builder().symbols(person).build();
+		var otherModel = otherStore.createEmptyModel();
+		assertThrows(IllegalArgumentException.class, () -> store.releaseModel(otherModel));
+	}
 }
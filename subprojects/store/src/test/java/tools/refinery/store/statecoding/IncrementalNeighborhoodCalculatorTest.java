@@ -0,0 +1,119 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.neighborhood.IncrementalNeighborhoodCalculator;
+import tools.refinery.store.statecoding.neighborhood.IndividualsArray;
+import tools.refinery.store.statecoding.neighborhood.NeighborhoodCalculator;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalNeighborhoodCalculatorTest {
+	private static final int NODE_COUNT = 40;
+
+	Symbol<Boolean> person = new Symbol<>("Person", 1, Boolean.class, false);
+	Symbol<Integer> age = new Symbol<>("age", 1, Integer.class, null);
+	Symbol<Boolean> friend = new Symbol<>("friend", 2, Boolean.class, false);
+	Symbol<Boolean> parents = new Symbol<>("parents", 3, Boolean.class, false);
+	Symbol<Integer> population = new Symbol<>("population", 0, Integer.class, 0);
+
+	private Model model;
+	private List<Interpretation<?>> interpretations;
+
+	private void createModel() {
+		var store = ModelStore.builder()
+				.symbols(person, age, friend, parents, population)
+				.build();
+		model = store.createEmptyModel();
+		interpretations = List.of(model.getInterpretation(person), model.getInterpretation(age),
+				model.getInterpretation(friend), model.getInterpretation(parents),
+				model.getInterpretation(population));
+	}
+
+	@Test
+	void singleChangeTest() {
+		createModel();
+		var individuals = new IndividualsArray(new int[]{0});
+		var expected = NeighborhoodCalculator.factory().create(model, interpretations, individuals);
+		var actual = IncrementalNeighborhoodCalculator.factory().create(model, interpretations, individuals);
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		for (int i = 0; i < NODE_COUNT; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			friendInterpretation.put(Tuple.of(i, (i + 1) % NODE_COUNT), true);
+		}
+		assertSameCodes(expected.calculateCodes(), actual.calculateCodes());
+
+		friendInterpretation.put(Tuple.of(3, 17), true);
+		assertSameCodes(expected.calculateCodes(), actual.calculateCodes());
+
+		friendInterpretation.put(Tuple.of(3, 17), false);
+		personInterpretation.put(Tuple.of(5), false);
+		assertSameCodes(expected.calculateCodes(), actual.calculateCodes());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 3, NeighborhoodCalculator.DEFAULT_DEPTH})
+	void randomChangesTest(int depth) {
+		createModel();
+		var individuals = new IndividualsArray(new int[]{0, 3});
+		var expected = NeighborhoodCalculator.factory(depth).create(model, interpretations, individuals);
+		var actual = IncrementalNeighborhoodCalculator.factory(depth).create(model, interpretations,
+				individuals);
+		var random = new Random(depth);
+		var versions = new ArrayList<Version>();
+		for (int step = 0; step < 1000; step++) {
+			switch (random.nextInt(10)) {
+			case 0 -> versions.add(model.commit());
+			case 1 -> {
+				if (!versions.isEmpty()) {
+					model.restore(versions.get(random.nextInt(versions.size())));
+				}
+			}
+			case 2, 3 -> model.getInterpretation(person).put(randomTuple(random, 1), random.nextBoolean());
+			// Values with a hash code of 0 would make the codes depend on the iteration order in the
+			// non-incremental calculator, so we avoid them here.
+			case 4 -> model.getInterpretation(age).put(randomTuple(random, 1),
+					random.nextInt(4) == 0 ? null : 1 + random.nextInt(3));
+			case 5, 6, 7 -> model.getInterpretation(friend).put(randomTuple(random, 2), random.nextInt(3) > 0);
+			case 8 -> model.getInterpretation(parents).put(randomTuple(random, 3), random.nextBoolean());
+			default -> model.getInterpretation(population).put(Tuple.of(), random.nextInt(3));
+			}
+			if (random.nextInt(3) == 0) {
+				assertSameCodes(expected.calculateCodes(), actual.calculateCodes());
+			}
+		}
+	}
+
+	private static Tuple randomTuple(Random random, int arity) {
+		return switch (arity) {
+			case 1 -> Tuple.of(random.nextInt(NODE_COUNT));
+			case 2 -> Tuple.of(random.nextInt(NODE_COUNT), random.nextInt(NODE_COUNT));
+			default -> Tuple.of(random.nextInt(NODE_COUNT), random.nextInt(NODE_COUNT),
+					random.nextInt(NODE_COUNT));
+		};
+	}
+
+	private static void assertSameCodes(StateCoderResult expected, StateCoderResult actual) {
+		assertEquals(expected.modelCode(), actual.modelCode());
+		for (int i = 0; i < NODE_COUNT; i++) {
+			assertEquals(expected.objectCode().get(i), actual.objectCode().get(i));
+		}
+	}
+}
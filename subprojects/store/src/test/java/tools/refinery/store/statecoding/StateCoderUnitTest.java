@@ -11,6 +11,7 @@ import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -192,4 +193,38 @@ class StateCoderUnitTest {
 
 		assertEquals(code1, code3);
 	}
+
+	@Test
+	void parallelTest() {
+		var sequentialModel = createEmptyModel();
+		var parallelModel = ModelStore.builder()
+				.symbols(person, age, friend, parents, population)
+				.with(StateCoderAdapter.builder()
+						.parallelThreshold(0))
+				.build()
+				.createEmptyModel();
+
+		for (var model : List.of(sequentialModel, parallelModel)) {
+			var personI = model.getInterpretation(person);
+			var ageI = model.getInterpretation(age);
+			var friendI = model.getInterpretation(friend);
+			var parentsI = model.getInterpretation(parents);
+			for (int i = 0; i < 10; i++) {
+				personI.put(Tuple.of(i), true);
+				// An age of 0 has a tuple hash of 0 in the first round, which is replaced by 1 before the
+				// hashes of the other tuples of the object are added.
+				ageI.put(Tuple.of(i), i % 3);
+				friendI.put(Tuple.of(i, (i + 1) % 10), true);
+				parentsI.put(Tuple.of(i, (i + 2) % 10, (i + 5) % 10), true);
+			}
+		}
+
+		var sequentialResult = sequentialModel.getAdapter(StateCoderAdapter.class).calculateStateCode();
+		var parallelResult = parallelModel.getAdapter(StateCoderAdapter.class).calculateStateCode();
+
+		assertEquals(sequentialResult.modelCode(), parallelResult.modelCode());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(sequentialResult.objectCode().get(i), parallelResult.objectCode().get(i));
+		}
+	}
 }